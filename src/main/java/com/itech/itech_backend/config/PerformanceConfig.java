@@ -5,9 +5,12 @@ package com.itech.itech_backend.config;
 // import org.springframework.cache.CacheManager;
 // import org.springframework.cache.annotation.EnableCaching;
 // import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -32,72 +35,58 @@ public class PerformanceConfig {
 
     @Bean(name = "asyncExecutor")
     @Profile({"!minimal"})
-    public Executor asyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
-        executor.setMaxPoolSize(50);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("AsyncThread-");
-        executor.initialize();
-        return executor;
+    public Executor asyncExecutor(Environment environment) {
+        return executor(environment, "AsyncThread-", 10, 50, 100);
     }
     
     @Bean(name = "asyncExecutor")
     @Profile({"minimal"})
-    public Executor minimalAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(3);
-        executor.setQueueCapacity(10);
-        executor.setThreadNamePrefix("AsyncThread-");
-        executor.initialize();
-        return executor;
+    public Executor minimalAsyncExecutor(Environment environment) {
+        return executor(environment, "AsyncThread-", 1, 3, 10);
     }
 
     @Bean(name = "backgroundTaskExecutor")
     @Profile({"!minimal"})
-    public Executor backgroundTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(20);
-        executor.setQueueCapacity(50);
-        executor.setThreadNamePrefix("BackgroundTask-");
-        executor.initialize();
-        return executor;
+    public Executor backgroundTaskExecutor(Environment environment) {
+        return executor(environment, "BackgroundTask-", 5, 20, 50);
     }
     
     @Bean(name = "backgroundTaskExecutor")
     @Profile({"minimal"})
-    public Executor minimalBackgroundTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(2);
-        executor.setQueueCapacity(5);
-        executor.setThreadNamePrefix("BackgroundTask-");
-        executor.initialize();
-        return executor;
+    public Executor minimalBackgroundTaskExecutor(Environment environment) {
+        return executor(environment, "BackgroundTask-", 1, 2, 5);
     }
 
     @Bean(name = "scheduledTaskExecutor")
     @Profile({"!minimal"})
-    public Executor scheduledTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(10);
-        executor.setThreadNamePrefix("ScheduledTask-");
-        executor.initialize();
-        return executor;
+    public Executor scheduledTaskExecutor(Environment environment) {
+        return executor(environment, "ScheduledTask-", 2, 5, 10);
     }
     
     @Bean(name = "scheduledTaskExecutor")
     @Profile({"minimal"})
-    public Executor minimalScheduledTaskExecutor() {
+    public Executor minimalScheduledTaskExecutor(Environment environment) {
+        return executor(environment, "ScheduledTask-", 1, 2, 2);
+    }
+
+    /**
+     * A bounded thread pool, or with spring.threads.virtual.enabled=true a
+     * virtual thread per task capped at the pool's maximum size. Callers then
+     * wait for a free slot instead of being queued or rejected.
+     */
+    private static Executor executor(Environment environment, String threadNamePrefix,
+                                     int corePoolSize, int maxPoolSize, int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxPoolSize);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(2);
-        executor.setQueueCapacity(2);
-        executor.setThreadNamePrefix("ScheduledTask-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
         executor.initialize();
         return executor;
     }
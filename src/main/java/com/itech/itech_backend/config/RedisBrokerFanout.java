@@ -0,0 +1,130 @@
+package com.itech.itech_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+
+/**
+ * Cross-node fan-out for the in-process STOMP broker.
+ *
+ * Broker-bound messages on this node (topic broadcasts and unresolved
+ * /user/... sends) are published to a Redis channel; every other node
+ * re-injects them into its own broker channel, where its simple broker and
+ * user-destination resolver deliver to locally connected sessions.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisBrokerFanout implements ChannelInterceptor, MessageListener {
+
+    private static final String ORIGIN_HEADER = "fanoutOrigin";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MessageChannel> brokerChannel;
+    private final String channelName;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RedisBrokerFanout(RedisConnectionFactory connectionFactory,
+                             ObjectMapper objectMapper,
+                             // Resolved lazily: the broker channel is built while this interceptor is registered
+                             @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel,
+                             @Value("${websocket.broker.redis.channel:itech:stomp:broker}")
+                             String channelName) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.objectMapper = objectMapper;
+        this.brokerChannel = brokerChannel;
+        this.channelName = channelName;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channelName));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("Redis STOMP fan-out started on channel {} (node {})", channelName, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    @Override
+    public org.springframework.messaging.Message<?> preSend(org.springframework.messaging.Message<?> message, MessageChannel channel) {
+        if (message.getHeaders().containsKey(ORIGIN_HEADER)) {
+            return message; // already fanned out by another node
+        }
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (type != SimpMessageType.MESSAGE || destination == null) {
+            return message;
+        }
+        // Session-resolved destinations (/queue/x-user{session}) are only meaningful locally
+        if (!destination.startsWith("/topic/") && !destination.startsWith("/user/")) {
+            return message;
+        }
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        try {
+            Object contentType = message.getHeaders().get("contentType");
+            Envelope envelope = new Envelope(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, payload);
+            redisTemplate.convertAndSend(channelName, objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            // Local delivery still proceeds; only remote nodes miss this message
+            log.warn("Failed to fan out STOMP message to {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    @Override
+    public void onMessage(Message redisMessage, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(redisMessage.getBody(), Envelope.class);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.destination());
+            if (envelope.contentType() != null) {
+                accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+            }
+            accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+            brokerChannel.getObject().send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.warn("Failed to deliver fanned-out STOMP message: {}", e.getMessage());
+        }
+    }
+
+    record Envelope(String origin, String destination, String contentType, byte[] payload) {
+    }
+}
@@ -1,21 +1,21 @@
 package com.itech.itech_backend.config;
 
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * General-purpose RestTemplate on the shared outbound connection pool.
+     * Integrations with their own limits should use {@link OutboundHttp#integration} instead.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        
-        // Set timeouts to prevent hanging requests
-        factory.setConnectTimeout(10000); // 10 seconds
-        factory.setReadTimeout(15000);    // 15 seconds
-        
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(OutboundHttp outboundHttp) {
+        return outboundHttp.integration("default", OutboundHttp.Settings.of(20, Duration.ofSeconds(15))).rest();
     }
-}
\ No newline at end of file
+}
@@ -49,6 +49,11 @@ public class SubdomainProperties {
      */
     private List<String> reservedSubdomains = new ArrayList<>();
 
+    /**
+     * Hosts outside the configured subdomains whose routes are kept in memory
+     */
+    private long maxCachedHosts = 10_000;
+
     @Data
     public static class SubdomainConfig {
         private String name;
@@ -1,9 +1,7 @@
 package com.itech.itech_backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class VerificationConfig {
@@ -14,13 +12,6 @@ public class VerificationConfig {
     @Value("${pan.verification.enabled:false}")
     private boolean panVerificationEnabled;
 
-    @Bean
-    public WebClient verificationWebClient() {
-        return WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024)) // 2MB
-                .build();
-    }
-
     /**
      * Check if any verification service is enabled
      */
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -158,6 +159,19 @@ public class SubdomainController {
         }
     }
 
+    /**
+     * Recompile the routing table after subdomain configuration changes
+     */
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadRouting() {
+        subdomainService.reload();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "configuredSubdomains", subdomainProperties.getSubdomains().keySet()
+        ));
+    }
+
     /**
      * Health check endpoint
      */
@@ -140,7 +140,7 @@ public class SubdomainMiddleware implements Filter {
 
         // For web requests, redirect to main domain
         String mainDomain = request.getScheme() + "://" + 
-            subdomainService.getSubdomainContext(request).getHost().replaceAll("^[^.]+\\.", "");
+            context.getHost().replaceAll("^[^.]+\\.", "");
         
         log.info("🔄 Redirecting invalid subdomain to: {}", mainDomain);
         response.sendRedirect(mainDomain);
@@ -154,12 +154,8 @@ public class SubdomainMiddleware implements Filter {
             return;
         }
 
-        // Generate CORS origins for the subdomain
-        String[] origins = subdomainService.generateCorsOrigins(context.getSubdomain());
-        
-        // Add the origins to the response
-        String allowedOrigins = String.join(", ", origins);
-        response.setHeader("Access-Control-Allow-Origin-Subdomain", allowedOrigins);
+        // Add the subdomain's CORS origins, joined when the routing table was compiled
+        response.setHeader("Access-Control-Allow-Origin-Subdomain", context.getCorsOriginsHeader());
         
         // Add subdomain-specific headers if configured
         if (context.getConfig() != null && context.getConfig().getCustomHeaders() != null) {
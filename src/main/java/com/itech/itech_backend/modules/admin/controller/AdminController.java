@@ -2,6 +2,7 @@ package com.itech.itech_backend.modules.admin.controller;
 
 import com.itech.itech_backend.modules.shared.dto.ExcelImportResponseDto;
 import com.itech.itech_backend.modules.vendor.service.VendorProductImportService;
+import com.itech.itech_backend.modules.vendor.service.VendorTaxService;
 
 import com.itech.itech_backend.enums.VendorType;
 import com.itech.itech_backend.modules.core.model.User;
@@ -15,7 +16,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/admin")
@@ -26,6 +30,7 @@ public class AdminController {
 
     private final AdminService adminService;
     private final VendorProductImportService vendorProductImportService;
+    private final VendorTaxService vendorTaxService;
 
     @GetMapping("/vendors")
     public List<Vendors> getAllVendors() {
@@ -71,6 +76,21 @@ public class AdminController {
        }
    }
 
-
+   /**
+    * Verify GST and PAN numbers for a bulk vendor import in one call
+    */
+   @PostMapping("/vendors/tax-verification")
+   @PreAuthorize("hasRole('ADMIN')")
+   public ResponseEntity<Map<String, Object>> verifyVendorTaxNumbers(@RequestBody Map<String, List<String>> request) {
+       List<String> gstNumbers = request.getOrDefault("gstNumbers", List.of());
+       List<String> panNumbers = request.getOrDefault("panNumbers", List.of());
+       log.info("Verifying {} GST and {} PAN numbers for vendor import", gstNumbers.size(), panNumbers.size());
+
+       CompletableFuture<Map<String, Map<String, Object>>> gstResults = vendorTaxService.verifyGstNumbers(gstNumbers);
+       CompletableFuture<Map<String, Map<String, Object>>> panResults = vendorTaxService.verifyPanNumbers(panNumbers);
+       Map<String, Object> response = new HashMap<>();
+       response.put("gst", gstResults.join());
+       response.put("pan", panResults.join());
+       return ResponseEntity.ok(response);
+   }
 }
-
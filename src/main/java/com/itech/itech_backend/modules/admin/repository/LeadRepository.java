@@ -44,5 +44,12 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     
     // Search leads by customer name containing
     List<Lead> findByVendorAndCustomerNameContainingIgnoreCase(Vendors vendor, String customerName);
+
+    @Query("SELECT l.vendor.id, COUNT(l) FROM Lead l WHERE l.vendor IS NOT NULL GROUP BY l.vendor.id")
+    List<Object[]> countLeadsPerVendor();
+
+    // Leads received per vendor since a date (lead matching quotas)
+    @Query("SELECT l.vendor.id, COUNT(l) FROM Lead l WHERE l.inquiryDate >= :since AND l.vendor IS NOT NULL GROUP BY l.vendor.id")
+    List<Object[]> countLeadsPerVendorSince(@Param("since") LocalDateTime since);
 }
 
@@ -5,6 +5,7 @@ import com.itech.itech_backend.modules.shared.model.SystemMetrics;
 import com.itech.itech_backend.modules.shared.repository.ErrorLogRepository;
 import com.itech.itech_backend.modules.shared.repository.SystemMetricsRepository;
 import com.itech.itech_backend.modules.shared.repository.ApiLogRepository;
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -26,21 +28,31 @@ public class CTODashboardService {
     private final SystemMetricsRepository systemMetricsRepository;
     private final ErrorLogRepository errorLogRepository;
     private final ApiLogRepository apiLogRepository;
+    private final ParallelQueries parallelQueries;
 
     public Map<String, Object> getDashboardMetrics() {
         Map<String, Object> metrics = new HashMap<>();
         
-        // System Health
-        metrics.put("systemHealth", getSystemHealth());
-        
-        // Error Statistics
-        metrics.put("errorStats", getErrorStatistics());
-        
-        // API Performance
-        metrics.put("apiStats", getApiStatistics());
-        
-        // Database Stats
-        metrics.put("dbStats", getDatabaseStatistics());
+        // The database-backed sections are independent and load in parallel
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<Map<String, Object>> errorStats = scope.fork(this::getErrorStatistics);
+            Supplier<Map<String, Object>> apiStats = scope.fork(this::getApiStatistics);
+            Supplier<Map<String, Object>> dbStats = scope.fork(this::getDatabaseStatistics);
+            
+            // System Health
+            metrics.put("systemHealth", getSystemHealth());
+            
+            scope.join();
+            
+            // Error Statistics
+            metrics.put("errorStats", errorStats.get());
+            
+            // API Performance
+            metrics.put("apiStats", apiStats.get());
+            
+            // Database Stats
+            metrics.put("dbStats", dbStats.get());
+        }
         
         return metrics;
     }
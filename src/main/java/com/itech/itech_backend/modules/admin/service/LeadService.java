@@ -5,6 +5,7 @@ import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.enums.LeadStatus;
 import com.itech.itech_backend.enums.LeadPriority;
 import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
 import com.itech.itech_backend.modules.vendor.service.VendorsService;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,10 +26,17 @@ public class LeadService {
     @Autowired
     private VendorsService vendorsService;
 
+    @Autowired
+    private VendorRankingEngine vendorRankingEngine;
+
     public Lead createLead(Lead lead) {
         lead.setInquiryDate(LocalDateTime.now());
         lead.setLastUpdated(LocalDateTime.now());
-        return leadRepository.save(lead);
+        Lead saved = leadRepository.save(lead);
+        if (saved.getVendor() != null) {
+            vendorRankingEngine.recordLeads(saved.getVendor().getId(), 1);
+        }
+        return saved;
     }
 
     public List<Lead> getLeadsByVendor(Long vendorId) {
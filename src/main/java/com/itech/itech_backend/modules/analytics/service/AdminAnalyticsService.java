@@ -7,13 +7,17 @@ import com.itech.itech_backend.modules.buyer.repository.InquiryRepository;
 import com.itech.itech_backend.modules.buyer.repository.QuoteRepository;
 import com.itech.itech_backend.modules.core.repository.KycDocumentRepository;
 import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
+import com.itech.itech_backend.enums.KycStatus;
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 public class AdminAnalyticsService {
@@ -39,39 +43,50 @@ public class AdminAnalyticsService {
     @Autowired
     private SupportTicketRepository supportTicketRepository;
 
+    @Autowired
+    private ParallelQueries parallelQueries;
+
+    /**
+     * Platform-wide counters; the independent counts run in parallel
+     */
     public Map<String, Object> getDashboardStats() {
+        Map<String, Supplier<?>> counts = new LinkedHashMap<>();
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            // User Statistics
+            counts.put("totalUsers", scope.fork(userRepository::count));
+            counts.put("activeUsers", scope.fork(userRepository::countByIsActiveTrue));
+            counts.put("verifiedUsers", scope.fork(userRepository::countByIsVerifiedTrue));
+
+            // Vendor Statistics
+            counts.put("totalVendors", scope.fork(vendorsRepository::count));
+            counts.put("verifiedVendors", scope.fork(vendorsRepository::countByVerifiedTrue));
+            counts.put("kycApprovedVendors", scope.fork(vendorsRepository::countByKycApprovedTrue));
+            counts.put("pendingVendorApprovals", scope.fork(vendorsRepository::countByKycSubmittedTrueAndKycApprovedFalse));
+
+            // Product Statistics
+            counts.put("totalProducts", scope.fork(productRepository::count));
+            counts.put("activeProducts", scope.fork(productRepository::countByIsActiveTrue));
+            counts.put("approvedProducts", scope.fork(productRepository::countByIsApprovedTrue));
+            counts.put("inStockProducts", scope.fork(productRepository::countByInStockTrue));
+
+            // Communication Statistics
+            counts.put("totalInquiries", scope.fork(inquiryRepository::count));
+            counts.put("totalQuotes", scope.fork(quoteRepository::count));
+            counts.put("acceptedQuotes", scope.fork(quoteRepository::countByIsAcceptedTrue));
+
+            // KYC Statistics
+            counts.put("pendingKycDocuments", scope.fork(() -> kycDocumentRepository.countByStatus(KycStatus.PENDING)));
+            counts.put("approvedKycDocuments", scope.fork(() -> kycDocumentRepository.countByStatus(KycStatus.APPROVED)));
+
+            // Support Statistics
+            counts.put("openTickets", scope.fork(() -> supportTicketRepository.countByStatus("OPEN")));
+            counts.put("resolvedTickets", scope.fork(() -> supportTicketRepository.countByStatus("RESOLVED")));
+
+            scope.join();
+        }
+
         Map<String, Object> stats = new HashMap<>();
-        
-        // User Statistics
-        stats.put("totalUsers", userRepository.count());
-        stats.put("activeUsers", userRepository.countByIsActiveTrue());
-        stats.put("verifiedUsers", userRepository.countByIsVerifiedTrue());
-        
-        // Vendor Statistics
-        stats.put("totalVendors", vendorsRepository.count());
-        stats.put("verifiedVendors", vendorsRepository.countByVerifiedTrue());
-        stats.put("kycApprovedVendors", vendorsRepository.countByKycApprovedTrue());
-        stats.put("pendingVendorApprovals", vendorsRepository.countByKycSubmittedTrueAndKycApprovedFalse());
-        
-        // Product Statistics
-        stats.put("totalProducts", productRepository.count());
-        stats.put("activeProducts", productRepository.countByIsActiveTrue());
-        stats.put("approvedProducts", productRepository.countByIsApprovedTrue());
-        stats.put("inStockProducts", productRepository.countByInStockTrue());
-        
-        // Communication Statistics
-        stats.put("totalInquiries", inquiryRepository.count());
-        stats.put("totalQuotes", quoteRepository.count());
-        stats.put("acceptedQuotes", quoteRepository.findByIsAcceptedTrue().size());
-        
-        // KYC Statistics
-        stats.put("pendingKycDocuments", kycDocumentRepository.findByStatus(com.itech.itech_backend.enums.KycStatus.PENDING).size());
-        stats.put("approvedKycDocuments", kycDocumentRepository.findByStatus(com.itech.itech_backend.enums.KycStatus.APPROVED).size());
-        
-        // Support Statistics
-        stats.put("openTickets", supportTicketRepository.countByStatus("OPEN"));
-        stats.put("resolvedTickets", supportTicketRepository.countByStatus("RESOLVED"));
-        
+        counts.forEach((key, count) -> stats.put(key, count.get()));
         return stats;
     }
 
@@ -43,6 +43,9 @@ public class BuyerLeadDto {
              message = "Source must be a valid lead source")
     private String source;
 
+    @Size(max = 100, message = "City cannot exceed 100 characters")
+    private String city;
+
     // Additional fields for enhanced lead capture
     private String interestedCategories;
     private String priceRange;
@@ -47,6 +47,9 @@ public interface BuyerLeadRepository extends JpaRepository<BuyerLead, Long> {
     @Query("SELECT bl FROM BuyerLead bl WHERE bl.leadScore >= :minScore AND bl.status = 'NEW' ORDER BY bl.leadScore DESC")
     List<BuyerLead> findHighPriorityLeads(@Param("minScore") Integer minScore);
 
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.leadScore >= :minScore AND bl.status = 'NEW' ORDER BY bl.leadScore DESC")
+    List<BuyerLead> findHighPriorityLeads(@Param("minScore") Integer minScore, Pageable pageable);
+
     // Find recent leads
     @Query("SELECT bl FROM BuyerLead bl WHERE bl.createdAt >= :since ORDER BY bl.createdAt DESC")
     List<BuyerLead> findRecentLeads(@Param("since") LocalDateTime since);
@@ -94,6 +97,10 @@ public interface BuyerLeadRepository extends JpaRepository<BuyerLead, Long> {
     @Query("SELECT bl FROM BuyerLead bl WHERE bl.id != :excludeId AND (bl.searchQuery LIKE %:searchPattern% OR bl.interestedCategories LIKE %:categoryPattern%) ORDER BY bl.leadScore DESC")
     List<BuyerLead> findSimilarLeads(@Param("excludeId") Long excludeId, @Param("searchPattern") String searchPattern, @Param("categoryPattern") String categoryPattern);
 
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.id != :excludeId AND (bl.searchQuery LIKE %:searchPattern% OR bl.interestedCategories LIKE %:categoryPattern%) ORDER BY bl.leadScore DESC")
+    List<BuyerLead> findSimilarLeads(@Param("excludeId") Long excludeId, @Param("searchPattern") String searchPattern,
+                                     @Param("categoryPattern") String categoryPattern, Pageable pageable);
+
     // Custom search with multiple filters
     @Query("SELECT bl FROM BuyerLead bl WHERE " +
            "(:status IS NULL OR bl.status = :status) AND " +
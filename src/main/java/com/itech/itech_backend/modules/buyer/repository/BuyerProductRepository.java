@@ -149,5 +149,11 @@ public interface BuyerProductRepository extends JpaRepository<Product, Long>, Jp
     
     @Query("SELECT p FROM BuyerProduct p WHERE p.isActive = true AND p.isApproved = true ORDER BY p.orderCount DESC LIMIT :limit")
     List<Product> findPopularProducts(@Param("limit") int limit);
+
+    // Lead matching index: which categories and micro-categories each vendor actively sells in
+    @Query("SELECT DISTINCT p.vendor.id, c.name, mc.name, mcc.name FROM BuyerProduct p " +
+           "LEFT JOIN p.category c LEFT JOIN p.microCategory mc LEFT JOIN mc.subCategory sc LEFT JOIN sc.category mcc " +
+           "WHERE p.isActive = true")
+    List<Object[]> findVendorCategoryCoverage();
 }
 
@@ -17,6 +17,11 @@ import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Orders and item revenue per vendor (ranking bootstrap)
+    @Query("SELECT oi.vendor.id, COUNT(DISTINCT oi.order.id), SUM(oi.totalPrice) FROM BuyerOrderItem oi " +
+           "WHERE oi.vendor IS NOT NULL GROUP BY oi.vendor.id")
+    List<Object[]> aggregateOrdersPerVendor();
+
     @Query("SELECT COUNT(DISTINCT o) FROM BuyerOrder o JOIN o.items oi WHERE oi.vendor.id = :vendorId")
     long countByVendorId(@Param("vendorId") Long vendorId);
     
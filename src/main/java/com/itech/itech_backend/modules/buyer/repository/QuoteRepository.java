@@ -29,6 +29,7 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
     List<Quote> findByIsAcceptedTrueOrderByCreatedAtDesc();
     List<Quote> findByIsAcceptedTrue();
     List<Quote> findByIsAcceptedFalse();
+    long countByIsAcceptedTrue();
     
     @Query("SELECT q FROM Quote q WHERE q.vendor.id = :vendorId AND q.isAccepted = true")
     List<Quote> findAcceptedQuotesByVendor(@Param("vendorId") Long vendorId);
@@ -42,5 +43,9 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
     
     @Query("SELECT COUNT(q) FROM Quote q WHERE q.vendor.id = :vendorId AND q.isAccepted = true")
     long countAcceptedQuotesByVendorIdAlternate(@Param("vendorId") Long vendorId);
+
+    // Quote and inquiry timestamps per vendor, for response-time totals (ranking bootstrap)
+    @Query("SELECT q.vendor.id, i.createdAt, q.createdAt FROM Quote q JOIN q.inquiry i WHERE q.vendor IS NOT NULL")
+    List<Object[]> findResponseTimes();
 }
 
@@ -47,5 +47,9 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     @Query("SELECT r.rating, COUNT(r) FROM BuyerReview r WHERE r.vendor.id = :vendorId AND r.isApproved = true GROUP BY r.rating ORDER BY r.rating")
     List<Object[]> getRatingDistributionByVendorId(@Param("vendorId") Long vendorId);
+
+    // Approved review count and rating total per vendor (ranking bootstrap)
+    @Query("SELECT r.vendor.id, COUNT(r), SUM(r.rating) FROM BuyerReview r WHERE r.vendor IS NOT NULL AND r.isApproved = true GROUP BY r.vendor.id")
+    List<Object[]> aggregateApprovedRatingsPerVendor();
 }
 
@@ -9,6 +9,7 @@ import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ import java.util.stream.Collectors;
 public class BuyerLeadService {
 
     private final BuyerLeadRepository buyerLeadRepository;
+    private final LeadMatchingEngine leadMatchingEngine;
 
     @Transactional
     public LeadResponseDto createLead(BuyerLeadDto leadDto, String ipAddress, String userAgent) {
@@ -36,7 +38,9 @@ public class BuyerLeadService {
                 .phone(leadDto.getPhone())
                 .company(leadDto.getCompany())
                 .searchQuery(leadDto.getProductInterest())
-                .interestedCategories(leadDto.getProductInterest())
+                .interestedCategories(leadDto.getInterestedCategories() != null
+                        ? leadDto.getInterestedCategories() : leadDto.getProductInterest())
+                .city(leadDto.getCity())
                 .message(leadDto.getMessage())
                 .urgency(leadDto.getUrgency() != null ? BuyerLead.LeadUrgency.valueOf(leadDto.getUrgency()) : BuyerLead.LeadUrgency.MEDIUM)
                 .source(leadDto.getSource() != null ? BuyerLead.LeadSource.valueOf(leadDto.getSource()) : BuyerLead.LeadSource.WEBSITE)
@@ -55,6 +59,9 @@ public class BuyerLeadService {
         BuyerLead savedLead = buyerLeadRepository.save(lead);
         log.info("Buyer lead created successfully with ID: {}", savedLead.getId());
 
+        // Route to matching vendors in the same transaction; the admin screen still handles unmatched leads
+        leadMatchingEngine.assign(savedLead);
+
         return convertToResponseDto(savedLead);
     }
 
@@ -127,9 +134,8 @@ public class BuyerLeadService {
     }
 
     public List<LeadResponseDto> getHighPriorityLeads(int minScore, int limit) {
-        List<BuyerLead> leads = buyerLeadRepository.findHighPriorityLeads(minScore);
+        List<BuyerLead> leads = buyerLeadRepository.findHighPriorityLeads(minScore, PageRequest.of(0, limit));
         return leads.stream()
-                .limit(limit)
                 .map(this::convertToResponseDto)
                 .collect(Collectors.toList());
     }
@@ -294,8 +300,9 @@ public class BuyerLeadService {
         List<BuyerLead> similarLeads = buyerLeadRepository.findSimilarLeads(
                 id, 
                 targetLead.getSearchQuery() != null ? targetLead.getSearchQuery() : "", 
-                targetLead.getInterestedCategories() != null ? targetLead.getInterestedCategories() : ""
-        ).stream().limit(limit).collect(Collectors.toList());
+                targetLead.getInterestedCategories() != null ? targetLead.getInterestedCategories() : "",
+                PageRequest.of(0, limit)
+        );
 
         return similarLeads.stream().map(this::convertToResponseDto).collect(Collectors.toList());
     }
@@ -462,10 +469,8 @@ public class BuyerLeadService {
                     .collect(Collectors.toList());
         } catch (Exception e) {
             // Fallback to high-scoring leads
-            leads = buyerLeadRepository.findAll().stream()
-                    .sorted((a, b) -> Integer.compare(b.getLeadScore(), a.getLeadScore()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            leads = buyerLeadRepository.findAll(
+                    PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "leadScore"))).getContent();
         }
         return leads.stream().map(this::convertToResponseDto).collect(Collectors.toList());
     }
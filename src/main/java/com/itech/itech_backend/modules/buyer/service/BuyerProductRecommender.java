@@ -0,0 +1,104 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.product.service.CoPurchaseModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.Objects;
+
+/**
+ * Similar-product model for the buyer marketplace catalog.
+ *
+ * Three kinds of basket feed one {@link CoPurchaseModel}: orders, open
+ * carts and each buyer's wishlist. A purchase counts fully and the weaker
+ * signals count for less. Categories are keyed by category id.
+ */
+@Service
+@Slf4j
+public class BuyerProductRecommender {
+
+    private static final String CATALOG_SQL =
+            "SELECT id, category_id FROM buyer_products WHERE is_active = TRUE AND is_approved = TRUE";
+    private static final String ORDER_LINES_SQL =
+            "SELECT order_id, product_id FROM buyer_order_items ORDER BY order_id";
+    private static final String CART_LINES_SQL =
+            "SELECT cart_id, product_id FROM cart_item ORDER BY cart_id";
+    private static final String WISHLIST_SQL =
+            "SELECT user_id, product_id FROM wishlist ORDER BY user_id";
+    private static final String WATERMARK_SQL =
+            "SELECT (SELECT COALESCE(MAX(id), 0) + COUNT(*) FROM buyer_order_items) "
+            + "+ (SELECT COALESCE(MAX(id), 0) + COUNT(*) FROM cart_item) "
+            + "+ (SELECT COALESCE(MAX(id), 0) + COUNT(*) FROM wishlist) "
+            + "+ (SELECT COUNT(*) FROM buyer_products WHERE is_active = TRUE AND is_approved = TRUE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final int maxBasketSize;
+    private final float cartWeight;
+    private final float wishlistWeight;
+    private volatile CoPurchaseModel model = CoPurchaseModel.EMPTY;
+    private volatile Long builtFrom;
+
+    public BuyerProductRecommender(DataSource dataSource,
+                                   @Value("${recommendation.top-k:20}") int topK,
+                                   @Value("${recommendation.max-basket-size:50}") int maxBasketSize,
+                                   @Value("${recommendation.fetch-size:10000}") int fetchSize,
+                                   @Value("${recommendation.buyer.cart-weight:0.5}") float cartWeight,
+                                   @Value("${recommendation.buyer.wishlist-weight:0.25}") float wishlistWeight) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.topK = topK;
+        this.maxBasketSize = maxBasketSize;
+        this.cartWeight = cartWeight;
+        this.wishlistWeight = wishlistWeight;
+    }
+
+    /**
+     * Co-purchased products first, then the same category by popularity
+     */
+    public long[] similar(Long productId, int limit) {
+        return model.related(productId, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.rebuild-interval-ms:3600000}",
+               initialDelayString = "${recommendation.initial-delay-ms:60000}")
+    public void refresh() {
+        // Additions raise a max id and removals lower a count, so the sum moves with the inputs
+        Long watermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+        if (Objects.equals(watermark, builtFrom)) {
+            return;
+        }
+        rebuild();
+        builtFrom = watermark;
+    }
+
+    public CoPurchaseModel rebuild() {
+        long started = System.nanoTime();
+        CoPurchaseModel.Builder builder = CoPurchaseModel.builder(maxBasketSize, topK);
+
+        jdbcTemplate.query(CATALOG_SQL, rs -> {
+            long categoryId = rs.getLong(2);
+            builder.catalog(rs.getLong(1), rs.wasNull() ? null : Long.toString(categoryId));
+        });
+        stream(builder, ORDER_LINES_SQL, 1f);
+        stream(builder, CART_LINES_SQL, cartWeight);
+        stream(builder, WISHLIST_SQL, wishlistWeight);
+
+        CoPurchaseModel built = builder.build();
+        model = built;
+        log.info("Rebuilt buyer product recommendations: {} products, {} neighbour links in {} ms",
+                built.productCount(), built.pairCount(), (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+
+    private void stream(CoPurchaseModel.Builder builder, String sql, float weight) {
+        jdbcTemplate.query(sql, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), weight);
+        });
+        builder.endSource();
+    }
+}
@@ -0,0 +1,357 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import com.itech.itech_backend.modules.vendor.repository.VendorPackageTransactionRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Routes new buyer leads to a ranked shortlist of vendors.
+ *
+ * Vendors are indexed in memory by the categories and micro-categories of
+ * their active products, alongside their city and a tier weight and monthly
+ * lead allowance taken from their active package. The index is rebuilt
+ * periodically from projection queries, so matching a lead touches no tables;
+ * the resulting assignments are written as one JDBC batch into {@code leads}.
+ */
+@Service
+@Slf4j
+public class LeadMatchingEngine {
+
+    private static final int MICRO_CATEGORY_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int CITY_WEIGHT = 2;
+
+    private static final String INSERT_ASSIGNMENT =
+            "INSERT INTO leads (customer_name, customer_email, customer_phone, customer_company, vendor_id, " +
+            "status, priority, estimated_value, inquiry_message, product_interest, notes, inquiry_date, last_updated) " +
+            "VALUES (?, ?, ?, ?, ?, 'NEW', ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Immutable snapshot; vendors are addressed by ordinal into the arrays.
+     * Posting lists hold ordinals in ascending order.
+     */
+    private record Index(long[] vendorIds,
+                         int[] tierWeight,
+                         int[] monthlyQuota,
+                         AtomicIntegerArray assignedThisMonth,
+                         Map<String, int[]> byCategory,
+                         Map<String, int[]> byMicroCategory,
+                         String[] cityOf,
+                         LocalDate month) {
+    }
+
+    private final BuyerProductRepository productRepository;
+    private final VendorsRepository vendorsRepository;
+    private final VendorPackageTransactionRepository packageTransactionRepository;
+    private final LeadRepository leadRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final VendorRankingEngine vendorRankingEngine;
+
+    @Value("${leads.matching.shortlist-size:5}")
+    private int shortlistSize;
+
+    // Allowance for vendors without an active package, or whose package sets no maxLeads
+    @Value("${leads.matching.default-monthly-quota:25}")
+    private int defaultMonthlyQuota;
+
+    private volatile Index index;
+
+    public LeadMatchingEngine(BuyerProductRepository productRepository,
+                              VendorsRepository vendorsRepository,
+                              VendorPackageTransactionRepository packageTransactionRepository,
+                              LeadRepository leadRepository,
+                              JdbcTemplate jdbcTemplate,
+                              VendorRankingEngine vendorRankingEngine) {
+        this.productRepository = productRepository;
+        this.vendorsRepository = vendorsRepository;
+        this.packageTransactionRepository = packageTransactionRepository;
+        this.leadRepository = leadRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.vendorRankingEngine = vendorRankingEngine;
+    }
+
+    /**
+     * Matches the lead and writes one admin lead row per shortlisted vendor.
+     * Runs inside the caller's transaction; quota taken by a rolled-back
+     * assignment is handed back when the transaction completes.
+     *
+     * @return ids of the vendors the lead was assigned to, best match first
+     */
+    public List<Long> assign(BuyerLead lead) {
+        Index current = currentIndex();
+        int[] reserved = reserve(current, shortlist(current, lead));
+        if (reserved.length == 0) {
+            return Collections.emptyList();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        String priority = lead.getUrgency() != null ? lead.getUrgency().name() : "MEDIUM";
+        String message = truncate(lead.getMessage(), 500);
+        String interest = truncate(lead.getSearchQuery(), 255);
+        String notes = "Auto-matched from buyer lead #" + lead.getId();
+
+        List<Object[]> rows = new ArrayList<>(reserved.length);
+        List<Long> vendorIds = new ArrayList<>(reserved.length);
+        for (int ordinal : reserved) {
+            long vendorId = current.vendorIds()[ordinal];
+            vendorIds.add(vendorId);
+            rows.add(new Object[]{lead.getName(), lead.getEmail(), lead.getPhone(), lead.getCompany(), vendorId,
+                    priority, lead.getPriceRangeMax(), message, interest, notes, timestamp, timestamp});
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(current, reserved);
+                    }
+                }
+            });
+            jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, rows);
+        } else {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, rows);
+            } catch (RuntimeException e) {
+                release(current, reserved);
+                throw e;
+            }
+        }
+        for (int ordinal : reserved) {
+            vendorRankingEngine.recordLeads(current.vendorIds()[ordinal], 1);
+        }
+        log.info("Buyer lead {} matched to vendors {}", lead.getId(), vendorIds);
+        return vendorIds;
+    }
+
+    /**
+     * Takes one unit of monthly quota from each shortlisted vendor. The check and
+     * the increment are a single compare-and-set, so concurrent leads cannot push
+     * a vendor past its allowance; vendors that filled up meanwhile are dropped.
+     */
+    private static int[] reserve(Index current, int[] shortlist) {
+        int[] reserved = new int[shortlist.length];
+        int count = 0;
+        for (int ordinal : shortlist) {
+            int quota = current.monthlyQuota()[ordinal];
+            while (true) {
+                int assigned = current.assignedThisMonth().get(ordinal);
+                if (assigned >= quota) {
+                    break;
+                }
+                if (current.assignedThisMonth().compareAndSet(ordinal, assigned, assigned + 1)) {
+                    reserved[count++] = ordinal;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(reserved, count);
+    }
+
+    private static void release(Index current, int[] reserved) {
+        for (int ordinal : reserved) {
+            current.assignedThisMonth().decrementAndGet(ordinal);
+        }
+    }
+
+    /**
+     * Ranked vendor ids for a lead without writing anything
+     */
+    public List<Long> match(BuyerLead lead) {
+        Index current = currentIndex();
+        List<Long> vendorIds = new ArrayList<>();
+        for (int ordinal : shortlist(current, lead)) {
+            vendorIds.add(current.vendorIds()[ordinal]);
+        }
+        return vendorIds;
+    }
+
+    private int[] shortlist(Index current, BuyerLead lead) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTerms(terms, lead.getInterestedCategories());
+        addTerms(terms, lead.getSearchQuery());
+        if (terms.isEmpty() || current.vendorIds().length == 0) {
+            return new int[0];
+        }
+
+        // Only vendors that sell in a requested category are candidates; city and tier break ties
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (String term : terms) {
+            addScore(scores, current.byMicroCategory().get(term), MICRO_CATEGORY_WEIGHT);
+            addScore(scores, current.byCategory().get(term), CATEGORY_WEIGHT);
+        }
+        if (scores.isEmpty()) {
+            return new int[0];
+        }
+        String city = normalize(lead.getCity());
+
+        // Min-heap of the best shortlistSize candidates; fewer leads this month wins a tie
+        Comparator<int[]> order = Comparator.<int[]>comparingInt(c -> c[1])
+                .thenComparing(Comparator.<int[]>comparingInt(c -> current.assignedThisMonth().get(c[0])).reversed());
+        PriorityQueue<int[]> best = new PriorityQueue<>(shortlistSize + 1, order);
+        for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+            int ordinal = entry.getKey();
+            if (current.assignedThisMonth().get(ordinal) >= current.monthlyQuota()[ordinal]) {
+                continue;
+            }
+            int score = entry.getValue() + current.tierWeight()[ordinal];
+            if (city != null && city.equals(current.cityOf()[ordinal])) {
+                score += CITY_WEIGHT;
+            }
+            best.offer(new int[]{ordinal, score});
+            if (best.size() > shortlistSize) {
+                best.poll();
+            }
+        }
+
+        int[] shortlist = new int[best.size()];
+        for (int i = shortlist.length - 1; i >= 0; i--) {
+            shortlist[i] = best.poll()[0];
+        }
+        return shortlist;
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        if (current == null || !current.month().equals(LocalDate.now().withDayOfMonth(1))) {
+            synchronized (this) {
+                current = index;
+                if (current == null || !current.month().equals(LocalDate.now().withDayOfMonth(1))) {
+                    rebuild();
+                    current = index;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${leads.matching.refresh-interval-ms:300000}", initialDelay = 30000)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+
+        Map<Long, Integer> ordinals = new HashMap<>();
+        List<Long> vendorIds = new ArrayList<>();
+        Map<String, List<Integer>> byCategory = new HashMap<>();
+        Map<String, List<Integer>> byMicroCategory = new HashMap<>();
+        for (Object[] row : productRepository.findVendorCategoryCoverage()) {
+            Long vendorId = (Long) row[0];
+            Integer ordinal = ordinals.computeIfAbsent(vendorId, id -> {
+                vendorIds.add(id);
+                return vendorIds.size() - 1;
+            });
+            post(byCategory, (String) row[1], ordinal);
+            post(byMicroCategory, (String) row[2], ordinal);
+            // A micro-category also puts the vendor under its parent category
+            post(byCategory, (String) row[3], ordinal);
+        }
+
+        int size = vendorIds.size();
+        String[] cityOf = new String[size];
+        for (Object[] row : vendorsRepository.findVendorCities()) {
+            Integer ordinal = ordinals.get((Long) row[0]);
+            String city = normalize((String) row[1]);
+            if (ordinal != null) {
+                cityOf[ordinal] = city;
+            }
+        }
+
+        int[] tierWeight = new int[size];
+        int[] monthlyQuota = new int[size];
+        Arrays.fill(monthlyQuota, defaultMonthlyQuota);
+        boolean[] paid = new boolean[size];
+        for (Object[] row : packageTransactionRepository.findActivePackageTiers(LocalDateTime.now())) {
+            Integer ordinal = ordinals.get((Long) row[0]);
+            if (ordinal == null) {
+                continue;
+            }
+            Subscription.PlanType planType = (Subscription.PlanType) row[1];
+            Integer maxLeads = (Integer) row[2];
+            // BASIC..DIAMOND -> 1..5; the best active package counts
+            tierWeight[ordinal] = Math.max(tierWeight[ordinal], planType != null ? planType.ordinal() + 1 : 1);
+            if (maxLeads != null) {
+                monthlyQuota[ordinal] = paid[ordinal] ? Math.max(monthlyQuota[ordinal], maxLeads) : maxLeads;
+                paid[ordinal] = true;
+            }
+        }
+
+        AtomicIntegerArray assigned = new AtomicIntegerArray(size);
+        for (Object[] row : leadRepository.countLeadsPerVendorSince(month.atStartOfDay())) {
+            Integer ordinal = ordinals.get((Long) row[0]);
+            if (ordinal != null) {
+                assigned.set(ordinal, ((Number) row[1]).intValue());
+            }
+        }
+
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = vendorIds.get(i);
+        }
+        index = new Index(ids, tierWeight, monthlyQuota, assigned,
+                freeze(byCategory), freeze(byMicroCategory), cityOf, month);
+        log.info("Lead matching index rebuilt: {} vendors, {} categories, {} micro-categories in {} ms",
+                size, byCategory.size(), byMicroCategory.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void addScore(Map<Integer, Integer> scores, int[] ordinals, int weight) {
+        if (ordinals != null) {
+            for (int ordinal : ordinals) {
+                scores.merge(ordinal, weight, Integer::sum);
+            }
+        }
+    }
+
+    private static void addTerms(Set<String> terms, String commaSeparated) {
+        if (commaSeparated == null) {
+            return;
+        }
+        for (String part : commaSeparated.split(",")) {
+            String term = normalize(part);
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static void post(Map<String, List<Integer>> postings, String key, Integer ordinal) {
+        String term = normalize(key);
+        if (term != null) {
+            postings.computeIfAbsent(term, k -> new ArrayList<>()).add(ordinal);
+        }
+    }
+
+    private static Map<String, int[]> freeze(Map<String, List<Integer>> postings) {
+        Map<String, int[]> frozen = new HashMap<>(postings.size() * 2);
+        postings.forEach((term, list) -> frozen.put(term, list.stream().mapToInt(Integer::intValue).distinct().sorted().toArray()));
+        return frozen;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -5,12 +5,15 @@ import com.itech.itech_backend.modules.buyer.model.*;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.model.UserAddress;
 import com.itech.itech_backend.modules.payment.service.PaymentService;
+import com.itech.itech_backend.modules.payment.service.RevenueLedger;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.buyer.repository.OrderRepository;
 import com.itech.itech_backend.modules.buyer.repository.CartRepository;
 import com.itech.itech_backend.modules.buyer.repository.CartItemRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.core.repository.UserAddressRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorDashboardService;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -37,6 +41,9 @@ public class OrderService {
     private final UserAddressRepository userAddressRepository;
     private final BuyerProductRepository productRepository;
     private final PaymentService paymentService;
+    private final VendorRankingEngine vendorRankingEngine;
+    private final VendorDashboardService vendorDashboardService;
+    private final RevenueLedger revenueLedger;
 
     public Map<String, Object> createOrder(Long userId, CheckoutDto checkoutDto) {
         log.info("Creating order for user: {}", userId);
@@ -145,6 +152,7 @@ public class OrderService {
             order.setPaymentTransactionId(razorpayPaymentId);
             
             orderRepository.save(order);
+            revenueLedger.recordOrder(order);
             
             log.info("Payment verified and order confirmed: {}", order.getOrderNumber());
             return true;
@@ -179,7 +187,18 @@ public class OrderService {
             order.setShippedAt(LocalDateTime.now());
         } else if (status == Order.OrderStatus.DELIVERED) {
             order.setDeliveredAt(LocalDateTime.now());
+            // Cash on delivery is captured when it is delivered
+            if ("COD".equals(order.getPaymentMethod())) {
+                revenueLedger.recordOrder(order);
+            }
+        }
+        if (RevenueLedger.reversesSale(order)) {
+            revenueLedger.recordSaleReversal(order.getId());
         }
+        order.getItems().stream()
+                .map(item -> item.getVendor().getId())
+                .distinct()
+                .forEach(vendorDashboardService::invalidate);
         
         return orderRepository.save(order);
     }
@@ -261,6 +280,7 @@ public class OrderService {
     }
 
     private void createOrderItems(Order order, Cart cart) {
+        Map<Long, Double> revenueByVendor = new HashMap<>();
         for (CartItem cartItem : cart.getItems()) {
             Product product = cartItem.getProduct();
             
@@ -282,7 +302,14 @@ public class OrderService {
             product.setStock(product.getStock() - cartItem.getQuantity());
             product.setOrderCount(product.getOrderCount() + cartItem.getQuantity());
             productRepository.save(product);
+
+            if (product.getVendor() != null) {
+                revenueByVendor.merge(product.getVendor().getId(), cartItem.getSubtotal(), Double::sum);
+            }
         }
+        // One order per vendor, however many of its items are in the cart
+        revenueByVendor.forEach(vendorRankingEngine::recordOrder);
+        revenueByVendor.keySet().forEach(vendorDashboardService::invalidate);
     }
 }
 
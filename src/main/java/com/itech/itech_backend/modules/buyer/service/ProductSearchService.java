@@ -32,6 +32,9 @@ public class ProductSearchService {
     @Autowired
     private VendorsRepository vendorsRepository;
 
+    @Autowired
+    private BuyerProductRecommender recommender;
+
     public Page<Product> searchProducts(ProductSearchDto searchDto, Pageable pageable) {
         return productRepository.searchProducts(
             searchDto.getQuery(),
@@ -154,6 +157,20 @@ public class ProductSearchService {
      */
     public List<Product> getSimilarProducts(Long productId, int limit) {
         try {
+            List<Long> ids = new ArrayList<>();
+            for (long id : recommender.similar(productId, limit)) {
+                ids.add(id);
+            }
+            if (!ids.isEmpty()) {
+                Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, p -> p));
+                return ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            }
+
+            // Not in the model yet: same category, then same vendor
             Optional<Product> productOpt = productRepository.findById(productId);
             if (!productOpt.isPresent()) {
                 return new ArrayList<>();
@@ -162,13 +179,14 @@ public class ProductSearchService {
             Product product = productOpt.get();
             Pageable pageable = PageRequest.of(0, limit);
             
-            // Find products in same category, excluding the current product
-            List<Product> similarProducts = productRepository
-                .findByCategoryIdAndIdNotAndIsActiveTrueAndIsApprovedTrue(
-                    product.getCategory().getId(), productId, pageable)
-                .getContent();
+            List<Product> similarProducts = new ArrayList<>();
+            if (product.getCategory() != null) {
+                similarProducts.addAll(productRepository
+                    .findByCategoryIdAndIdNotAndIsActiveTrueAndIsApprovedTrue(
+                        product.getCategory().getId(), productId, pageable)
+                    .getContent());
+            }
             
-            // If not enough similar products, get from same vendor
             if (similarProducts.size() < limit) {
                 List<Product> vendorProducts = productRepository
                     .findByVendorIdAndIdNotAndIsActiveTrueAndIsApprovedTrue(
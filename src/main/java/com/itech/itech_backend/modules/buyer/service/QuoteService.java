@@ -8,11 +8,14 @@ import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.repository.InquiryRepository;
 import com.itech.itech_backend.modules.buyer.repository.QuoteRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorDashboardService;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +27,8 @@ public class QuoteService {
     private final QuoteRepository quoteRepository;
     private final VendorsRepository vendorsRepository;
     private final InquiryRepository inquiryRepository;
+    private final VendorRankingEngine vendorRankingEngine;
+    private final VendorDashboardService vendorDashboardService;
 
     public Quote createQuote(CreateQuoteDto dto) {
         Optional<Vendors> vendorOpt = vendorsRepository.findById(dto.getVendorId());
@@ -40,7 +45,13 @@ public class QuoteService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return quoteRepository.save(quote);
+        Quote saved = quoteRepository.save(quote);
+        LocalDateTime askedAt = inquiryOpt.get().getCreatedAt();
+        if (askedAt != null) {
+            vendorRankingEngine.recordInquiryResponse(dto.getVendorId(), Duration.between(askedAt, saved.getCreatedAt()));
+        }
+        vendorDashboardService.invalidate(dto.getVendorId());
+        return saved;
     }
 
     public List<Quote> getAllQuotes() {
@@ -10,6 +10,7 @@ import com.itech.itech_backend.modules.vendor.repository.VendorReviewRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -31,6 +32,7 @@ public class ReviewService {
     private final BuyerProductRepository productRepository;
     private final UserRepository userRepository;
     private final VendorsRepository vendorsRepository;
+    private final VendorRankingEngine vendorRankingEngine;
 
     public Review createProductReview(Long userId, Long productId, int rating, String comment, String title) {
         try {
@@ -60,7 +62,12 @@ public class ReviewService {
     }
 
     public Review createProductReview(Review review) {
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        // Only approved reviews count towards vendor ratings
+        if (saved.isApproved() && saved.getVendor() != null) {
+            vendorRankingEngine.recordReview(saved.getVendor().getId(), saved.getRating());
+        }
+        return saved;
     }
 
     public VendorReview createVendorReview(VendorReview vendorReview) {
@@ -90,12 +97,22 @@ public class ReviewService {
     public Review approveReview(Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new RuntimeException("Review not found"));
+        boolean wasApproved = review.isApproved();
         review.setApproved(true);
         review.setUpdatedAt(LocalDateTime.now());
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        if (!wasApproved && saved.getVendor() != null) {
+            vendorRankingEngine.recordReview(saved.getVendor().getId(), saved.getRating());
+        }
+        return saved;
     }
 
     public void deleteReview(Long reviewId) {
+        reviewRepository.findById(reviewId).ifPresent(review -> {
+            if (review.isApproved() && review.getVendor() != null) {
+                vendorRankingEngine.removeReview(review.getVendor().getId(), review.getRating());
+            }
+        });
         reviewRepository.deleteById(reviewId);
     }
 
@@ -11,6 +11,7 @@ import com.itech.itech_backend.modules.buyer.repository.BuyerRepository;
 import com.itech.itech_backend.modules.buyer.service.BuyerService;
 import com.itech.itech_backend.modules.company.model.Company;
 import com.itech.itech_backend.modules.company.repository.CompanyRepository;
+import com.itech.itech_backend.modules.shared.service.ActivityTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,7 @@ public class BuyerServiceImpl implements BuyerService {
     private final BuyerRepository buyerRepository;
     private final CompanyRepository companyRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ActivityTracker activityTracker;
 
     // ===============================
     // CORE CRUD OPERATIONS
@@ -334,13 +336,8 @@ public class BuyerServiceImpl implements BuyerService {
     @Override
     public void updateLastLogin(Long buyerId) {
         log.debug("Updating last login for buyer ID: {}", buyerId);
-        
-        Buyer buyer = buyerRepository.findById(buyerId)
-            .orElseThrow(() -> new RuntimeException("Buyer not found: " + buyerId));
-        
-        buyer.setLastLogin(LocalDateTime.now());
-        buyer.setUpdatedAt(LocalDateTime.now());
-        buyerRepository.save(buyer);
+        // Coalesced and flushed in batches instead of a load-and-save per login
+        activityTracker.recordLogin(ActivityTracker.Subject.BUYER, buyerId);
     }
 
     // ===============================
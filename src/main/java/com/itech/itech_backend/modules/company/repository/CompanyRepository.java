@@ -102,6 +102,13 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     
     @Query("SELECT COUNT(c) FROM Company c WHERE c.status = :status")
     long countByStatus(@Param("status") Company.CompanyStatus status);
+
+    // Every dashboard counter in one pass: (verificationStatus, status, companyType, businessCategory, count, verified, premium)
+    @Query("SELECT c.verificationStatus, c.status, c.companyType, c.businessCategory, COUNT(c), " +
+           "COALESCE(SUM(CASE WHEN c.isVerified = true THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN c.isPremium = true THEN 1 ELSE 0 END), 0) " +
+           "FROM Company c GROUP BY c.verificationStatus, c.status, c.companyType, c.businessCategory")
+    List<Object[]> aggregateStatistics();
     
     // Companies by employee count ranges
     List<Company> findByEmployeeCount(Company.EmployeeCount employeeCount);
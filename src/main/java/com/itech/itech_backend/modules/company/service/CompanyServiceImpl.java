@@ -3,6 +3,7 @@ package com.itech.itech_backend.modules.company.service;
 import com.itech.itech_backend.modules.company.dto.*;
 import com.itech.itech_backend.modules.company.model.Company;
 import com.itech.itech_backend.modules.company.repository.CompanyRepository;
+import com.itech.itech_backend.modules.shared.service.StatisticsCache;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,15 @@ import java.util.stream.Collectors;
 public class CompanyServiceImpl implements CompanyService {
     
     private final CompanyRepository companyRepository;
+    private final StatisticsCache statisticsCache;
+    
+    // All dashboard counters, folded from one grouped aggregate query
+    private record CompanyStatistics(long total, long verified, long premium,
+                                     Map<Company.VerificationStatus, Long> byVerificationStatus,
+                                     Map<Company.CompanyStatus, Long> byStatus,
+                                     Map<Company.CompanyType, Long> byType,
+                                     Map<Company.BusinessCategory, Long> byCategory) {
+    }
     
     // CRUD Operations
     @Override
@@ -36,7 +46,7 @@ public class CompanyServiceImpl implements CompanyService {
         BeanUtils.copyProperties(createCompanyDto, company);
         company.setCreatedBy("SYSTEM"); // In real implementation, get from SecurityContext
         
-        Company savedCompany = companyRepository.save(company);
+        Company savedCompany = saveCompany(company);
         log.info("Company created successfully with ID: {}", savedCompany.getId());
         
         return convertToDto(savedCompany);
@@ -67,7 +77,7 @@ public class CompanyServiceImpl implements CompanyService {
         updateCompanyFields(existingCompany, updateCompanyDto);
         existingCompany.setUpdatedBy("SYSTEM"); // In real implementation, get from SecurityContext
         
-        Company updatedCompany = companyRepository.save(existingCompany);
+        Company updatedCompany = saveCompany(existingCompany);
         log.info("Company updated successfully with ID: {}", updatedCompany.getId());
         
         return convertToDto(updatedCompany);
@@ -82,6 +92,7 @@ public class CompanyServiceImpl implements CompanyService {
         }
         
         companyRepository.deleteById(companyId);
+        statisticsCache.invalidate(StatisticsCache.Subject.COMPANY);
         log.info("Company deleted successfully with ID: {}", companyId);
     }
     
@@ -140,7 +151,7 @@ public class CompanyServiceImpl implements CompanyService {
             company.setVerifiedAt(null);
         }
         
-        Company verifiedCompany = companyRepository.save(company);
+        Company verifiedCompany = saveCompany(company);
         log.info("Company verification completed for ID: {}", verifiedCompany.getId());
         
         return convertToDto(verifiedCompany);
@@ -175,7 +186,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setStatus(status);
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         log.info("Company status updated successfully for ID: {}", updatedCompany.getId());
         
         return convertToDto(updatedCompany);
@@ -286,7 +297,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setPremiumExpiresAt(LocalDateTime.now().plusMonths(12)); // 1 year subscription
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         log.info("Company upgraded to premium successfully - ID: {}", updatedCompany.getId());
         
         return convertToDto(updatedCompany);
@@ -304,7 +315,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setPremiumExpiresAt(null);
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         log.info("Company downgraded from premium successfully - ID: {}", updatedCompany.getId());
         
         return convertToDto(updatedCompany);
@@ -365,12 +376,13 @@ public class CompanyServiceImpl implements CompanyService {
     public Map<String, Long> getCompanyStatistics() {
         log.debug("Generating company statistics");
         
+        CompanyStatistics statistics = statistics();
         Map<String, Long> stats = new HashMap<>();
-        stats.put("totalCompanies", companyRepository.count());
-        stats.put("verifiedCompanies", companyRepository.countVerifiedCompanies());
-        stats.put("premiumCompanies", companyRepository.countPremiumCompanies());
-        stats.put("pendingVerification", companyRepository.countByVerificationStatus(Company.VerificationStatus.PENDING));
-        stats.put("activeCompanies", companyRepository.countByStatus(Company.CompanyStatus.ACTIVE));
+        stats.put("totalCompanies", statistics.total());
+        stats.put("verifiedCompanies", statistics.verified());
+        stats.put("premiumCompanies", statistics.premium());
+        stats.put("pendingVerification", statistics.byVerificationStatus().get(Company.VerificationStatus.PENDING));
+        stats.put("activeCompanies", statistics.byStatus().get(Company.CompanyStatus.ACTIVE));
         
         return stats;
     }
@@ -378,63 +390,85 @@ public class CompanyServiceImpl implements CompanyService {
     @Override
     @Transactional(readOnly = true)
     public long getTotalCompaniesCount() {
-        return companyRepository.count();
+        return statistics().total();
     }
     
     @Override
     @Transactional(readOnly = true)
     public long getVerifiedCompaniesCount() {
-        return companyRepository.countVerifiedCompanies();
+        return statistics().verified();
     }
     
     @Override
     @Transactional(readOnly = true)
     public long getPremiumCompaniesCount() {
-        return companyRepository.countPremiumCompanies();
+        return statistics().premium();
     }
     
     @Override
     @Transactional(readOnly = true)
     public Map<Company.VerificationStatus, Long> getCompanyCountByVerificationStatus() {
-        Map<Company.VerificationStatus, Long> counts = new HashMap<>();
-        for (Company.VerificationStatus status : Company.VerificationStatus.values()) {
-            counts.put(status, companyRepository.countByVerificationStatus(status));
-        }
-        return counts;
+        return new HashMap<>(statistics().byVerificationStatus());
     }
     
     @Override
     @Transactional(readOnly = true)
     public Map<Company.CompanyStatus, Long> getCompanyCountByStatus() {
-        Map<Company.CompanyStatus, Long> counts = new HashMap<>();
-        for (Company.CompanyStatus status : Company.CompanyStatus.values()) {
-            counts.put(status, companyRepository.countByStatus(status));
-        }
-        return counts;
+        return new HashMap<>(statistics().byStatus());
     }
     
     @Override
     @Transactional(readOnly = true)
     public Map<Company.CompanyType, Long> getCompanyCountByType() {
-        Map<Company.CompanyType, Long> counts = new HashMap<>();
-        for (Company.CompanyType type : Company.CompanyType.values()) {
-            List<Company> companies = companyRepository.findByCompanyType(type);
-            counts.put(type, (long) companies.size());
-        }
-        return counts;
+        return new HashMap<>(statistics().byType());
     }
     
     @Override
     @Transactional(readOnly = true)
     public Map<Company.BusinessCategory, Long> getCompanyCountByCategory() {
-        Map<Company.BusinessCategory, Long> counts = new HashMap<>();
-        for (Company.BusinessCategory category : Company.BusinessCategory.values()) {
-            List<Company> companies = companyRepository.findByBusinessCategory(category);
-            counts.put(category, (long) companies.size());
+        return new HashMap<>(statistics().byCategory());
+    }
+    
+    private CompanyStatistics statistics() {
+        return statisticsCache.get(StatisticsCache.Subject.COMPANY, this::loadStatistics);
+    }
+    
+    private CompanyStatistics loadStatistics() {
+        long total = 0, verified = 0, premium = 0;
+        Map<Company.VerificationStatus, Long> byVerificationStatus = zeroCounts(Company.VerificationStatus.class);
+        Map<Company.CompanyStatus, Long> byStatus = zeroCounts(Company.CompanyStatus.class);
+        Map<Company.CompanyType, Long> byType = zeroCounts(Company.CompanyType.class);
+        Map<Company.BusinessCategory, Long> byCategory = zeroCounts(Company.BusinessCategory.class);
+        
+        for (Object[] row : companyRepository.aggregateStatistics()) {
+            long count = ((Number) row[4]).longValue();
+            total += count;
+            verified += ((Number) row[5]).longValue();
+            premium += ((Number) row[6]).longValue();
+            if (row[0] != null) byVerificationStatus.merge((Company.VerificationStatus) row[0], count, Long::sum);
+            if (row[1] != null) byStatus.merge((Company.CompanyStatus) row[1], count, Long::sum);
+            if (row[2] != null) byType.merge((Company.CompanyType) row[2], count, Long::sum);
+            if (row[3] != null) byCategory.merge((Company.BusinessCategory) row[3], count, Long::sum);
+        }
+        return new CompanyStatistics(total, verified, premium, Collections.unmodifiableMap(byVerificationStatus),
+                Collections.unmodifiableMap(byStatus), Collections.unmodifiableMap(byType),
+                Collections.unmodifiableMap(byCategory));
+    }
+    
+    private static <E extends Enum<E>> Map<E, Long> zeroCounts(Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
         }
         return counts;
     }
     
+    private Company saveCompany(Company company) {
+        Company saved = companyRepository.save(company);
+        statisticsCache.invalidate(StatisticsCache.Subject.COMPANY);
+        return saved;
+    }
+    
     // Recent and trending companies
     @Override
     @Transactional(readOnly = true)
@@ -556,7 +590,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setLogoUrl(logoUrl);
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         return convertToDto(updatedCompany);
     }
     
@@ -573,7 +607,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setImageUrls(existingImages);
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         return convertToDto(updatedCompany);
     }
     
@@ -589,7 +623,7 @@ public class CompanyServiceImpl implements CompanyService {
             company.setUpdatedBy("SYSTEM");
         }
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         return convertToDto(updatedCompany);
     }
     
@@ -607,7 +641,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setAccountHolderName(accountHolderName);
         company.setUpdatedBy("SYSTEM");
         
-        Company updatedCompany = companyRepository.save(company);
+        Company updatedCompany = saveCompany(company);
         return convertToDto(updatedCompany);
     }
     
@@ -0,0 +1,46 @@
+package com.itech.itech_backend.modules.core.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only OTP audit trail. Written in batches by OtpService; the codes themselves never reach the DB.
+ */
+@Entity
+@Table(name = "otp_audit_events", indexes = {
+    @Index(name = "idx_otp_audit_contact", columnList = "contact, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OtpAuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String contact;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EventType event;
+
+    @Column(name = "client_ip", length = 64)
+    private String clientIp;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum EventType {
+        ISSUED,
+        VERIFIED,
+        MISMATCH,
+        LOCKED,
+        RATE_LIMITED
+    }
+}
@@ -22,6 +22,8 @@ public interface KycDocumentRepository extends JpaRepository<KycDocument, Long>
     
     List<KycDocument> findByStatus(KycStatus status);
     
+    long countByStatus(KycStatus status);
+    
     Optional<KycDocument> findByVendorAndDocumentType(Vendors vendor, KycDocumentType documentType);
     
     @Query("SELECT k FROM KycDocument k WHERE k.vendor.id = :vendorId AND k.documentType = :documentType")
@@ -41,5 +41,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Additional methods for user management
     @Query("SELECT u FROM User u WHERE u.isActive = true ORDER BY u.createdAt DESC LIMIT :limit")
     List<User> findRecentActiveUsers(@Param("limit") int limit);
+
+    // Lightweight id -> email lookup for STOMP user destinations
+    @Query("SELECT u.id, u.email FROM User u WHERE u.id IN :ids")
+    List<Object[]> findEmailsByIds(@Param("ids") java.util.Collection<Long> ids);
+
+    // Lightweight id -> name lookup for chat inbox rows
+    @Query("SELECT u.id, u.name FROM User u WHERE u.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") java.util.Collection<Long> ids);
 }
 
@@ -5,31 +5,29 @@ import com.itech.itech_backend.modules.shared.dto.LoginRequestDto;
 import com.itech.itech_backend.modules.shared.dto.RegisterRequestDto;
 import com.itech.itech_backend.modules.shared.dto.SetPasswordDto;
 import com.itech.itech_backend.modules.shared.dto.VerifyOtpRequestDto;
-import com.itech.itech_backend.modules.core.model.OtpVerification;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.admin.model.Admins;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.admin.repository.AdminsRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
-import com.itech.itech_backend.modules.core.repository.OtpVerificationRepository;
 import com.itech.itech_backend.modules.shared.service.EmailService;
 import com.itech.itech_backend.modules.shared.service.SmsService;
 import com.itech.itech_backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-private final OtpVerificationRepository otpRepo;
+    private final OtpService otpService;
     private final AdminsRepository adminsRepository;
     private final VendorsRepository vendorsRepository;
     private final EmailService emailService;
@@ -108,33 +106,12 @@ private final OtpVerificationRepository otpRepo;
             System.out.println("✅ Created new admin: " + admin.getName());
         }
 
-        String otp = generateOtp();
-        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
-
-        // Clean up old OTP records for this user
-        if (dto.getEmail() != null) {
-            otpRepo.deleteByEmailOrPhone(dto.getEmail());
-        }
-        if (dto.getPhone() != null) {
-            otpRepo.deleteByEmailOrPhone(dto.getPhone());
-        }
-        // Store OTP for email if provided
-        if (dto.getEmail() != null) {
-            otpRepo.save(OtpVerification.builder()
-                    .emailOrPhone(dto.getEmail())
-                    .otp(otp)
-                    .expiryTime(expiry)
-                    .build());
-        }
-        
-        // Store OTP for phone if provided  
-        if (dto.getPhone() != null) {
-            otpRepo.save(OtpVerification.builder()
-                    .emailOrPhone(dto.getPhone())
-                    .otp(otp)
-                    .expiryTime(expiry)
-                    .build());
+        // One code for both channels, replacing any pending one
+        Optional<String> issued = otpService.issue(dto.getEmail(), dto.getPhone());
+        if (issued.isEmpty()) {
+            return "Too many OTP requests. Please try again later.";
         }
+        String otp = issued.get();
 
         if (dto.getEmail() != null) {
             System.out.println("📧 SENDING EMAIL OTP to: " + dto.getEmail());
@@ -189,8 +166,6 @@ private final OtpVerificationRepository otpRepo;
         
         boolean passwordMatches = loginRequest.getPassword().equals(user.getPassword());
         System.out.println("🔒 Password validation result: " + passwordMatches);
-        System.out.println("🔍 Stored password: " + user.getPassword());
-        System.out.println("🔍 Input password: " + loginRequest.getPassword());
         
         if (!passwordMatches) {
             System.out.println("❌ Invalid password for user: " + user.getName());
@@ -200,20 +175,11 @@ private final OtpVerificationRepository otpRepo;
         System.out.println("✅ Password validation successful for user: " + user.getName());
         
         String contact = loginRequest.getEmailOrPhone();
-        String otp = generateOtp();
-        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
-        
-        // Delete existing OTP
-        otpRepo.deleteByEmailOrPhone(contact);
-        
-        // Save new OTP
-        otpRepo.save(OtpVerification.builder()
-                .emailOrPhone(contact)
-                .otp(otp)
-                .expiryTime(expiry)
-                .build());
-        
-        System.out.println("🔢 Generated OTP: " + otp + " for " + contact);
+        Optional<String> issued = otpService.issue(contact);
+        if (issued.isEmpty()) {
+            return "Too many OTP requests. Please try again later.";
+        }
+        String otp = issued.get();
         
         // Send OTP via email or SMS
         if (contact.contains("@")) {
@@ -232,14 +198,11 @@ private final OtpVerificationRepository otpRepo;
         
         if (dto.getEmailOrPhone() == null || dto.getOtp() == null) {
             System.out.println("❌ Email/Phone or OTP is null");
-            System.out.println("📧 EmailOrPhone: " + dto.getEmailOrPhone());
-            System.out.println("🔢 OTP: " + dto.getOtp());
             return null;
         }
 
         String contact = dto.getEmailOrPhone().trim();
         System.out.println("➡️ Incoming OTP Request for: " + contact);
-        System.out.println("🔢 Received OTP: " + dto.getOtp());
 
         // First check if user exists
         Optional<User> userOpt = userRepository.findByEmailOrPhone(contact, contact);
@@ -254,89 +217,45 @@ private final OtpVerificationRepository otpRepo;
         // Ensure user has correct role before OTP verification
         ensureUserHasCorrectRole(user);
 
-        // Try to find OTP record - check both user's email and phone
-        Optional<OtpVerification> otpOptional = otpRepo.findByEmailOrPhone(contact);
-        
-        if (!otpOptional.isPresent() && user.getEmail() != null) {
-            System.out.println("🔍 Trying with user's email: " + user.getEmail());
-            otpOptional = otpRepo.findByEmailOrPhone(user.getEmail());
-        }
-        
-        if (!otpOptional.isPresent() && user.getPhone() != null) {
-            System.out.println("🔍 Trying with user's phone: " + user.getPhone());
-            otpOptional = otpRepo.findByEmailOrPhone(user.getPhone());
-        }
-        
-        if (!otpOptional.isPresent()) {
-            System.out.println("❌ No OTP found for user: " + user.getName() + " with any contact method");
-        }
-
-        if (otpOptional.isPresent()) {
-            OtpVerification otp = otpOptional.get();
-
-            System.out.println("✅ OTP Found in DB: " + otp.getOtp());
-            System.out.println("⏳ Expiry Time: " + otp.getExpiryTime());
-            System.out.println("🕒 Current Time: " + LocalDateTime.now());
-            System.out.println("🔢 Input OTP: " + dto.getOtp());
-            System.out.println("🔍 OTP Match: " + otp.getOtp().equals(dto.getOtp()));
-            System.out.println("⏰ Time Valid: " + otp.getExpiryTime().isAfter(LocalDateTime.now()));
+        // Codes may have been issued to the contact used, or to either of the user's channels
+        if (otpService.verify(dto.getOtp(), contact, user.getEmail(), user.getPhone())) {
+            System.out.println("🔍 User Role BEFORE JWT: " + user.getRole());
 
-            if (otp.getOtp().equals(dto.getOtp()) && otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-                System.out.println("🔍 User Role BEFORE JWT: " + user.getRole());
-
-                user.setVerified(true);
-                userRepository.save(user);
-                System.out.println("✅ User marked as verified");
+            user.setVerified(true);
+            userRepository.save(user);
+            System.out.println("✅ User marked as verified");
 
-                otpRepo.delete(otp);
-                System.out.println("🧹 OTP entry deleted after verification");
+            // The same code was issued to both channels at registration
+            otpService.invalidate(user.getEmail(), user.getPhone());
 
-                try {
-                    // Re-fetch user to ensure we have the latest role
-                    User refreshedUser = userRepository.findByEmailOrPhone(contact, contact).orElse(user);
-                    System.out.println("🔄 Refreshed User Role: " + refreshedUser.getRole());
-                    
-                    String token = jwtUtil.generateToken(refreshedUser.getEmail(), refreshedUser.getRoleAsString(), refreshedUser.getId());
-                    System.out.println("✅ JWT Token Generated Successfully with role: " + refreshedUser.getRole() + " and user ID: " + refreshedUser.getId());
-                    System.out.println("🔐 Token: " + token.substring(0, 20) + "...");
+            try {
+                // Re-fetch user to ensure we have the latest role
+                User refreshedUser = userRepository.findByEmailOrPhone(contact, contact).orElse(user);
+                System.out.println("🔄 Refreshed User Role: " + refreshedUser.getRole());
+                
+                String token = jwtUtil.generateToken(refreshedUser.getEmail(), refreshedUser.getRoleAsString(), refreshedUser.getId());
+                System.out.println("✅ JWT Token Generated Successfully with role: " + refreshedUser.getRole() + " and user ID: " + refreshedUser.getId());
 
-                    JwtResponse response = JwtResponse.builder()
-                        .token(token)
-                        .message("OTP Verified. Login Successful!")
-                        .user(JwtResponse.UserInfo.builder()
-                            .id(refreshedUser.getId())
-                            .email(refreshedUser.getEmail())
-                            .name(refreshedUser.getName())
-                            .role(refreshedUser.getRoleWithReplace("ROLE_", ""))
-                            .isVerified(refreshedUser.isVerified())
-                            .build())
-                        .build();
-                    System.out.println("🎉 === OTP VERIFICATION SUCCESSFUL ===");
-                    return response;
-                    
-                } catch (Exception e) {
-                    System.out.println("❌ Error generating JWT token: " + e.getMessage());
-                    e.printStackTrace();
-                    return null;
-                }
+                JwtResponse response = JwtResponse.builder()
+                    .token(token)
+                    .message("OTP Verified. Login Successful!")
+                    .user(JwtResponse.UserInfo.builder()
+                        .id(refreshedUser.getId())
+                        .email(refreshedUser.getEmail())
+                        .name(refreshedUser.getName())
+                        .role(refreshedUser.getRoleWithReplace("ROLE_", ""))
+                        .isVerified(refreshedUser.isVerified())
+                        .build())
+                    .build();
+                System.out.println("🎉 === OTP VERIFICATION SUCCESSFUL ===");
+                return response;
                 
-            } else {
-                if (!otp.getOtp().equals(dto.getOtp())) {
-                    System.out.println("❌ OTP mismatch! Expected: " + otp.getOtp() + ", Got: " + dto.getOtp());
-                }
-                if (!otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-                    System.out.println("❌ OTP expired! Expiry: " + otp.getExpiryTime() + ", Now: " + LocalDateTime.now());
-                }
-            }
-        } else {
-            System.out.println("❌ No OTP record found for: " + contact);
-            // Check all OTP records for debugging
-            System.out.println("🔍 Checking all OTP records...");
-            var allOtps = otpRepo.findAll();
-            for (var otpRecord : allOtps) {
-                System.out.println("📝 Found OTP record: " + otpRecord.getEmailOrPhone() + " -> " + otpRecord.getOtp());
+            } catch (Exception e) {
+                log.error("Error generating JWT token for user {}", user.getId(), e);
+                return null;
             }
         }
+        System.out.println("❌ Invalid, expired or missing OTP for: " + contact);
 
         System.out.println("💥 === OTP VERIFICATION FAILED ===");
         return null;
@@ -344,11 +263,6 @@ private final OtpVerificationRepository otpRepo;
 
 
 
-    private String generateOtp() {
-        Random rand = new Random();
-        return String.format("%06d", rand.nextInt(999999));
-    }
-    
     // Method to ensure user has correct role
     private void ensureUserHasCorrectRole(User user) {
         System.out.println("🔍 Current user role: " + user.getRole() + " for user: " + user.getName());
@@ -0,0 +1,116 @@
+package com.itech.itech_backend.modules.core.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-node OTP store. Entries expire individually with their own TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private record Entry(byte[] digest, long ttlNanos, AtomicInteger failures) {
+    }
+
+    private final Cache<String, Entry> codes = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfter(new Expiry<String, Entry>() {
+                @Override
+                public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                    return entry.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                    return entry.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private final Cache<String, Deque<Long>> windows = Caffeine.newBuilder()
+            .maximumSize(500_000)
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+
+    @Override
+    public void put(String contact, String code, Duration ttl) {
+        codes.put(contact, new Entry(OtpStore.digest(contact, code), ttl.toNanos(), new AtomicInteger()));
+    }
+
+    @Override
+    public VerificationResult verify(String contact, String code, int maxAttempts) {
+        Entry entry = codes.getIfPresent(contact);
+        if (entry == null) {
+            return VerificationResult.MISSING;
+        }
+        if (MessageDigest.isEqual(entry.digest(), OtpStore.digest(contact, code))) {
+            // Only one concurrent verifier can consume the code
+            return codes.asMap().remove(contact, entry) ? VerificationResult.VERIFIED : VerificationResult.MISSING;
+        }
+        if (entry.failures().incrementAndGet() >= maxAttempts) {
+            codes.asMap().remove(contact, entry);
+            return VerificationResult.LOCKED;
+        }
+        return VerificationResult.MISMATCH;
+    }
+
+    @Override
+    public void remove(String contact) {
+        codes.invalidate(contact);
+    }
+
+    @Override
+    public int tryAcquire(List<Limit> limits) {
+        List<Deque<Long>> events = new ArrayList<>(limits.size());
+        for (Limit limit : limits) {
+            events.add(windows.get(limit.key(), k -> new ArrayDeque<>()));
+        }
+        // Lock every window, always in key order so overlapping calls cannot deadlock
+        List<Integer> lockOrder = new ArrayList<>();
+        for (int i = 0; i < limits.size(); i++) {
+            lockOrder.add(i);
+        }
+        lockOrder.sort(Comparator.comparing(i -> limits.get(i).key()));
+        return acquireLocked(limits, events, lockOrder, 0, System.currentTimeMillis());
+    }
+
+    private static int acquireLocked(List<Limit> limits, List<Deque<Long>> events, List<Integer> lockOrder,
+                                     int locked, long now) {
+        if (locked < lockOrder.size()) {
+            synchronized (events.get(lockOrder.get(locked))) {
+                return acquireLocked(limits, events, lockOrder, locked + 1, now);
+            }
+        }
+        for (int i = 0; i < limits.size(); i++) {
+            Deque<Long> window = events.get(i);
+            while (!window.isEmpty() && window.peekFirst() <= now - limits.get(i).window().toMillis()) {
+                window.pollFirst();
+            }
+            if (window.size() >= limits.get(i).limit()) {
+                return i;
+            }
+        }
+        for (Deque<Long> window : events) {
+            window.addLast(now);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,192 @@
+package com.itech.itech_backend.modules.core.service;
+
+import com.itech.itech_backend.modules.core.model.OtpAuditEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Issues and verifies one-time passwords through the configured {@link OtpStore}.
+ *
+ * Sends are rate limited per contact and per client IP with sliding windows.
+ * Every outcome is queued for the otp_audit_events table and written in batches.
+ */
+@Service
+@Slf4j
+public class OtpService {
+
+    private static final String INSERT_AUDIT_SQL =
+            "INSERT INTO otp_audit_events (contact, event, client_ip, created_at) VALUES (?, ?, ?, ?)";
+
+    private final OtpStore otpStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom random = new SecureRandom();
+    private final BlockingQueue<OtpAuditEvent> auditQueue = new LinkedBlockingQueue<>(50_000);
+
+    @Value("${otp.ttl-minutes:5}")
+    private long ttlMinutes;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${otp.rate.contact.limit:5}")
+    private int contactLimit;
+
+    @Value("${otp.rate.contact.window-minutes:15}")
+    private long contactWindowMinutes;
+
+    @Value("${otp.rate.ip.limit:30}")
+    private int ipLimit;
+
+    @Value("${otp.rate.ip.window-minutes:60}")
+    private long ipWindowMinutes;
+
+    @Value("${otp.audit.retention-days:90}")
+    private int auditRetentionDays;
+
+    public OtpService(OtpStore otpStore, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.otpStore = otpStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Generate one code and store it for every given contact (e.g. email and phone).
+     * Returns empty when any contact, or the calling IP, is over its send limit.
+     */
+    public Optional<String> issue(String... contacts) {
+        String ip = currentClientIp();
+        List<OtpStore.Limit> limits = new ArrayList<>();
+        List<String> limited = new ArrayList<>();
+        if (ip != null) {
+            limits.add(new OtpStore.Limit("ip:" + ip, ipLimit, Duration.ofMinutes(ipWindowMinutes)));
+            limited.add(contacts.length > 0 && contacts[0] != null ? contacts[0] : "-");
+        }
+        for (String contact : contacts) {
+            String key = "contact:" + contact;
+            if (contact != null && limits.stream().noneMatch(limit -> limit.key().equals(key))) {
+                limits.add(new OtpStore.Limit(key, contactLimit, Duration.ofMinutes(contactWindowMinutes)));
+                limited.add(contact);
+            }
+        }
+        // All limits are checked before any slot is taken, so a refused send costs no contact its quota
+        int full = otpStore.tryAcquire(limits);
+        if (full >= 0) {
+            audit(limited.get(full), OtpAuditEvent.EventType.RATE_LIMITED, ip);
+            return Optional.empty();
+        }
+
+        String code = String.format("%06d", random.nextInt(1_000_000));
+        for (String contact : contacts) {
+            if (contact != null) {
+                otpStore.put(contact, code, Duration.ofMinutes(ttlMinutes));
+                audit(contact, OtpAuditEvent.EventType.ISSUED, ip);
+            }
+        }
+        return Optional.of(code);
+    }
+
+    /**
+     * Verify against the first contact that has a pending code; a match consumes it
+     */
+    public boolean verify(String code, String... contacts) {
+        if (code == null) {
+            return false;
+        }
+        String ip = currentClientIp();
+        for (String contact : contacts) {
+            if (contact == null) {
+                continue;
+            }
+            OtpStore.VerificationResult result = otpStore.verify(contact, code.trim(), maxAttempts);
+            switch (result) {
+                case VERIFIED -> {
+                    audit(contact, OtpAuditEvent.EventType.VERIFIED, ip);
+                    return true;
+                }
+                case MISMATCH -> {
+                    audit(contact, OtpAuditEvent.EventType.MISMATCH, ip);
+                    return false;
+                }
+                case LOCKED -> {
+                    audit(contact, OtpAuditEvent.EventType.LOCKED, ip);
+                    return false;
+                }
+                case MISSING -> {
+                    // try the next contact
+                }
+            }
+        }
+        return false;
+    }
+
+    public void invalidate(String... contacts) {
+        for (String contact : contacts) {
+            if (contact != null) {
+                otpStore.remove(contact);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${otp.audit.flush-interval-ms:2000}")
+    public void flushAudit() {
+        List<OtpAuditEvent> batch = new ArrayList<>();
+        while (auditQueue.drainTo(batch, 500) > 0) {
+            List<Object[]> rows = batch.stream()
+                    .map(e -> new Object[]{e.getContact(), e.getEvent().name(), e.getClientIp(), Timestamp.valueOf(e.getCreatedAt())})
+                    .toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, rows));
+            } catch (Exception e) {
+                // Audit is best effort; never block or fail authentication on it
+                log.warn("Dropped {} OTP audit events: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @Scheduled(cron = "${otp.audit.purge-cron:0 15 4 * * *}")
+    public void purgeAudit() {
+        Integer purged = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM otp_audit_events WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(auditRetentionDays))));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} OTP audit events", purged);
+        }
+    }
+
+    private void audit(String contact, OtpAuditEvent.EventType event, String ip) {
+        auditQueue.offer(OtpAuditEvent.builder()
+                .contact(contact)
+                .event(event)
+                .clientIp(ip)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    // X-Forwarded-For is client-controlled; the servlet container resolves it against
+    // trusted proxies (server.forward-headers-strategy) before this sees the address
+    private static String currentClientIp() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        return attributes.getRequest().getRemoteAddr();
+    }
+}
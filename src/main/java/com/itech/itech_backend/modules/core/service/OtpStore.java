@@ -0,0 +1,64 @@
+package com.itech.itech_backend.modules.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Short-lived OTP storage with native expiry and attempt counting, plus the
+ * sliding-window counters used to rate limit OTP sends.
+ *
+ * Only a digest of each code is kept; comparisons are constant time.
+ */
+public interface OtpStore {
+
+    enum VerificationResult {
+        VERIFIED,
+        MISMATCH,
+        MISSING,
+        LOCKED
+    }
+
+    /**
+     * Replace any pending code for the contact
+     */
+    void put(String contact, String code, Duration ttl);
+
+    /**
+     * Check a code. A match consumes it; after maxAttempts mismatches it is discarded.
+     */
+    VerificationResult verify(String contact, String code, int maxAttempts);
+
+    void remove(String contact);
+
+    /**
+     * A sliding-window send limit: at most limit events per key within window
+     */
+    record Limit(String key, int limit, Duration window) {
+    }
+
+    /**
+     * Record one event under every limit, but only if none of them is full.
+     * Either all slots are taken or none are.
+     *
+     * @return index of the first full limit, or -1 when all were recorded
+     */
+    int tryAcquire(List<Limit> limits);
+
+    default boolean tryAcquire(String key, int limit, Duration window) {
+        return tryAcquire(List.of(new Limit(key, limit, window))) < 0;
+    }
+
+    static byte[] digest(String contact, String code) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(contact.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            return sha256.digest(code.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
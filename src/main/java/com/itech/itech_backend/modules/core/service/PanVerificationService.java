@@ -1,12 +1,23 @@
 package com.itech.itech_backend.modules.core.service;
 
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
+import com.itech.itech_backend.modules.shared.service.TaxVerificationGateway;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
@@ -25,17 +36,22 @@ public class PanVerificationService {
     @Value("${pan.api.key:}")
     private String panApiKey;
 
-    private final WebClient webClient;
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final TaxVerificationGateway verificationGateway;
+    private final OutboundHttp.Integration panApi;
 
     // PAN number pattern: 10 characters
     // Format: 5 letters + 4 digits + 1 letter
     // Example: ABCDE1234F
     private static final Pattern PAN_PATTERN = Pattern.compile("^[A-Z]{5}[0-9]{4}[A-Z]{1}$");
 
-    public PanVerificationService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+    public PanVerificationService(TaxVerificationGateway verificationGateway,
+                                  OutboundHttp outboundHttp,
+                                  @Value("${tax.verification.timeout-ms:10000}") long apiTimeoutMs) {
+        this.verificationGateway = verificationGateway;
+        this.panApi = outboundHttp.integration("pan",
+                OutboundHttp.Settings.of(8, Duration.ofMillis(apiTimeoutMs)).withRetries(2, Duration.ofMillis(300)));
     }
 
     /**
@@ -54,88 +70,62 @@ public class PanVerificationService {
      * Verify PAN number with government API (if enabled and configured)
      */
     public CompletableFuture<Map<String, Object>> verifyPanNumber(String panNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-            
-            // First validate format
-            if (!validatePanFormat(panNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid PAN number format");
-                result.put("panNumber", panNumber);
-                return result;
-            }
+        Map<String, Object> local = localVerification(panNumber);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return verificationGateway.verify(TaxVerificationResult.Kind.PAN_VERIFY, panNumber, this::verifyWithApi);
+    }
 
-            // If API verification is not enabled, return format validation only
-            if (!panVerificationEnabled || panApiUrl == null || panApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "PAN format is valid (API verification disabled)");
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                return result;
+    /**
+     * Verify many PAN numbers at once (bulk vendor imports), keyed by the
+     * normalized number. Repeated numbers are verified once.
+     */
+    public CompletableFuture<Map<String, Map<String, Object>>> verifyPanNumbers(Collection<String> panNumbers) {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        List<String> remote = new ArrayList<>();
+        for (String panNumber : panNumbers) {
+            if (panNumber == null || panNumber.isBlank()) {
+                continue;
             }
-
-            try {
-                // Attempt API verification
-                Map<String, Object> apiResponse = callPanVerificationApi(panNumber);
-                result.putAll(apiResponse);
-                result.put("verified", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                
-            } catch (Exception e) {
-                log.warn("PAN API verification failed for {}: {}", panNumber, e.getMessage());
-                // Fallback to format validation
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "PAN format is valid (API verification failed)");
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("apiError", e.getMessage());
+            Map<String, Object> local = localVerification(panNumber);
+            if (local != null) {
+                results.put(TaxVerificationGateway.normalize(panNumber), local);
+            } else {
+                remote.add(panNumber);
             }
-
-            return result;
-        });
+        }
+        if (remote.isEmpty()) {
+            return CompletableFuture.completedFuture(results);
+        }
+        return verificationGateway.verifyAll(TaxVerificationResult.Kind.PAN_VERIFY, remote, this::verifyWithApi)
+                .thenApply(verified -> {
+                    results.putAll(verified);
+                    return results;
+                });
     }
 
     /**
      * Get PAN details (name, status, etc.) if API is configured
      */
     public CompletableFuture<Map<String, Object>> getPanDetails(String panNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-
-            if (!validatePanFormat(panNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid PAN number format");
-                return result;
-            }
+        Map<String, Object> result = new HashMap<>();
 
-            if (!panVerificationEnabled || panApiUrl == null || panApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("message", "PAN details API not configured");
-                return result;
-            }
+        if (!validatePanFormat(panNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid PAN number format");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            try {
-                Map<String, Object> apiResponse = callPanDetailsApi(panNumber);
-                result.putAll(apiResponse);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                
-            } catch (Exception e) {
-                log.warn("PAN details API failed for {}: {}", panNumber, e.getMessage());
-                result.put("valid", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("message", "PAN number is valid but details unavailable");
-                result.put("apiError", e.getMessage());
-            }
+        if (!isApiConfigured()) {
+            result.put("valid", true);
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            result.put("message", "PAN details API not configured");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            return result;
-        });
+        return verificationGateway.verify(TaxVerificationResult.Kind.PAN_DETAILS, panNumber, this::detailsFromApi);
     }
 
     /**
@@ -186,6 +176,80 @@ public class PanVerificationService {
         return panNumber.substring(0, 5);
     }
 
+    /**
+     * Result that needs no API call: an invalid format, or API verification disabled
+     */
+    private Map<String, Object> localVerification(String panNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        // First validate format
+        if (!validatePanFormat(panNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid PAN number format");
+            result.put("panNumber", panNumber);
+            return result;
+        }
+
+        // If API verification is not enabled, return format validation only
+        if (!isApiConfigured()) {
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "PAN format is valid (API verification disabled)");
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            return result;
+        }
+        return null;
+    }
+
+    private boolean isApiConfigured() {
+        return panVerificationEnabled && panApiUrl != null && !panApiUrl.trim().isEmpty();
+    }
+
+    private TaxVerificationGateway.Outcome verifyWithApi(String panNumber) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            // Attempt API verification
+            Map<String, Object> apiResponse = callPanVerificationApi(panNumber);
+            result.putAll(apiResponse);
+            result.put("verified", true);
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            return TaxVerificationGateway.Outcome.authoritative(result);
+
+        } catch (Exception e) {
+            log.warn("PAN API verification failed for {}: {}", panNumber, e.getMessage());
+            // Fallback to format validation
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "PAN format is valid (API verification failed)");
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            result.put("apiError", e.getMessage());
+            return TaxVerificationGateway.Outcome.fallback(result);
+        }
+    }
+
+    private TaxVerificationGateway.Outcome detailsFromApi(String panNumber) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            Map<String, Object> apiResponse = callPanDetailsApi(panNumber);
+            result.putAll(apiResponse);
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            return TaxVerificationGateway.Outcome.authoritative(result);
+
+        } catch (Exception e) {
+            log.warn("PAN details API failed for {}: {}", panNumber, e.getMessage());
+            result.put("valid", true);
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            result.put("message", "PAN number is valid but details unavailable");
+            result.put("apiError", e.getMessage());
+            return TaxVerificationGateway.Outcome.fallback(result);
+        }
+    }
+
     /**
      * Call external PAN verification API
      */
@@ -196,14 +260,13 @@ public class PanVerificationService {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("panNumber", panNumber);
             
-            Map<String, Object> response = webClient.post()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + panApiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(panApiKey);
+
+            Map<String, Object> response = panApi.execute(() -> panApi.rest()
+                    .exchange(url, HttpMethod.POST, new HttpEntity<>(requestBody, headers), RESPONSE_TYPE)
+                    .getBody());
 
             if (response != null) {
                 return response;
@@ -211,7 +274,7 @@ public class PanVerificationService {
                 throw new RuntimeException("Empty response from PAN API");
             }
             
-        } catch (WebClientResponseException e) {
+        } catch (RestClientResponseException e) {
             log.error("PAN API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("PAN verification API error: " + e.getMessage());
         }
@@ -224,12 +287,12 @@ public class PanVerificationService {
         try {
             String url = panApiUrl + "/details";
             
-            Map<String, Object> response = webClient.get()
-                    .uri(url + "?panNumber=" + panNumber)
-                    .header("Authorization", "Bearer " + panApiKey)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(panApiKey);
+
+            Map<String, Object> response = panApi.execute(() -> panApi.rest()
+                    .exchange(url + "?panNumber=" + panNumber, HttpMethod.GET, new HttpEntity<>(headers), RESPONSE_TYPE)
+                    .getBody());
 
             if (response != null) {
                 return response;
@@ -237,7 +300,7 @@ public class PanVerificationService {
                 throw new RuntimeException("Empty response from PAN details API");
             }
             
-        } catch (WebClientResponseException e) {
+        } catch (RestClientResponseException e) {
             log.error("PAN details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("PAN details API error: " + e.getMessage());
         }
@@ -0,0 +1,101 @@
+package com.itech.itech_backend.modules.core.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed OTP store for multi-node deployments. Codes and attempt
+ * counters use native key TTLs; send windows are sorted sets trimmed by a script.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "redis")
+public class RedisOtpStore implements OtpStore {
+
+    private static final String CODE_PREFIX = "otp:code:";
+    private static final String FAILURES_PREFIX = "otp:failures:";
+    private static final String WINDOW_PREFIX = "otp:window:";
+
+    // Checks every window before adding to any, so a full one leaves the others untouched.
+    // Returns the 1-based position of the first full window, or 0 once all were recorded.
+    private static final RedisScript<Long> SLIDING_WINDOWS = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) " +
+            "for i, key in ipairs(KEYS) do " +
+            "  redis.call('ZREMRANGEBYSCORE', key, 0, now - tonumber(ARGV[2 * i + 1])) " +
+            "  if redis.call('ZCARD', key) >= tonumber(ARGV[2 * i + 2]) then return i end " +
+            "end " +
+            "for i, key in ipairs(KEYS) do " +
+            "  redis.call('ZADD', key, now, ARGV[2]) " +
+            "  redis.call('PEXPIRE', key, ARGV[2 * i + 1]) " +
+            "end " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisOtpStore(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    public void put(String contact, String code, Duration ttl) {
+        redisTemplate.delete(FAILURES_PREFIX + contact);
+        redisTemplate.opsForValue().set(CODE_PREFIX + contact,
+                Base64.getEncoder().encodeToString(OtpStore.digest(contact, code)), ttl);
+    }
+
+    @Override
+    public VerificationResult verify(String contact, String code, int maxAttempts) {
+        String stored = redisTemplate.opsForValue().get(CODE_PREFIX + contact);
+        if (stored == null) {
+            return VerificationResult.MISSING;
+        }
+        if (MessageDigest.isEqual(Base64.getDecoder().decode(stored), OtpStore.digest(contact, code))) {
+            // DEL decides the winner if the same code is submitted twice concurrently
+            boolean consumed = Boolean.TRUE.equals(redisTemplate.delete(CODE_PREFIX + contact));
+            redisTemplate.delete(FAILURES_PREFIX + contact);
+            return consumed ? VerificationResult.VERIFIED : VerificationResult.MISSING;
+        }
+        Long failures = redisTemplate.opsForValue().increment(FAILURES_PREFIX + contact);
+        if (failures != null && failures == 1) {
+            Long ttl = redisTemplate.getExpire(CODE_PREFIX + contact, TimeUnit.MILLISECONDS);
+            redisTemplate.expire(FAILURES_PREFIX + contact,
+                    Duration.ofMillis(ttl != null && ttl > 0 ? ttl : 60_000));
+        }
+        if (failures != null && failures >= maxAttempts) {
+            remove(contact);
+            return VerificationResult.LOCKED;
+        }
+        return VerificationResult.MISMATCH;
+    }
+
+    @Override
+    public void remove(String contact) {
+        redisTemplate.delete(List.of(CODE_PREFIX + contact, FAILURES_PREFIX + contact));
+    }
+
+    @Override
+    public int tryAcquire(List<Limit> limits) {
+        List<String> keys = new ArrayList<>(limits.size());
+        List<String> args = new ArrayList<>(2 + 2 * limits.size());
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(UUID.randomUUID().toString());
+        for (Limit limit : limits) {
+            keys.add(WINDOW_PREFIX + limit.key());
+            args.add(String.valueOf(limit.window().toMillis()));
+            args.add(String.valueOf(limit.limit()));
+        }
+        Long full = redisTemplate.execute(SLIDING_WINDOWS, keys, args.toArray());
+        return full == null || full == 0 ? -1 : full.intValue() - 1;
+    }
+}
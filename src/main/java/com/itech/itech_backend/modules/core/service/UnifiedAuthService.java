@@ -4,13 +4,11 @@ import com.itech.itech_backend.modules.shared.dto.JwtResponse;
 import com.itech.itech_backend.modules.shared.dto.LoginRequestDto;
 import com.itech.itech_backend.modules.shared.dto.RegisterRequestDto;
 import com.itech.itech_backend.modules.shared.dto.VerifyOtpRequestDto;
-import com.itech.itech_backend.modules.core.model.OtpVerification;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.model.UserAddress;
 import com.itech.itech_backend.modules.admin.model.Admins;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.model.Buyer;
-import com.itech.itech_backend.modules.core.repository.OtpVerificationRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
 import com.itech.itech_backend.modules.admin.repository.AdminsRepository;
@@ -23,16 +21,16 @@ import com.itech.itech_backend.modules.shared.service.EmailService;
 import com.itech.itech_backend.modules.shared.service.SmsService;
 import com.itech.itech_backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UnifiedAuthService {
 
     private final UserRepository userRepository;
@@ -41,7 +39,7 @@ public class UnifiedAuthService {
     private final BuyerRepository buyerRepository;
     private final BuyerService buyerService;
     private final UserAddressService userAddressService;
-    private final OtpVerificationRepository otpRepo;
+    private final OtpService otpService;
     private final EmailService emailService;
     private final SmsService smsService;
     private final JwtUtil jwtUtil;
@@ -180,8 +178,7 @@ public class UnifiedAuthService {
             return result;
             
         } catch (Exception e) {
-            System.out.println("❌ Registration failed with error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Registration failed for {}", dto.getEmail(), e);
             
             // Handle specific SQL constraint violations
             if (e.getMessage() != null && e.getMessage().contains("cannot be null")) {
@@ -312,21 +309,14 @@ public class UnifiedAuthService {
         }
         
         // Verify OTP
-        Optional<OtpVerification> otpOpt = otpRepo.findByEmailOrPhone(dto.getEmailOrPhone());
-        if (!otpOpt.isPresent()) {
-            System.out.println("❌ No OTP found for: " + dto.getEmailOrPhone());
-            return null;
-        }
-        
-        OtpVerification otp = otpOpt.get();
-        if (!otp.getOtp().equals(dto.getOtp()) || !otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-            System.out.println("❌ Invalid or expired OTP for: " + dto.getEmailOrPhone());
+        if (!otpService.verify(dto.getOtp(), dto.getEmailOrPhone())) {
+            System.out.println("❌ Invalid, expired or missing OTP for: " + dto.getEmailOrPhone());
             return null;
         }
         
         // Mark user as verified and save to the correct table
         updateUserVerificationStatus(user.getEmail(), true);
-        otpRepo.delete(otp);
+        otpService.invalidate(user.getEmail(), user.getPhone());
         
         String token = jwtUtil.generateToken(user.getEmail(), user.getRoleAsString(), user.getId());
         System.out.println("✅ OTP verification successful for: " + dto.getEmailOrPhone());
@@ -472,41 +462,13 @@ public class UnifiedAuthService {
     }
 
     private String sendRegistrationOtp(RegisterRequestDto dto, User user) {
-        String otp = generateOtp();
-        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
-        
-        // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== OTP GENERATED FOR DEVELOPMENT ===========");
-        System.out.println("📧 Email: " + dto.getEmail());
-        System.out.println("📱 Phone: " + dto.getPhone());
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("===================================================\n");
-        
-        // Clean up old OTPs
-        if (dto.getEmail() != null) {
-            otpRepo.deleteByEmailOrPhone(dto.getEmail());
-        }
-        if (dto.getPhone() != null) {
-            otpRepo.deleteByEmailOrPhone(dto.getPhone());
-        }
-        
-        // Store OTP
-        if (dto.getEmail() != null) {
-            otpRepo.save(OtpVerification.builder()
-                .emailOrPhone(dto.getEmail())
-                .otp(otp)
-                .expiryTime(expiry)
-                .build());
-        }
-        
-        if (dto.getPhone() != null) {
-            otpRepo.save(OtpVerification.builder()
-                .emailOrPhone(dto.getPhone())
-                .otp(otp)
-                .expiryTime(expiry)
-                .build());
+        // One code for both channels, replacing any pending one
+        Optional<String> issued = otpService.issue(dto.getEmail(), dto.getPhone());
+        if (issued.isEmpty()) {
+            return "Too many OTP requests. Please try again later.";
         }
+        String otp = issued.get();
+        log.debug("Registration OTP issued for user {}", user.getId());
         
         // Send OTP
         if (dto.getEmail() != null) {
@@ -522,9 +484,6 @@ public class UnifiedAuthService {
     }
 
     private boolean validatePassword(String inputPassword, String storedPassword) {
-        System.out.println("🔍 Debug - Input password: " + inputPassword);
-        System.out.println("🔍 Debug - Stored password: " + storedPassword);
-        
         // Check if stored password is BCrypt hash
         if (storedPassword != null && storedPassword.startsWith("$2a$")) {
             // BCrypt validation
@@ -540,23 +499,12 @@ public class UnifiedAuthService {
     }
 
     private String generateAndSendOtp(String contact, String role) {
-        String otp = generateOtp();
-        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
-        
-        // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== LOGIN OTP GENERATED FOR DEVELOPMENT ===========");
-        System.out.println("📞 Contact: " + contact);
-        System.out.println("🔗 Role: " + role);
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("==========================================================\n");
-        
-        otpRepo.deleteByEmailOrPhone(contact);
-        otpRepo.save(OtpVerification.builder()
-            .emailOrPhone(contact)
-            .otp(otp)
-            .expiryTime(expiry)
-            .build());
+        Optional<String> issued = otpService.issue(contact);
+        if (issued.isEmpty()) {
+            return "Too many OTP requests. Please try again later.";
+        }
+        String otp = issued.get();
+        log.debug("Login OTP issued for {} as {}", contact, role);
         
         if (contact.contains("@")) {
             emailService.sendOtp(contact, otp);
@@ -567,11 +515,6 @@ public class UnifiedAuthService {
         }
     }
 
-    private String generateOtp() {
-        Random rand = new Random();
-        return String.format("%06d", rand.nextInt(999999));
-    }
-    
     /**
      * Find user across all tables (User, Vendors, Admins)
      */
@@ -1042,25 +985,12 @@ public class UnifiedAuthService {
         System.out.println("✅ User found: " + user.getEmail() + ", Role: " + user.getRole());
         
         // Generate and send OTP
-        String otp = generateOtp();
-        LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
-        
-        // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== FORGOT PASSWORD OTP FOR DEVELOPMENT ===========");
-        System.out.println("📧 Email: " + email);
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("============================================================\n");
-        
-        // Clean up old OTPs for this email
-        otpRepo.deleteByEmailOrPhone(email);
-        
-        // Store new OTP
-        otpRepo.save(OtpVerification.builder()
-            .emailOrPhone(email)
-            .otp(otp)
-            .expiryTime(expiry)
-            .build());
+        Optional<String> issued = otpService.issue(email);
+        if (issued.isEmpty()) {
+            return "Too many OTP requests. Please try again later.";
+        }
+        String otp = issued.get();
+        log.debug("Password reset OTP issued for {}", email);
         
         // Send OTP via email
         System.out.println("✉️ Sending forgot password OTP to email: " + email);
@@ -1236,16 +1166,9 @@ public class UnifiedAuthService {
         
         User user = userOpt.get();
         
-        // Verify OTP
-        Optional<OtpVerification> otpOpt = otpRepo.findByEmailOrPhone(email);
-        if (!otpOpt.isPresent()) {
-            System.out.println("❌ No OTP found for email: " + email);
-            return null;
-        }
-        
-        OtpVerification otp = otpOpt.get();
-        if (!otp.getOtp().equals(otpCode) || !otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-            System.out.println("❌ Invalid or expired OTP");
+        // Verify OTP (consumed on success)
+        if (!otpService.verify(otpCode, email)) {
+            System.out.println("❌ Invalid, expired or missing OTP");
             return null;
         }
         
@@ -1260,9 +1183,6 @@ public class UnifiedAuthService {
         user.setVerified(true);
         userRepository.save(user);
         
-        // Clean up OTP
-        otpRepo.delete(otp);
-        
         // Generate token and login the user
         String token = jwtUtil.generateToken(user.getEmail(), user.getRoleAsString(), user.getId());
         
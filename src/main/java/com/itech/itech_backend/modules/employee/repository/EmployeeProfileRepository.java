@@ -168,6 +168,13 @@ public interface EmployeeProfileRepository extends JpaRepository<EmployeeProfile
            "GROUP BY e.status ORDER BY COUNT(e) DESC")
     List<Object[]> getEmployeeCountByStatus();
 
+    // Every dashboard counter in one pass: (department, status, employeeType, count, incompleteProfiles, unverifiedDocuments)
+    @Query("SELECT e.department, e.status, e.employeeType, COUNT(e), " +
+           "COALESCE(SUM(CASE WHEN e.isProfileComplete = false THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN e.isDocumentsVerified = false THEN 1 ELSE 0 END), 0) " +
+           "FROM EmployeeProfile e GROUP BY e.department, e.status, e.employeeType")
+    List<Object[]> aggregateStatistics();
+
     // Employees with roles
     @Query("SELECT e FROM EmployeeProfile e JOIN e.roles r WHERE r = :role " +
            "AND e.status IN ('ACTIVE', 'CONFIRMED', 'ON_PROBATION') " +
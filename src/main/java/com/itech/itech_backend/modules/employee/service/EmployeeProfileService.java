@@ -5,6 +5,7 @@ import com.itech.itech_backend.modules.employee.entity.EmployeeProfile.EmployeeS
 import com.itech.itech_backend.modules.employee.entity.EmployeeProfile.EmployeeType;
 import com.itech.itech_backend.modules.employee.entity.EmployeeProfile.EmployeeRole;
 import com.itech.itech_backend.modules.employee.repository.EmployeeProfileRepository;
+import com.itech.itech_backend.modules.shared.service.StatisticsCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +28,11 @@ import java.util.stream.Collectors;
 public class EmployeeProfileService {
 
     private final EmployeeProfileRepository employeeProfileRepository;
+    private final StatisticsCache statisticsCache;
+
+    // Statuses the dashboard counts as currently employed
+    private static final Set<EmployeeStatus> ACTIVE_STATUSES =
+            Set.of(EmployeeStatus.ACTIVE, EmployeeStatus.CONFIRMED, EmployeeStatus.ON_PROBATION);
 
     /**
      * Get employee profile by ID
@@ -98,7 +105,7 @@ public class EmployeeProfileService {
             employeeProfile.setRoles(Set.of(EmployeeRole.EMPLOYEE));
         }
         
-        return employeeProfileRepository.save(employeeProfile);
+        return saveEmployee(employeeProfile);
     }
 
     /**
@@ -129,7 +136,7 @@ public class EmployeeProfileService {
         // Update fields
         updateEmployeeFields(existingProfile, updatedProfile);
         
-        return employeeProfileRepository.save(existingProfile);
+        return saveEmployee(existingProfile);
     }
 
     /**
@@ -154,7 +161,7 @@ public class EmployeeProfileService {
             case TERMINATED -> employee.setLastWorkingDay(LocalDate.now());
         }
         
-        return employeeProfileRepository.save(employee);
+        return saveEmployee(employee);
     }
 
     /**
@@ -169,7 +176,7 @@ public class EmployeeProfileService {
         // Soft delete by marking as terminated
         employee.setStatus(EmployeeStatus.TERMINATED);
         employee.setLastWorkingDay(LocalDate.now());
-        employeeProfileRepository.save(employee);
+        saveEmployee(employee);
     }
 
     /**
@@ -197,7 +204,7 @@ public class EmployeeProfileService {
             }
         }
         
-        return employeeProfileRepository.saveAll(employees);
+        return saveEmployees(employees);
     }
 
     /**
@@ -299,40 +306,60 @@ public class EmployeeProfileService {
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getEmployeeStatistics() {
+        return statisticsCache.get(StatisticsCache.Subject.EMPLOYEE, this::loadEmployeeStatistics);
+    }
+
+    private Map<String, Object> loadEmployeeStatistics() {
         log.debug("📊 Getting employee statistics");
         
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalEmployees", employeeProfileRepository.count());
-        stats.put("activeEmployees", employeeProfileRepository.countActiveEmployees());
-        stats.put("incompleteProfiles", employeeProfileRepository.countIncompleteProfiles());
-        stats.put("unverifiedDocuments", employeeProfileRepository.countUnverifiedDocuments());
-        
-        // Department breakdown
-        List<Object[]> deptStats = employeeProfileRepository.getEmployeeCountByDepartment();
+        long total = 0, active = 0, incomplete = 0, unverified = 0;
         Map<String, Long> departmentBreakdown = new HashMap<>();
-        for (Object[] stat : deptStats) {
-            departmentBreakdown.put((String) stat[0], (Long) stat[1]);
-        }
-        stats.put("employeesByDepartment", departmentBreakdown);
-        
-        // Status breakdown
-        List<Object[]> statusStats = employeeProfileRepository.getEmployeeCountByStatus();
         Map<String, Long> statusBreakdown = new HashMap<>();
-        for (Object[] stat : statusStats) {
-            statusBreakdown.put(stat[0].toString(), (Long) stat[1]);
-        }
-        stats.put("employeesByStatus", statusBreakdown);
-        
-        // Employee type breakdown
-        List<Object[]> typeStats = employeeProfileRepository.getEmployeeCountByType();
         Map<String, Long> typeBreakdown = new HashMap<>();
-        for (Object[] stat : typeStats) {
-            typeBreakdown.put(stat[0].toString(), (Long) stat[1]);
+        
+        // One grouped query; profile, department and type counters only cover active employees
+        for (Object[] row : employeeProfileRepository.aggregateStatistics()) {
+            EmployeeStatus status = (EmployeeStatus) row[1];
+            long count = ((Number) row[3]).longValue();
+            total += count;
+            if (status != null) {
+                statusBreakdown.merge(status.toString(), count, Long::sum);
+            }
+            if (status == null || !ACTIVE_STATUSES.contains(status)) {
+                continue;
+            }
+            active += count;
+            incomplete += ((Number) row[4]).longValue();
+            unverified += ((Number) row[5]).longValue();
+            if (row[0] != null) {
+                departmentBreakdown.merge((String) row[0], count, Long::sum);
+            }
+            if (row[2] != null) {
+                typeBreakdown.merge(row[2].toString(), count, Long::sum);
+            }
         }
-        stats.put("employeesByType", typeBreakdown);
         
-        return stats;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalEmployees", total);
+        stats.put("activeEmployees", active);
+        stats.put("incompleteProfiles", incomplete);
+        stats.put("unverifiedDocuments", unverified);
+        stats.put("employeesByDepartment", Collections.unmodifiableMap(departmentBreakdown));
+        stats.put("employeesByStatus", Collections.unmodifiableMap(statusBreakdown));
+        stats.put("employeesByType", Collections.unmodifiableMap(typeBreakdown));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private EmployeeProfile saveEmployee(EmployeeProfile employee) {
+        EmployeeProfile saved = employeeProfileRepository.save(employee);
+        statisticsCache.invalidate(StatisticsCache.Subject.EMPLOYEE);
+        return saved;
+    }
+
+    private List<EmployeeProfile> saveEmployees(List<EmployeeProfile> employees) {
+        List<EmployeeProfile> saved = employeeProfileRepository.saveAll(employees);
+        statisticsCache.invalidate(StatisticsCache.Subject.EMPLOYEE);
+        return saved;
     }
 
     /**
@@ -385,7 +412,7 @@ public class EmployeeProfileService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee profile not found with ID: " + employeeId));
         
         employee.getRoles().add(role);
-        return employeeProfileRepository.save(employee);
+        return saveEmployee(employee);
     }
 
     /**
@@ -398,7 +425,7 @@ public class EmployeeProfileService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee profile not found with ID: " + employeeId));
         
         employee.getRoles().remove(role);
-        return employeeProfileRepository.save(employee);
+        return saveEmployee(employee);
     }
 
     /**
@@ -411,7 +438,7 @@ public class EmployeeProfileService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee profile not found with ID: " + employeeId));
         
         employee.getPermissions().add(permission);
-        return employeeProfileRepository.save(employee);
+        return saveEmployee(employee);
     }
 
     /**
@@ -424,7 +451,7 @@ public class EmployeeProfileService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee profile not found with ID: " + employeeId));
         
         employee.getPermissions().remove(permission);
-        return employeeProfileRepository.save(employee);
+        return saveEmployee(employee);
     }
 
     // Private helper methods
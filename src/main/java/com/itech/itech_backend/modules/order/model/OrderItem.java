@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Table(name = "order_items", indexes = {
     @Index(name = "idx_order_item_order", columnList = "order_id"),
     @Index(name = "idx_order_item_product", columnList = "product_id"),
-    @Index(name = "idx_order_item_vendor", columnList = "vendor_id")
+    @Index(name = "idx_order_item_vendor", columnList = "vendor_id"),
+    @Index(name = "idx_order_item_metrics_counted", columnList = "metrics_counted, fulfillment_status")
 })
 @Data
 @NoArgsConstructor
@@ -233,6 +234,10 @@ public class OrderItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Set by ProductMetricsStore to whether it counted the line; never written through the entity
+    @Column(name = "metrics_counted", insertable = false, updatable = false)
+    private Boolean metricsCounted;
+
     // ===============================
     // ENUMS
     // ===============================
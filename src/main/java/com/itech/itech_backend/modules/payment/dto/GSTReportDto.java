@@ -25,8 +25,24 @@ public class GSTReportDto {
     private BigDecimal totalIGST;
     private BigDecimal totalGST;
     
+    private List<GstSlabSummary> slabs;
+    
     private List<GstInvoiceSummary> invoices;
     
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class GstSlabSummary {
+        private BigDecimal gstRate;
+        private BigDecimal taxableAmount;
+        private BigDecimal cgst;
+        private BigDecimal sgst;
+        private BigDecimal igst;
+        private BigDecimal totalAmount;
+        private Long invoiceCount;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
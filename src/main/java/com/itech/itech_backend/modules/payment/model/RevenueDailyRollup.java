@@ -0,0 +1,81 @@
+package com.itech.itech_backend.modules.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue facts summed per day, vendor and GST slab. Monthly, quarterly and
+ * GST reports are sums over these rows.
+ */
+@Entity
+@Table(name = "revenue_daily_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_revenue_daily_rollup",
+        columnNames = {"rollup_date", "vendor_id", "gst_rate"}),
+    indexes = {
+        @Index(name = "idx_revenue_rollup_vendor", columnList = "vendor_id, rollup_date")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "gst_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal gstRate;
+
+    @Builder.Default
+    @Column(name = "sales_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal salesAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "sales_orders", nullable = false)
+    private Long salesOrders = 0L;
+
+    @Builder.Default
+    @Column(name = "refund_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal refundAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "refund_count", nullable = false)
+    private Long refundCount = 0L;
+
+    @Builder.Default
+    @Column(name = "invoice_taxable", nullable = false, precision = 15, scale = 2)
+    private BigDecimal invoiceTaxable = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "invoice_cgst", nullable = false, precision = 15, scale = 2)
+    private BigDecimal invoiceCgst = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "invoice_sgst", nullable = false, precision = 15, scale = 2)
+    private BigDecimal invoiceSgst = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "invoice_igst", nullable = false, precision = 15, scale = 2)
+    private BigDecimal invoiceIgst = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "invoice_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal invoiceTotal = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "invoice_count", nullable = false)
+    private Long invoiceCount = 0L;
+}
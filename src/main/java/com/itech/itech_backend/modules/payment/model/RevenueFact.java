@@ -0,0 +1,113 @@
+package com.itech.itech_backend.modules.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One revenue event in the ledger: a vendor's share of a paid order or its
+ * reversal, a completed refund, an invoice, or the cancellation of an invoice.
+ *
+ * Facts are written once and only ever gain their roll-up marker; a fact is
+ * identified by its type, source row, vendor and GST slab. Vendor 0 stands
+ * for platform revenue that is not attributed to a vendor.
+ */
+@Entity
+@Table(name = "revenue_facts",
+    uniqueConstraints = @UniqueConstraint(name = "uk_revenue_fact",
+        columnNames = {"fact_type", "source_id", "vendor_id", "gst_rate"}),
+    indexes = {
+        @Index(name = "idx_revenue_fact_created", columnList = "created_at"),
+        @Index(name = "idx_revenue_fact_rolled_up", columnList = "rolled_up_at, id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueFact {
+
+    public static final long PLATFORM_VENDOR_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fact_type", nullable = false, length = 20)
+    private FactType factType;
+
+    // Order id for sales and reversals, refund id for refunds, invoice id for invoices and voids
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "gst_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal gstRate;
+
+    @Column(name = "occurred_on", nullable = false)
+    private LocalDate occurredOn;
+
+    // Sale value, refunded amount or invoice total; negative for reversals and voids
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Builder.Default
+    @Column(name = "taxable_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal taxableAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal cgst = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal sgst = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal igst = BigDecimal.ZERO;
+
+    // What the fact adds to its count: orders, refunds or invoices (negative for reversals and voids)
+    @Column(nullable = false)
+    private Integer units;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set in the transaction that adds the fact to the daily rollups
+    @Column(name = "rolled_up_at")
+    private LocalDateTime rolledUpAt;
+
+    public enum FactType {
+        SALE,
+        SALE_REVERSAL,
+        REFUND,
+        INVOICE,
+        INVOICE_VOID
+    }
+
+    /**
+     * Identity of the fact within its type, for de-duplication
+     */
+    public String sourceKey() {
+        return sourceId + ":" + vendorId + ":" + gstRate.toPlainString();
+    }
+
+    public static BigDecimal slab(BigDecimal rate) {
+        return (rate != null ? rate : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal money(BigDecimal value) {
+        return (value != null ? value : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
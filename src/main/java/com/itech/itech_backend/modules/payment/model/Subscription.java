@@ -7,6 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "subscription", indexes = {
+    @Index(name = "idx_subscription_status_end_date", columnList = "status, end_date"),
+    @Index(name = "idx_subscription_vendor", columnList = "vendor_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,6 +57,15 @@ public class Subscription {
     
     private LocalDateTime endDate;
     
+    // Set once the renewal reminder for this term has been queued
+    private LocalDateTime renewalReminderSentAt;
+
+    // End date as loaded, so a renewal that moves it can re-arm the reminder
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime loadedEndDate;
+    
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private SubscriptionStatus status = SubscriptionStatus.ACTIVE;
@@ -60,6 +73,21 @@ public class Subscription {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
     
+    @PostLoad
+    @PostPersist
+    void rememberEndDate() {
+        loadedEndDate = endDate;
+    }
+
+    // A new term gets its own reminder
+    @PreUpdate
+    void clearReminderOnRenewal() {
+        if (endDate != null && !endDate.equals(loadedEndDate)) {
+            renewalReminderSentAt = null;
+        }
+        loadedEndDate = endDate;
+    }
+
     public enum PlanType {
         BASIC, SILVER, GOLD, PLATINUM, DIAMOND
     }
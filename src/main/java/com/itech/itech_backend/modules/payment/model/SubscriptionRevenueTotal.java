@@ -0,0 +1,33 @@
+package com.itech.itech_backend.modules.payment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running subscription revenue per plan type, maintained with additive
+ * updates as vendors subscribe instead of summing every subscription.
+ */
+@Entity
+@Table(name = "subscription_revenue_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionRevenueTotal {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Subscription.PlanType planType;
+
+    @Builder.Default
+    private Double totalRevenue = 0.0;
+
+    @Builder.Default
+    private Long subscriptionCount = 0L;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.itech.itech_backend.modules.payment.repository;
+
+import com.itech.itech_backend.modules.payment.model.RevenueDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Range sums over the daily revenue rollups, always for [from, to). Totals
+ * rows are (key, sales, orders, refunds, refund count, taxable, CGST, SGST,
+ * IGST, invoiced, invoice count).
+ */
+@Repository
+public interface RevenueDailyRollupRepository extends JpaRepository<RevenueDailyRollup, Long> {
+
+    @Query("SELECT r.rollupDate, SUM(r.salesAmount), SUM(r.salesOrders), SUM(r.refundAmount), SUM(r.refundCount), " +
+           "SUM(r.invoiceTaxable), SUM(r.invoiceCgst), SUM(r.invoiceSgst), SUM(r.invoiceIgst), " +
+           "SUM(r.invoiceTotal), SUM(r.invoiceCount) " +
+           "FROM RevenueDailyRollup r WHERE r.rollupDate >= :from AND r.rollupDate < :to " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.rollupDate, SUM(r.salesAmount), SUM(r.salesOrders), SUM(r.refundAmount), SUM(r.refundCount), " +
+           "SUM(r.invoiceTaxable), SUM(r.invoiceCgst), SUM(r.invoiceSgst), SUM(r.invoiceIgst), " +
+           "SUM(r.invoiceTotal), SUM(r.invoiceCount) " +
+           "FROM RevenueDailyRollup r WHERE r.vendorId = :vendorId AND r.rollupDate >= :from AND r.rollupDate < :to " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> sumByDayForVendor(@Param("vendorId") Long vendorId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    @Query("SELECT r.gstRate, SUM(r.salesAmount), SUM(r.salesOrders), SUM(r.refundAmount), SUM(r.refundCount), " +
+           "SUM(r.invoiceTaxable), SUM(r.invoiceCgst), SUM(r.invoiceSgst), SUM(r.invoiceIgst), " +
+           "SUM(r.invoiceTotal), SUM(r.invoiceCount) " +
+           "FROM RevenueDailyRollup r WHERE r.rollupDate >= :from AND r.rollupDate < :to " +
+           "GROUP BY r.gstRate ORDER BY r.gstRate")
+    List<Object[]> sumBySlab(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // vendor id, net sales
+    @Query("SELECT r.vendorId, SUM(r.salesAmount) - SUM(r.refundAmount) " +
+           "FROM RevenueDailyRollup r WHERE r.vendorId <> 0 AND r.rollupDate >= :from AND r.rollupDate < :to " +
+           "GROUP BY r.vendorId ORDER BY SUM(r.salesAmount) - SUM(r.refundAmount) DESC, r.vendorId")
+    List<Object[]> rankVendorsByNetSales(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.itech.itech_backend.modules.payment.repository;
+
+import com.itech.itech_backend.modules.payment.model.RevenueFact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevenueFactRepository extends JpaRepository<RevenueFact, Long> {
+
+    List<RevenueFact> findByFactTypeAndSourceIdIn(RevenueFact.FactType factType, Collection<Long> sourceIds);
+}
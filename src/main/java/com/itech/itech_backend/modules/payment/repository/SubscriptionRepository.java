@@ -3,11 +3,15 @@ package com.itech.itech_backend.modules.payment.repository;
 import com.itech.itech_backend.modules.payment.model.Subscription;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,5 +33,44 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     
     @Query("SELECT s.planType, COUNT(s) FROM Subscription s WHERE s.vendor IS NOT NULL GROUP BY s.planType")
     List<Object[]> getSubscriptionPlanTypeCounts();
+
+    // Revenue and count per plan type, used to seed and reconcile the running totals
+    @Query("SELECT s.planType, COALESCE(SUM(s.price), 0), COUNT(s) FROM Subscription s " +
+           "WHERE s.vendor IS NOT NULL AND s.planType IS NOT NULL GROUP BY s.planType")
+    List<Object[]> aggregateRevenueByPlanType();
+
+    // Keyset page of active subscriptions past their end date: (id, endDate, vendor user id, plan name)
+    @Query("SELECT s.id, s.endDate, u.id, s.planName FROM Subscription s JOIN s.vendor v LEFT JOIN v.user u " +
+           "WHERE s.status = 'ACTIVE' AND s.endDate <= :now " +
+           "AND (s.endDate > :afterEnd OR (s.endDate = :afterEnd AND s.id > :afterId)) " +
+           "ORDER BY s.endDate, s.id")
+    List<Object[]> findExpiredPage(@Param("now") LocalDateTime now,
+                                   @Param("afterEnd") LocalDateTime afterEnd,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    // Keyset page of active subscriptions ending inside the reminder window that have not been reminded
+    @Query("SELECT s.id, s.endDate, u.id, s.planName FROM Subscription s JOIN s.vendor v LEFT JOIN v.user u " +
+           "WHERE s.status = 'ACTIVE' AND s.endDate > :now AND s.endDate <= :horizon " +
+           "AND s.renewalReminderSentAt IS NULL " +
+           "AND (s.endDate > :afterEnd OR (s.endDate = :afterEnd AND s.id > :afterId)) " +
+           "ORDER BY s.endDate, s.id")
+    List<Object[]> findRenewalDuePage(@Param("now") LocalDateTime now,
+                                      @Param("horizon") LocalDateTime horizon,
+                                      @Param("afterEnd") LocalDateTime afterEnd,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Subscription s SET s.status = 'EXPIRED' " +
+           "WHERE s.id IN :ids AND s.status = 'ACTIVE' AND s.endDate <= :now")
+    int expireByIds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Subscription s SET s.renewalReminderSentAt = :now " +
+           "WHERE s.id IN :ids AND s.renewalReminderSentAt IS NULL")
+    int markRenewalReminded(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
 }
 
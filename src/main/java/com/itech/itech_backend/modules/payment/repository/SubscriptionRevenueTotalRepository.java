@@ -0,0 +1,46 @@
+package com.itech.itech_backend.modules.payment.repository;
+
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.payment.model.SubscriptionRevenueTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SubscriptionRevenueTotalRepository extends JpaRepository<SubscriptionRevenueTotal, Subscription.PlanType> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubscriptionRevenueTotal t SET t.totalRevenue = t.totalRevenue + :amount, " +
+           "t.subscriptionCount = t.subscriptionCount + 1, t.updatedAt = :now WHERE t.planType = :planType")
+    int addSubscription(@Param("planType") Subscription.PlanType planType,
+                        @Param("amount") Double amount,
+                        @Param("now") LocalDateTime now);
+
+    // Held while reconciling so no addSubscription can land between the aggregate and the write
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM SubscriptionRevenueTotal t")
+    List<SubscriptionRevenueTotal> findAllForUpdate();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubscriptionRevenueTotal t SET t.totalRevenue = :totalRevenue, " +
+           "t.subscriptionCount = :subscriptionCount, t.updatedAt = :now WHERE t.planType = :planType")
+    int resetTotals(@Param("planType") Subscription.PlanType planType,
+                    @Param("totalRevenue") Double totalRevenue,
+                    @Param("subscriptionCount") Long subscriptionCount,
+                    @Param("now") LocalDateTime now);
+
+    boolean existsByTotalRevenueIsNull();
+
+    @Query("SELECT SUM(t.totalRevenue) FROM SubscriptionRevenueTotal t")
+    Double getTotalRevenue();
+}
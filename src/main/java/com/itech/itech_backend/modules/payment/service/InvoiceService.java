@@ -14,9 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -28,9 +31,11 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final VendorsRepository vendorsRepository;
+    private final RevenueLedger revenueLedger;
 
     private static final String COMPANY_GST = "27AALCS6669K1ZF"; // Company GST number
     private static final BigDecimal GST_RATE = new BigDecimal("18.00"); // 18% GST
+    private static final int REPORT_TOP_VENDORS = 20;
 
     /**
      * Generate GST invoice for subscription payment
@@ -74,6 +79,7 @@ public class InvoiceService {
                 .build();
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        revenueLedger.recordInvoice(savedInvoice);
         log.info("Invoice generated successfully: {}", invoiceNumber);
         
         return savedInvoice;
@@ -315,15 +321,57 @@ public class InvoiceService {
         return generateInvoicePDF(invoiceId);
     }
 
+    @Transactional
     public Invoice updateInvoiceStatus(Long invoiceId, String status) {
         Invoice invoice = getInvoiceById(invoiceId);
+        Invoice.InvoiceStatus previous = invoice.getStatus();
         invoice.setStatus(Invoice.InvoiceStatus.valueOf(status));
-        return invoiceRepository.save(invoice);
+        Invoice saved = invoiceRepository.save(invoice);
+        if (saved.getStatus() == Invoice.InvoiceStatus.CANCELLED && previous != Invoice.InvoiceStatus.CANCELLED) {
+            revenueLedger.recordInvoiceVoid(saved);
+        }
+        return saved;
     }
 
+    /**
+     * Invoiced revenue and tax per day, week, month or quarter, from the revenue
+     * ledger's daily rollups. The range is taken in whole days.
+     */
     public FinancialReportDto generateRevenueReport(LocalDateTime startDate, LocalDateTime endDate, String groupBy) {
-        // Generate financial report
-        throw new RuntimeException("Not implemented yet");
+        RevenueLedger.Period period = RevenueLedger.Period.parse(groupBy, RevenueLedger.Period.MONTH);
+        LocalDate from = startDate.toLocalDate();
+        LocalDate to = endDate.toLocalDate().plusDays(1);
+
+        Map<String, BigDecimal> revenueByPeriod = new LinkedHashMap<>();
+        Map<String, Long> invoicesByPeriod = new LinkedHashMap<>();
+        Map<String, BigDecimal> taxByPeriod = new LinkedHashMap<>();
+        RevenueLedger.Totals totals = RevenueLedger.Totals.ZERO;
+        for (Map.Entry<LocalDate, RevenueLedger.Totals> entry : revenueLedger.series(null, from, to, period).entrySet()) {
+            String label = period.label(entry.getKey());
+            RevenueLedger.Totals periodTotals = entry.getValue();
+            revenueByPeriod.put(label, periodTotals.invoiced());
+            invoicesByPeriod.put(label, periodTotals.invoiceCount());
+            taxByPeriod.put(label, periodTotals.tax());
+            totals = totals.plus(periodTotals);
+        }
+
+        Map<String, BigDecimal> revenueByVendor = new LinkedHashMap<>();
+        revenueLedger.topVendors(from, to, REPORT_TOP_VENDORS)
+                .forEach((vendorId, netSales) -> revenueByVendor.put(String.valueOf(vendorId), netSales));
+
+        return FinancialReportDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .groupBy(period.name())
+                .totalRevenue(totals.invoiced())
+                .totalTax(totals.tax())
+                .totalInvoices(totals.invoiceCount())
+                .revenueByPeriod(revenueByPeriod)
+                .invoicesByPeriod(invoicesByPeriod)
+                .taxByPeriod(taxByPeriod)
+                .revenueByType(revenueByType(totals))
+                .revenueByVendor(revenueByVendor)
+                .build();
     }
 
     public SubscriptionReportDto generateSubscriptionReport(LocalDateTime startDate, LocalDateTime endDate) {
@@ -332,13 +380,88 @@ public class InvoiceService {
     }
 
     public FinanceDashboardDto getDashboardOverview() {
-        // Generate dashboard overview
-        throw new RuntimeException("Not implemented yet");
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        RevenueLedger.Totals allTime = revenueLedger.totals();
+        RevenueLedger.Totals month = revenueLedger.totals(monthStart, today.plusDays(1));
+        RevenueLedger.Totals previousMonth = revenueLedger.totals(monthStart.minusMonths(1), monthStart);
+        RevenueLedger.Totals day = revenueLedger.totals(today, today.plusDays(1));
+
+        // Invoice status is not a ledger fact; one grouped count over invoices
+        Map<String, Long> invoicesByStatus = new LinkedHashMap<>();
+        for (Object[] row : invoiceRepository.getInvoiceStatusCounts()) {
+            invoicesByStatus.put(row[0].toString(), ((Number) row[1]).longValue());
+        }
+        long pendingInvoices = invoicesByStatus.getOrDefault(Invoice.InvoiceStatus.GENERATED.name(), 0L)
+                + invoicesByStatus.getOrDefault(Invoice.InvoiceStatus.SENT.name(), 0L)
+                + invoicesByStatus.getOrDefault(Invoice.InvoiceStatus.OVERDUE.name(), 0L);
+
+        return FinanceDashboardDto.builder()
+                .totalRevenue(allTime.invoiced())
+                .monthlyRevenue(month.invoiced())
+                .dailyRevenue(day.invoiced())
+                .totalInvoices(invoicesByStatus.values().stream().mapToLong(Long::longValue).sum())
+                .paidInvoices(invoicesByStatus.getOrDefault(Invoice.InvoiceStatus.PAID.name(), 0L))
+                .pendingInvoices(pendingInvoices)
+                .totalTax(allTime.tax())
+                .monthlyTax(month.tax())
+                .revenueByType(revenueByType(allTime))
+                .invoicesByStatus(invoicesByStatus)
+                .revenueGrowthRate(growthRate(previousMonth.invoiced(), month.invoiced()))
+                .invoiceGrowthRate(growthRate(BigDecimal.valueOf(previousMonth.invoiceCount()),
+                        BigDecimal.valueOf(month.invoiceCount())))
+                .build();
     }
 
+    /**
+     * GST totals per slab from the revenue ledger's daily rollups. The range is taken in whole days.
+     */
     public GSTReportDto generateGSTReport(LocalDateTime startDate, LocalDateTime endDate) {
-        // Generate GST report
-        throw new RuntimeException("Not implemented yet");
+        List<GSTReportDto.GstSlabSummary> slabs = new ArrayList<>();
+        RevenueLedger.Totals totals = RevenueLedger.Totals.ZERO;
+        for (RevenueLedger.SlabTotals slab : revenueLedger.gstSlabs(startDate.toLocalDate(), endDate.toLocalDate().plusDays(1))) {
+            RevenueLedger.Totals slabTotals = slab.totals();
+            if (slabTotals.invoiceCount() == 0 && slabTotals.invoiced().signum() == 0) {
+                continue; // Sales only; nothing invoiced in this slab
+            }
+            slabs.add(GSTReportDto.GstSlabSummary.builder()
+                    .gstRate(slab.gstRate())
+                    .taxableAmount(slabTotals.invoicedTaxable())
+                    .cgst(slabTotals.cgst())
+                    .sgst(slabTotals.sgst())
+                    .igst(slabTotals.igst())
+                    .totalAmount(slabTotals.invoiced())
+                    .invoiceCount(slabTotals.invoiceCount())
+                    .build());
+            totals = totals.plus(slabTotals);
+        }
+
+        return GSTReportDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalTaxableAmount(totals.invoicedTaxable())
+                .totalCGST(totals.cgst())
+                .totalSGST(totals.sgst())
+                .totalIGST(totals.igst())
+                .totalGST(totals.tax())
+                .slabs(slabs)
+                .build();
+    }
+
+    private static Map<String, BigDecimal> revenueByType(RevenueLedger.Totals totals) {
+        Map<String, BigDecimal> byType = new LinkedHashMap<>();
+        byType.put("SALES", totals.sales());
+        byType.put("REFUNDS", totals.refunds());
+        byType.put("INVOICED", totals.invoiced());
+        return byType;
+    }
+
+    private static double growthRate(BigDecimal previous, BigDecimal current) {
+        if (previous.signum() == 0) {
+            return current.signum() > 0 ? 100.0 : 0.0;
+        }
+        return current.subtract(previous).multiply(new BigDecimal("100"))
+                .divide(previous, 1, RoundingMode.HALF_UP).doubleValue();
     }
 
     public List<Invoice> bulkGenerateInvoices(BulkInvoiceGenerationDto request) {
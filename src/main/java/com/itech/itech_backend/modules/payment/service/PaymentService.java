@@ -4,6 +4,7 @@ import com.itech.itech_backend.modules.payment.model.Payment;
 import com.itech.itech_backend.modules.payment.model.SubscriptionPlan;
 import com.itech.itech_backend.modules.payment.repository.PaymentRepository;
 import com.itech.itech_backend.modules.payment.repository.SubscriptionPlanRepository;
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
 import com.itech.marketplace.dto.PaymentSummaryDto;
 import com.itech.marketplace.dto.VendorPaymentDto;
 import com.itech.marketplace.model.VendorPayment;
@@ -19,6 +20,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +33,7 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final OutboundHttp outboundHttp;
     
     @Value("${razorpay.key.id:}")
     private String razorpayKeyId;
@@ -55,6 +58,11 @@ public class PaymentService {
         return paymentRepository.findByVendorId(vendorId);
     }
     
+    // Razorpay SDK calls are not idempotent, so they get a bulkhead and metrics but no retries
+    private OutboundHttp.Integration razorpayApi() {
+        return outboundHttp.integration("razorpay", OutboundHttp.Settings.of(10, Duration.ofSeconds(30)));
+    }
+
     private RazorpayClient getRazorpayClient() throws RazorpayException {
         if (razorpayClient == null) {
             razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
@@ -77,7 +85,7 @@ public class PaymentService {
             notes.put("phone", customerPhone);
             orderRequest.put("notes", notes);
             
-            Order order = client.orders.create(orderRequest);
+            Order order = razorpayApi().execute(() -> client.orders.create(orderRequest));
             
             Map<String, Object> response = new HashMap<>();
             response.put("razorpayOrderId", order.get("id"));
@@ -8,6 +8,7 @@ import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.payment.repository.RefundRepository;
 import com.itech.itech_backend.modules.payment.repository.PaymentRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
 import com.itech.itech_backend.modules.shared.service.TransactionServiceImpl;
 import com.itech.marketplace.dto.*;
 import com.razorpay.RazorpayClient;
@@ -23,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -39,6 +41,8 @@ public class RefundService implements com.itech.marketplace.service.RefundServic
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
     private final TransactionServiceImpl transactionService;
+    private final OutboundHttp outboundHttp;
+    private final RevenueLedger revenueLedger;
 
     @Value("${razorpay.key.id:}")
     private String razorpayKeyId;
@@ -173,12 +177,14 @@ public class RefundService implements com.itech.marketplace.service.RefundServic
             refundRequest.put("notes", notes);
 
             // Create refund using the Razorpay client
-            com.razorpay.Refund razorpayRefund = client.payments.refund(refund.getPayment().getGatewayPaymentId(), refundRequest);
+            com.razorpay.Refund razorpayRefund = razorpayApi().execute(() ->
+                    client.payments.refund(refund.getPayment().getGatewayPaymentId(), refundRequest));
 
             // Update refund with Razorpay refund ID
             refund.setRazorpayRefundId(razorpayRefund.get("id"));
             refund.setStatus(Refund.RefundStatus.COMPLETED);
             refundRepository.save(refund);
+            revenueLedger.recordRefund(refund);
 
             // Update transaction status
             transactionService.updateRefundTransactionStatus(refund, Transaction.TransactionStatus.COMPLETED);
@@ -197,6 +203,11 @@ public class RefundService implements com.itech.marketplace.service.RefundServic
         }
     }
 
+    // A retried refund could be paid out twice, so no retries here
+    private OutboundHttp.Integration razorpayApi() {
+        return outboundHttp.integration("razorpay", OutboundHttp.Settings.of(10, Duration.ofSeconds(30)));
+    }
+
     /**
      * Get Razorpay client
      */
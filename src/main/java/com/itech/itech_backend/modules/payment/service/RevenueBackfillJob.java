@@ -0,0 +1,209 @@
+package com.itech.itech_backend.modules.payment.service;
+
+import com.itech.itech_backend.modules.payment.model.RevenueFact;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Streams paid and reversed orders, completed refunds and invoices into the
+ * {@link RevenueLedger}.
+ *
+ * Each source is read in id windows, one transaction per window, and only
+ * facts missing from the ledger are inserted, so the job can be re-run at any
+ * time. The first run after startup covers all history; later runs only look
+ * back a few days, catching changes made outside the recording hooks.
+ */
+@Service
+@Slf4j
+public class RevenueBackfillJob {
+
+    private static final LocalDateTime ALL_HISTORY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String ORDER_RANGE_SQL =
+            "SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM buyer_orders " +
+            "WHERE created_at >= ? OR updated_at >= ?";
+    // Orders whose payment was captured, on the day it was: online at checkout, cash on delivery
+    private static final String ORDER_LINES_SQL =
+            "SELECT o.id, CASE WHEN o.payment_method = 'COD' THEN o.delivered_at ELSE o.created_at END, " +
+            "oi.vendor_id, p.gst_rate, oi.total_price " +
+            "FROM buyer_orders o JOIN buyer_order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN buyer_products p ON p.id = oi.product_id " +
+            "WHERE o.id >= ? AND o.id < ? AND (o.payment_method = 'COD' AND o.delivered_at IS NOT NULL " +
+            "OR COALESCE(o.payment_method, '') <> 'COD' AND o.payment_status IN ('PAID', 'REFUNDED')) " +
+            "ORDER BY o.id, oi.id";
+    // RevenueLedger.reversesSale in SQL; orders without a recorded sale add nothing
+    private static final String REVERSED_ORDERS_SQL =
+            "SELECT id, COALESCE(updated_at, created_at) FROM buyer_orders WHERE id >= ? AND id < ? " +
+            "AND payment_method = 'COD' AND status IN ('CANCELLED', 'RETURNED')";
+    private static final String REFUND_RANGE_SQL =
+            "SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM refunds " +
+            "WHERE status = 'COMPLETED' AND COALESCE(processed_at, updated_at, requested_at) >= ?";
+    private static final String REFUNDS_SQL =
+            "SELECT r.id, COALESCE(r.vendor_id, p.vendor_id), r.refund_amount, " +
+            "COALESCE(r.processed_at, r.updated_at, r.requested_at) " +
+            "FROM refunds r LEFT JOIN payments p ON p.id = r.payment_id " +
+            "WHERE r.status = 'COMPLETED' AND r.id >= ? AND r.id < ?";
+    private static final String INVOICE_RANGE_SQL =
+            "SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM invoices WHERE created_at >= ? OR updated_at >= ?";
+    private static final String INVOICES_SQL =
+            "SELECT id, vendor_id, cgst_rate, sgst_rate, igst_rate, subtotal, cgst_amount, sgst_amount, igst_amount, " +
+            "total_amount, status, created_at, updated_at FROM invoices WHERE id >= ? AND id < ?";
+
+    // Lowest and highest id of the rows to visit, both 0 when there are none
+    private static final RowMapper<long[]> RANGE = (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)};
+
+    private final RevenueLedger ledger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${revenue-ledger.backfill-chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${revenue-ledger.backfill-lookback-days:7}")
+    private int lookbackDays;
+
+    @Value("${revenue-ledger.backfill-full-on-startup:true}")
+    private volatile boolean fullHistoryPending;
+
+    @Value("${revenue-ledger.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public RevenueBackfillJob(RevenueLedger ledger,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              SchedulerLockService schedulerLockService) {
+        this.ledger = ledger;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    @Scheduled(fixedDelayString = "${revenue-ledger.backfill-interval-ms:21600000}",
+               initialDelayString = "${revenue-ledger.backfill-initial-delay-ms:120000}")
+    public void run() {
+        schedulerLockService.runExclusively(RevenueLedger.LOCK, Duration.ofMinutes(leaseMinutes), () -> {
+            LocalDateTime since = fullHistoryPending ? ALL_HISTORY : LocalDateTime.now().minusDays(lookbackDays);
+            int added = backfill(since);
+            fullHistoryPending = false;
+            if (added > 0) {
+                log.info("Revenue backfill since {} added {} facts", since.toLocalDate(), added);
+            }
+        });
+    }
+
+    /**
+     * Adds the facts for sources touched since the given time; returns how many were missing
+     */
+    public int backfill(LocalDateTime since) {
+        Timestamp from = Timestamp.valueOf(since);
+        long[] orders = jdbcTemplate.queryForObject(ORDER_RANGE_SQL, RANGE, from, from);
+        return stream(orders, this::orderFacts)
+                + reverse(orders)
+                + stream(jdbcTemplate.queryForObject(REFUND_RANGE_SQL, RANGE, from), this::refundFacts)
+                + stream(jdbcTemplate.queryForObject(INVOICE_RANGE_SQL, RANGE, from, from), this::invoiceFacts);
+    }
+
+    // Walks [min, max] in id windows, recording each window's facts in its own transaction
+    private int stream(long[] range, BiFunction<Long, Long, List<RevenueFact>> reader) {
+        if (range[1] == 0) {
+            return 0;
+        }
+        int added = 0;
+        for (long from = range[0]; from <= range[1]; from += chunkSize) {
+            long start = from;
+            added += transactionTemplate.execute(status -> ledger.record(reader.apply(start, start + chunkSize)));
+        }
+        return added;
+    }
+
+    // Reversals go after the sales they negate, so a sale backfilled above is reversed in the same run
+    private int reverse(long[] range) {
+        if (range[1] == 0) {
+            return 0;
+        }
+        int added = 0;
+        for (long from = range[0]; from <= range[1]; from += chunkSize) {
+            long start = from;
+            added += transactionTemplate.execute(status -> {
+                Map<Long, LocalDate> reversed = new HashMap<>();
+                jdbcTemplate.query(REVERSED_ORDERS_SQL, (RowCallbackHandler) rs -> reversed.put(rs.getLong(1),
+                        rs.getTimestamp(2).toLocalDateTime().toLocalDate()), start, start + chunkSize);
+                return ledger.recordSaleReversals(reversed);
+            });
+        }
+        return added;
+    }
+
+    private List<RevenueFact> orderFacts(long from, long to) {
+        List<RevenueFact> facts = new ArrayList<>();
+        List<RevenueLedger.SaleLine> lines = new ArrayList<>();
+        long[] order = {0};
+        LocalDate[] day = {null};
+        jdbcTemplate.query(ORDER_LINES_SQL, (RowCallbackHandler) rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != order[0] && !lines.isEmpty()) {
+                facts.addAll(RevenueLedger.saleFacts(order[0], day[0], lines));
+                lines.clear();
+            }
+            order[0] = orderId;
+            day[0] = rs.getTimestamp(2).toLocalDateTime().toLocalDate();
+            lines.add(new RevenueLedger.SaleLine(nullableLong(rs.getObject(3)), rs.getBigDecimal(4), rs.getBigDecimal(5)));
+        }, from, to);
+        if (!lines.isEmpty()) {
+            facts.addAll(RevenueLedger.saleFacts(order[0], day[0], lines));
+        }
+        return facts;
+    }
+
+    private List<RevenueFact> refundFacts(long from, long to) {
+        List<RevenueFact> facts = new ArrayList<>();
+        jdbcTemplate.query(REFUNDS_SQL, (RowCallbackHandler) rs -> facts.add(RevenueLedger.refundFact(rs.getLong(1),
+                nullableLong(rs.getObject(2)), rs.getBigDecimal(3), rs.getTimestamp(4).toLocalDateTime().toLocalDate())),
+                from, to);
+        return facts;
+    }
+
+    private List<RevenueFact> invoiceFacts(long from, long to) {
+        List<RevenueFact> facts = new ArrayList<>();
+        jdbcTemplate.query(INVOICES_SQL, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            Long vendorId = nullableLong(rs.getObject(2));
+            BigDecimal rate = RevenueFact.money(rs.getBigDecimal(3))
+                    .add(RevenueFact.money(rs.getBigDecimal(4))).add(RevenueFact.money(rs.getBigDecimal(5)));
+            LocalDate issued = rs.getTimestamp(12).toLocalDateTime().toLocalDate();
+            facts.add(RevenueLedger.invoiceFact(id, vendorId, rate, rs.getBigDecimal(6), rs.getBigDecimal(7),
+                    rs.getBigDecimal(8), rs.getBigDecimal(9), rs.getBigDecimal(10), false, issued));
+            if ("CANCELLED".equals(rs.getString(11))) {
+                Timestamp cancelled = rs.getTimestamp(13);
+                facts.add(RevenueLedger.invoiceFact(id, vendorId, rate, rs.getBigDecimal(6), rs.getBigDecimal(7),
+                        rs.getBigDecimal(8), rs.getBigDecimal(9), rs.getBigDecimal(10), true,
+                        cancelled != null ? cancelled.toLocalDateTime().toLocalDate() : issued));
+            }
+        }, from, to);
+        return facts;
+    }
+
+    private static Long nullableLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,514 @@
+package com.itech.itech_backend.modules.payment.service;
+
+import com.itech.itech_backend.modules.buyer.model.Order;
+import com.itech.itech_backend.modules.buyer.model.OrderItem;
+import com.itech.itech_backend.modules.payment.model.Invoice;
+import com.itech.itech_backend.modules.payment.model.Refund;
+import com.itech.itech_backend.modules.payment.model.RevenueFact;
+import com.itech.itech_backend.modules.payment.model.RevenueFact.FactType;
+import com.itech.itech_backend.modules.payment.repository.RevenueDailyRollupRepository;
+import com.itech.itech_backend.modules.payment.repository.RevenueFactRepository;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Revenue ledger: facts in, daily rollups out.
+ *
+ * Sales (once payment is captured) and their reversals, completed refunds,
+ * invoices and invoice cancellations are written as {@link RevenueFact}s in
+ * the transaction that caused them; a fact that is already present is
+ * skipped, so recording is idempotent. A scheduled job folds facts that are
+ * not yet rolled up into per day, vendor and GST slab rollups, marking each
+ * fact in the same transaction, so a fact that commits late is still picked
+ * up. Reports are range sums over the rollups. {@link RevenueBackfillJob}
+ * fills in facts for history and for anything recorded outside these hooks.
+ */
+@Service
+@Slf4j
+public class RevenueLedger {
+
+    static final String LOCK = "revenue-ledger";
+    private static final LocalDate ALL_TIME = LocalDate.of(1970, 1, 1);
+
+    private static final String UPDATE_SQL =
+            "UPDATE revenue_daily_rollups SET sales_amount = sales_amount + ?, sales_orders = sales_orders + ?, " +
+            "refund_amount = refund_amount + ?, refund_count = refund_count + ?, " +
+            "invoice_taxable = invoice_taxable + ?, invoice_cgst = invoice_cgst + ?, " +
+            "invoice_sgst = invoice_sgst + ?, invoice_igst = invoice_igst + ?, " +
+            "invoice_total = invoice_total + ?, invoice_count = invoice_count + ? " +
+            "WHERE rollup_date = ? AND vendor_id = ? AND gst_rate = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO revenue_daily_rollups (rollup_date, vendor_id, gst_rate, sales_amount, sales_orders, " +
+            "refund_amount, refund_count, invoice_taxable, invoice_cgst, invoice_sgst, invoice_igst, " +
+            "invoice_total, invoice_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PENDING_FACTS_SQL =
+            "SELECT id, fact_type, vendor_id, gst_rate, occurred_on, amount, taxable_amount, cgst, sgst, igst, units " +
+            "FROM revenue_facts WHERE rolled_up_at IS NULL ORDER BY id LIMIT ?";
+    private static final String MARK_SQL = "UPDATE revenue_facts SET rolled_up_at = ? WHERE id = ? AND rolled_up_at IS NULL";
+
+    /**
+     * Summed ledger columns for a day, period, slab or range
+     */
+    public record Totals(BigDecimal sales, long orders, BigDecimal refunds, long refundCount,
+                         BigDecimal invoicedTaxable, BigDecimal cgst, BigDecimal sgst, BigDecimal igst,
+                         BigDecimal invoiced, long invoiceCount) {
+
+        public static final Totals ZERO = new Totals(BigDecimal.ZERO, 0, BigDecimal.ZERO, 0,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        public Totals plus(Totals other) {
+            return new Totals(sales.add(other.sales), orders + other.orders,
+                    refunds.add(other.refunds), refundCount + other.refundCount,
+                    invoicedTaxable.add(other.invoicedTaxable), cgst.add(other.cgst), sgst.add(other.sgst),
+                    igst.add(other.igst), invoiced.add(other.invoiced), invoiceCount + other.invoiceCount);
+        }
+
+        public BigDecimal netSales() {
+            return sales.subtract(refunds);
+        }
+
+        public BigDecimal tax() {
+            return cgst.add(sgst).add(igst);
+        }
+
+        // Columns 1..10 of a rollup totals row; column 0 is its key
+        static Totals of(Object[] row) {
+            return new Totals(decimal(row[1]), count(row[2]), decimal(row[3]), count(row[4]),
+                    decimal(row[5]), decimal(row[6]), decimal(row[7]), decimal(row[8]),
+                    decimal(row[9]), count(row[10]));
+        }
+    }
+
+    public record SlabTotals(BigDecimal gstRate, Totals totals) {
+    }
+
+    /**
+     * Reporting periods; each maps a day to the first day of its period
+     */
+    public enum Period {
+        DAY, WEEK, MONTH, QUARTER;
+
+        public LocalDate start(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+                case QUARTER -> day.with(IsoFields.DAY_OF_QUARTER, 1);
+            };
+        }
+
+        public LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+                case QUARTER -> start.plusMonths(3);
+            };
+        }
+
+        public String label(LocalDate start) {
+            return switch (this) {
+                case DAY, WEEK -> start.toString();
+                case MONTH -> start.toString().substring(0, 7);
+                case QUARTER -> start.getYear() + "-Q" + start.get(IsoFields.QUARTER_OF_YEAR);
+            };
+        }
+
+        public static Period parse(String value, Period fallback) {
+            if (value == null || value.isBlank()) {
+                return fallback;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+    }
+
+    private record Key(LocalDate day, long vendorId, BigDecimal gstRate) {
+    }
+
+    private final RevenueFactRepository factRepository;
+    private final RevenueDailyRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${revenue-ledger.rollup-batch-size:5000}")
+    private int rollupBatchSize;
+
+    @Value("${revenue-ledger.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public RevenueLedger(RevenueFactRepository factRepository,
+                         RevenueDailyRollupRepository rollupRepository,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         SchedulerLockService schedulerLockService) {
+        this.factRepository = factRepository;
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    // ===============================
+    // RECORDING
+    // ===============================
+
+    /**
+     * Records each vendor's share of an order, split by the GST slab of its
+     * products, on the day its payment is captured
+     */
+    @Transactional
+    public int recordOrder(Order order) {
+        List<SaleLine> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            lines.add(new SaleLine(item.getVendor() != null ? item.getVendor().getId() : null,
+                    item.getProduct() != null && item.getProduct().getGstRate() != null
+                            ? BigDecimal.valueOf(item.getProduct().getGstRate()) : null,
+                    BigDecimal.valueOf(item.getTotalPrice())));
+        }
+        return record(saleFacts(order.getId(), LocalDate.now(), lines));
+    }
+
+    /**
+     * Whether an order's recorded sale no longer stands: a delivered cash on
+     * delivery order that is returned. Captured online payments are reversed
+     * by their refunds instead; the backfill applies the same rule in SQL.
+     */
+    public static boolean reversesSale(Order order) {
+        return "COD".equals(order.getPaymentMethod())
+                && (order.getStatus() == Order.OrderStatus.CANCELLED || order.getStatus() == Order.OrderStatus.RETURNED);
+    }
+
+    @Transactional
+    public int recordSaleReversal(Long orderId) {
+        return recordSaleReversals(Map.of(orderId, LocalDate.now()));
+    }
+
+    /**
+     * Negates the sale facts of each order on the given day; orders without
+     * recorded sales add nothing
+     */
+    @Transactional
+    public int recordSaleReversals(Map<Long, LocalDate> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<RevenueFact> reversals = new ArrayList<>();
+        for (RevenueFact sale : factRepository.findByFactTypeAndSourceIdIn(FactType.SALE, orders.keySet())) {
+            reversals.add(saleReversal(sale, orders.get(sale.getSourceId())));
+        }
+        return record(reversals);
+    }
+
+    @Transactional
+    public int recordRefund(Refund refund) {
+        Long vendorId = refund.getVendor() != null ? refund.getVendor().getId()
+                : refund.getPayment() != null && refund.getPayment().getVendor() != null
+                        ? refund.getPayment().getVendor().getId() : null;
+        LocalDateTime refundedAt = refund.getProcessedAt() != null ? refund.getProcessedAt() : LocalDateTime.now();
+        return record(List.of(refundFact(refund.getId(), vendorId, refund.getRefundAmount(), refundedAt.toLocalDate())));
+    }
+
+    @Transactional
+    public int recordInvoice(Invoice invoice) {
+        return record(List.of(invoiceFact(invoice, false, invoice.getCreatedAt())));
+    }
+
+    /**
+     * Reverses a cancelled invoice on the day it was cancelled
+     */
+    @Transactional
+    public int recordInvoiceVoid(Invoice invoice) {
+        return record(List.of(invoiceFact(invoice, true, LocalDateTime.now())));
+    }
+
+    /**
+     * Inserts the facts not yet in the ledger and returns how many were new
+     */
+    @Transactional
+    public int record(List<RevenueFact> facts) {
+        int added = 0;
+        Map<FactType, List<RevenueFact>> byType = facts.stream()
+                .collect(Collectors.groupingBy(RevenueFact::getFactType, LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<FactType, List<RevenueFact>> entry : byType.entrySet()) {
+            Set<Long> sourceIds = entry.getValue().stream().map(RevenueFact::getSourceId).collect(Collectors.toSet());
+            Set<String> present = new HashSet<>();
+            for (RevenueFact existing : factRepository.findByFactTypeAndSourceIdIn(entry.getKey(), sourceIds)) {
+                present.add(existing.sourceKey());
+            }
+            List<RevenueFact> fresh = new ArrayList<>();
+            for (RevenueFact fact : entry.getValue()) {
+                if (present.add(fact.sourceKey())) {
+                    fresh.add(fact);
+                }
+            }
+            factRepository.saveAll(fresh);
+            added += fresh.size();
+        }
+        return added;
+    }
+
+    // One order line as the ledger sees it
+    record SaleLine(Long vendorId, BigDecimal gstRate, BigDecimal amount) {
+    }
+
+    // One fact per vendor and slab; the vendor's first fact carries the order count
+    static List<RevenueFact> saleFacts(Long orderId, LocalDate day, List<SaleLine> lines) {
+        Map<Key, BigDecimal> amounts = new LinkedHashMap<>();
+        for (SaleLine line : lines) {
+            long vendorId = line.vendorId() != null ? line.vendorId() : RevenueFact.PLATFORM_VENDOR_ID;
+            amounts.merge(new Key(day, vendorId, RevenueFact.slab(line.gstRate())),
+                    line.amount() != null ? line.amount() : BigDecimal.ZERO, BigDecimal::add);
+        }
+        Set<Long> counted = new HashSet<>();
+        List<RevenueFact> facts = new ArrayList<>(amounts.size());
+        amounts.forEach((key, amount) -> facts.add(RevenueFact.builder()
+                .factType(FactType.SALE)
+                .sourceId(orderId)
+                .vendorId(key.vendorId())
+                .gstRate(key.gstRate())
+                .occurredOn(day)
+                .amount(RevenueFact.money(amount))
+                .units(counted.add(key.vendorId()) ? 1 : 0)
+                .build()));
+        return facts;
+    }
+
+    static RevenueFact saleReversal(RevenueFact sale, LocalDate day) {
+        return RevenueFact.builder()
+                .factType(FactType.SALE_REVERSAL)
+                .sourceId(sale.getSourceId())
+                .vendorId(sale.getVendorId())
+                .gstRate(sale.getGstRate())
+                .occurredOn(day)
+                .amount(sale.getAmount().negate())
+                .units(-sale.getUnits())
+                .build();
+    }
+
+    static RevenueFact refundFact(Long refundId, Long vendorId, BigDecimal amount, LocalDate day) {
+        return RevenueFact.builder()
+                .factType(FactType.REFUND)
+                .sourceId(refundId)
+                .vendorId(vendorId != null ? vendorId : RevenueFact.PLATFORM_VENDOR_ID)
+                .gstRate(RevenueFact.slab(null))
+                .occurredOn(day)
+                .amount(RevenueFact.money(amount))
+                .units(1)
+                .build();
+    }
+
+    static RevenueFact invoiceFact(Long invoiceId, Long vendorId, BigDecimal gstRate, BigDecimal taxable,
+                                   BigDecimal cgst, BigDecimal sgst, BigDecimal igst, BigDecimal total,
+                                   boolean reversal, LocalDate day) {
+        BigDecimal sign = reversal ? BigDecimal.ONE.negate() : BigDecimal.ONE;
+        return RevenueFact.builder()
+                .factType(reversal ? FactType.INVOICE_VOID : FactType.INVOICE)
+                .sourceId(invoiceId)
+                .vendorId(vendorId != null ? vendorId : RevenueFact.PLATFORM_VENDOR_ID)
+                .gstRate(RevenueFact.slab(gstRate))
+                .occurredOn(day)
+                .amount(RevenueFact.money(total).multiply(sign))
+                .taxableAmount(RevenueFact.money(taxable).multiply(sign))
+                .cgst(RevenueFact.money(cgst).multiply(sign))
+                .sgst(RevenueFact.money(sgst).multiply(sign))
+                .igst(RevenueFact.money(igst).multiply(sign))
+                .units(reversal ? -1 : 1)
+                .build();
+    }
+
+    private static RevenueFact invoiceFact(Invoice invoice, boolean reversal, LocalDateTime at) {
+        BigDecimal rate = decimal(invoice.getCgstRate()).add(decimal(invoice.getSgstRate())).add(decimal(invoice.getIgstRate()));
+        LocalDate day = (at != null ? at : LocalDateTime.now()).toLocalDate();
+        return invoiceFact(invoice.getId(), invoice.getVendor() != null ? invoice.getVendor().getId() : null, rate,
+                invoice.getSubtotal(), invoice.getCgstAmount(), invoice.getSgstAmount(), invoice.getIgstAmount(),
+                invoice.getTotalAmount(), reversal, day);
+    }
+
+    // ===============================
+    // ROLL-UP
+    // ===============================
+
+    @Scheduled(fixedDelayString = "${revenue-ledger.rollup-interval-ms:60000}",
+               initialDelayString = "${revenue-ledger.rollup-initial-delay-ms:50000}")
+    public void rollUp() {
+        schedulerLockService.runExclusively(LOCK, Duration.ofMinutes(leaseMinutes), () -> {
+            int facts = rollUpFacts();
+            if (facts > 0) {
+                log.info("Rolled up {} revenue facts", facts);
+            }
+        });
+    }
+
+    /**
+     * Adds every fact not yet rolled up to the daily rollups, one transaction per batch
+     */
+    public int rollUpFacts() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int total = 0;
+        while (true) {
+            int facts = transactionTemplate.execute(status -> {
+                Map<Key, Totals> batch = new LinkedHashMap<>();
+                List<Object[]> marks = new ArrayList<>();
+                jdbcTemplate.query(PENDING_FACTS_SQL, rs -> {
+                    marks.add(new Object[]{now, rs.getLong(1)});
+                    Key key = new Key(rs.getDate(5).toLocalDate(), rs.getLong(3), RevenueFact.slab(rs.getBigDecimal(4)));
+                    batch.merge(key, totalsOf(FactType.valueOf(rs.getString(2)), rs.getBigDecimal(6),
+                            rs.getBigDecimal(7), rs.getBigDecimal(8), rs.getBigDecimal(9), rs.getBigDecimal(10),
+                            rs.getInt(11)), Totals::plus);
+                }, rollupBatchSize);
+                if (marks.isEmpty()) {
+                    return 0;
+                }
+                // Claim the facts before adding them; another node that got there first rolls this batch back
+                for (int marked : jdbcTemplate.batchUpdate(MARK_SQL, marks)) {
+                    if (marked == 0) {
+                        throw new IllegalStateException("Revenue facts were rolled up concurrently");
+                    }
+                }
+                write(batch);
+                return marks.size();
+            });
+            total += facts;
+            if (facts < rollupBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    private static Totals totalsOf(FactType type, BigDecimal amount, BigDecimal taxable,
+                                   BigDecimal cgst, BigDecimal sgst, BigDecimal igst, int units) {
+        BigDecimal zero = BigDecimal.ZERO;
+        return switch (type) {
+            case SALE, SALE_REVERSAL -> new Totals(amount, units, zero, 0, zero, zero, zero, zero, zero, 0);
+            case REFUND -> new Totals(zero, 0, amount, units, zero, zero, zero, zero, zero, 0);
+            case INVOICE, INVOICE_VOID -> new Totals(zero, 0, zero, 0, taxable, cgst, sgst, igst, amount, units);
+        };
+    }
+
+    // Additive upsert: UPDATE the existing rollups, INSERT the ones that matched nothing
+    private void write(Map<Key, Totals> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>(deltas.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            Totals t = deltas.get(key);
+            updates.add(new Object[]{t.sales(), t.orders(), t.refunds(), t.refundCount(), t.invoicedTaxable(),
+                    t.cgst(), t.sgst(), t.igst(), t.invoiced(), t.invoiceCount(),
+                    Date.valueOf(key.day()), key.vendorId(), key.gstRate()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                Key key = keys.get(i);
+                Totals t = deltas.get(key);
+                inserts.add(new Object[]{Date.valueOf(key.day()), key.vendorId(), key.gstRate(),
+                        t.sales(), t.orders(), t.refunds(), t.refundCount(), t.invoicedTaxable(),
+                        t.cgst(), t.sgst(), t.igst(), t.invoiced(), t.invoiceCount()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    // ===============================
+    // REPORTS
+    // ===============================
+
+    /**
+     * Totals per period for days in [from, to), every period present even when empty.
+     * A null vendor sums all vendors and platform revenue.
+     */
+    public Map<LocalDate, Totals> series(Long vendorId, LocalDate from, LocalDate to, Period period) {
+        Map<LocalDate, Totals> series = new LinkedHashMap<>();
+        for (LocalDate start = period.start(from); start.isBefore(to); start = period.next(start)) {
+            series.put(start, Totals.ZERO);
+        }
+        List<Object[]> days = vendorId != null
+                ? rollupRepository.sumByDayForVendor(vendorId, from, to)
+                : rollupRepository.sumByDay(from, to);
+        for (Object[] row : days) {
+            series.merge(period.start((LocalDate) row[0]), Totals.of(row), Totals::plus);
+        }
+        return series;
+    }
+
+    public Totals totals(LocalDate from, LocalDate to) {
+        Totals totals = Totals.ZERO;
+        for (Object[] row : rollupRepository.sumByDay(from, to)) {
+            totals = totals.plus(Totals.of(row));
+        }
+        return totals;
+    }
+
+    public Totals totals() {
+        Totals totals = Totals.ZERO;
+        for (Object[] row : rollupRepository.sumBySlab(ALL_TIME, LocalDate.now().plusDays(1))) {
+            totals = totals.plus(Totals.of(row));
+        }
+        return totals;
+    }
+
+    public List<SlabTotals> gstSlabs(LocalDate from, LocalDate to) {
+        List<SlabTotals> slabs = new ArrayList<>();
+        for (Object[] row : rollupRepository.sumBySlab(from, to)) {
+            slabs.add(new SlabTotals(RevenueFact.slab((BigDecimal) row[0]), Totals.of(row)));
+        }
+        return slabs;
+    }
+
+    /**
+     * Vendors with the highest net sales in [from, to), best first
+     */
+    public Map<Long, BigDecimal> topVendors(LocalDate from, LocalDate to, int limit) {
+        Map<Long, BigDecimal> vendors = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.rankVendorsByNetSales(from, to, PageRequest.of(0, limit))) {
+            vendors.put(((Number) row[0]).longValue(), decimal(row[1]));
+        }
+        return vendors;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static long count(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
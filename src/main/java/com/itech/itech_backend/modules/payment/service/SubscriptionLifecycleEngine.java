@@ -0,0 +1,271 @@
+package com.itech.itech_backend.modules.payment.service;
+
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.payment.model.SubscriptionRevenueTotal;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRepository;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRevenueTotalRepository;
+import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import com.itech.itech_backend.modules.vendor.repository.VendorPackageTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scheduled subscription lifecycle: expiry, renewal reminders and revenue totals.
+ *
+ * Runs on one node at a time under a {@link SchedulerLockService} lease,
+ * renewed before every page; a node that loses it stops. Due rows are found
+ * by keyset paging over the indexed end date, and each page is transitioned
+ * with a single set-based UPDATE. Reminders are queued through
+ * {@link NotificationService}, which inserts them after the page commits.
+ */
+@Service
+@Slf4j
+public class SubscriptionLifecycleEngine {
+
+    private static final String LOCK_NAME = "subscription-lifecycle";
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    // One keyset page: the rows to act on and where the next page starts
+    private record Page(List<Object[]> rows, LocalDateTime lastEnd, Long lastId) {
+    }
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRevenueTotalRepository revenueTotalRepository;
+    private final VendorPackageTransactionRepository packageTransactionRepository;
+    private final NotificationService notificationService;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${subscription.lifecycle.page-size:500}")
+    private int pageSize;
+
+    @Value("${subscription.lifecycle.reminder-days:7}")
+    private int reminderDays;
+
+    @Value("${subscription.lifecycle.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public SubscriptionLifecycleEngine(SubscriptionRepository subscriptionRepository,
+                                       SubscriptionRevenueTotalRepository revenueTotalRepository,
+                                       VendorPackageTransactionRepository packageTransactionRepository,
+                                       NotificationService notificationService,
+                                       SchedulerLockService schedulerLockService,
+                                       PlatformTransactionManager transactionManager) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.revenueTotalRepository = revenueTotalRepository;
+        this.packageTransactionRepository = packageTransactionRepository;
+        this.notificationService = notificationService;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${subscription.lifecycle.interval-ms:300000}",
+               initialDelayString = "${subscription.lifecycle.initial-delay-ms:60000}")
+    public void run() {
+        schedulerLockService.runExclusively(LOCK_NAME, lease(), () -> {
+            if (revenueTotalRepository.count() < Subscription.PlanType.values().length
+                    || revenueTotalRepository.existsByTotalRevenueIsNull()) {
+                reconcileRevenueTotals();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int expired = expireSubscriptions(now);
+            int reminded = sendSubscriptionReminders(now);
+            int packagesReminded = sendPackageReminders(now);
+            if (expired + reminded + packagesReminded > 0) {
+                log.info("Subscription lifecycle: {} expired, {} subscription and {} package renewal reminders queued",
+                        expired, reminded, packagesReminded);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the running revenue totals from the subscriptions themselves,
+     * seeding them on first run and correcting any drift once a day
+     */
+    @Scheduled(cron = "${subscription.lifecycle.reconcile-cron:0 15 2 * * *}")
+    public void reconcile() {
+        schedulerLockService.runExclusively(LOCK_NAME, lease(), this::reconcileRevenueTotals);
+    }
+
+    private int expireSubscriptions(LocalDateTime now) {
+        int total = 0;
+        LocalDateTime afterEnd = KEYSET_START;
+        Long afterId = 0L;
+        while (holdsLease()) {
+            Page page = nextPage(subscriptionRepository.findExpiredPage(now, afterEnd, afterId,
+                    PageRequest.of(0, pageSize)));
+            if (page == null) {
+                return total;
+            }
+            total += transactionTemplate.execute(status -> {
+                int updated = subscriptionRepository.expireByIds(ids(page), now);
+                for (Object[] row : page.rows()) {
+                    notifyVendor(row[2], "Subscription Expired",
+                            "Your " + planName(row[3]) + " subscription expired on " + format(row[1])
+                                    + ". Renew to keep your premium listing and lead access.", row[0]);
+                }
+                return updated;
+            });
+            afterEnd = page.lastEnd();
+            afterId = page.lastId();
+        }
+        return total;
+    }
+
+    private int sendSubscriptionReminders(LocalDateTime now) {
+        LocalDateTime horizon = now.plusDays(reminderDays);
+        int total = 0;
+        LocalDateTime afterEnd = KEYSET_START;
+        Long afterId = 0L;
+        while (holdsLease()) {
+            Page page = nextPage(subscriptionRepository.findRenewalDuePage(now, horizon, afterEnd, afterId,
+                    PageRequest.of(0, pageSize)));
+            if (page == null) {
+                return total;
+            }
+            total += transactionTemplate.execute(status -> {
+                int marked = subscriptionRepository.markRenewalReminded(ids(page), now);
+                for (Object[] row : page.rows()) {
+                    notifyVendor(row[2], "Subscription Renewal Reminder",
+                            "Your " + planName(row[3]) + " subscription ends on " + format(row[1])
+                                    + ". Renew now to avoid interruption.", row[0]);
+                }
+                return marked;
+            });
+            afterEnd = page.lastEnd();
+            afterId = page.lastId();
+        }
+        return total;
+    }
+
+    private int sendPackageReminders(LocalDateTime now) {
+        LocalDateTime horizon = now.plusDays(reminderDays);
+        int total = 0;
+        LocalDateTime afterExpiry = KEYSET_START;
+        Long afterId = 0L;
+        while (holdsLease()) {
+            Page page = nextPage(packageTransactionRepository.findRenewalDuePage(now, horizon, afterExpiry, afterId,
+                    PageRequest.of(0, pageSize)));
+            if (page == null) {
+                return total;
+            }
+            total += transactionTemplate.execute(status -> {
+                int marked = packageTransactionRepository.markRenewalReminded(ids(page), now);
+                for (Object[] row : page.rows()) {
+                    notifyVendor(row[2], "Package Renewal Reminder",
+                            "Your " + planName(row[3]) + " package expires on " + format(row[1])
+                                    + ". Renew now to keep its benefits.", row[0]);
+                }
+                return marked;
+            });
+            afterExpiry = page.lastEnd();
+            afterId = page.lastId();
+        }
+        return total;
+    }
+
+    /**
+     * Missing rows are created unseeded first, then the totals are locked before
+     * aggregating: an addSubscription that already incremented has committed
+     * by then and is in the aggregate, and one that has not blocks until the
+     * reset commits and increments on top of it.
+     */
+    private void reconcileRevenueTotals() {
+        createMissingTotals();
+        transactionTemplate.executeWithoutResult(status -> {
+            revenueTotalRepository.findAllForUpdate();
+            Map<Subscription.PlanType, Object[]> aggregates = new EnumMap<>(Subscription.PlanType.class);
+            for (Object[] row : subscriptionRepository.aggregateRevenueByPlanType()) {
+                aggregates.put((Subscription.PlanType) row[0], row);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (Subscription.PlanType planType : Subscription.PlanType.values()) {
+                Object[] row = aggregates.get(planType);
+                revenueTotalRepository.resetTotals(planType,
+                        row != null ? ((Number) row[1]).doubleValue() : 0.0,
+                        row != null ? ((Number) row[2]).longValue() : 0L, now);
+            }
+        });
+        log.debug("Reconciled subscription revenue totals");
+    }
+
+    private void createMissingTotals() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<SubscriptionRevenueTotal> missing = new ArrayList<>();
+                for (Subscription.PlanType planType : Subscription.PlanType.values()) {
+                    if (!revenueTotalRepository.existsById(planType)) {
+                        // Null until reset, so readers keep aggregating if the reset never lands
+                        missing.add(SubscriptionRevenueTotal.builder().planType(planType)
+                                .totalRevenue(null).subscriptionCount(null).build());
+                    }
+                }
+                revenueTotalRepository.saveAll(missing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently; the reset below covers it either way
+            log.debug("Subscription revenue totals were created concurrently");
+        }
+    }
+
+    private boolean holdsLease() {
+        if (schedulerLockService.renew(LOCK_NAME, lease())) {
+            return true;
+        }
+        log.warn("Lost the {} lease; stopping this run", LOCK_NAME);
+        return false;
+    }
+
+    private Duration lease() {
+        return Duration.ofMinutes(leaseMinutes);
+    }
+
+    private void notifyVendor(Object userId, String title, String message, Object subscriptionId) {
+        if (userId == null) {
+            return;
+        }
+        notificationService.queueNotification((Long) userId, title, message,
+                NotificationType.SUBSCRIPTION, String.valueOf(subscriptionId));
+    }
+
+    private static Page nextPage(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] last = rows.get(rows.size() - 1);
+        return new Page(rows, (LocalDateTime) last[1], (Long) last[0]);
+    }
+
+    private static List<Long> ids(Page page) {
+        List<Long> ids = new ArrayList<>(page.rows().size());
+        for (Object[] row : page.rows()) {
+            ids.add((Long) row[0]);
+        }
+        return ids;
+    }
+
+    private static String planName(Object name) {
+        return name != null ? name.toString() : "premium";
+    }
+
+    private static String format(Object date) {
+        return ((LocalDateTime) date).format(DATE_FORMAT);
+    }
+}
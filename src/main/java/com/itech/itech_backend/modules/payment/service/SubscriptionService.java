@@ -5,6 +5,7 @@ import com.itech.itech_backend.modules.payment.model.Subscription;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.payment.repository.SubscriptionRepository;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRevenueTotalRepository;
 import com.itech.itech_backend.modules.vendor.service.VendorsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,6 +22,7 @@ import java.util.Map;
 public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRevenueTotalRepository revenueTotalRepository;
     private final VendorsService vendorsService;
 
     /**
@@ -68,6 +70,10 @@ public class SubscriptionService {
                 .build();
 
         subscriptionRepository.save(subscription);
+        // Same transaction as the subscription; before the totals are first seeded this is a no-op
+        if (subscription.getPrice() != null) {
+            revenueTotalRepository.addSubscription(subscription.getPlanType(), subscription.getPrice(), LocalDateTime.now());
+        }
     }
 
     /**
@@ -129,12 +135,13 @@ public class SubscriptionService {
         }
         analytics.put("planTypeCounts", planTypeAnalytics);
         
-        // Get total revenue
-        List<Subscription> allSubscriptions = subscriptionRepository.findAll();
-        double totalRevenue = allSubscriptions.stream()
-                .filter(s -> s.getVendor() != null)
-                .mapToDouble(s -> s.getPrice() != null ? s.getPrice() : 0.0)
-                .sum();
+        // Get total revenue from the running totals, aggregating in the database until they are seeded
+        Double totalRevenue = revenueTotalRepository.getTotalRevenue();
+        if (totalRevenue == null || revenueTotalRepository.existsByTotalRevenueIsNull()) {
+            totalRevenue = subscriptionRepository.aggregateRevenueByPlanType().stream()
+                    .mapToDouble(row -> ((Number) row[1]).doubleValue())
+                    .sum();
+        }
         analytics.put("totalRevenue", totalRevenue);
         
         return analytics;
@@ -0,0 +1,34 @@
+package com.itech.itech_backend.modules.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDto {
+
+    private List<LineDto> lines;
+    private BigDecimal netTotal;
+    private BigDecimal gstTotal;
+    private BigDecimal grandTotal;
+    private Boolean allLinesWithinOrderLimits;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineDto {
+        private Long productId;
+        private Integer quantity;
+        private String currency;
+        private BigDecimal unitPrice;
+        private BigDecimal netAmount;
+        private BigDecimal gstAmount;
+        private BigDecimal totalAmount;
+        private Boolean withinOrderLimits;
+    }
+}
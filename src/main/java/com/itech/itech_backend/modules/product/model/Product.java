@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
@@ -20,15 +22,51 @@ import org.hibernate.annotations.UpdateTimestamp;
     @Index(name = "idx_product_status", columnList = "status"),
     @Index(name = "idx_product_visibility", columnList = "visibility"),
     @Index(name = "idx_product_featured", columnList = "is_featured"),
-    @Index(name = "idx_product_price", columnList = "unit_price")
+    @Index(name = "idx_product_price", columnList = "unit_price"),
+    @Index(name = "idx_product_low_stock_headroom", columnList = "low_stock_headroom"),
+    @Index(name = "idx_product_reorder_headroom", columnList = "reorder_headroom")
+})
+@NamedEntityGraph(name = Product.CARD_GRAPH, attributeNodes = {
+    @NamedAttributeNode("vendor")
+})
+@NamedEntityGraph(name = Product.DASHBOARD_GRAPH, attributeNodes = {
+    @NamedAttributeNode("vendor"),
+    @NamedAttributeNode("company")
+})
+@NamedEntityGraph(name = Product.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode("vendor"),
+    @NamedAttributeNode("company"),
+    @NamedAttributeNode("parentProduct"),
+    @NamedAttributeNode("imageUrls")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Stock columns are moved by conditional UPDATEs in InventoryLedgerService;
+// writing only dirty columns keeps entity saves from overwriting them
+@DynamicUpdate
 public class Product {
 
+    // ===============================
+    // FETCH PLANS
+    // ===============================
+    // Graphs only join to-one links (plus one list on the single-row detail
+    // plan) so paged queries stay paginated in SQL. Collections are loaded
+    // in batches for every product in the persistence context instead.
+
+    /** Catalog and search cards: scalar fields plus the vendor name */
+    public static final String CARD_GRAPH = "Product.card";
+
+    /** Vendor product management list: adds company; variants load in one batch */
+    public static final String DASHBOARD_GRAPH = "Product.vendorDashboard";
+
+    /** Product page: all links and collections, one statement per collection */
+    public static final String DETAIL_GRAPH = "Product.detail";
+
+    static final int COLLECTION_BATCH_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -85,6 +123,7 @@ public class Product {
     @Column(name = "sub_category", length = 100)
     private String subCategory;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
@@ -154,6 +193,14 @@ public class Product {
     @Column(name = "low_stock_threshold")
     private Integer lowStockThreshold;
 
+    // Available quantity minus the threshold, kept in step with every stock
+    // change so low-stock and reorder lists are index range scans (<= 0)
+    @Column(name = "low_stock_headroom")
+    private Integer lowStockHeadroom;
+
+    @Column(name = "reorder_headroom")
+    private Integer reorderHeadroom;
+
     // ===============================
     // PRODUCT SPECIFICATIONS
     // ===============================
@@ -173,6 +220,7 @@ public class Product {
     @Column(name = "height", precision = 10, scale = 2)
     private BigDecimal height; // in cm
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_custom_attributes", joinColumns = @JoinColumn(name = "product_id"))
     @MapKeyColumn(name = "attribute_name")
@@ -186,11 +234,13 @@ public class Product {
     @Column(name = "primary_image_url", length = 500)
     private String primaryImageUrl;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url", length = 500)
     private List<String> imageUrls;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_documents", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "document_url", length = 500)
@@ -199,6 +249,7 @@ public class Product {
     @Column(name = "video_url", length = 500)
     private String videoUrl;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductVideo> videos;
 
@@ -251,6 +302,7 @@ public class Product {
     @Column(name = "lead_time_days")
     private Integer leadTimeDays;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_shipping_regions", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "region")
@@ -275,6 +327,7 @@ public class Product {
     @Column(name = "restricted_product")
     private Boolean restrictedProduct = false;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_certifications", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "certification")
@@ -293,6 +346,7 @@ public class Product {
     @Column(name = "quantity_break_pricing")
     private Boolean quantityBreakPricing = false;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_quantity_breaks", joinColumns = @JoinColumn(name = "product_id"))
     @MapKeyColumn(name = "quantity")
@@ -359,6 +413,7 @@ public class Product {
     // RELATED PRODUCTS
     // ===============================
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ManyToMany
     @JoinTable(
         name = "product_cross_sells",
@@ -367,6 +422,7 @@ public class Product {
     )
     private List<Product> crossSells;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ManyToMany
     @JoinTable(
         name = "product_upsells",
@@ -375,6 +431,7 @@ public class Product {
     )
     private List<Product> upsells;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ManyToMany
     @JoinTable(
         name = "product_related",
@@ -394,6 +451,7 @@ public class Product {
     @JoinColumn(name = "parent_product_id")
     private Product parentProduct; // For product variants
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @OneToMany(mappedBy = "parentProduct", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Product> variants;
     
@@ -430,6 +488,7 @@ public class Product {
     @Column(name = "qr_code", length = 500)
     private String qrCode;
     
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @ElementCollection
     @CollectionTable(name = "product_external_ids", joinColumns = @JoinColumn(name = "product_id"))
     @MapKeyColumn(name = "system_name")
@@ -535,6 +594,8 @@ public class Product {
     
     public void updateAvailableQuantity() {
         this.availableQuantity = Math.max(0, this.stockQuantity - this.reservedQuantity);
+        this.lowStockHeadroom = lowStockThreshold != null ? availableQuantity - lowStockThreshold : null;
+        this.reorderHeadroom = reorderLevel != null ? availableQuantity - reorderLevel : null;
     }
     
     public void incrementViewCount() {
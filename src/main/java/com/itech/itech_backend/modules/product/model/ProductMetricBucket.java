@@ -0,0 +1,68 @@
+package com.itech.itech_backend.modules.product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated product activity for one day, week or month.
+ *
+ * Every view and order line lands in exactly one bucket: daily buckets are
+ * folded into weekly ones, and weekly into monthly, as they age. Summing all
+ * buckets that start inside a range therefore gives the range totals, to the
+ * resolution of the coarsest bucket it touches.
+ */
+@Entity
+@Table(name = "product_metric_buckets",
+    uniqueConstraints = @UniqueConstraint(name = "uk_product_metric_bucket",
+        columnNames = {"product_id", "granularity", "bucket_start"}),
+    indexes = {
+        @Index(name = "idx_product_metric_range", columnList = "bucket_start, product_id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductMetricBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long views = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long orders = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+}
@@ -0,0 +1,55 @@
+package com.itech.itech_backend.modules.product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only price history entry.
+ *
+ * A unit price change stores the new price; a quantity break change stores
+ * the whole new break list encoded as "quantity:price" pairs separated by
+ * semicolons, so one row records one change however many tiers it touched.
+ */
+@Entity
+@Table(name = "product_price_history", indexes = {
+    @Index(name = "idx_price_history_product", columnList = "product_id, changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPriceChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(name = "unit_price", precision = 15, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(name = "quantity_breaks", length = 1000)
+    private String quantityBreaks;
+
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    public enum ChangeType {
+        UNIT_PRICE,
+        QUANTITY_BREAKS
+    }
+}
@@ -0,0 +1,66 @@
+package com.itech.itech_backend.modules.product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only inventory ledger entry.
+ *
+ * Quantity is the signed change to the bucket the movement affects (on-hand
+ * stock for adjustments and consumption, reserved stock otherwise). The
+ * *After columns are the product's running balance once the movement applied.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movement_product", columnList = "product_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private MovementType movementType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "stock_after", nullable = false)
+    private Integer stockAfter;
+
+    @Column(name = "reserved_after", nullable = false)
+    private Integer reservedAfter;
+
+    @Column(name = "available_after", nullable = false)
+    private Integer availableAfter;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum MovementType {
+        ADJUSTMENT,
+        RESERVE,
+        RELEASE,
+        EXPIRE,
+        CONSUME
+    }
+}
@@ -0,0 +1,59 @@
+package com.itech.itech_backend.modules.product.repository;
+
+import com.itech.itech_backend.modules.product.model.ProductMetricBucket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Range reads over product metric buckets. Rankings return product ids in
+ * rank order; callers load the products with the card plan.
+ */
+@Repository
+public interface ProductMetricBucketRepository extends JpaRepository<ProductMetricBucket, Long> {
+
+    List<ProductMetricBucket> findByProductIdAndBucketStartGreaterThanEqualOrderByBucketStart(Long productId, LocalDate from);
+
+    @Query(value = "SELECT b.productId FROM ProductMetricBucket b, Product p " +
+                   "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.views > 0 " +
+                   "GROUP BY b.productId ORDER BY SUM(b.views) DESC, b.productId",
+           countQuery = "SELECT COUNT(DISTINCT b.productId) FROM ProductMetricBucket b, Product p " +
+                        "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.views > 0")
+    Page<Long> rankByViews(@Param("from") LocalDate from, Pageable pageable);
+
+    @Query(value = "SELECT b.productId FROM ProductMetricBucket b, Product p " +
+                   "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.units > 0 " +
+                   "GROUP BY b.productId ORDER BY SUM(b.units) DESC, b.productId",
+           countQuery = "SELECT COUNT(DISTINCT b.productId) FROM ProductMetricBucket b, Product p " +
+                        "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.units > 0")
+    Page<Long> rankByUnits(@Param("from") LocalDate from, Pageable pageable);
+
+    @Query(value = "SELECT b.productId FROM ProductMetricBucket b, Product p " +
+                   "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.revenue > 0 " +
+                   "GROUP BY b.productId ORDER BY SUM(b.revenue) DESC, b.productId",
+           countQuery = "SELECT COUNT(DISTINCT b.productId) FROM ProductMetricBucket b, Product p " +
+                        "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND b.bucketStart >= :from AND b.revenue > 0")
+    Page<Long> rankByRevenue(@Param("from") LocalDate from, Pageable pageable);
+
+    @Query("SELECT b.productId FROM ProductMetricBucket b, Product p " +
+           "WHERE p.id = b.productId AND p.status = 'PUBLISHED' AND p.stockStatus = 'IN_STOCK' " +
+           "AND b.bucketStart >= :from " +
+           "GROUP BY b.productId HAVING SUM(b.views) > :minViews AND SUM(b.orders) < :maxOrders " +
+           "ORDER BY SUM(b.views) DESC, b.productId")
+    List<Long> findHighViewLowOrder(@Param("from") LocalDate from,
+                                    @Param("minViews") Long minViews,
+                                    @Param("maxOrders") Long maxOrders);
+
+    // category, views, orders, units, revenue, products with activity
+    @Query("SELECT p.category, SUM(b.views), SUM(b.orders), SUM(b.units), SUM(b.revenue), COUNT(DISTINCT b.productId) " +
+           "FROM ProductMetricBucket b, Product p " +
+           "WHERE p.id = b.productId AND b.bucketStart >= :from " +
+           "GROUP BY p.category ORDER BY SUM(b.revenue) DESC")
+    List<Object[]> getCategoryTotals(@Param("from") LocalDate from);
+}
@@ -0,0 +1,13 @@
+package com.itech.itech_backend.modules.product.repository;
+
+import com.itech.itech_backend.modules.product.model.ProductPriceChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductPriceChangeRepository extends JpaRepository<ProductPriceChange, Long> {
+
+    List<ProductPriceChange> findByProductIdOrderByChangedAtDescIdDesc(Long productId);
+}
@@ -3,13 +3,18 @@ package com.itech.itech_backend.modules.product.repository;
 import com.itech.itech_backend.modules.product.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,11 +31,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByUrlSlug(String urlSlug);
     
     List<Product> findByVendorId(Long vendorId);
+
+    @EntityGraph(Product.DASHBOARD_GRAPH)
     Page<Product> findByVendorId(Long vendorId, Pageable pageable);
     
     List<Product> findByCompanyId(Long companyId);
     Page<Product> findByCompanyId(Long companyId, Pageable pageable);
 
+    // ===============================
+    // PRODUCT PAGE (DETAIL FETCH PLAN)
+    // ===============================
+
+    @EntityGraph(Product.DETAIL_GRAPH)
+    Optional<Product> findDetailById(Long id);
+
+    @EntityGraph(Product.DETAIL_GRAPH)
+    Optional<Product> findDetailBySku(String sku);
+
+    @EntityGraph(Product.DETAIL_GRAPH)
+    Optional<Product> findDetailByUrlSlug(String urlSlug);
+
     // ===============================
     // STATUS AND VISIBILITY QUERIES
     // ===============================
@@ -41,6 +61,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByVisibility(Product.ProductVisibility visibility);
     Page<Product> findByVisibility(Product.ProductVisibility visibility, Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' AND p.visibility = 'PUBLIC'")
     Page<Product> findPublishedProducts(Pageable pageable);
     
@@ -54,12 +75,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // ===============================
     
     List<Product> findByCategory(String category);
+    @EntityGraph(Product.CARD_GRAPH)
     Page<Product> findByCategory(String category, Pageable pageable);
     
     List<Product> findByCategoryAndSubCategory(String category, String subCategory);
     Page<Product> findByCategoryAndSubCategory(String category, String subCategory, Pageable pageable);
     
     List<Product> findByBrand(String brand);
+    @EntityGraph(Product.CARD_GRAPH)
     Page<Product> findByBrand(String brand, Pageable pageable);
     
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.category")
@@ -75,6 +98,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // PRICING QUERIES
     // ===============================
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.unitPrice BETWEEN :minPrice AND :maxPrice AND p.status = 'PUBLISHED'")
     Page<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice, 
                                    @Param("maxPrice") BigDecimal maxPrice, 
@@ -94,20 +118,102 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // ===============================
     
     List<Product> findByStockStatus(Product.StockStatus stockStatus);
+    @EntityGraph(Product.CARD_GRAPH)
     Page<Product> findByStockStatus(Product.StockStatus stockStatus, Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.stockStatus = 'IN_STOCK' AND p.availableQuantity > 0")
     Page<Product> findInStockProducts(Pageable pageable);
     
-    @Query("SELECT p FROM Product p WHERE p.availableQuantity <= p.lowStockThreshold AND p.lowStockThreshold IS NOT NULL")
+    @EntityGraph(Product.DASHBOARD_GRAPH)
+    @Query("SELECT p FROM Product p WHERE p.lowStockHeadroom <= 0 ORDER BY p.lowStockHeadroom, p.id")
     List<Product> findLowStockProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.availableQuantity <= p.reorderLevel AND p.reorderLevel IS NOT NULL")
+    @EntityGraph(Product.DASHBOARD_GRAPH)
+    @Query("SELECT p FROM Product p WHERE p.reorderHeadroom <= 0 ORDER BY p.reorderHeadroom, p.id")
     List<Product> findProductsNeedingReorder();
     
     @Query("SELECT p FROM Product p WHERE p.availableQuantity >= :minQuantity")
     Page<Product> findByMinAvailableQuantity(@Param("minQuantity") Integer minQuantity, Pageable pageable);
 
+    // ===============================
+    // STOCK LEDGER UPDATES
+    // ===============================
+    // Each statement checks its own precondition, so concurrent callers can
+    // never take stock below zero; 0 rows updated means the check failed.
+
+    interface StockLevels {
+        Integer getStockQuantity();
+        Integer getReservedQuantity();
+        Integer getAvailableQuantity();
+    }
+
+    Optional<StockLevels> findStockLevelsById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, " +
+           "p.availableQuantity = p.availableQuantity - :quantity, " +
+           "p.lowStockHeadroom = p.lowStockHeadroom - :quantity, " +
+           "p.reorderHeadroom = p.reorderHeadroom - :quantity " +
+           "WHERE p.id = :productId AND p.availableQuantity >= :quantity")
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity, " +
+           "p.availableQuantity = p.availableQuantity + :quantity, " +
+           "p.lowStockHeadroom = p.lowStockHeadroom + :quantity, " +
+           "p.reorderHeadroom = p.reorderHeadroom + :quantity " +
+           "WHERE p.id = :productId AND p.reservedQuantity >= :quantity")
+    int releaseReservedStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity, " +
+           "p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :productId AND p.reservedQuantity >= :quantity AND p.stockQuantity >= :quantity")
+    int consumeReservedStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    /**
+     * Sets on-hand stock if it is still the expected value and still covers what is reserved
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = :quantity, " +
+           "p.availableQuantity = :quantity - p.reservedQuantity, " +
+           "p.lowStockHeadroom = :quantity - p.reservedQuantity - p.lowStockThreshold, " +
+           "p.reorderHeadroom = :quantity - p.reservedQuantity - p.reorderLevel " +
+           "WHERE p.id = :productId AND p.stockQuantity = :expected AND p.reservedQuantity <= :quantity")
+    int setStockQuantity(@Param("productId") Long productId, @Param("expected") int expected,
+                         @Param("quantity") int quantity);
+
+    /**
+     * Recomputes stock status from the new levels, leaving manual statuses such as DISCONTINUED alone
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE products SET stock_status = CASE " +
+                   "WHEN available_quantity <= 0 THEN 'OUT_OF_STOCK' " +
+                   "WHEN low_stock_headroom <= 0 THEN 'LOW_STOCK' ELSE 'IN_STOCK' END " +
+                   "WHERE id = :productId AND stock_status IN ('IN_STOCK', 'LOW_STOCK', 'OUT_OF_STOCK')",
+           nativeQuery = true)
+    int refreshStockStatus(@Param("productId") Long productId);
+
+    /**
+     * Repairs headroom left stale by rows written outside the ledger (imports, older rows)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.lowStockHeadroom = p.availableQuantity - p.lowStockThreshold, " +
+           "p.reorderHeadroom = p.availableQuantity - p.reorderLevel " +
+           "WHERE (p.lowStockThreshold IS NULL AND p.lowStockHeadroom IS NOT NULL) " +
+           "OR (p.lowStockThreshold IS NOT NULL AND (p.lowStockHeadroom IS NULL " +
+           "OR p.lowStockHeadroom <> p.availableQuantity - p.lowStockThreshold)) " +
+           "OR (p.reorderLevel IS NULL AND p.reorderHeadroom IS NOT NULL) " +
+           "OR (p.reorderLevel IS NOT NULL AND (p.reorderHeadroom IS NULL " +
+           "OR p.reorderHeadroom <> p.availableQuantity - p.reorderLevel))")
+    int reconcileStockHeadroom();
+
     // ===============================
     // SEARCH QUERIES
     // ===============================
@@ -119,6 +225,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE " +
            "p.status = 'PUBLISHED' AND p.visibility = 'PUBLIC' AND (" +
            "LOWER(p.productName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -131,6 +238,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // ADVANCED FILTERING
     // ===============================
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE " +
            "(:vendorId IS NULL OR p.vendor.id = :vendorId) AND " +
            "(:category IS NULL OR p.category = :category) AND " +
@@ -156,18 +264,23 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // FEATURED AND SPECIAL PRODUCTS
     // ===============================
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.isFeatured = true AND p.status = 'PUBLISHED'")
     Page<Product> findFeaturedProducts(Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.isBestseller = true AND p.status = 'PUBLISHED'")
     Page<Product> findBestsellerProducts(Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.isNewArrival = true AND p.status = 'PUBLISHED'")
     Page<Product> findNewArrivals(Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.isOnSale = true AND p.status = 'PUBLISHED'")
     Page<Product> findSaleProducts(Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.mrp > p.unitPrice AND p.status = 'PUBLISHED'")
     Page<Product> findDiscountedProducts(Pageable pageable);
 
@@ -196,16 +309,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p.stockStatus, COUNT(p) FROM Product p GROUP BY p.stockStatus")
     List<Object[]> getProductCountByStockStatus();
     
-    // Top products by various metrics
-    @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.viewCount DESC")
-    Page<Product> findMostViewedProducts(Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.totalSoldQuantity DESC")
-    Page<Product> findMostSoldProducts(Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.totalRevenue DESC")
-    Page<Product> findHighestRevenueProducts(Pageable pageable);
-    
+    // Top products by views, sales and revenue are ranked over ProductMetricBucketRepository
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' AND p.reviewCount > 0 ORDER BY p.averageRating DESC")
     Page<Product> findHighestRatedProducts(Pageable pageable);
 
@@ -256,6 +361,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p WHERE p.id IN :productIds")
     List<Product> findByIdIn(@Param("productIds") List<Long> productIds);
+
+    @EntityGraph(Product.CARD_GRAPH)
+    List<Product> findCardByIdIn(Collection<Long> productIds);
     
     @Query("SELECT p FROM Product p WHERE p.sku IN :skus")
     List<Product> findBySkuIn(@Param("skus") List<String> skus);
@@ -264,18 +372,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // BUSINESS INTELLIGENCE QUERIES
     // ===============================
     
+    // Listed before the cutoff and no order bucket since: an anti-join on the metric range index
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE " +
            "p.status = 'PUBLISHED' AND " +
-           "p.stockStatus = 'IN_STOCK' AND " +
-           "p.viewCount > :minViews AND " +
-           "p.orderCount < :maxOrders")
-    List<Product> findHighViewLowOrderProducts(@Param("minViews") Long minViews, 
-                                               @Param("maxOrders") Long maxOrders);
-    
-    @Query("SELECT p FROM Product p WHERE " +
-           "p.status = 'PUBLISHED' AND " +
-           "p.lastOrderedAt < :cutoffDate")
-    List<Product> findSlowMovingProducts(@Param("cutoffDate") LocalDateTime cutoffDate);
+           "p.createdAt < :cutoffDate AND " +
+           "NOT EXISTS (SELECT b.id FROM ProductMetricBucket b WHERE " +
+           "b.productId = p.id AND b.bucketStart >= :cutoffDay AND b.orders > 0)")
+    List<Product> findSlowMovingProducts(@Param("cutoffDate") LocalDateTime cutoffDate,
+                                         @Param("cutoffDay") LocalDate cutoffDay);
     
     @Query("SELECT p FROM Product p WHERE " +
            "p.createdAt >= :recentDate AND " +
@@ -309,6 +414,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // RECOMMENDATIONS QUERIES
     // ===============================
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE " +
            "p.category = :category AND " +
            "p.id != :excludeId AND " +
@@ -318,6 +424,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                                     @Param("excludeId") Long excludeId, 
                                                     Pageable pageable);
     
+    @EntityGraph(Product.CARD_GRAPH)
     @Query("SELECT p FROM Product p WHERE " +
            "p.brand = :brand AND " +
            "p.id != :excludeId AND " +
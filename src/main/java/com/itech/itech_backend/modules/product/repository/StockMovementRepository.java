@@ -0,0 +1,16 @@
+package com.itech.itech_backend.modules.product.repository;
+
+import com.itech.itech_backend.modules.product.model.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    long countByProductIdAndMovementType(Long productId, StockMovement.MovementType movementType);
+}
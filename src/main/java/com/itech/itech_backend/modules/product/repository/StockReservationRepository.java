@@ -0,0 +1,43 @@
+package com.itech.itech_backend.modules.product.repository;
+
+import com.itech.itech_backend.modules.product.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("SELECT r FROM StockReservation r WHERE r.productId = :productId AND r.status = 'ACTIVE' " +
+           "ORDER BY r.createdAt, r.id")
+    List<StockReservation> findActiveByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT r FROM StockReservation r WHERE r.status = 'ACTIVE' AND r.expiresAt <= :now " +
+           "ORDER BY r.expiresAt, r.id")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Moves an active reservation to its final status; 0 if it already left ACTIVE
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.closedAt = :now " +
+           "WHERE r.id = :id AND r.status = 'ACTIVE'")
+    int close(@Param("id") Long id, @Param("status") StockReservation.Status status, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases part of an active reservation, leaving at least one unit held
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.quantity = r.quantity - :quantity " +
+           "WHERE r.id = :id AND r.status = 'ACTIVE' AND r.quantity > :quantity")
+    int shrink(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,497 @@
+package com.itech.itech_backend.modules.product.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable item-to-item recommendation model.
+ *
+ * Products are addressed by their position in a sorted id array. Each
+ * product's top-k co-purchase neighbours, best first, sit in one CSR
+ * layout (row offsets into a flat neighbour array), and each category keeps its products
+ * ordered by basket weight for the fallback. Everything is primitive
+ * arrays, so a catalog of a few hundred thousand products costs a few
+ * tens of megabytes and a lookup allocates only its result.
+ */
+public final class CoPurchaseModel {
+
+    public static final CoPurchaseModel EMPTY = new Builder(1, 1).build();
+
+    private final long[] productIds;
+    private final int[] categoryOf;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final Map<String, Integer> categoryIndex;
+    private final int[][] categoryMembers;
+
+    private CoPurchaseModel(long[] productIds, int[] categoryOf, int[] offsets, int[] neighbours,
+                            Map<String, Integer> categoryIndex, int[][] categoryMembers) {
+        this.productIds = productIds;
+        this.categoryOf = categoryOf;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.categoryIndex = categoryIndex;
+        this.categoryMembers = categoryMembers;
+    }
+
+    public static Builder builder(int maxBasketSize, int topK) {
+        return new Builder(maxBasketSize, topK);
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int pairCount() {
+        return neighbours.length;
+    }
+
+    /**
+     * Co-purchase neighbours, best first, then same-category products by
+     * popularity until the limit is reached
+     */
+    public long[] related(long productId, int limit) {
+        return collect(productId, limit, false);
+    }
+
+    /**
+     * Co-purchase neighbours from other categories only: complements rather
+     * than substitutes. No category fallback.
+     */
+    public long[] crossSells(long productId, int limit) {
+        return collect(productId, limit, true);
+    }
+
+    /**
+     * Products of the category by popularity, or null if the category is unknown to the model
+     */
+    public long[] category(String category, long excludeProductId) {
+        Integer index = category != null ? categoryIndex.get(category) : null;
+        if (index == null) {
+            return null;
+        }
+        int[] members = categoryMembers[index];
+        long[] ids = new long[members.length];
+        int count = 0;
+        for (int member : members) {
+            if (productIds[member] != excludeProductId) {
+                ids[count++] = productIds[member];
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    private long[] collect(long productId, int limit, boolean otherCategoriesOnly) {
+        int item = Arrays.binarySearch(productIds, productId);
+        if (item < 0 || limit <= 0) {
+            return new long[0];
+        }
+        long[] result = new long[limit];
+        int count = 0;
+        int category = categoryOf[item];
+        for (int i = offsets[item]; i < offsets[item + 1] && count < limit; i++) {
+            int neighbour = neighbours[i];
+            if (!otherCategoriesOnly || categoryOf[neighbour] != category || category < 0) {
+                result[count++] = productIds[neighbour];
+            }
+        }
+        if (!otherCategoriesOnly && category >= 0) {
+            for (int member : categoryMembers[category]) {
+                if (count == limit) {
+                    break;
+                }
+                if (member != item && !contains(result, count, productIds[member])) {
+                    result[count++] = productIds[member];
+                }
+            }
+        }
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+
+    private static boolean contains(long[] ids, int count, long id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accumulates baskets and the catalog, then builds the model.
+     *
+     * Rows must arrive grouped by basket key; call {@link #endSource()}
+     * between sources so keys from different tables never merge. A basket
+     * counts each product once, and only its first maxBasketSize distinct
+     * products are paired, which bounds the quadratic pair cost of huge carts.
+     */
+    public static final class Builder {
+
+        private final int maxBasketSize;
+        private final int topK;
+        private final LongIntMap positions = new LongIntMap();
+        private long[] ids = new long[1024];
+        private float[] weights = new float[1024];
+        private String[] categories = new String[1024];
+        private boolean[] listed = new boolean[1024];
+        private final PairWeights pairs = new PairWeights();
+
+        private final int[] basket;
+        private int basketSize;
+        private long basketKey;
+        private float basketWeight;
+        private boolean inBasket;
+
+        private Builder(int maxBasketSize, int topK) {
+            this.maxBasketSize = maxBasketSize;
+            this.topK = topK;
+            this.basket = new int[maxBasketSize];
+        }
+
+        /**
+         * Registers a product that can be recommended, with its category (may be null)
+         */
+        public Builder catalog(long productId, String category) {
+            int position = position(productId);
+            categories[position] = category;
+            listed[position] = true;
+            return this;
+        }
+
+        public Builder add(long basketKey, long productId, float weight) {
+            if (!inBasket || basketKey != this.basketKey) {
+                endBasket();
+                this.basketKey = basketKey;
+                this.basketWeight = weight;
+                this.inBasket = true;
+            }
+            if (basketSize < maxBasketSize) {
+                int item = position(productId);
+                for (int i = 0; i < basketSize; i++) {
+                    if (basket[i] == item) {
+                        return this;
+                    }
+                }
+                basket[basketSize++] = item;
+            }
+            return this;
+        }
+
+        public Builder endSource() {
+            endBasket();
+            inBasket = false;
+            return this;
+        }
+
+        private void endBasket() {
+            for (int i = 0; i < basketSize; i++) {
+                int a = basket[i];
+                weights[a] += basketWeight;
+                for (int j = i + 1; j < basketSize; j++) {
+                    pairs.add(a, basket[j], basketWeight);
+                }
+            }
+            basketSize = 0;
+        }
+
+        private int position(long productId) {
+            int position = positions.get(productId);
+            if (position < 0) {
+                position = positions.size();
+                positions.put(productId, position);
+                if (position == ids.length) {
+                    ids = Arrays.copyOf(ids, position * 2);
+                    weights = Arrays.copyOf(weights, position * 2);
+                    categories = Arrays.copyOf(categories, position * 2);
+                    listed = Arrays.copyOf(listed, position * 2);
+                }
+                ids[position] = productId;
+            }
+            return position;
+        }
+
+        public CoPurchaseModel build() {
+            endSource();
+            int n = positions.size();
+
+            // Renumber by product id so lookups can binary search
+            int[] order = sortedPositions(n);
+            int[] rank = new int[n];
+            long[] productIds = new long[n];
+            float[] basketWeights = new float[n];
+            for (int r = 0; r < n; r++) {
+                rank[order[r]] = r;
+                productIds[r] = ids[order[r]];
+                basketWeights[r] = weights[order[r]];
+            }
+
+            // Keep the best k neighbours per product in fixed-size min-heaps
+            int[] heapItems = new int[n * topK];
+            float[] heapScores = new float[n * topK];
+            int[] heapSizes = new int[n];
+            pairs.forEach((a, b, weight) -> {
+                int ra = rank[a];
+                int rb = rank[b];
+                // Cosine over baskets, so popular products do not neighbour everything
+                float score = (float) (weight / Math.sqrt((double) basketWeights[ra] * basketWeights[rb]));
+                if (listed[b]) {
+                    offer(heapItems, heapScores, heapSizes, ra, rb, score);
+                }
+                if (listed[a]) {
+                    offer(heapItems, heapScores, heapSizes, rb, ra, score);
+                }
+            });
+
+            int[] offsets = new int[n + 1];
+            for (int r = 0; r < n; r++) {
+                offsets[r + 1] = offsets[r] + heapSizes[r];
+            }
+            int[] neighbours = new int[offsets[n]];
+            for (int r = 0; r < n; r++) {
+                int base = r * topK;
+                int size = heapSizes[r];
+                // Heap pops come out worst first, so fill each row from the back
+                for (int out = offsets[r] + size - 1; size > 0; out--) {
+                    neighbours[out] = heapItems[base];
+                    size--;
+                    heapItems[base] = heapItems[base + size];
+                    heapScores[base] = heapScores[base + size];
+                    siftDown(heapItems, heapScores, base, size, 0);
+                }
+            }
+
+            Map<String, Integer> categoryIndex = new HashMap<>();
+            int[] categoryOf = new int[n];
+            int[] categorySizes = new int[16];
+            for (int r = 0; r < n; r++) {
+                String category = listed[order[r]] ? categories[order[r]] : null;
+                if (category == null) {
+                    categoryOf[r] = -1;
+                    continue;
+                }
+                Integer index = categoryIndex.putIfAbsent(category, categoryIndex.size());
+                int c = index != null ? index : categoryIndex.size() - 1;
+                if (c == categorySizes.length) {
+                    categorySizes = Arrays.copyOf(categorySizes, c * 2);
+                }
+                categoryOf[r] = c;
+                categorySizes[c]++;
+            }
+            int[][] categoryMembers = new int[categoryIndex.size()][];
+            for (int c = 0; c < categoryMembers.length; c++) {
+                categoryMembers[c] = new int[categorySizes[c]];
+                categorySizes[c] = 0;
+            }
+            for (int r = 0; r < n; r++) {
+                if (categoryOf[r] >= 0) {
+                    categoryMembers[categoryOf[r]][categorySizes[categoryOf[r]]++] = r;
+                }
+            }
+            for (int[] members : categoryMembers) {
+                sortByWeightDesc(members, basketWeights);
+            }
+
+            return new CoPurchaseModel(productIds, categoryOf, offsets, neighbours, categoryIndex, categoryMembers);
+        }
+
+        private int[] sortedPositions(int n) {
+            long[] sortedIds = Arrays.copyOf(ids, n);
+            Arrays.sort(sortedIds);
+            int[] order = new int[n];
+            for (int r = 0; r < n; r++) {
+                order[r] = positions.get(sortedIds[r]);
+            }
+            return order;
+        }
+
+        private void offer(int[] items, float[] scores, int[] sizes, int row, int item, float score) {
+            int base = row * topK;
+            int size = sizes[row];
+            if (size < topK) {
+                items[base + size] = item;
+                scores[base + size] = score;
+                sizes[row] = size + 1;
+                siftUp(items, scores, base, size);
+            } else if (score > scores[base]) {
+                items[base] = item;
+                scores[base] = score;
+                siftDown(items, scores, base, size, 0);
+            }
+        }
+
+        private static void siftUp(int[] items, float[] scores, int base, int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[base + parent] <= scores[base + index]) {
+                    return;
+                }
+                swap(items, scores, base + parent, base + index);
+                index = parent;
+            }
+        }
+
+        private static void siftDown(int[] items, float[] scores, int base, int size, int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && scores[base + left] < scores[base + smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[base + right] < scores[base + smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(items, scores, base + smallest, base + index);
+                index = smallest;
+            }
+        }
+
+        private static void swap(int[] items, float[] scores, int i, int j) {
+            int item = items[i];
+            items[i] = items[j];
+            items[j] = item;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+
+        private static void sortByWeightDesc(int[] members, float[] weights) {
+            // Bits of a non-negative float order like the float, so packing the
+            // inverted bits above the member sorts heaviest first, ties by id
+            long[] keys = new long[members.length];
+            for (int i = 0; i < members.length; i++) {
+                long inverted = Integer.MAX_VALUE - Float.floatToIntBits(weights[members[i]]);
+                keys[i] = (inverted << 32) | members[i];
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < members.length; i++) {
+                members[i] = (int) keys[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairVisitor {
+        void visit(int a, int b, float weight);
+    }
+
+    /**
+     * Open-addressing map from an unordered item pair to its summed basket weight
+     */
+    private static final class PairWeights {
+
+        private long[] keys = new long[1 << 16];
+        private float[] values = new float[1 << 16];
+        private int size;
+
+        void add(int a, int b, float weight) {
+            if (size >= keys.length * 0.6) {
+                grow();
+            }
+            long key = (a < b ? ((long) a << 32) | b : ((long) b << 32) | a) + 1; // 0 marks an empty slot
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += weight;
+        }
+
+        void forEach(PairVisitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    long key = keys[slot] - 1;
+                    visitor.visit((int) (key >>> 32), (int) key, values[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            float[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new float[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from product id to its builder position; -1 when absent
+     */
+    private static final class LongIntMap {
+
+        private long[] keys = new long[1 << 12];
+        private int[] values = new int[1 << 12];
+        private boolean[] used = new boolean[1 << 12];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if (size + 1 > keys.length * 0.6) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,276 @@
+package com.itech.itech_backend.modules.product.service;
+
+import com.itech.itech_backend.modules.product.model.StockMovement;
+import com.itech.itech_backend.modules.product.model.StockReservation;
+import com.itech.itech_backend.modules.product.repository.ProductRepository;
+import com.itech.itech_backend.modules.product.repository.StockMovementRepository;
+import com.itech.itech_backend.modules.product.repository.StockReservationRepository;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inventory ledger: stock levels on the product row, every change appended
+ * to {@link StockMovement}.
+ *
+ * Levels only move through the conditional UPDATEs on ProductRepository, so
+ * two orders racing for the last units cannot both win. The row stays
+ * locked until commit, which makes the balance read back for the movement
+ * exactly the one this change produced. Reservations that are neither
+ * consumed nor released expire and are swept in batches on one node.
+ */
+@Service
+@Slf4j
+public class InventoryLedgerService {
+
+    private static final String SWEEP_LOCK = "stock-reservation-sweep";
+    private static final int MAX_SET_ATTEMPTS = 5;
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final StockMovementRepository movementRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate attemptTemplate;
+    private final AtomicBoolean headroomReconciled = new AtomicBoolean();
+
+    @Value("${inventory.reservation.ttl-minutes:30}")
+    private long reservationTtlMinutes;
+
+    @Value("${inventory.reservation.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    @Value("${inventory.reservation.lease-minutes:5}")
+    private long leaseMinutes;
+
+    public InventoryLedgerService(ProductRepository productRepository,
+                                  StockReservationRepository reservationRepository,
+                                  StockMovementRepository movementRepository,
+                                  SchedulerLockService schedulerLockService,
+                                  PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.movementRepository = movementRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A retry must read the level another writer committed, which a REPEATABLE READ snapshot would hide
+        this.attemptTemplate = new TransactionTemplate(transactionManager);
+        this.attemptTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Sets on-hand stock, recording the difference as an adjustment. Each
+     * attempt runs in a transaction of its own.
+     */
+    public StockMovement setStock(Long productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        for (int attempt = 0; attempt < MAX_SET_ATTEMPTS; attempt++) {
+            StockMovement movement = attemptTemplate.execute(status -> {
+                ProductRepository.StockLevels levels = levels(productId);
+                if (quantity < levels.getReservedQuantity()) {
+                    throw new RuntimeException("Cannot set stock below the " + levels.getReservedQuantity()
+                            + " units reserved for product ID: " + productId);
+                }
+                if (productRepository.setStockQuantity(productId, levels.getStockQuantity(), quantity) == 0) {
+                    return null;
+                }
+                return record(productId, StockMovement.MovementType.ADJUSTMENT,
+                        quantity - levels.getStockQuantity(), null);
+            });
+            if (movement != null) {
+                return movement;
+            }
+        }
+        throw new RuntimeException("Stock for product ID " + productId + " is changing too fast to set; retry");
+    }
+
+    @Transactional
+    public StockReservation reserve(Long productId, int quantity) {
+        return reserve(productId, quantity, Duration.ofMinutes(reservationTtlMinutes));
+    }
+
+    @Transactional
+    public StockReservation reserve(Long productId, int quantity, Duration ttl) {
+        requirePositive(quantity);
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            levels(productId);
+            throw new RuntimeException("Insufficient stock for product ID: " + productId);
+        }
+        StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockReservation.Status.ACTIVE)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        record(productId, StockMovement.MovementType.RESERVE, quantity, reservation.getId());
+        return reservation;
+    }
+
+    /**
+     * Turns a reservation into a sale: the units leave on-hand stock
+     */
+    @Transactional
+    public void consume(Long reservationId) {
+        StockReservation reservation = close(reservationId, StockReservation.Status.CONSUMED);
+        if (productRepository.consumeReservedStock(reservation.getProductId(), reservation.getQuantity()) == 0) {
+            throw new IllegalStateException("Reserved stock out of step for product ID: " + reservation.getProductId());
+        }
+        record(reservation.getProductId(), StockMovement.MovementType.CONSUME,
+                -reservation.getQuantity(), reservationId);
+    }
+
+    @Transactional
+    public void release(Long reservationId) {
+        StockReservation reservation = close(reservationId, StockReservation.Status.RELEASED);
+        returnToAvailable(reservation.getProductId(), reservation.getQuantity(),
+                StockMovement.MovementType.RELEASE, reservationId);
+    }
+
+    /**
+     * Releases units from the product's oldest active reservations. All or
+     * nothing: fails if fewer than the requested units are still held.
+     */
+    @Transactional
+    public void release(Long productId, int quantity) {
+        requirePositive(quantity);
+        int remaining = quantity;
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        for (StockReservation reservation : reservationRepository.findActiveByProductId(productId)) {
+            int take = Math.min(remaining, reservation.getQuantity());
+            boolean closed = take == reservation.getQuantity()
+                    ? reservationRepository.close(reservation.getId(), StockReservation.Status.RELEASED,
+                            LocalDateTime.now()) == 1
+                    : reservationRepository.shrink(reservation.getId(), take) == 1;
+            if (closed) {
+                remaining -= take;
+                taken.put(reservation.getId(), take);
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        if (remaining > 0) {
+            throw new RuntimeException("Only " + (quantity - remaining) + " of " + quantity
+                    + " units are reserved for product ID: " + productId);
+        }
+        // Product row last, the lock order the sweep uses
+        taken.forEach((reservationId, take) ->
+                returnToAvailable(productId, take, StockMovement.MovementType.RELEASE, reservationId));
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:60000}",
+               initialDelayString = "${inventory.reservation.sweep-initial-delay-ms:30000}")
+    public void sweepExpiredReservations() {
+        schedulerLockService.runExclusively(SWEEP_LOCK, Duration.ofMinutes(leaseMinutes), () -> {
+            if (headroomReconciled.compareAndSet(false, true)) {
+                reconcileHeadroom();
+            }
+            int expired = expireDue(LocalDateTime.now());
+            if (expired > 0) {
+                log.info("Expired {} stock reservations", expired);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${inventory.headroom-reconcile-cron:0 45 2 * * *}")
+    public void reconcile() {
+        schedulerLockService.runExclusively(SWEEP_LOCK, Duration.ofMinutes(leaseMinutes), this::reconcileHeadroom);
+    }
+
+    /**
+     * Expires reservations due by the given time, one transaction per batch
+     */
+    public int expireDue(LocalDateTime now) {
+        int total = 0;
+        while (true) {
+            Integer expired = transactionTemplate.execute(status -> {
+                List<StockReservation> due = reservationRepository.findExpired(now, PageRequest.of(0, sweepBatchSize));
+                List<StockReservation> closed = new ArrayList<>(due.size());
+                for (StockReservation reservation : due) {
+                    // A reservation consumed or released since the page was read is skipped
+                    if (reservationRepository.close(reservation.getId(), StockReservation.Status.EXPIRED, now) == 1) {
+                        closed.add(reservation);
+                    }
+                }
+                // Products are locked only after every reservation, in product order. Consume and
+                // release lock their reservation before its product too, so no lock cycle can form.
+                closed.sort(Comparator.comparing(StockReservation::getProductId));
+                for (StockReservation reservation : closed) {
+                    returnToAvailable(reservation.getProductId(), reservation.getQuantity(),
+                            StockMovement.MovementType.EXPIRE, reservation.getId());
+                }
+                return due.isEmpty() ? null : closed.size();
+            });
+            if (expired == null) {
+                return total;
+            }
+            total += expired;
+        }
+    }
+
+    private void reconcileHeadroom() {
+        int repaired = productRepository.reconcileStockHeadroom();
+        if (repaired > 0) {
+            log.info("Recomputed stock headroom for {} products", repaired);
+        }
+    }
+
+    private StockReservation close(Long reservationId, StockReservation.Status status) {
+        StockReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new RuntimeException("Stock reservation not found with ID: " + reservationId));
+        if (reservationRepository.close(reservationId, status, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Stock reservation " + reservationId + " is no longer active");
+        }
+        return reservation;
+    }
+
+    private void returnToAvailable(Long productId, int quantity, StockMovement.MovementType type, Long reservationId) {
+        if (productRepository.releaseReservedStock(productId, quantity) == 0) {
+            throw new IllegalStateException("Reserved stock out of step for product ID: " + productId);
+        }
+        record(productId, type, -quantity, reservationId);
+    }
+
+    private StockMovement record(Long productId, StockMovement.MovementType type, int quantity, Long reservationId) {
+        productRepository.refreshStockStatus(productId);
+        ProductRepository.StockLevels levels = levels(productId);
+        return movementRepository.save(StockMovement.builder()
+                .productId(productId)
+                .movementType(type)
+                .quantity(quantity)
+                .reservationId(reservationId)
+                .stockAfter(levels.getStockQuantity())
+                .reservedAfter(levels.getReservedQuantity())
+                .availableAfter(levels.getAvailableQuantity())
+                .build());
+    }
+
+    private ProductRepository.StockLevels levels(Long productId) {
+        return productRepository.findStockLevelsById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.itech.itech_backend.modules.product.service;
+
+import com.itech.itech_backend.modules.product.model.ProductMetricBucket;
+import com.itech.itech_backend.modules.product.model.ProductMetricBucket.Granularity;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the {@link ProductMetricBucket} time series.
+ *
+ * Views are counted in memory per product and day and flushed as additive
+ * upserts every few seconds. Order lines are ingested from order_items,
+ * each marked with whether it was counted in the transaction that adds it
+ * to the buckets, so a line that commits late is still picked up. A line
+ * cancelled or returned after it was counted no longer matches its mark and
+ * is taken out of its day again. Ageing daily buckets are folded into weekly
+ * ones and weekly into monthly, one period per transaction.
+ * Ingestion and compaction hold the same lease, so only one node rewrites
+ * buckets at a time.
+ */
+@Service
+@Slf4j
+public class ProductMetricsStore {
+
+    private static final String LOCK = "product-metrics";
+    private static final Set<String> UNCOUNTED_STATUSES = Set.of("CANCELLED", "RETURNED");
+
+    private static final String UPDATE_SQL =
+            "UPDATE product_metric_buckets SET views = views + ?, orders = orders + ?, units = units + ?, " +
+            "revenue = revenue + ? WHERE product_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO product_metric_buckets (product_id, granularity, bucket_start, views, orders, units, revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Lines never ingested, and lines whose status moved across UNCOUNTED_STATUSES since they were
+    private static final String ORDER_LINES_SQL =
+            "SELECT id, product_id, quantity, total_price, fulfillment_status, created_at, metrics_counted " +
+            "FROM order_items WHERE metrics_counted IS NULL " +
+            "OR metrics_counted = TRUE AND fulfillment_status IN ('CANCELLED', 'RETURNED') " +
+            "OR metrics_counted = FALSE AND (fulfillment_status IS NULL OR fulfillment_status NOT IN ('CANCELLED', 'RETURNED')) " +
+            "ORDER BY id LIMIT ?";
+    private static final String MARK_NEW_SQL =
+            "UPDATE order_items SET metrics_counted = ? WHERE id = ? AND metrics_counted IS NULL";
+    private static final String MARK_SQL =
+            "UPDATE order_items SET metrics_counted = ? WHERE id = ? AND metrics_counted = ?";
+    private static final String OLDEST_BUCKET_SQL =
+            "SELECT MIN(bucket_start) FROM product_metric_buckets WHERE granularity = ? AND bucket_start < ?";
+    private static final String PERIOD_TOTALS_SQL =
+            "SELECT product_id, SUM(views), SUM(orders), SUM(units), SUM(revenue) " +
+            "FROM product_metric_buckets WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY product_id";
+    private static final String DELETE_PERIOD_SQL =
+            "DELETE FROM product_metric_buckets WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private record Key(Long productId, Granularity granularity, LocalDate bucketStart) {
+    }
+
+    private record Delta(long views, long orders, long units, BigDecimal revenue) {
+
+        static final Delta VIEW = new Delta(1, 0, 0, BigDecimal.ZERO);
+        static final Delta NONE = new Delta(0, 0, 0, BigDecimal.ZERO);
+
+        Delta merge(Delta other) {
+            return new Delta(views + other.views, orders + other.orders, units + other.units, revenue.add(other.revenue));
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Delta> pendingViews = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${product-metrics.ingest-batch-size:5000}")
+    private int ingestBatchSize;
+
+    @Value("${product-metrics.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+    @Value("${product-metrics.weekly-retention-days:365}")
+    private int weeklyRetentionDays;
+
+    @Value("${product-metrics.report-window-days:30}")
+    private int reportWindowDays;
+
+    @Value("${product-metrics.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public ProductMetricsStore(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               SchedulerLockService schedulerLockService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    public void recordView(Long productId) {
+        if (productId != null) {
+            pendingViews.merge(new Key(productId, Granularity.DAY, LocalDate.now()), Delta.VIEW, Delta::merge);
+        }
+    }
+
+    /**
+     * First day of the window the product reports cover
+     */
+    public LocalDate reportWindowStart() {
+        return LocalDate.now().minusDays(reportWindowDays - 1L);
+    }
+
+    public int getReportWindowDays() {
+        return reportWindowDays;
+    }
+
+    @Scheduled(fixedDelayString = "${product-metrics.flush-interval-ms:5000}")
+    public void flushViews() {
+        if (pendingViews.isEmpty()) {
+            return;
+        }
+        Map<Key, Delta> batch = new LinkedHashMap<>();
+        for (Key key : new ArrayList<>(pendingViews.keySet())) {
+            Delta delta = pendingViews.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (Exception e) {
+            // Typically two nodes inserting the same new bucket; the loser retries on the next flush
+            batch.forEach((key, delta) -> pendingViews.merge(key, delta, Delta::merge));
+            log.warn("Failed to flush views for {} product buckets, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushViews();
+    }
+
+    @Scheduled(fixedDelayString = "${product-metrics.ingest-interval-ms:60000}",
+               initialDelayString = "${product-metrics.ingest-initial-delay-ms:45000}")
+    public void ingest() {
+        schedulerLockService.runExclusively(LOCK, Duration.ofMinutes(leaseMinutes), () -> {
+            int lines = ingestOrderLines();
+            if (lines > 0) {
+                log.info("Added {} order lines to product metrics", lines);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${product-metrics.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        schedulerLockService.runExclusively(LOCK, Duration.ofMinutes(leaseMinutes), () -> {
+            int folded = compact(LocalDate.now());
+            if (folded > 0) {
+                log.info("Compacted {} product metric buckets", folded);
+            }
+        });
+    }
+
+    /**
+     * Adds every order line not yet ingested and takes out the ones cancelled
+     * or returned since, one transaction per batch; returns how many lines changed
+     */
+    public int ingestOrderLines() {
+        int total = 0;
+        while (true) {
+            int lines = transactionTemplate.execute(status -> {
+                Map<Key, Delta> batch = new LinkedHashMap<>();
+                List<Object[]> fresh = new ArrayList<>();
+                List<Object[]> changed = new ArrayList<>();
+                jdbcTemplate.query(ORDER_LINES_SQL, rs -> {
+                    String fulfillment = rs.getString(5);
+                    boolean counted = fulfillment == null || !UNCOUNTED_STATUSES.contains(fulfillment);
+                    boolean wasCounted = rs.getBoolean(7);
+                    if (rs.wasNull()) {
+                        fresh.add(new Object[]{counted, rs.getLong(1)});
+                        wasCounted = false;
+                    } else {
+                        changed.add(new Object[]{counted, rs.getLong(1), wasCounted});
+                    }
+                    // Uncounted lines are marked too, they just count for nothing
+                    Delta delta = Delta.NONE;
+                    if (counted != wasCounted) {
+                        int sign = counted ? 1 : -1;
+                        BigDecimal revenue = orZero(rs.getBigDecimal(4));
+                        delta = new Delta(0, sign, sign * rs.getLong(3), counted ? revenue : revenue.negate());
+                    }
+                    LocalDate day = rs.getTimestamp(6).toLocalDateTime().toLocalDate();
+                    batch.merge(new Key(rs.getLong(2), Granularity.DAY, day), delta, Delta::merge);
+                }, ingestBatchSize);
+                if (fresh.isEmpty() && changed.isEmpty()) {
+                    return 0;
+                }
+                // Claim the lines before counting them; another node that got there first rolls this batch back
+                claim(MARK_NEW_SQL, fresh);
+                claim(MARK_SQL, changed);
+                write(batch);
+                return fresh.size() + changed.size();
+            });
+            total += lines;
+            if (lines < ingestBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    private void claim(String sql, List<Object[]> marks) {
+        if (marks.isEmpty()) {
+            return;
+        }
+        for (int marked : jdbcTemplate.batchUpdate(sql, marks)) {
+            if (marked == 0) {
+                throw new IllegalStateException("Order lines were ingested concurrently");
+            }
+        }
+    }
+
+    /**
+     * Folds daily buckets older than the daily retention into weeks, then
+     * weekly buckets older than the weekly retention into months
+     */
+    public int compact(LocalDate today) {
+        LocalDate weekCutoff = weekStart(today.minusDays(dailyRetentionDays));
+        LocalDate monthCutoff = today.minusDays(weeklyRetentionDays).withDayOfMonth(1);
+        return fold(Granularity.DAY, Granularity.WEEK, weekCutoff) + fold(Granularity.WEEK, Granularity.MONTH, monthCutoff);
+    }
+
+    private int fold(Granularity source, Granularity target, LocalDate before) {
+        int folded = 0;
+        while (true) {
+            Date oldest = jdbcTemplate.queryForObject(OLDEST_BUCKET_SQL, Date.class, source.name(), Date.valueOf(before));
+            if (oldest == null) {
+                return folded;
+            }
+            LocalDate periodStart = target == Granularity.WEEK
+                    ? weekStart(oldest.toLocalDate())
+                    : oldest.toLocalDate().withDayOfMonth(1);
+            LocalDate periodEnd = target == Granularity.WEEK ? periodStart.plusWeeks(1) : periodStart.plusMonths(1);
+            Object[] period = {source.name(), Date.valueOf(periodStart), Date.valueOf(periodEnd)};
+
+            folded += transactionTemplate.execute(status -> {
+                Map<Key, Delta> totals = new LinkedHashMap<>();
+                jdbcTemplate.query(PERIOD_TOTALS_SQL, rs -> {
+                    totals.put(new Key(rs.getLong(1), target, periodStart),
+                            new Delta(rs.getLong(2), rs.getLong(3), rs.getLong(4), orZero(rs.getBigDecimal(5))));
+                }, period);
+                int deleted = jdbcTemplate.update(DELETE_PERIOD_SQL, period);
+                write(totals);
+                return deleted;
+            });
+        }
+    }
+
+    // Additive upsert: UPDATE the existing buckets, INSERT the ones that matched nothing
+    private void write(Map<Key, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>(deltas.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            Delta delta = deltas.get(key);
+            updates.add(new Object[]{delta.views(), delta.orders(), delta.units(), delta.revenue(),
+                    key.productId(), key.granularity().name(), Date.valueOf(key.bucketStart())});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                Key key = keys.get(i);
+                Delta delta = deltas.get(key);
+                inserts.add(new Object[]{key.productId(), key.granularity().name(), Date.valueOf(key.bucketStart()),
+                        delta.views(), delta.orders(), delta.units(), delta.revenue()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,172 @@
+package com.itech.itech_backend.modules.product.service;
+
+import com.itech.itech_backend.modules.product.model.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable price table compiled from one product.
+ *
+ * Quantity breaks and the bulk discount are merged into one ascending list
+ * of thresholds with the final unit price from each threshold onward, held
+ * in paise. A lookup is a binary search over the thresholds; GST is applied
+ * per line in integer arithmetic.
+ */
+public final class ProductPriceTable {
+
+    /**
+     * One priced line. Amounts are in the product's currency; unit price is
+     * on the product's own tax basis.
+     */
+    public record LinePrice(Long productId, int quantity, BigDecimal unitPrice, BigDecimal netAmount,
+                            BigDecimal gstAmount, BigDecimal totalAmount, boolean withinOrderLimits) {
+    }
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    private final Long productId;
+    private final String currency;
+    private final int[] thresholds;
+    private final long[] unitPaise;
+    private final int minimumOrderQuantity;
+    private final int maximumOrderQuantity;
+    private final long gstBasisPoints;
+    private final boolean taxInclusive;
+
+    private ProductPriceTable(Long productId, String currency, int[] thresholds, long[] unitPaise,
+                              int minimumOrderQuantity, int maximumOrderQuantity,
+                              long gstBasisPoints, boolean taxInclusive) {
+        this.productId = productId;
+        this.currency = currency;
+        this.thresholds = thresholds;
+        this.unitPaise = unitPaise;
+        this.minimumOrderQuantity = minimumOrderQuantity;
+        this.maximumOrderQuantity = maximumOrderQuantity;
+        this.gstBasisPoints = gstBasisPoints;
+        this.taxInclusive = taxInclusive;
+    }
+
+    /**
+     * Compiles the product's unit price, quantity breaks, bulk discount, order
+     * limits and GST rate. The product's collections must be loadable.
+     */
+    public static ProductPriceTable compile(Product product) {
+        if (product.getUnitPrice() == null) {
+            throw new IllegalArgumentException("Product " + product.getId() + " has no unit price");
+        }
+
+        TreeMap<Integer, Long> tiers = new TreeMap<>();
+        tiers.put(1, toPaise(product.getUnitPrice()));
+        Map<Integer, BigDecimal> breaks = product.getQuantityBreaks();
+        if (breaks != null) {
+            breaks.forEach((quantity, price) -> {
+                if (quantity != null && quantity >= 1 && price != null) {
+                    tiers.put(quantity, toPaise(price));
+                }
+            });
+        }
+
+        Integer bulkThreshold = product.getBulkDiscountThreshold();
+        BigDecimal bulkPercentage = product.getBulkDiscountPercentage();
+        boolean bulkDiscount = bulkThreshold != null && bulkThreshold >= 1
+                && bulkPercentage != null && bulkPercentage.signum() > 0
+                && bulkPercentage.compareTo(BigDecimal.valueOf(100)) <= 0;
+        if (bulkDiscount) {
+            tiers.putIfAbsent(bulkThreshold, tiers.floorEntry(bulkThreshold).getValue());
+        }
+
+        int[] thresholds = new int[tiers.size()];
+        long[] unitPaise = new long[tiers.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Long> tier : tiers.entrySet()) {
+            thresholds[i] = tier.getKey();
+            unitPaise[i] = bulkDiscount && tier.getKey() >= bulkThreshold
+                    ? discounted(tier.getValue(), bulkPercentage)
+                    : tier.getValue();
+            i++;
+        }
+
+        Integer minimum = product.getMinimumOrderQuantity();
+        Integer maximum = product.getMaximumOrderQuantity();
+        BigDecimal gstRate = product.getGstRate();
+        return new ProductPriceTable(
+                product.getId(),
+                product.getCurrency() != null ? product.getCurrency() : "INR",
+                thresholds,
+                unitPaise,
+                minimum != null && minimum > 0 ? minimum : 1,
+                maximum != null && maximum > 0 ? maximum : Integer.MAX_VALUE,
+                gstRate != null ? gstRate.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L,
+                Boolean.TRUE.equals(product.getPriceIncludesTax()) || Boolean.TRUE.equals(product.getTaxInclusive()));
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int getMinimumOrderQuantity() {
+        return minimumOrderQuantity;
+    }
+
+    /**
+     * Unit price in paise for an order of the given quantity
+     */
+    public long unitPaise(int quantity) {
+        int index = Arrays.binarySearch(thresholds, quantity);
+        if (index < 0) {
+            index = -index - 2; // last threshold below the quantity
+        }
+        return unitPaise[Math.max(index, 0)];
+    }
+
+    public BigDecimal unitPrice(int quantity) {
+        return BigDecimal.valueOf(unitPaise(quantity), 2);
+    }
+
+    /**
+     * Prices one line, splitting GST out of tax-inclusive prices or adding
+     * it to tax-exclusive ones
+     */
+    public LinePrice price(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        long unit = unitPaise(quantity);
+        long gross = Math.multiplyExact(unit, (long) quantity);
+        long net;
+        long gst;
+        if (taxInclusive) {
+            net = divideHalfUp(Math.multiplyExact(gross, BASIS_POINTS), BASIS_POINTS + gstBasisPoints);
+            gst = gross - net;
+        } else {
+            net = gross;
+            gst = divideHalfUp(Math.multiplyExact(gross, gstBasisPoints), BASIS_POINTS);
+        }
+        return new LinePrice(productId, quantity, BigDecimal.valueOf(unit, 2), BigDecimal.valueOf(net, 2),
+                BigDecimal.valueOf(gst, 2), BigDecimal.valueOf(net + gst, 2),
+                quantity >= minimumOrderQuantity && quantity <= maximumOrderQuantity);
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long discounted(long paise, BigDecimal percentage) {
+        return BigDecimal.valueOf(paise)
+                .multiply(BigDecimal.valueOf(100).subtract(percentage))
+                .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        return (dividend + divisor / 2) / divisor;
+    }
+}
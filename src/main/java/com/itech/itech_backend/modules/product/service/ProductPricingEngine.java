@@ -0,0 +1,91 @@
+package com.itech.itech_backend.modules.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of compiled {@link ProductPriceTable}s.
+ *
+ * Tables are compiled on first use and dropped when a product's pricing
+ * changes. Bulk lookups load every missing product in one query; their
+ * quantity breaks arrive in batches through the entity's batch fetching.
+ * The TTL bounds staleness from price changes made on other nodes.
+ */
+@Service
+public class ProductPricingEngine {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductPriceTable> tables;
+
+    public ProductPricingEngine(ProductRepository productRepository,
+                                @Value("${pricing.cache.max-entries:50000}") long maxEntries,
+                                @Value("${pricing.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.productRepository = productRepository;
+        this.tables = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPriceTable table(Long productId) {
+        return tables.get(productId, id -> ProductPriceTable.compile(productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + id))));
+    }
+
+    /**
+     * Tables for all the products, loading the uncached ones in one query
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ProductPriceTable> tables(Collection<Long> productIds) {
+        Set<Long> distinct = new LinkedHashSet<>(productIds);
+        Map<Long, ProductPriceTable> found = tables.getAll(distinct, this::load);
+        for (Long productId : distinct) {
+            if (!found.containsKey(productId)) {
+                throw new RuntimeException("Product not found with ID: " + productId);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drops the product's table, after the current transaction commits if there is one
+     */
+    public void evict(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tables.invalidate(productId);
+                }
+            });
+        } else {
+            tables.invalidate(productId);
+        }
+    }
+
+    private Map<Long, ProductPriceTable> load(Set<? extends Long> productIds) {
+        List<Product> products = productRepository.findByIdIn(new ArrayList<>(productIds));
+        Map<Long, ProductPriceTable> compiled = new HashMap<>();
+        for (Product product : products) {
+            compiled.put(product.getId(), ProductPriceTable.compile(product));
+        }
+        return compiled;
+    }
+}
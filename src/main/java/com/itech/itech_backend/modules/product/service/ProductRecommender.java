@@ -0,0 +1,113 @@
+package com.itech.itech_backend.modules.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.Objects;
+
+/**
+ * Serves cross-sell, related and category recommendations for the product
+ * catalog from an in-memory {@link CoPurchaseModel}.
+ *
+ * Orders are the baskets. The model is rebuilt on a schedule by streaming
+ * order lines in order-id order, and the rebuild is skipped while no order
+ * line or published product has changed: the watermark covers new lines,
+ * lines cancelled or returned, and products published, withdrawn or edited. Until the first build finishes
+ * the model is empty and callers fall back to their queries.
+ */
+@Service
+@Slf4j
+public class ProductRecommender {
+
+    private static final String ORDER_LINES_SQL =
+            "SELECT order_id, product_id FROM order_items " +
+            "WHERE fulfillment_status IS NULL OR fulfillment_status NOT IN ('CANCELLED', 'RETURNED') " +
+            "ORDER BY order_id";
+    private static final String CATALOG_SQL =
+            "SELECT id, category FROM products WHERE status = 'PUBLISHED' AND visibility = 'PUBLIC'";
+    // Status changes go through the entity, so they also move updated_at
+    private static final String ORDER_LINES_WATERMARK_SQL =
+            "SELECT COALESCE(MAX(id), 0), COUNT(*), " +
+            "SUM(CASE WHEN fulfillment_status IN ('CANCELLED', 'RETURNED') THEN 1 ELSE 0 END), MAX(updated_at) " +
+            "FROM order_items";
+    private static final String CATALOG_WATERMARK_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(id), 0), MAX(updated_at) " +
+            "FROM products WHERE status = 'PUBLISHED' AND visibility = 'PUBLIC'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final int maxBasketSize;
+    private volatile CoPurchaseModel model = CoPurchaseModel.EMPTY;
+    private volatile String builtFrom;
+
+    public ProductRecommender(DataSource dataSource,
+                              @Value("${recommendation.top-k:20}") int topK,
+                              @Value("${recommendation.max-basket-size:50}") int maxBasketSize,
+                              @Value("${recommendation.fetch-size:10000}") int fetchSize) {
+        // Own template so the streaming fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.topK = topK;
+        this.maxBasketSize = maxBasketSize;
+    }
+
+    public long[] related(Long productId, int limit) {
+        return model.related(productId, limit);
+    }
+
+    public long[] crossSells(Long productId, int limit) {
+        return model.crossSells(productId, limit);
+    }
+
+    /**
+     * Published products of the category by order popularity, or null before
+     * the first build or for a category the model has not seen
+     */
+    public long[] category(String category, Long excludeProductId) {
+        return model.category(category, excludeProductId != null ? excludeProductId : 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.rebuild-interval-ms:3600000}",
+               initialDelayString = "${recommendation.initial-delay-ms:60000}")
+    public void refresh() {
+        String watermark = watermark(ORDER_LINES_WATERMARK_SQL) + "/" + watermark(CATALOG_WATERMARK_SQL);
+        if (Objects.equals(watermark, builtFrom)) {
+            return;
+        }
+        rebuild();
+        builtFrom = watermark;
+    }
+
+    private String watermark(String sql) {
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            StringBuilder watermark = new StringBuilder();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                watermark.append(rs.getString(i)).append(':');
+            }
+            return watermark.toString();
+        });
+    }
+
+    public CoPurchaseModel rebuild() {
+        long started = System.nanoTime();
+        CoPurchaseModel.Builder builder = CoPurchaseModel.builder(maxBasketSize, topK);
+
+        jdbcTemplate.query(CATALOG_SQL, rs -> {
+            builder.catalog(rs.getLong(1), rs.getString(2));
+        });
+        jdbcTemplate.query(ORDER_LINES_SQL, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), 1f);
+        });
+        builder.endSource();
+
+        CoPurchaseModel built = builder.build();
+        model = built;
+        log.info("Rebuilt product recommendations: {} products, {} neighbour links in {} ms",
+                built.productCount(), built.pairCount(), (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+}
@@ -1,6 +1,7 @@
 package com.itech.itech_backend.modules.product.service;
 
 import com.itech.itech_backend.modules.product.dto.CreateProductDto;
+import com.itech.itech_backend.modules.product.dto.PriceQuoteDto;
 import com.itech.itech_backend.modules.product.dto.ProductDto;
 import com.itech.itech_backend.modules.product.dto.UpdateProductDto;
 import com.itech.itech_backend.modules.product.model.Product;
@@ -135,6 +136,11 @@ public interface ProductService {
      * Calculate effective price for quantity
      */
     BigDecimal calculateEffectivePrice(Long productId, Integer quantity);
+
+    /**
+     * Price a cart or RFQ, keyed by product ID with the quantity of each line
+     */
+    PriceQuoteDto quotePrices(Map<Long, Integer> lineQuantities);
     
     /**
      * Get price history
@@ -1,26 +1,57 @@
 package com.itech.itech_backend.modules.product.service;
 
 import com.itech.itech_backend.modules.product.dto.CreateProductDto;
+import com.itech.itech_backend.modules.product.dto.PriceQuoteDto;
 import com.itech.itech_backend.modules.product.dto.ProductDto;
 import com.itech.itech_backend.modules.product.dto.UpdateProductDto;
 import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.model.ProductMetricBucket;
+import com.itech.itech_backend.modules.product.model.ProductPriceChange;
+import com.itech.itech_backend.modules.product.repository.ProductMetricBucketRepository;
+import com.itech.itech_backend.modules.product.repository.ProductPriceChangeRepository;
 import com.itech.itech_backend.modules.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Product catalog service.
+ *
+ * Reads go through the fetch plans declared on {@link Product}: catalog and
+ * search pages use the card plan and map scalar fields only, the vendor list
+ * uses the dashboard plan, and single-product lookups use the detail plan.
+ * Each mapper touches only what its plan loads, so a page costs a fixed
+ * number of statements however many products or vendors it holds.
+ */
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int RECOMMENDATION_LIMIT = 12;
+
     private final ProductRepository productRepository;
+    private final ProductPricingEngine pricingEngine;
+    private final ProductPriceChangeRepository priceChangeRepository;
+    private final InventoryLedgerService inventoryLedger;
+    private final ProductRecommender recommender;
+    private final ProductMetricsStore metricsStore;
+    private final ProductMetricBucketRepository metricBucketRepository;
 
     // ===============================
     // CORE CRUD OPERATIONS
@@ -33,21 +64,21 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ProductDto> getProductById(Long productId) {
-        // TODO: Implement get product by ID
-        return Optional.empty();
+        return productRepository.findDetailById(productId).map(this::toDetailDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ProductDto> getProductBySku(String sku) {
-        // TODO: Implement get product by SKU
-        return Optional.empty();
+        return productRepository.findDetailBySku(sku).map(this::toDetailDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ProductDto> getProductByUrlSlug(String urlSlug) {
-        // TODO: Implement get product by URL slug
-        return Optional.empty();
+        return productRepository.findDetailByUrlSlug(urlSlug).map(this::toDetailDto);
     }
 
     @Override
@@ -108,20 +139,17 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public void updateStock(Long productId, Integer quantity) {
-        // TODO: Implement stock update
-        throw new UnsupportedOperationException("Stock update not implemented yet");
+        inventoryLedger.setStock(productId, quantity);
     }
 
     @Override
     public void reserveStock(Long productId, Integer quantity) {
-        // TODO: Implement stock reservation
-        throw new UnsupportedOperationException("Stock reservation not implemented yet");
+        inventoryLedger.reserve(productId, quantity);
     }
 
     @Override
     public void releaseReservedStock(Long productId, Integer quantity) {
-        // TODO: Implement stock release
-        throw new UnsupportedOperationException("Stock release not implemented yet");
+        inventoryLedger.release(productId, quantity);
     }
 
     @Override
@@ -131,15 +159,19 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getLowStockProducts() {
-        // TODO: Implement low stock products
-        throw new UnsupportedOperationException("Low stock products not implemented yet");
+        return productRepository.findLowStockProducts().stream()
+                .map(this::toDashboardDto)
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getProductsNeedingReorder() {
-        // TODO: Implement products needing reorder
-        throw new UnsupportedOperationException("Products needing reorder not implemented yet");
+        return productRepository.findProductsNeedingReorder().stream()
+                .map(this::toDashboardDto)
+                .collect(Collectors.toList());
     }
 
     // ===============================
@@ -147,27 +179,114 @@ public class ProductServiceImpl implements ProductService {
     // ===============================
 
     @Override
+    @Transactional
     public void updatePrice(Long productId, BigDecimal unitPrice) {
-        // TODO: Implement price update
-        throw new UnsupportedOperationException("Price update not implemented yet");
+        if (unitPrice == null || unitPrice.signum() <= 0) {
+            throw new IllegalArgumentException("Unit price must be greater than zero");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+
+        product.setUnitPrice(unitPrice);
+        productRepository.save(product);
+        priceChangeRepository.save(ProductPriceChange.builder()
+                .productId(productId)
+                .changeType(ProductPriceChange.ChangeType.UNIT_PRICE)
+                .unitPrice(unitPrice)
+                .build());
+        pricingEngine.evict(productId);
     }
 
     @Override
+    @Transactional
     public void updateBulkPricing(Long productId, Map<Integer, BigDecimal> quantityBreaks) {
-        // TODO: Implement bulk pricing update
-        throw new UnsupportedOperationException("Bulk pricing update not implemented yet");
+        TreeMap<Integer, BigDecimal> breaks = new TreeMap<>(quantityBreaks != null ? quantityBreaks : Map.of());
+        breaks.forEach((quantity, price) -> {
+            if (quantity == null || quantity < 1) {
+                throw new IllegalArgumentException("Break quantity must be at least 1");
+            }
+            if (price == null || price.signum() <= 0) {
+                throw new IllegalArgumentException("Break price must be greater than zero");
+            }
+        });
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+
+        if (product.getQuantityBreaks() == null) {
+            product.setQuantityBreaks(new HashMap<>());
+        }
+        product.getQuantityBreaks().clear();
+        product.getQuantityBreaks().putAll(breaks);
+        product.setQuantityBreakPricing(!breaks.isEmpty());
+        productRepository.save(product);
+        priceChangeRepository.save(ProductPriceChange.builder()
+                .productId(productId)
+                .changeType(ProductPriceChange.ChangeType.QUANTITY_BREAKS)
+                .quantityBreaks(encodeBreaks(breaks))
+                .build());
+        pricingEngine.evict(productId);
     }
 
     @Override
     public BigDecimal calculateEffectivePrice(Long productId, Integer quantity) {
-        // TODO: Implement effective price calculation
-        throw new UnsupportedOperationException("Effective price calculation not implemented yet");
+        return pricingEngine.table(productId).unitPrice(quantity != null && quantity > 0 ? quantity : 1);
+    }
+
+    @Override
+    public PriceQuoteDto quotePrices(Map<Long, Integer> lineQuantities) {
+        Map<Long, ProductPriceTable> tables = pricingEngine.tables(lineQuantities.keySet());
+
+        List<PriceQuoteDto.LineDto> lines = new ArrayList<>(lineQuantities.size());
+        BigDecimal netTotal = BigDecimal.ZERO;
+        BigDecimal gstTotal = BigDecimal.ZERO;
+        boolean withinLimits = true;
+        for (Map.Entry<Long, Integer> line : lineQuantities.entrySet()) {
+            ProductPriceTable table = tables.get(line.getKey());
+            ProductPriceTable.LinePrice price = table.price(line.getValue());
+            lines.add(new PriceQuoteDto.LineDto(price.productId(), price.quantity(), table.getCurrency(),
+                    price.unitPrice(), price.netAmount(), price.gstAmount(), price.totalAmount(),
+                    price.withinOrderLimits()));
+            netTotal = netTotal.add(price.netAmount());
+            gstTotal = gstTotal.add(price.gstAmount());
+            withinLimits &= price.withinOrderLimits();
+        }
+        return new PriceQuoteDto(lines, netTotal, gstTotal, netTotal.add(gstTotal), withinLimits);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getPriceHistory(Long productId) {
-        // TODO: Implement price history
-        throw new UnsupportedOperationException("Price history not implemented yet");
+        return priceChangeRepository.findByProductIdOrderByChangedAtDescIdDesc(productId).stream()
+                .map(change -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("changeType", change.getChangeType().name());
+                    entry.put("changedAt", change.getChangedAt());
+                    if (change.getChangeType() == ProductPriceChange.ChangeType.UNIT_PRICE) {
+                        entry.put("unitPrice", change.getUnitPrice());
+                    } else {
+                        entry.put("quantityBreaks", decodeBreaks(change.getQuantityBreaks()));
+                    }
+                    return entry;
+                })
+                .collect(Collectors.toList());
+    }
+
+    static String encodeBreaks(Map<Integer, BigDecimal> breaks) {
+        return breaks.entrySet().stream()
+                .map(tier -> tier.getKey() + ":" + tier.getValue().toPlainString())
+                .collect(Collectors.joining(";"));
+    }
+
+    static Map<Integer, BigDecimal> decodeBreaks(String encoded) {
+        Map<Integer, BigDecimal> breaks = new TreeMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return breaks;
+        }
+        for (String tier : encoded.split(";")) {
+            int separator = tier.indexOf(':');
+            breaks.put(Integer.valueOf(tier.substring(0, separator)), new BigDecimal(tier.substring(separator + 1)));
+        }
+        return breaks;
     }
 
     // ===============================
@@ -175,57 +294,57 @@ public class ProductServiceImpl implements ProductService {
     // ===============================
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getPublishedProducts(Pageable pageable) {
-        // TODO: Implement published products
-        throw new UnsupportedOperationException("Published products not implemented yet");
+        return productRepository.findPublishedProducts(pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsByCategory(String category, Pageable pageable) {
-        // TODO: Implement products by category
-        throw new UnsupportedOperationException("Products by category not implemented yet");
+        return productRepository.findByCategory(category, pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsByBrand(String brand, Pageable pageable) {
-        // TODO: Implement products by brand
-        throw new UnsupportedOperationException("Products by brand not implemented yet");
+        return productRepository.findByBrand(brand, pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsByVendor(Long vendorId, Pageable pageable) {
-        // TODO: Implement products by vendor
-        throw new UnsupportedOperationException("Products by vendor not implemented yet");
+        return productRepository.findByVendorId(vendorId, pageable).map(this::toDashboardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getFeaturedProducts(Pageable pageable) {
-        // TODO: Implement featured products
-        throw new UnsupportedOperationException("Featured products not implemented yet");
+        return productRepository.findFeaturedProducts(pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getBestsellerProducts(Pageable pageable) {
-        // TODO: Implement bestseller products
-        throw new UnsupportedOperationException("Bestseller products not implemented yet");
+        return productRepository.findBestsellerProducts(pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getNewArrivals(Pageable pageable) {
-        // TODO: Implement new arrivals
-        throw new UnsupportedOperationException("New arrivals not implemented yet");
+        return productRepository.findNewArrivals(pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getSaleProducts(Pageable pageable) {
-        // TODO: Implement sale products
-        throw new UnsupportedOperationException("Sale products not implemented yet");
+        return productRepository.findSaleProducts(pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getDiscountedProducts(Pageable pageable) {
-        // TODO: Implement discounted products
-        throw new UnsupportedOperationException("Discounted products not implemented yet");
+        return productRepository.findDiscountedProducts(pageable).map(this::toCardDto);
     }
 
     // ===============================
@@ -233,29 +352,34 @@ public class ProductServiceImpl implements ProductService {
     // ===============================
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> searchProducts(String searchTerm, Pageable pageable) {
-        throw new UnsupportedOperationException("Product search not implemented yet");
+        return productRepository.searchPublishedProducts(searchTerm, pageable).map(this::toCardDto);
     }
 
     // All the remaining methods from the interface with UnsupportedOperationException
     // This is a minimal implementation to satisfy Spring dependency injection
     
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> filterProducts(Long vendorId, String category, String subCategory,
                                           String brand, BigDecimal minPrice, BigDecimal maxPrice,
                                           Product.StockStatus stockStatus, Boolean isFeatured,
                                           Product.ProductStatus status, Pageable pageable) {
-        throw new UnsupportedOperationException("Filter products not implemented yet");
+        return productRepository.findProductsWithFilters(vendorId, category, subCategory, brand, minPrice, maxPrice,
+                stockStatus, isFeatured, status, pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsInPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        throw new UnsupportedOperationException("Products in price range not implemented yet");
+        return productRepository.findByPriceRange(minPrice, maxPrice, pageable).map(this::toCardDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsByStockStatus(Product.StockStatus stockStatus, Pageable pageable) {
-        throw new UnsupportedOperationException("Products by stock status not implemented yet");
+        return productRepository.findByStockStatus(stockStatus, pageable).map(this::toCardDto);
     }
 
     @Override
@@ -305,7 +429,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public void incrementViewCount(Long productId) {
-        throw new UnsupportedOperationException("Increment view count not implemented yet");
+        metricsStore.recordView(productId);
     }
 
     @Override
@@ -319,8 +443,38 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getProductAnalytics(Long productId) {
-        throw new UnsupportedOperationException("Get product analytics not implemented yet");
+        LocalDate from = metricsStore.reportWindowStart();
+        long views = 0, orders = 0, units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (ProductMetricBucket bucket : metricBucketRepository
+                .findByProductIdAndBucketStartGreaterThanEqualOrderByBucketStart(productId, from)) {
+            views += bucket.getViews();
+            orders += bucket.getOrders();
+            units += bucket.getUnits();
+            revenue = revenue.add(bucket.getRevenue());
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", bucket.getBucketStart());
+            point.put("granularity", bucket.getGranularity());
+            point.put("views", bucket.getViews());
+            point.put("orders", bucket.getOrders());
+            point.put("units", bucket.getUnits());
+            point.put("revenue", bucket.getRevenue());
+            series.add(point);
+        }
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("productId", productId);
+        analytics.put("from", from);
+        analytics.put("views", views);
+        analytics.put("orders", orders);
+        analytics.put("units", units);
+        analytics.put("revenue", revenue);
+        analytics.put("conversionRate", views > 0 ? (double) orders / views : 0.0);
+        analytics.put("series", series);
+        return analytics;
     }
 
     @Override
@@ -329,28 +483,49 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getCategoryPerformance() {
-        throw new UnsupportedOperationException("Get category performance not implemented yet");
-    }
-
-    @Override
+        LocalDate from = metricsStore.reportWindowStart();
+        List<Map<String, Object>> categories = new ArrayList<>();
+        for (Object[] row : metricBucketRepository.getCategoryTotals(from)) {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("category", row[0]);
+            category.put("views", row[1]);
+            category.put("orders", row[2]);
+            category.put("units", row[3]);
+            category.put("revenue", row[4]);
+            category.put("activeProducts", row[5]);
+            categories.add(category);
+        }
+
+        Map<String, Object> performance = new LinkedHashMap<>();
+        performance.put("from", from);
+        performance.put("categories", categories);
+        return performance;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getMostViewedProducts(Pageable pageable) {
-        throw new UnsupportedOperationException("Get most viewed products not implemented yet");
+        return toCardPage(metricBucketRepository.rankByViews(metricsStore.reportWindowStart(), pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getMostSoldProducts(Pageable pageable) {
-        throw new UnsupportedOperationException("Get most sold products not implemented yet");
+        return toCardPage(metricBucketRepository.rankByUnits(metricsStore.reportWindowStart(), pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getHighestRevenueProducts(Pageable pageable) {
-        throw new UnsupportedOperationException("Get highest revenue products not implemented yet");
+        return toCardPage(metricBucketRepository.rankByRevenue(metricsStore.reportWindowStart(), pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getHighestRatedProducts(Pageable pageable) {
-        throw new UnsupportedOperationException("Get highest rated products not implemented yet");
+        return productRepository.findHighestRatedProducts(pageable).map(this::toCardDto);
     }
 
     @Override
@@ -359,38 +534,76 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getSlowMovingProducts(Integer daysSinceLastOrder) {
-        throw new UnsupportedOperationException("Get slow moving products not implemented yet");
+        int days = daysSinceLastOrder != null ? daysSinceLastOrder : metricsStore.getReportWindowDays();
+        LocalDate cutoffDay = LocalDate.now().minusDays(days);
+        return productRepository.findSlowMovingProducts(cutoffDay.atStartOfDay(), cutoffDay).stream()
+                .map(this::toCardDto)
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getHighViewLowOrderProducts(Long minViews, Long maxOrders) {
-        throw new UnsupportedOperationException("Get high view low order products not implemented yet");
+        return toCardDtos(metricBucketRepository.findHighViewLowOrder(metricsStore.reportWindowStart(), minViews, maxOrders));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getRecommendedProductsByCategory(String category, Long excludeProductId, Pageable pageable) {
-        throw new UnsupportedOperationException("Get recommended products by category not implemented yet");
+        long[] ranked = recommender.category(category, excludeProductId);
+        if (ranked == null) {
+            return productRepository.findRecommendedProductsByCategory(category, excludeProductId, pageable).map(this::toCardDto);
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.length);
+        int to = Math.min(from + pageable.getPageSize(), ranked.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ranked[i]);
+        }
+        return new PageImpl<>(toCardDtos(pageIds), pageable, ranked.length);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getRecommendedProductsByBrand(String brand, Long excludeProductId, Pageable pageable) {
-        throw new UnsupportedOperationException("Get recommended products by brand not implemented yet");
+        return productRepository.findRecommendedProductsByBrand(brand, excludeProductId, pageable).map(this::toCardDto);
     }
 
+    // Curated links come first; the co-purchase model fills the rest
+
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getCrossSellProducts(Long productId) {
-        throw new UnsupportedOperationException("Get cross-sell products not implemented yet");
+        Product product = findProduct(productId);
+        return toCardDtos(merge(product.getCrossSells(), recommender.crossSells(productId, RECOMMENDATION_LIMIT)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getUpsellProducts(Long productId) {
-        throw new UnsupportedOperationException("Get upsell products not implemented yet");
-    }
-
-    @Override
+        Product product = findProduct(productId);
+        BigDecimal price = product.getUnitPrice();
+        List<Long> curated = merge(product.getUpsells(), new long[0]);
+        List<ProductDto> upsells = new ArrayList<>();
+        for (ProductDto card : toCardDtos(merge(product.getUpsells(), recommender.related(productId, RECOMMENDATION_LIMIT * 4)))) {
+            boolean pricier = price != null && card.getUnitPrice() != null && card.getUnitPrice().compareTo(price) > 0;
+            if (curated.contains(card.getId()) || pricier) {
+                upsells.add(card);
+            }
+            if (upsells.size() == RECOMMENDATION_LIMIT) {
+                break;
+            }
+        }
+        return upsells;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getRelatedProducts(Long productId) {
-        throw new UnsupportedOperationException("Get related products not implemented yet");
+        Product product = findProduct(productId);
+        return toCardDtos(merge(product.getRelatedProducts(), recommender.related(productId, RECOMMENDATION_LIMIT)));
     }
 
     @Override
@@ -527,4 +740,216 @@ public class ProductServiceImpl implements ProductService {
     public String generateQrCode(Long productId) {
         throw new UnsupportedOperationException("Generate QR code not implemented yet");
     }
+
+    // ===============================
+    // FETCH PLAN MAPPERS
+    // ===============================
+
+    // Card plan: scalar fields and the vendor name, no collections
+    private ProductDto toCardDto(Product product) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setVendorId(product.getVendor().getId());
+        dto.setVendorName(product.getVendor().getVendorName());
+        dto.setSku(product.getSku());
+        dto.setProductName(product.getProductName());
+        dto.setProductTitle(product.getProductTitle());
+        dto.setShortDescription(product.getShortDescription());
+        dto.setBrand(product.getBrand());
+        dto.setCategory(product.getCategory());
+        dto.setSubCategory(product.getSubCategory());
+        dto.setUnitPrice(product.getUnitPrice());
+        dto.setMrp(product.getMrp());
+        dto.setCurrency(product.getCurrency());
+        dto.setPricingType(product.getPricingType());
+        dto.setAvailableQuantity(product.getAvailableQuantity());
+        dto.setMinimumOrderQuantity(product.getMinimumOrderQuantity());
+        dto.setLowStockThreshold(product.getLowStockThreshold());
+        dto.setStockStatus(product.getStockStatus());
+        dto.setUnitOfMeasure(product.getUnitOfMeasure());
+        dto.setPrimaryImageUrl(product.getPrimaryImageUrl());
+        dto.setStatus(product.getStatus());
+        dto.setVisibility(product.getVisibility());
+        dto.setIsFeatured(product.getIsFeatured());
+        dto.setIsBestseller(product.getIsBestseller());
+        dto.setIsNewArrival(product.getIsNewArrival());
+        dto.setIsOnSale(product.getIsOnSale());
+        dto.setFreeShipping(product.getFreeShipping());
+        dto.setNegotiablePrice(product.getNegotiablePrice());
+        dto.setRfqEnabled(product.getRfqEnabled());
+        dto.setAverageRating(product.getAverageRating());
+        dto.setReviewCount(product.getReviewCount());
+        dto.setHasVariants(product.getHasVariants());
+        dto.setUrlSlug(product.getUrlSlug());
+        return dto;
+    }
+
+    // Dashboard plan: card fields plus inventory, sales figures, company and variants
+    private ProductDto toDashboardDto(Product product) {
+        ProductDto dto = toCardDto(product);
+        if (product.getCompany() != null) {
+            dto.setCompanyId(product.getCompany().getId());
+            dto.setCompanyName(product.getCompany().getCompanyName());
+        }
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setReservedQuantity(product.getReservedQuantity());
+        dto.setReorderLevel(product.getReorderLevel());
+        dto.setTrackInventory(product.getTrackInventory());
+        dto.setViewCount(product.getViewCount());
+        dto.setOrderCount(product.getOrderCount());
+        dto.setTotalSoldQuantity(product.getTotalSoldQuantity());
+        dto.setTotalRevenue(product.getTotalRevenue());
+        dto.setLastOrderedAt(product.getLastOrderedAt());
+        dto.setParentProductId(product.getParentProduct() != null ? product.getParentProduct().getId() : null);
+        dto.setVariants(toVariantDtos(product.getVariants()));
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setPublishedAt(product.getPublishedAt());
+        return dto;
+    }
+
+    // Detail plan: every field; collections outside the graph load one statement each
+    private ProductDto toDetailDto(Product product) {
+        ProductDto dto = toDashboardDto(product);
+        dto.setDescription(product.getDescription());
+        dto.setManufacturer(product.getManufacturer());
+        dto.setModelNumber(product.getModelNumber());
+        dto.setTags(copyOf(product.getTags()));
+        dto.setHsnCode(product.getHsnCode());
+        dto.setWholesalePrice(product.getWholesalePrice());
+        dto.setBulkPrice(product.getBulkPrice());
+        dto.setPriceIncludesTax(product.getPriceIncludesTax());
+        dto.setMaximumOrderQuantity(product.getMaximumOrderQuantity());
+        dto.setWeight(product.getWeight());
+        dto.setLength(product.getLength());
+        dto.setWidth(product.getWidth());
+        dto.setHeight(product.getHeight());
+        dto.setAttributes(copyOf(product.getAttributes()));
+        dto.setImageUrls(copyOf(product.getImageUrls()));
+        dto.setDocumentUrls(copyOf(product.getDocumentUrls()));
+        dto.setVideoUrl(product.getVideoUrl());
+        dto.setIsDigital(product.getIsDigital());
+        dto.setRequiresShipping(product.getRequiresShipping());
+        dto.setShippingWeight(product.getShippingWeight());
+        dto.setShippingClass(product.getShippingClass());
+        dto.setProcessingTimeDays(product.getProcessingTimeDays());
+        dto.setLeadTimeDays(product.getLeadTimeDays());
+        dto.setShippingRegions(copyOf(product.getShippingRegions()));
+        dto.setTaxClass(product.getTaxClass());
+        dto.setGstRate(product.getGstRate());
+        dto.setTaxInclusive(product.getTaxInclusive());
+        dto.setRequiresLicense(product.getRequiresLicense());
+        dto.setRestrictedProduct(product.getRestrictedProduct());
+        dto.setCertifications(copyOf(product.getCertifications()));
+        dto.setBulkDiscountThreshold(product.getBulkDiscountThreshold());
+        dto.setBulkDiscountPercentage(product.getBulkDiscountPercentage());
+        dto.setQuantityBreakPricing(product.getQuantityBreakPricing());
+        dto.setQuantityBreaks(copyOf(product.getQuantityBreaks()));
+        dto.setLastViewedAt(product.getLastViewedAt());
+        dto.setSeoTitle(product.getSeoTitle());
+        dto.setSeoDescription(product.getSeoDescription());
+        dto.setSeoKeywords(product.getSeoKeywords());
+        dto.setMetaTitle(product.getMetaTitle());
+        dto.setMetaDescription(product.getMetaDescription());
+        dto.setParentProductName(product.getParentProduct() != null ? product.getParentProduct().getProductName() : null);
+        dto.setVariantType(product.getVariantType());
+        dto.setVariantValue(product.getVariantValue());
+        dto.setSubscriptionProduct(product.getSubscriptionProduct());
+        dto.setSubscriptionPeriod(product.getSubscriptionPeriod());
+        dto.setSubscriptionTrialDays(product.getSubscriptionTrialDays());
+        dto.setExternalId(product.getExternalId());
+        dto.setBarcode(product.getBarcode());
+        dto.setQrCode(product.getQrCode());
+        dto.setExternalIds(copyOf(product.getExternalIds()));
+        dto.setDiscontinuedAt(product.getDiscontinuedAt());
+        dto.setCreatedBy(product.getCreatedBy());
+        dto.setUpdatedBy(product.getUpdatedBy());
+        dto.setCrossSells(toRelatedDtos(product.getCrossSells()));
+        dto.setUpsells(toRelatedDtos(product.getUpsells()));
+        dto.setRelatedProducts(toRelatedDtos(product.getRelatedProducts()));
+        return dto;
+    }
+
+    private List<ProductDto.ProductVariantDto> toVariantDtos(List<Product> variants) {
+        if (variants == null) {
+            return List.of();
+        }
+        return variants.stream()
+                .map(variant -> new ProductDto.ProductVariantDto(
+                        variant.getId(),
+                        variant.getSku(),
+                        variant.getVariantType(),
+                        variant.getVariantValue(),
+                        variant.getUnitPrice(),
+                        variant.getStockQuantity(),
+                        variant.getPrimaryImageUrl(),
+                        variant.getStatus(),
+                        variant.isInStock()))
+                .collect(Collectors.toList());
+    }
+
+    private List<ProductDto.RelatedProductDto> toRelatedDtos(List<Product> products) {
+        if (products == null) {
+            return List.of();
+        }
+        return products.stream()
+                .map(related -> new ProductDto.RelatedProductDto(
+                        related.getId(),
+                        related.getSku(),
+                        related.getProductName(),
+                        related.getUnitPrice(),
+                        related.getPrimaryImageUrl(),
+                        related.getBrand(),
+                        related.getAverageRating(),
+                        related.isInStock(),
+                        related.getUrlSlug()))
+                .collect(Collectors.toList());
+    }
+
+    // Detached copies so callers never hold Hibernate's lazy collection wrappers
+    private Product findProduct(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+    }
+
+    // Curated products first, then recommended ids, without duplicates
+    private static List<Long> merge(List<Product> curated, long[] recommended) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        if (curated != null) {
+            curated.forEach(product -> ids.add(product.getId()));
+        }
+        for (long id : recommended) {
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // Card DTOs in the order of the given ids, skipping ids that no longer exist
+    private List<ProductDto> toCardDtos(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> byId = productRepository.findCardByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        List<ProductDto> cards = new ArrayList<>(productIds.size());
+        for (Long id : productIds) {
+            Product product = byId.get(id);
+            if (product != null) {
+                cards.add(toCardDto(product));
+            }
+        }
+        return cards;
+    }
+
+    private Page<ProductDto> toCardPage(Page<Long> productIds) {
+        return new PageImpl<>(toCardDtos(productIds.getContent()), productIds.getPageable(), productIds.getTotalElements());
+    }
+
+    private static <T> List<T> copyOf(List<T> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
+    private static <K, V> Map<K, V> copyOf(Map<K, V> values) {
+        return values != null ? new HashMap<>(values) : null;
+    }
 }
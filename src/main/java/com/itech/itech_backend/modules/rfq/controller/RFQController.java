@@ -0,0 +1,177 @@
+package com.itech.itech_backend.modules.rfq.controller;
+
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQBid;
+import com.itech.itech_backend.modules.rfq.service.RFQBidBook;
+import com.itech.itech_backend.modules.rfq.service.RFQService;
+import com.itech.itech_backend.util.JwtTokenUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rfq")
+@RequiredArgsConstructor
+@Slf4j
+public class RFQController {
+
+    private static final int MAX_BIDS_PER_PAGE = 100;
+
+    private final RFQService rfqService;
+    private final JwtTokenUtil jwtTokenUtil;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> createRFQ(@RequestBody RFQ rfq, HttpServletRequest request) {
+        try {
+            Long buyerId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (buyerId == null) {
+                return ResponseEntity.badRequest().body("User not authenticated");
+            }
+            return ResponseEntity.ok(toResponse(rfqService.createRFQ(buyerId, rfq)));
+        } catch (Exception e) {
+            log.error("Error creating RFQ", e);
+            return ResponseEntity.badRequest().body("Failed to create RFQ: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/open")
+    public ResponseEntity<?> getOpenRFQs(@RequestParam(required = false) String category) {
+        try {
+            return ResponseEntity.ok(rfqService.getOpenRFQs(category).stream().map(RFQController::toResponse).toList());
+        } catch (Exception e) {
+            log.error("Error fetching open RFQs", e);
+            return ResponseEntity.badRequest().body("Failed to fetch RFQs");
+        }
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getMyRFQs(HttpServletRequest request) {
+        try {
+            Long buyerId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (buyerId == null) {
+                return ResponseEntity.badRequest().body("User not authenticated");
+            }
+            return ResponseEntity.ok(rfqService.getBuyerRFQs(buyerId).stream().map(RFQController::toResponse).toList());
+        } catch (Exception e) {
+            log.error("Error fetching buyer RFQs", e);
+            return ResponseEntity.badRequest().body("Failed to fetch RFQs");
+        }
+    }
+
+    @GetMapping("/{rfqId}")
+    public ResponseEntity<?> getRFQ(@PathVariable Long rfqId) {
+        try {
+            return ResponseEntity.ok(toResponse(rfqService.getRFQ(rfqId)));
+        } catch (Exception e) {
+            log.error("Error fetching RFQ {}", rfqId, e);
+            return ResponseEntity.badRequest().body("Failed to fetch RFQ: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{rfqId}/bids")
+    @PreAuthorize("hasRole('VENDOR')")
+    public ResponseEntity<?> submitBid(@PathVariable Long rfqId, @RequestBody RFQBid bid, HttpServletRequest request) {
+        try {
+            Long vendorUserId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (vendorUserId == null) {
+                return ResponseEntity.badRequest().body("Vendor not authenticated");
+            }
+            return ResponseEntity.ok(rfqService.submitBid(vendorUserId, rfqId, bid));
+        } catch (Exception e) {
+            log.error("Error submitting bid on RFQ {}", rfqId, e);
+            return ResponseEntity.badRequest().body("Failed to submit bid: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/bids/{bidId}")
+    @PreAuthorize("hasRole('VENDOR')")
+    public ResponseEntity<?> reviseBid(@PathVariable Long bidId, @RequestBody RFQBid revision, HttpServletRequest request) {
+        try {
+            Long vendorUserId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (vendorUserId == null) {
+                return ResponseEntity.badRequest().body("Vendor not authenticated");
+            }
+            return ResponseEntity.ok(rfqService.reviseBid(vendorUserId, bidId, revision));
+        } catch (Exception e) {
+            log.error("Error revising bid {}", bidId, e);
+            return ResponseEntity.badRequest().body("Failed to revise bid: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{rfqId}/bids")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getBids(@PathVariable Long rfqId,
+                                     @RequestParam(defaultValue = "LANDED_COST") RFQBidBook.SortBy sort,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     HttpServletRequest request) {
+        try {
+            Long buyerId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (buyerId == null) {
+                return ResponseEntity.badRequest().body("User not authenticated");
+            }
+            int size = Math.max(1, Math.min(limit, MAX_BIDS_PER_PAGE));
+            return ResponseEntity.ok(rfqService.getBids(buyerId, rfqId, sort, size));
+        } catch (Exception e) {
+            log.error("Error fetching bids for RFQ {}", rfqId, e);
+            return ResponseEntity.badRequest().body("Failed to fetch bids: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{rfqId}/bids/summary")
+    public ResponseEntity<?> getBidSummary(@PathVariable Long rfqId) {
+        try {
+            return ResponseEntity.ok(rfqService.getBidSummary(rfqId));
+        } catch (Exception e) {
+            log.error("Error fetching bid summary for RFQ {}", rfqId, e);
+            return ResponseEntity.badRequest().body("Failed to fetch bid summary: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/bids/{bidId}/award")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> awardBid(@PathVariable Long bidId, HttpServletRequest request) {
+        try {
+            Long buyerId = jwtTokenUtil.extractUserIdFromRequest(request);
+            if (buyerId == null) {
+                return ResponseEntity.badRequest().body("User not authenticated");
+            }
+            RFQBid winner = rfqService.awardBid(buyerId, bidId);
+            return ResponseEntity.ok(Map.of(
+                    "bidId", winner.getId(),
+                    "rfqId", winner.getRfq().getId(),
+                    "status", winner.getStatus(),
+                    "totalPrice", winner.getTotalPrice()));
+        } catch (Exception e) {
+            log.error("Error awarding bid {}", bidId, e);
+            return ResponseEntity.badRequest().body("Failed to award bid: " + e.getMessage());
+        }
+    }
+
+    // Element collections are lazy and open-in-view is off, so entities are flattened here
+    private static Map<String, Object> toResponse(RFQ rfq) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", rfq.getId());
+        response.put("title", rfq.getTitle());
+        response.put("description", rfq.getDescription());
+        response.put("category", rfq.getCategory());
+        response.put("quantity", rfq.getQuantity());
+        response.put("unitType", rfq.getUnitType());
+        response.put("targetPrice", rfq.getTargetPrice());
+        response.put("deliveryLocation", rfq.getDeliveryLocation());
+        response.put("deliveryDate", rfq.getDeliveryDate());
+        response.put("status", rfq.getStatus());
+        response.put("validUntil", rfq.getValidUntil());
+        response.put("minSupplierRating", rfq.getMinSupplierRating());
+        response.put("bidCount", rfq.getBidCount());
+        response.put("createdAt", rfq.getCreatedAt());
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.itech.itech_backend.modules.rfq.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.itech.itech_backend.modules.core.model.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -25,6 +26,7 @@ public class RFQ {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "buyer_id", nullable = false)
+    @JsonIgnore
     private User buyer;
 
     @Column(nullable = false)
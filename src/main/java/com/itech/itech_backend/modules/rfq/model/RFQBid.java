@@ -1,5 +1,6 @@
 package com.itech.itech_backend.modules.rfq.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.itech.itech_backend.modules.vendor.model.VendorProfile;
 import jakarta.persistence.*;
 import lombok.*;
@@ -7,12 +8,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "rfq_bids")
+@Table(name = "rfq_bids",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rfq_bid_vendor", columnNames = {"rfq_id", "vendor_id"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,10 +28,12 @@ public class RFQBid {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rfq_id", nullable = false)
+    @JsonIgnore
     private RFQ rfq;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vendor_id", nullable = false)
+    @JsonIgnore
     private VendorProfile vendor;
 
     @Column(name = "price_quote", nullable = false)
@@ -89,6 +94,10 @@ public class RFQBid {
     @Column(name = "discount_amount")
     private BigDecimal discountAmount;
 
+    // Landed cost: price x quantity + shipping + tax - discount
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
     @ElementCollection
     @CollectionTable(name = "rfq_bid_specifications")
     @Column(name = "specification", columnDefinition = "TEXT")
@@ -117,7 +126,7 @@ public class RFQBid {
 
     @PrePersist
     @PreUpdate
-    private void calculateTotals() {
+    public void calculateTotals() {
         if (priceQuote != null && quantity != null) {
             // Calculate base price
             BigDecimal basePrice = priceQuote.multiply(BigDecimal.valueOf(quantity));
@@ -129,18 +138,17 @@ public class RFQBid {
 
             // Calculate and apply tax if percentage is present
             if (taxPercentage != null) {
-                taxAmount = basePrice.multiply(taxPercentage.divide(BigDecimal.valueOf(100)));
+                taxAmount = basePrice.multiply(taxPercentage).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
                 basePrice = basePrice.add(taxAmount);
             }
 
             // Calculate and apply discount if percentage is present
             if (discountPercentage != null) {
-                discountAmount = basePrice.multiply(discountPercentage.divide(BigDecimal.valueOf(100)));
+                discountAmount = basePrice.multiply(discountPercentage).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
                 basePrice = basePrice.subtract(discountAmount);
             }
 
-            // Store the calculated total price (you may want to add this field back if needed)
-            // totalPrice = basePrice;
+            totalPrice = basePrice;
         }
     }
 }
@@ -4,9 +4,11 @@ import com.itech.itech_backend.modules.rfq.model.RFQBid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +36,22 @@ public interface RFQBidRepository extends JpaRepository<RFQBid, Long> {
     List<RFQBid> findByRfqIdAndStatusOrderByBidAmount(@Param("rfqId") Long rfqId,
                                                      @Param("status") RFQBid.BidStatus status);
     
+    // Everything the in-memory bid book needs, in one query
+    @Query("SELECT rb FROM RFQBid rb JOIN FETCH rb.vendor v LEFT JOIN FETCH v.user WHERE rb.rfq.id = :rfqId")
+    List<RFQBid> findBookEntriesByRfqId(@Param("rfqId") Long rfqId);
+
+    @Query("SELECT rb FROM RFQBid rb JOIN FETCH rb.vendor v LEFT JOIN FETCH v.user WHERE rb.id = :bidId")
+    Optional<RFQBid> findWithVendorById(@Param("bidId") Long bidId);
+
+    @Query("SELECT rb.rfq.id FROM RFQBid rb WHERE rb.id = :bidId")
+    Optional<Long> findRfqIdById(@Param("bidId") Long bidId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RFQBid rb SET rb.status = 'REJECTED', rb.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE rb.rfq.id = :rfqId AND rb.id <> :winningBidId AND rb.status = 'PENDING'")
+    int rejectOtherBids(@Param("rfqId") Long rfqId, @Param("winningBidId") Long winningBidId);
+
     @Query("SELECT COUNT(rb) FROM RFQBid rb WHERE rb.vendor.id = :vendorId AND rb.status = :status")
     Long countByVendorIdAndStatus(@Param("vendorId") Long vendorId, 
                                  @Param("status") RFQBid.BidStatus status);
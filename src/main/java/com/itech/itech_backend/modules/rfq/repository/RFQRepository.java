@@ -1,15 +1,21 @@
 package com.itech.itech_backend.modules.rfq.repository;
 
 import com.itech.itech_backend.modules.rfq.model.RFQ;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RFQRepository extends JpaRepository<RFQ, Long> {
@@ -39,4 +45,18 @@ public interface RFQRepository extends JpaRepository<RFQ, Long> {
                                 @Param("status") RFQ.RFQStatus status);
     
     List<RFQ> findByValidUntilBeforeAndStatus(LocalDateTime validUntil, RFQ.RFQStatus status);
+
+    @Query("SELECT r FROM RFQ r JOIN FETCH r.buyer WHERE r.id = :id")
+    Optional<RFQ> findWithBuyerById(@Param("id") Long id);
+
+    // Awards, revisions and bid writes take this row lock, so each sees the others' status changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RFQ r WHERE r.id = :id")
+    Optional<RFQ> findByIdForUpdate(@Param("id") Long id);
+
+    // Only still-open RFQs close; an award committed meanwhile is left alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE RFQ r SET r.status = 'CLOSED', r.updatedAt = CURRENT_TIMESTAMP WHERE r.id IN :ids AND r.status = 'OPEN'")
+    int closeIfOpen(@Param("ids") Collection<Long> ids);
 }
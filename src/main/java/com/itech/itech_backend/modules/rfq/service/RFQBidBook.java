@@ -0,0 +1,321 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQBid;
+import com.itech.itech_backend.modules.rfq.repository.RFQBidRepository;
+import com.itech.itech_backend.modules.rfq.repository.RFQRepository;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-memory bid book per open RFQ.
+ *
+ * Each book keeps its bids sorted three ways (landed cost, delivery days and
+ * vendor score), so buyers comparing dozens of bids never re-query or re-sort.
+ * Books are loaded from the database on first use, together with any bids
+ * still queued in {@link RFQBidWriter}. Every change is pushed over STOMP:
+ * - a summary without vendor identities on /topic/rfq/{id}/bids for everyone
+ * - the top bids to the buyer on /user/queue/rfq-bids
+ * - an outbid notice to the vendor who lost the lowest landed cost
+ */
+@Component
+@Slf4j
+public class RFQBidBook {
+
+    public enum SortBy {
+        LANDED_COST(Comparator.comparing(BidView::landedCost)
+                .thenComparing(BidView::deliveryDays)
+                .thenComparing(BidView::vendorId)),
+        DELIVERY(Comparator.comparing(BidView::deliveryDays)
+                .thenComparing(BidView::landedCost)
+                .thenComparing(BidView::vendorId)),
+        VENDOR_SCORE(Comparator.comparingDouble(BidView::vendorScore).reversed()
+                .thenComparing(BidView::landedCost)
+                .thenComparing(BidView::vendorId));
+
+        private final Comparator<BidView> order;
+
+        SortBy(Comparator<BidView> order) {
+            this.order = order;
+        }
+    }
+
+    public record BidView(Long bidId, Long vendorId, String vendorName, BigDecimal landedCost, BigDecimal unitPrice,
+                          Integer quantity, Integer deliveryDays, double vendorScore, RFQBid.BidStatus status,
+                          LocalDateTime submittedAt) {
+    }
+
+    public record Summary(Long rfqId, int bidCount, BigDecimal bestLandedCost, Integer fastestDeliveryDays,
+                          LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Static details of the RFQ needed to validate and route bids
+     */
+    public record RfqInfo(Long rfqId, Long buyerId, String buyerEmail, RFQ.RFQStatus status,
+                          LocalDateTime validUntil, Integer quantity, Double minSupplierRating) {
+
+        public boolean isOpen() {
+            return status == RFQ.RFQStatus.OPEN && (validUntil == null || validUntil.isAfter(LocalDateTime.now()));
+        }
+    }
+
+    static final class Book {
+        final RfqInfo info;
+        final Map<Long, BidView> byVendor = new HashMap<>();
+        final Map<Long, String> vendorEmails = new HashMap<>();
+        final EnumMap<SortBy, TreeSet<BidView>> views = new EnumMap<>(SortBy.class);
+
+        Book(RfqInfo info) {
+            this.info = info;
+            for (SortBy sort : SortBy.values()) {
+                views.put(sort, new TreeSet<>(sort.order));
+            }
+        }
+
+        // Caller holds the book lock
+        BidView put(BidView bid, String vendorEmail) {
+            BidView previous = byVendor.put(bid.vendorId(), bid);
+            if (previous != null) {
+                views.values().forEach(view -> view.remove(previous));
+            }
+            // Rejected bids stay addressable by vendor but drop out of the rankings
+            if (bid.status() != RFQBid.BidStatus.REJECTED) {
+                views.values().forEach(view -> view.add(bid));
+            }
+            if (vendorEmail != null) {
+                vendorEmails.put(bid.vendorId(), vendorEmail);
+            }
+            return previous;
+        }
+
+        BidView best() {
+            TreeSet<BidView> byCost = views.get(SortBy.LANDED_COST);
+            return byCost.isEmpty() ? null : byCost.first();
+        }
+
+        Summary summary() {
+            TreeSet<BidView> byDelivery = views.get(SortBy.DELIVERY);
+            BidView best = best();
+            return new Summary(info.rfqId(), views.get(SortBy.LANDED_COST).size(),
+                    best != null ? best.landedCost() : null,
+                    byDelivery.isEmpty() ? null : byDelivery.first().deliveryDays(),
+                    LocalDateTime.now());
+        }
+
+        List<BidView> top(SortBy sort, int limit) {
+            List<BidView> top = new ArrayList<>(Math.min(limit, views.get(sort).size()));
+            for (BidView bid : views.get(sort)) {
+                if (top.size() >= limit) {
+                    break;
+                }
+                top.add(bid);
+            }
+            return top;
+        }
+    }
+
+    private static final int BUYER_PUSH_SIZE = 5;
+
+    private final RFQRepository rfqRepository;
+    private final RFQBidRepository bidRepository;
+    private final RFQBidWriter bidWriter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LoadingCache<Long, Optional<Book>> books;
+
+    public RFQBidBook(RFQRepository rfqRepository,
+                      RFQBidRepository bidRepository,
+                      RFQBidWriter bidWriter,
+                      SimpMessagingTemplate messagingTemplate,
+                      @Value("${rfq.bid-book.max-books:10000}") long maxBooks,
+                      @Value("${rfq.bid-book.idle-minutes:30}") long idleMinutes) {
+        this.rfqRepository = rfqRepository;
+        this.bidRepository = bidRepository;
+        this.bidWriter = bidWriter;
+        this.messagingTemplate = messagingTemplate;
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maxBooks)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build(this::load);
+    }
+
+    private Optional<Book> load(Long rfqId) {
+        Optional<RFQ> rfq = rfqRepository.findWithBuyerById(rfqId);
+        if (rfq.isEmpty()) {
+            return Optional.empty();
+        }
+        RFQ r = rfq.get();
+        Book book = new Book(new RfqInfo(r.getId(), r.getBuyer().getId(), r.getBuyer().getEmail(), r.getStatus(),
+                r.getValidUntil(), r.getQuantity(), r.getMinSupplierRating()));
+        for (RFQBid bid : bidRepository.findBookEntriesByRfqId(rfqId)) {
+            book.put(toView(bid), vendorEmail(bid.getVendor()));
+        }
+        // Accepted on this node but not committed yet
+        for (RFQBid bid : bidWriter.pendingFor(rfqId)) {
+            book.put(toView(bid), vendorEmail(bid.getVendor()));
+        }
+        return Optional.of(book);
+    }
+
+    public Optional<RfqInfo> getInfo(Long rfqId) {
+        return books.get(rfqId).map(book -> book.info);
+    }
+
+    public Optional<BidView> getBid(Long rfqId, Long vendorId) {
+        return books.get(rfqId).map(book -> {
+            synchronized (book) {
+                return book.byVendor.get(vendorId);
+            }
+        });
+    }
+
+    /**
+     * Adds a vendor's first bid. Returns false if the vendor already has one on this RFQ.
+     */
+    public boolean add(RFQBid bid) {
+        Book book = require(bid.getRfq().getId());
+        BidView view = toView(bid);
+        BidView previousBest;
+        Summary summary;
+        List<BidView> top;
+        synchronized (book) {
+            if (book.byVendor.containsKey(view.vendorId())) {
+                return false;
+            }
+            previousBest = book.best();
+            book.put(view, vendorEmail(bid.getVendor()));
+            summary = book.summary();
+            top = book.top(SortBy.LANDED_COST, BUYER_PUSH_SIZE);
+        }
+        publish(book, summary, top, previousBest);
+        return true;
+    }
+
+    /**
+     * Replaces a vendor's bid after a revision, status change or save
+     */
+    public void update(RFQBid bid) {
+        Book book = books.get(bid.getRfq().getId()).orElse(null);
+        if (book == null) {
+            return;
+        }
+        BidView view = toView(bid);
+        BidView previousBest;
+        Summary summary;
+        List<BidView> top;
+        synchronized (book) {
+            previousBest = book.best();
+            book.put(view, vendorEmail(bid.getVendor()));
+            summary = book.summary();
+            top = book.top(SortBy.LANDED_COST, BUYER_PUSH_SIZE);
+        }
+        publish(book, summary, top, previousBest);
+    }
+
+    /**
+     * Records the database id once the write-behind save commits
+     */
+    public void assignId(Long rfqId, Long vendorId, Long bidId) {
+        books.asMap().getOrDefault(rfqId, Optional.empty()).ifPresent(book -> {
+            synchronized (book) {
+                BidView current = book.byVendor.get(vendorId);
+                if (current != null && current.bidId() == null) {
+                    book.put(new BidView(bidId, current.vendorId(), current.vendorName(), current.landedCost(),
+                            current.unitPrice(), current.quantity(), current.deliveryDays(), current.vendorScore(),
+                            current.status(), current.submittedAt()), null);
+                }
+            }
+        });
+    }
+
+    public List<BidView> getBids(Long rfqId, SortBy sort, int limit) {
+        Book book = require(rfqId);
+        synchronized (book) {
+            return book.top(sort, limit);
+        }
+    }
+
+    public Summary getSummary(Long rfqId) {
+        Book book = require(rfqId);
+        synchronized (book) {
+            return book.summary();
+        }
+    }
+
+    /**
+     * 1-based position of the vendor's bid by landed cost, or 0 if it has none
+     */
+    public int getRank(Long rfqId, Long vendorId) {
+        Book book = require(rfqId);
+        synchronized (book) {
+            BidView bid = book.byVendor.get(vendorId);
+            if (bid == null || bid.status() == RFQBid.BidStatus.REJECTED) {
+                return 0;
+            }
+            return book.views.get(SortBy.LANDED_COST).headSet(bid).size() + 1;
+        }
+    }
+
+    /**
+     * Drops the book so the next access reloads it (RFQ closed, awarded or a save failed)
+     */
+    public void evict(Long rfqId) {
+        books.invalidate(rfqId);
+    }
+
+    private Book require(Long rfqId) {
+        return books.get(rfqId).orElseThrow(() -> new IllegalArgumentException("RFQ not found: " + rfqId));
+    }
+
+    private void publish(Book book, Summary summary, List<BidView> top, BidView previousBest) {
+        try {
+            messagingTemplate.convertAndSend("/topic/rfq/" + summary.rfqId() + "/bids", summary);
+            if (book.info.buyerEmail() != null) {
+                messagingTemplate.convertAndSendToUser(book.info.buyerEmail(), "/queue/rfq-bids",
+                        Map.of("rfqId", summary.rfqId(), "summary", summary, "topBids", top));
+            }
+            BidView best = top.isEmpty() ? null : top.get(0);
+            if (previousBest != null && best != null && !previousBest.vendorId().equals(best.vendorId())) {
+                String outbid;
+                synchronized (book) {
+                    outbid = book.vendorEmails.get(previousBest.vendorId());
+                }
+                if (outbid != null) {
+                    messagingTemplate.convertAndSendToUser(outbid, "/queue/rfq-bids",
+                            Map.of("rfqId", summary.rfqId(), "event", "OUTBID", "bestLandedCost", best.landedCost()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to publish bid book update for RFQ {}: {}", summary.rfqId(), e.getMessage());
+        }
+    }
+
+    private static BidView toView(RFQBid bid) {
+        if (bid.getTotalPrice() == null) {
+            bid.calculateTotals();
+        }
+        VendorProfile vendor = bid.getVendor();
+        double score = vendor.getAverageRating() != null ? vendor.getAverageRating().doubleValue() : 0.0;
+        return new BidView(bid.getId(), vendor.getId(),
+                vendor.getDisplayName() != null ? vendor.getDisplayName() : vendor.getVendorName(),
+                bid.getTotalPrice() != null ? bid.getTotalPrice() : BigDecimal.ZERO,
+                bid.getPriceQuote(), bid.getQuantity(),
+                bid.getDeliveryTimeDays() != null ? bid.getDeliveryTimeDays() : Integer.MAX_VALUE,
+                score, bid.getStatus(),
+                bid.getCreatedAt() != null ? bid.getCreatedAt() : LocalDateTime.now());
+    }
+
+    private static String vendorEmail(VendorProfile vendor) {
+        return vendor.getUser() != null ? vendor.getUser().getEmail() : null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.itech.itech_backend.modules.rfq.model.RFQBid;
+import com.itech.itech_backend.modules.rfq.repository.RFQBidRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind persistence for RFQ bids.
+ *
+ * Bids are accepted into the in-memory bid book immediately and saved here in
+ * small batches, together with one additive bid_count update per RFQ. That
+ * update only matches RFQs still open in the database, so a bid accepted
+ * against a stale bid book never lands after the RFQ was awarded or closed.
+ * If a batch fails, its bids are retried one at a time, and a bid that still
+ * fails is reported through its failure callback.
+ */
+@Component
+@Slf4j
+public class RFQBidWriter {
+
+    private record Pending(RFQBid bid, Consumer<RFQBid> onSaved, Consumer<Exception> onFailed) {
+    }
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    // Drained from the queue but not committed yet; still visible to pendingFor()
+    private volatile List<Pending> inFlight = List.of();
+
+    private final RFQBidRepository bidRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rfq.bid-writer.batch-size:100}")
+    private int batchSize;
+
+    public RFQBidWriter(RFQBidRepository bidRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager) {
+        this.bidRepository = bidRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void enqueue(RFQBid bid, Consumer<RFQBid> onSaved, Consumer<Exception> onFailed) {
+        queue.add(new Pending(bid, onSaved, onFailed));
+    }
+
+    /**
+     * Bids for an RFQ that are accepted but not yet committed
+     */
+    public List<RFQBid> pendingFor(Long rfqId) {
+        List<RFQBid> bids = new ArrayList<>();
+        for (Pending pending : inFlight) {
+            if (rfqId.equals(pending.bid().getRfq().getId())) {
+                bids.add(pending.bid());
+            }
+        }
+        for (Pending pending : queue) {
+            if (rfqId.equals(pending.bid().getRfq().getId())) {
+                bids.add(pending.bid());
+            }
+        }
+        return bids;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${rfq.bid-writer.flush-interval-ms:500}")
+    public synchronized void flush() {
+        while (!queue.isEmpty()) {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            Pending next;
+            while (batch.size() < batchSize && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            inFlight = batch;
+            try {
+                write(batch);
+            } finally {
+                inFlight = List.of();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Pending> unsaved = batch.stream().filter(pending -> pending.bid().getId() == null).toList();
+        try {
+            List<RFQBid> saved = transactionTemplate.execute(status -> save(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).onSaved().accept(saved.get(i));
+            }
+        } catch (Exception e) {
+            log.warn("RFQ bid batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            // IDENTITY inserts assigned ids inside the rolled-back transaction
+            unsaved.forEach(pending -> pending.bid().setId(null));
+            for (Pending pending : batch) {
+                try {
+                    RFQBid saved = transactionTemplate.execute(status -> save(List.of(pending)).get(0));
+                    pending.onSaved().accept(saved);
+                } catch (Exception single) {
+                    log.error("Failed to persist bid from vendor {} on RFQ {}: {}", pending.bid().getVendor().getId(),
+                            pending.bid().getRfq().getId(), single.getMessage());
+                    pending.onFailed().accept(single);
+                }
+            }
+        }
+    }
+
+    private List<RFQBid> save(List<Pending> batch) {
+        Map<Long, Integer> newBidsPerRfq = new HashMap<>();
+        List<RFQBid> saved = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.bid().getId() == null) {
+                newBidsPerRfq.merge(pending.bid().getRfq().getId(), 1, Integer::sum);
+            }
+            saved.add(bidRepository.save(pending.bid()));
+        }
+        bidRepository.flush();
+        if (!newBidsPerRfq.isEmpty()) {
+            List<Map.Entry<Long, Integer>> counts = new ArrayList<>(newBidsPerRfq.entrySet());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[] updated = jdbcTemplate.batchUpdate("UPDATE rfqs SET bid_count = COALESCE(bid_count, 0) + ? " +
+                            "WHERE id = ? AND status = 'OPEN' AND (valid_until IS NULL OR valid_until > ?)",
+                    counts.stream().map(entry -> new Object[]{entry.getValue(), entry.getKey(), now}).toList());
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw new RuntimeException("RFQ " + counts.get(i).getKey() + " is no longer open for bidding");
+                }
+            }
+        }
+        return saved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
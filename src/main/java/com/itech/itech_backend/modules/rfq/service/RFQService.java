@@ -0,0 +1,287 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQBid;
+import com.itech.itech_backend.modules.rfq.repository.RFQBidRepository;
+import com.itech.itech_backend.modules.rfq.repository.RFQRepository;
+import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import com.itech.itech_backend.modules.vendor.repository.VendorProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * RFQ lifecycle and bidding.
+ *
+ * Bids go into the in-memory {@link RFQBidBook} first, so comparisons and live
+ * updates never wait on the database, and are persisted by {@link RFQBidWriter}.
+ */
+@Service
+@Slf4j
+public class RFQService {
+
+    private final RFQRepository rfqRepository;
+    private final RFQBidRepository bidRepository;
+    private final VendorProfileRepository vendorProfileRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final RFQBidBook bidBook;
+    private final RFQBidWriter bidWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public RFQService(RFQRepository rfqRepository,
+                      RFQBidRepository bidRepository,
+                      VendorProfileRepository vendorProfileRepository,
+                      UserRepository userRepository,
+                      NotificationService notificationService,
+                      RFQBidBook bidBook,
+                      RFQBidWriter bidWriter,
+                      PlatformTransactionManager transactionManager) {
+        this.rfqRepository = rfqRepository;
+        this.bidRepository = bidRepository;
+        this.vendorProfileRepository = vendorProfileRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.bidBook = bidBook;
+        this.bidWriter = bidWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public RFQ createRFQ(Long buyerId, RFQ rfq) {
+        validateRFQ(rfq);
+        User buyer = userRepository.findById(buyerId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        rfq.setBuyer(buyer);
+        rfq.setStatus(RFQ.RFQStatus.OPEN);
+        rfq.setBidCount(0);
+        rfq.setViewCount(0);
+        return rfqRepository.save(rfq);
+    }
+
+    public RFQ getRFQ(Long rfqId) {
+        return rfqRepository.findById(rfqId)
+                .orElseThrow(() -> new RuntimeException("RFQ not found"));
+    }
+
+    public List<RFQ> getOpenRFQs(String category) {
+        return rfqRepository.findActiveRFQsByCategory(LocalDateTime.now(), category);
+    }
+
+    public List<RFQ> getBuyerRFQs(Long buyerId) {
+        return rfqRepository.findByBuyer_IdOrderByCreatedAtDesc(buyerId);
+    }
+
+    /**
+     * Accepts a vendor's bid into the bid book and queues it for persistence
+     */
+    public RFQBidBook.BidView submitBid(Long vendorUserId, Long rfqId, RFQBid bid) {
+        VendorProfile vendor = vendorProfileRepository.findWithUserByUserId(vendorUserId)
+                .orElseThrow(() -> new RuntimeException("Vendor profile not found"));
+        RFQBidBook.RfqInfo rfq = bidBook.getInfo(rfqId)
+                .orElseThrow(() -> new RuntimeException("RFQ not found"));
+
+        if (!rfq.isOpen()) {
+            throw new IllegalArgumentException("RFQ is not open for bidding");
+        }
+        if (rfq.minSupplierRating() != null && (vendor.getAverageRating() == null
+                || vendor.getAverageRating().doubleValue() < rfq.minSupplierRating())) {
+            throw new IllegalArgumentException("Vendor rating is below the minimum required for this RFQ");
+        }
+        if (bid.getQuantity() == null) {
+            bid.setQuantity(rfq.quantity());
+        }
+        validateBid(bid);
+
+        bid.setId(null);
+        bid.setRfq(rfqRepository.getReferenceById(rfqId));
+        bid.setVendor(vendor);
+        bid.setStatus(RFQBid.BidStatus.PENDING);
+        bid.setNegotiationRound(1);
+        bid.setCreatedAt(LocalDateTime.now());
+        bid.calculateTotals();
+
+        if (!bidBook.add(bid)) {
+            throw new IllegalArgumentException("Vendor already submitted a bid for this RFQ");
+        }
+        bidWriter.enqueue(bid,
+                saved -> bidBook.assignId(rfqId, vendor.getId(), saved.getId()),
+                // Reload from the database so the book drops the bid that never landed
+                failure -> bidBook.evict(rfqId));
+
+        notificationService.queueNotification(rfq.buyerId(), "New Bid Received",
+                "A new bid has been received for your RFQ #" + rfqId,
+                NotificationType.QUOTE, String.valueOf(rfqId));
+
+        return bidBook.getBid(rfqId, vendor.getId()).orElseThrow();
+    }
+
+    /**
+     * Revises a persisted, still pending bid. Each revision starts a new negotiation round.
+     * Statuses are checked under the RFQ row lock, so an award in flight cannot be undone.
+     */
+    public RFQBidBook.BidView reviseBid(Long vendorUserId, Long bidId, RFQBid revision) {
+        RFQBid revised = transactionTemplate.execute(status -> {
+            RFQ rfq = lockRfqOf(bidId);
+            RFQBid bid = bidRepository.findWithVendorById(bidId)
+                    .orElseThrow(() -> new RuntimeException("Bid not found"));
+            if (bid.getVendor().getUser() == null || !bid.getVendor().getUser().getId().equals(vendorUserId)) {
+                throw new RuntimeException("Not authorized to revise this bid");
+            }
+            if (bid.getStatus() != RFQBid.BidStatus.PENDING) {
+                throw new IllegalArgumentException("Cannot revise bid in current status");
+            }
+            if (!isOpen(rfq)) {
+                throw new IllegalArgumentException("RFQ is not open for bidding");
+            }
+            applyRevision(bid, revision, rfq.getQuantity());
+            return bidRepository.save(bid);
+        });
+
+        // The detached instance keeps its fetched vendor, which the book needs
+        bidBook.update(revised);
+        return bidBook.getBid(revised.getRfq().getId(), revised.getVendor().getId()).orElseThrow();
+    }
+
+    private void applyRevision(RFQBid bid, RFQBid revision, Integer rfqQuantity) {
+        bid.setPriceQuote(revision.getPriceQuote());
+        bid.setQuantity(revision.getQuantity() != null ? revision.getQuantity() : rfqQuantity);
+        bid.setDeliveryTimeDays(revision.getDeliveryTimeDays());
+        bid.setNotes(revision.getNotes());
+        bid.setShippingTerms(revision.getShippingTerms());
+        bid.setShippingCost(revision.getShippingCost());
+        bid.setTaxPercentage(revision.getTaxPercentage());
+        bid.setDiscountPercentage(revision.getDiscountPercentage());
+        bid.setPaymentTerms(revision.getPaymentTerms());
+        bid.setValidityPeriodDays(revision.getValidityPeriodDays());
+        validateBid(bid);
+        bid.setNegotiationRound(bid.getNegotiationRound() != null ? bid.getNegotiationRound() + 1 : 2);
+        bid.calculateTotals();
+    }
+
+    public List<RFQBidBook.BidView> getBids(Long buyerId, Long rfqId, RFQBidBook.SortBy sort, int limit) {
+        requireOwner(buyerId, rfqId);
+        return bidBook.getBids(rfqId, sort, limit);
+    }
+
+    public RFQBidBook.Summary getBidSummary(Long rfqId) {
+        return bidBook.getSummary(rfqId);
+    }
+
+    /**
+     * Awards the RFQ to one bid; every other pending bid is rejected in a single update.
+     * Bids queued on other nodes commit before the RFQ row lock is granted, and are
+     * rejected with the rest, or after it and find the RFQ no longer open.
+     */
+    public RFQBid awardBid(Long buyerId, Long bidId) {
+        // Bids still waiting in this node's write-behind queue land before the bulk reject
+        bidWriter.flush();
+
+        RFQBid winner = transactionTemplate.execute(status -> {
+            RFQ rfq = lockRfqOf(bidId);
+            RFQBid bid = bidRepository.findWithVendorById(bidId)
+                    .orElseThrow(() -> new RuntimeException("Bid not found"));
+            if (!rfq.getBuyer().getId().equals(buyerId)) {
+                throw new RuntimeException("Not authorized to award this RFQ");
+            }
+            if (rfq.getStatus() == RFQ.RFQStatus.FULFILLED) {
+                throw new IllegalArgumentException("RFQ has already been awarded");
+            }
+            if (rfq.getStatus() != RFQ.RFQStatus.OPEN) {
+                throw new IllegalArgumentException("RFQ is not open for awarding");
+            }
+            if (bid.getStatus() != RFQBid.BidStatus.PENDING) {
+                throw new IllegalArgumentException("Cannot award bid in current status");
+            }
+
+            bid.setStatus(RFQBid.BidStatus.ACCEPTED);
+            rfq.setStatus(RFQ.RFQStatus.FULFILLED);
+            int rejected = bidRepository.rejectOtherBids(rfq.getId(), bid.getId());
+            log.info("RFQ {} awarded to bid {}, {} other bids rejected", rfq.getId(), bid.getId(), rejected);
+
+            if (bid.getVendor().getUser() != null) {
+                notificationService.queueNotification(bid.getVendor().getUser().getId(), "Bid Accepted",
+                        "Congratulations! Your bid for RFQ #" + rfq.getId() + " has been accepted.",
+                        NotificationType.QUOTE_ACCEPTED, String.valueOf(rfq.getId()));
+            }
+            return bid;
+        });
+
+        Long rfqId = winner.getRfq().getId();
+        bidBook.update(winner);
+        // Rejections and the RFQ status were written in bulk; rebuild on next access
+        bidBook.evict(rfqId);
+        return winner;
+    }
+
+    @Scheduled(fixedDelayString = "${rfq.expiry-check-interval-ms:3600000}")
+    public void closeExpiredRFQs() {
+        List<RFQ> expired = rfqRepository.findByValidUntilBeforeAndStatus(LocalDateTime.now(), RFQ.RFQStatus.OPEN);
+        if (expired.isEmpty()) {
+            return;
+        }
+        List<Long> ids = expired.stream().map(RFQ::getId).toList();
+        int closed = rfqRepository.closeIfOpen(ids);
+        ids.forEach(bidBook::evict);
+        log.info("Closed {} expired RFQs", closed);
+    }
+
+    // Locks the RFQ before the bid is read, so the bid's status is current
+    private RFQ lockRfqOf(Long bidId) {
+        Long rfqId = bidRepository.findRfqIdById(bidId)
+                .orElseThrow(() -> new RuntimeException("Bid not found"));
+        return rfqRepository.findByIdForUpdate(rfqId)
+                .orElseThrow(() -> new RuntimeException("RFQ not found"));
+    }
+
+    private static boolean isOpen(RFQ rfq) {
+        return rfq.getStatus() == RFQ.RFQStatus.OPEN
+                && (rfq.getValidUntil() == null || rfq.getValidUntil().isAfter(LocalDateTime.now()));
+    }
+
+    private void requireOwner(Long buyerId, Long rfqId) {
+        RFQBidBook.RfqInfo rfq = bidBook.getInfo(rfqId)
+                .orElseThrow(() -> new RuntimeException("RFQ not found"));
+        if (!rfq.buyerId().equals(buyerId)) {
+            throw new RuntimeException("Not authorized to view bids for this RFQ");
+        }
+    }
+
+    private void validateRFQ(RFQ rfq) {
+        if (rfq.getTitle() == null || rfq.getTitle().isBlank()) {
+            throw new IllegalArgumentException("RFQ title is required");
+        }
+        if (rfq.getQuantity() == null || rfq.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Invalid quantity");
+        }
+        if (rfq.getDeliveryDate() != null && rfq.getDeliveryDate().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Delivery date cannot be in the past");
+        }
+        if (rfq.getValidUntil() != null && rfq.getValidUntil().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Validity date cannot be in the past");
+        }
+    }
+
+    private void validateBid(RFQBid bid) {
+        if (bid.getPriceQuote() == null || bid.getPriceQuote().signum() <= 0) {
+            throw new IllegalArgumentException("Invalid price quote");
+        }
+        if (bid.getQuantity() == null || bid.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Invalid quantity");
+        }
+        if (bid.getDeliveryTimeDays() == null || bid.getDeliveryTimeDays() <= 0) {
+            throw new IllegalArgumentException("Invalid delivery time");
+        }
+    }
+}
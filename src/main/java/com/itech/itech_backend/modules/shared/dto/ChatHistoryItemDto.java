@@ -0,0 +1,27 @@
+package com.itech.itech_backend.modules.shared.dto;
+
+import com.itech.itech_backend.enums.MessageType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim chat message for thread views - ids only, no embedded User entities
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryItemDto {
+    private Long id;
+    private Long senderId;
+    private Long receiverId;
+    private String message;
+    private MessageType messageType;
+    private String attachmentUrl;
+    private boolean isRead;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.itech.itech_backend.modules.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row: one per chat partner, as seen by the requesting user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryDto {
+    private Long conversationId;
+    private Long partnerId;
+    private String partnerName;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessagePreview;
+    private LocalDateTime lastActivityAt;
+    private int unreadCount;
+    private long messageCount;
+}
@@ -55,6 +55,9 @@ public class BuyerLead {
     @Column(name = "interested_categories", length = 1000)
     private String interestedCategories; // Comma-separated categories
 
+    @Column(name = "city", length = 100)
+    private String city;
+
     @Column(name = "price_range_min")
     private Double priceRangeMin;
 
@@ -0,0 +1,83 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent queue entry for outgoing mail. Rows are written in the
+ * caller's transaction and delivered asynchronously by EmailDispatcher.
+ * The body is blanked once a row is finished and the row is purged later.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, nextAttemptAt, priority"),
+    @Index(name = "idx_email_outbox_claimed", columnList = "status, claimedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Builder.Default
+    private boolean html = true;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Priority priority = Priority.TRANSACTIONAL;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+
+    // Identifies one claim; renewed while the row waits on the claiming node
+    @Column(length = 36)
+    private String claimToken;
+
+    // OTP mail is worthless once the code has expired; never deliver it late
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime sentAt;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Declaration order is dispatch order
+     */
+    public enum Priority {
+        OTP, TRANSACTIONAL, BULK
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED, EXPIRED
+    }
+}
@@ -0,0 +1,65 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single stored object, addressed by the SHA-256 of its content.
+ * Every upload of identical bytes to the same backend shares one row
+ * and bumps its reference count instead of writing a new object.
+ */
+@Entity
+@Table(name = "media_blobs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_media_blob_digest_backend", columnNames = {"sha256", "backend"}),
+       indexes = {
+           @Index(name = "idx_media_blob_storage_key", columnList = "storageKey"),
+           @Index(name = "idx_media_blob_ref_count", columnList = "referenceCount")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false, length = 16)
+    private String backend; // LOCAL or S3
+
+    @Column(nullable = false, length = 512)
+    private String storageKey;
+
+    @Column(nullable = false, length = 1024)
+    private String url;
+
+    private String contentType;
+
+    private Long sizeBytes;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer referenceCount = 1;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime lastReferencedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (lastReferencedAt == null) {
+            lastReferencedAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable holding area for notifications that could not stay in the
+ * in-memory dispatch queue (overflow, failed flush, shutdown). Rows are
+ * drained into {@link Notification} by the dispatcher in batches.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String actionUrl;
+
+    private String relatedEntityId;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,47 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cached answer from the GST/PAN verification APIs, reused until expiresAt.
+ * Only authoritative API responses are stored; format-only and fallback
+ * results are always recomputed.
+ */
+@Entity
+@Table(name = "tax_verification_results",
+       uniqueConstraints = @UniqueConstraint(name = "uk_tax_verification_kind_number", columnNames = {"kind", "number"}),
+       indexes = @Index(name = "idx_tax_verification_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaxVerificationResult {
+
+    public enum Kind {
+        GST_VERIFY, GST_DETAILS, PAN_VERIFY, PAN_DETAILS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false, length = 20)
+    private String number;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String resultJson;
+
+    @Column(nullable = false)
+    private LocalDateTime verifiedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,78 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.priority ASC, e.id ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claiming is a conditional update so only one node ever sends a given row
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENDING', e.claimedAt = :now, e.claimToken = :token " +
+           "WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Keeps claims that are still queued or sending on this node from looking stale
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.claimedAt = :now WHERE e.claimToken IN :tokens AND e.status = 'SENDING'")
+    int renewClaims(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.claimedAt = null, e.claimToken = null " +
+           "WHERE e.id = :id AND e.claimToken = :token AND e.status = 'SENDING'")
+    int releaseClaim(@Param("id") Long id, @Param("token") String token);
+
+    // The outcome of a send is only recorded by the holder of the claim it was sent under.
+    // Finished rows drop their rendered body, which may hold an OTP or a verification link
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :now, e.attempts = e.attempts + 1, e.lastError = null, " +
+           "e.body = '', e.claimToken = null WHERE e.id = :id AND e.claimToken = :token AND e.status = 'SENDING'")
+    int markSent(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.claimedAt = null, e.claimToken = null " +
+           "WHERE e.id = :id AND e.claimToken = :token AND e.status = 'SENDING'")
+    int scheduleRetry(@Param("id") Long id, @Param("token") String token, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.body = '', e.claimToken = null WHERE e.id = :id AND e.claimToken = :token AND e.status = 'SENDING'")
+    int markFinished(@Param("id") Long id, @Param("token") String token, @Param("status") EmailOutbox.Status status,
+                     @Param("error") String error);
+
+    // Rows claimed by a node that died mid-send go back to the queue
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.claimedAt = null, e.claimToken = null " +
+           "WHERE e.status = 'SENDING' AND e.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status IN ('SENT', 'FAILED', 'EXPIRED') AND e.createdAt < :cutoff")
+    int purgeFinished(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(EmailOutbox.Status status);
+}
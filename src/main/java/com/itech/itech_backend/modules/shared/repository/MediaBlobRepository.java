@@ -0,0 +1,53 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.MediaBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, Long> {
+
+    Optional<MediaBlob> findBySha256AndBackend(String sha256, String backend);
+
+    Optional<MediaBlob> findByUrlAndBackend(String url, String backend);
+
+    Optional<MediaBlob> findByStorageKeyAndBackend(String storageKey, String backend);
+
+    // Only live blobs can gain references; a blob already at zero is being collected
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.referenceCount = b.referenceCount + 1, b.lastReferencedAt = :now " +
+           "WHERE b.id = :id AND b.referenceCount > 0")
+    int incrementReferenceCount(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Takes a blob back from zero references; only after its object has been written again
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.referenceCount = b.referenceCount + 1, b.lastReferencedAt = :now " +
+           "WHERE b.id = :id")
+    int reviveReference(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.referenceCount = b.referenceCount - 1 WHERE b.id = :id AND b.referenceCount > 0")
+    int decrementReferenceCount(@Param("id") Long id);
+
+    // Held while the object is deleted, so new references wait for the collection to finish
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM MediaBlob b WHERE b.id = :id")
+    Optional<MediaBlob> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT b FROM MediaBlob b WHERE b.referenceCount <= 0 ORDER BY b.id ASC")
+    List<MediaBlob> findUnreferenced(Pageable pageable);
+}
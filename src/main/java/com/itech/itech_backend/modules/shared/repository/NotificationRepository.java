@@ -5,10 +5,12 @@ import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -31,5 +33,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     long countByUserId(Long userId);
     long countByUserIdAndTypeAndIsReadFalse(@Param("userId") Long userId, @Param("type") NotificationType type);
 
+    @Query("SELECT n.type, COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false GROUP BY n.type")
+    List<Object[]> countUnreadByType(@Param("userId") Long userId);
+
+    // Bulk state transitions - one statement instead of load-modify-save per row
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadForUser(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
 }
 
@@ -0,0 +1,31 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaxVerificationResultRepository extends JpaRepository<TaxVerificationResult, Long> {
+
+    Optional<TaxVerificationResult> findByKindAndNumber(TaxVerificationResult.Kind kind, String number);
+
+    // Unexpired results for a batch of numbers in one round trip
+    @Query("SELECT r FROM TaxVerificationResult r WHERE r.kind = :kind AND r.number IN :numbers AND r.expiresAt > :now")
+    List<TaxVerificationResult> findFresh(@Param("kind") TaxVerificationResult.Kind kind,
+                                          @Param("numbers") Collection<String> numbers,
+                                          @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaxVerificationResult r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
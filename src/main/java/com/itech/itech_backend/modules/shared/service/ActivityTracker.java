@@ -0,0 +1,179 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for hot activity signals (last login/activity, view and inquiry counters).
+ *
+ * Signals for the same row are coalesced in memory - latest timestamp wins,
+ * counters are summed - and flushed periodically as batched additive UPDATEs,
+ * so request paths never load or lock the vendor/buyer row. {@link #peek}
+ * exposes the not-yet-flushed delta so readers can overlay it.
+ */
+@Service
+@Slf4j
+public class ActivityTracker {
+
+    public enum Subject {
+        VENDOR("vendors", "inquiry_count"),
+        VENDOR_PROFILE("extended_vendor_profiles", "inquiry_count"),
+        BUYER("buyers", "login_count");
+
+        private final String table;
+        // Third counter column: inquiries for vendors, logins for buyers
+        private final String eventColumn;
+
+        Subject(String table, String eventColumn) {
+            this.table = table;
+            this.eventColumn = eventColumn;
+        }
+    }
+
+    /**
+     * Pending, unflushed changes for one row
+     */
+    public record Delta(long profileViews, long productViews, long events,
+                        LocalDateTime lastLogin, LocalDateTime lastActivity) {
+
+        public static final Delta EMPTY = new Delta(0, 0, 0, null, null);
+
+        Delta merge(Delta other) {
+            return new Delta(profileViews + other.profileViews, productViews + other.productViews,
+                    events + other.events, latest(lastLogin, other.lastLogin), latest(lastActivity, other.lastActivity));
+        }
+
+        public static long plus(Long base, long delta) {
+            return (base != null ? base : 0L) + delta;
+        }
+
+        public static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isAfter(b) ? a : b;
+        }
+    }
+
+    private record Key(Subject subject, Long id) {
+    }
+
+    private final ConcurrentHashMap<Key, Delta> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordLogin(Subject subject, Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        record(subject, id, new Delta(0, 0, subject == Subject.BUYER ? 1 : 0, now, now));
+    }
+
+    public void recordActivity(Subject subject, Long id) {
+        record(subject, id, new Delta(0, 0, 0, null, LocalDateTime.now()));
+    }
+
+    public void addProfileViews(Subject subject, Long id, long views) {
+        record(subject, id, new Delta(views, 0, 0, null, null));
+    }
+
+    public void addProductViews(Subject subject, Long id, long views) {
+        record(subject, id, new Delta(0, views, 0, null, null));
+    }
+
+    public void addInquiries(Subject subject, Long id, long inquiries) {
+        record(subject, id, new Delta(0, 0, inquiries, null, null));
+    }
+
+    public Delta peek(Subject subject, Long id) {
+        return pending.getOrDefault(new Key(subject, id), Delta.EMPTY);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void record(Subject subject, Long id, Delta delta) {
+        if (id == null) {
+            return;
+        }
+        pending.merge(new Key(subject, id), delta, Delta::merge);
+    }
+
+    @Scheduled(fixedDelayString = "${activity.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() is atomic against merge(), so each signal lands in exactly one flush
+        Map<Key, Delta> taken = new HashMap<>();
+        Map<String, List<Object[]>> batches = new HashMap<>();
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                taken.put(key, delta);
+                batches.computeIfAbsent(sqlFor(key.subject(), delta), sql -> new ArrayList<>())
+                        .add(parametersFor(key.id(), delta));
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batches.forEach((sql, rows) -> jdbcTemplate.batchUpdate(sql, rows)));
+        } catch (Exception e) {
+            // The batch rolled back as a whole; put the deltas back so the next flush retries them
+            taken.forEach((key, delta) -> pending.merge(key, delta, Delta::merge));
+            log.warn("Failed to flush {} activity statements, will retry: {}", batches.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static String sqlFor(Subject subject, Delta delta) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(subject.table).append(" SET ")
+                .append("profile_views = COALESCE(profile_views, 0) + ?, ")
+                .append("product_views = COALESCE(product_views, 0) + ?, ")
+                .append(subject.eventColumn).append(" = COALESCE(").append(subject.eventColumn).append(", 0) + ?");
+        // Timestamps only move forward, even if another node flushed a later value first
+        if (delta.lastLogin() != null) {
+            sql.append(", last_login = CASE WHEN last_login IS NULL OR last_login < ? THEN ? ELSE last_login END");
+        }
+        if (delta.lastActivity() != null) {
+            sql.append(", last_activity = CASE WHEN last_activity IS NULL OR last_activity < ? THEN ? ELSE last_activity END");
+        }
+        return sql.append(" WHERE id = ?").toString();
+    }
+
+    private static Object[] parametersFor(Long id, Delta delta) {
+        List<Object> params = new ArrayList<>(List.of(delta.profileViews(), delta.productViews(), delta.events()));
+        if (delta.lastLogin() != null) {
+            Timestamp lastLogin = Timestamp.valueOf(delta.lastLogin());
+            params.add(lastLogin);
+            params.add(lastLogin);
+        }
+        if (delta.lastActivity() != null) {
+            Timestamp lastActivity = Timestamp.valueOf(delta.lastActivity());
+            params.add(lastActivity);
+            params.add(lastActivity);
+        }
+        params.add(id);
+        return params.toArray();
+    }
+}
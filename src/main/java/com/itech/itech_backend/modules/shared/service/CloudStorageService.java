@@ -1,6 +1,8 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,6 +11,7 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
@@ -19,13 +22,20 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 @Slf4j
-public class CloudStorageService {
+public class CloudStorageService implements MediaBlobStore {
+
+    public static final String BACKEND = "S3";
+
+    @Autowired
+    private ContentAddressedStorageService contentAddressedStorageService;
 
     @Value("${cloud.storage.enabled:false}")
     private boolean cloudStorageEnabled;
@@ -45,16 +55,32 @@ public class CloudStorageService {
     @Value("${aws.s3.base-url:}")
     private String baseUrl;
 
+    // Optional endpoint override for S3-compatible stores (MinIO/LocalStack in dev and tests)
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${file.upload.dedup.enabled:true}")
+    private boolean deduplicationEnabled;
+
     private S3Client s3Client;
 
+    @PostConstruct
+    void registerBlobStore() {
+        contentAddressedStorageService.registerBlobStore(this);
+    }
+
     private S3Client getS3Client() {
         if (s3Client == null && cloudStorageEnabled) {
             try {
                 AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
-                s3Client = S3Client.builder()
+                var builder = S3Client.builder()
                         .region(Region.of(region))
-                        .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
-                        .build();
+                        .credentialsProvider(StaticCredentialsProvider.create(awsCredentials));
+                if (endpoint != null && !endpoint.trim().isEmpty()) {
+                    builder.endpointOverride(URI.create(endpoint))
+                           .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+                }
+                s3Client = builder.build();
             } catch (Exception e) {
                 log.error("Failed to initialize S3 client", e);
                 throw new RuntimeException("Failed to initialize cloud storage", e);
@@ -79,6 +105,12 @@ public class CloudStorageService {
         }
 
         validateFile(file);
+
+        if (deduplicationEnabled) {
+            String fileUrl = contentAddressedStorageService.store(file, this);
+            log.info("Stored file in cloud storage: {}", fileUrl);
+            return fileUrl;
+        }
         
         String key = generateFileKey(directory, file.getOriginalFilename());
         
@@ -110,10 +142,10 @@ public class CloudStorageService {
                 uploadedUrls.add(url);
             } catch (IOException e) {
                 log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
-                // Delete any successfully uploaded files to maintain consistency
+                // Release any successfully uploaded files to maintain consistency
                 for (String uploadedUrl : uploadedUrls) {
                     try {
-                        deleteFile(extractKeyFromUrl(uploadedUrl));
+                        deleteFileByUrl(uploadedUrl);
                     } catch (Exception deleteException) {
                         log.warn("Failed to cleanup uploaded file: {}", uploadedUrl, deleteException);
                     }
@@ -236,6 +268,10 @@ public class CloudStorageService {
 
     public void deleteFileByUrl(String fileUrl) {
         if (fileUrl != null && !fileUrl.trim().isEmpty()) {
+            // Shared blobs are only removed from the bucket once their last reference is released
+            if (contentAddressedStorageService.release(fileUrl, this)) {
+                return;
+            }
             String key = extractKeyFromUrl(fileUrl);
             if (key != null) {
                 deleteFile(key);
@@ -243,6 +279,33 @@ public class CloudStorageService {
         }
     }
 
+    @Override
+    public String getBackendName() {
+        return BACKEND;
+    }
+
+    @Override
+    public String putObject(String key, Path source, String contentType) throws IOException {
+        try {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build();
+
+            getS3Client().putObject(putObjectRequest, RequestBody.fromFile(source));
+            return generateFileUrl(key);
+        } catch (S3Exception e) {
+            log.error("Failed to upload object to S3: {}", e.getMessage(), e);
+            throw new IOException("Failed to upload file to cloud storage", e);
+        }
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        deleteFile(key);
+    }
+
     private String generateFileKey(String directory, String originalFilename) {
         String extension = getFileExtension(originalFilename);
         String uniqueId = UUID.randomUUID().toString();
@@ -0,0 +1,222 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.itech.itech_backend.modules.shared.model.MediaBlob;
+import com.itech.itech_backend.modules.shared.repository.MediaBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicating upload layer shared by local and S3 storage.
+ *
+ * Content is hashed (SHA-256) while it streams to a temp file, so identical
+ * catalogue images or KYC documents are written once per backend and later
+ * uploads just take another reference on the existing blob. Blobs are keyed
+ * by content and backend only, so callers' sub-directories play no part in
+ * deduplication: an upload meant for another directory gets the URL of the
+ * copy stored first.
+ *
+ * An unreferenced blob is collected under a row lock, which new references
+ * wait on; uploads that find a blob at zero write its object again before
+ * taking it back, so no reference can outlive the object it points at.
+ */
+@Service
+@Slf4j
+public class ContentAddressedStorageService {
+
+    private static final String KEY_PREFIX = "cas";
+    private static final int GC_BATCH_SIZE = 100;
+    private static final int MAX_STORE_ATTEMPTS = 3;
+
+    private final MediaBlobRepository mediaBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Backends register themselves at startup; injecting them would create a cycle with CloudStorageService
+    private final Map<String, MediaBlobStore> blobStores = new ConcurrentHashMap<>();
+
+    public ContentAddressedStorageService(MediaBlobRepository mediaBlobRepository,
+                                          PlatformTransactionManager transactionManager) {
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Store the upload, returning the URL of an existing blob when the content is already known
+     */
+    public String store(MultipartFile file, MediaBlobStore blobStore) throws IOException {
+        Path tempFile = Files.createTempFile("cas-upload-", ".tmp");
+        try {
+            String digest;
+            try (InputStream in = file.getInputStream()) {
+                digest = copyAndHash(in, tempFile);
+            }
+
+            for (int attempt = 0; attempt < MAX_STORE_ATTEMPTS; attempt++) {
+                Optional<String> existing = reference(digest, tempFile, file.getContentType(), blobStore);
+                if (existing.isPresent()) {
+                    log.debug("Deduplicated upload {} -> {}", file.getOriginalFilename(), existing.get());
+                    return existing.get();
+                }
+
+                String key = buildKey(digest, file.getOriginalFilename());
+                String url = blobStore.putObject(key, tempFile, file.getContentType());
+
+                MediaBlob blob = MediaBlob.builder()
+                        .sha256(digest)
+                        .backend(blobStore.getBackendName())
+                        .storageKey(key)
+                        .url(url)
+                        .contentType(file.getContentType())
+                        .sizeBytes(file.getSize())
+                        .referenceCount(1)
+                        .build();
+                try {
+                    mediaBlobRepository.saveAndFlush(blob);
+                    return url;
+                } catch (DataIntegrityViolationException e) {
+                    // Lost the race to another uploader of the same bytes; join the winner's row next round
+                    log.debug("Media blob {} registered concurrently, retrying as a reference", digest);
+                }
+            }
+            throw new IOException("Failed to register media blob " + digest);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Whether the URL/path belongs to a blob managed by this service
+     */
+    public boolean isManaged(String urlOrKey, MediaBlobStore blobStore) {
+        return findBlob(urlOrKey, blobStore.getBackendName()).isPresent();
+    }
+
+    /**
+     * Drop one reference; the underlying object is removed once nothing points at it
+     */
+    public boolean release(String urlOrKey, MediaBlobStore blobStore) {
+        Optional<MediaBlob> blob = findBlob(urlOrKey, blobStore.getBackendName());
+        if (blob.isEmpty()) {
+            return false;
+        }
+        mediaBlobRepository.decrementReferenceCount(blob.get().getId());
+        collect(blob.get(), blobStore);
+        return true;
+    }
+
+    /**
+     * Sweep blobs left at zero references (e.g. when an object delete failed mid-release)
+     */
+    @Scheduled(fixedDelayString = "${file.upload.dedup.gc-interval:3600000}")
+    public void collectGarbage() {
+        List<MediaBlob> orphans = mediaBlobRepository.findUnreferenced(PageRequest.of(0, GC_BATCH_SIZE));
+        for (MediaBlob orphan : orphans) {
+            MediaBlobStore blobStore = blobStores.get(orphan.getBackend());
+            if (blobStore != null) {
+                collect(orphan, blobStore);
+            }
+        }
+        if (!orphans.isEmpty()) {
+            log.info("Media blob GC processed {} unreferenced blobs", orphans.size());
+        }
+    }
+
+    /**
+     * Backends announce themselves so the scheduled sweep can reach their objects
+     */
+    public void registerBlobStore(MediaBlobStore blobStore) {
+        blobStores.put(blobStore.getBackendName(), blobStore);
+    }
+
+    // Re-checks the count with the row locked; the object goes first, the row only if that worked
+    private void collect(MediaBlob blob, MediaBlobStore blobStore) {
+        try {
+            Boolean collected = transactionTemplate.execute(status -> {
+                MediaBlob locked = mediaBlobRepository.findByIdForUpdate(blob.getId()).orElse(null);
+                if (locked == null || locked.getReferenceCount() > 0) {
+                    return false;
+                }
+                blobStore.deleteObject(locked.getStorageKey());
+                mediaBlobRepository.delete(locked);
+                return true;
+            });
+            if (Boolean.TRUE.equals(collected)) {
+                log.info("Garbage-collected media blob {} ({})", blob.getStorageKey(), blob.getBackend());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to collect media blob {}, leaving it for the next sweep: {}",
+                    blob.getStorageKey(), e.getMessage());
+        }
+    }
+
+    private Optional<String> reference(String digest, Path content, String contentType,
+                                       MediaBlobStore blobStore) throws IOException {
+        Optional<MediaBlob> existing = mediaBlobRepository.findBySha256AndBackend(digest, blobStore.getBackendName());
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        MediaBlob blob = existing.get();
+        if (mediaBlobRepository.incrementReferenceCount(blob.getId(), LocalDateTime.now()) > 0) {
+            return Optional.of(blob.getUrl());
+        }
+        // At zero references the object may be mid-collection or already gone. Write it again, then
+        // take the row back; if a collection held the row the update finds nothing and the caller
+        // registers a fresh blob.
+        blobStore.putObject(blob.getStorageKey(), content, contentType);
+        if (mediaBlobRepository.reviveReference(blob.getId(), LocalDateTime.now()) > 0) {
+            return Optional.of(blob.getUrl());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<MediaBlob> findBlob(String urlOrKey, String backend) {
+        if (urlOrKey == null || urlOrKey.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<MediaBlob> byUrl = mediaBlobRepository.findByUrlAndBackend(urlOrKey, backend);
+        return byUrl.isPresent() ? byUrl : mediaBlobRepository.findByStorageKeyAndBackend(urlOrKey, backend);
+    }
+
+    private String copyAndHash(InputStream in, Path target) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (DigestInputStream digestIn = new DigestInputStream(in, messageDigest);
+             OutputStream out = Files.newOutputStream(target)) {
+            digestIn.transferTo(out);
+        }
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    private String buildKey(String digest, String originalFilename) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase();
+        }
+        // Two-character fan-out keeps directory sizes bounded on local disk
+        return KEY_PREFIX + "/" + digest.substring(0, 2) + "/" + digest + extension;
+    }
+}
@@ -0,0 +1,374 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.itech.itech_backend.modules.shared.model.EmailOutbox;
+import com.itech.itech_backend.modules.shared.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous SMTP delivery engine backed by the email_outbox table.
+ *
+ * Callers persist a row and return immediately. A fixed pool of workers
+ * takes jobs from an in-memory priority queue (OTP mail first), each worker
+ * keeping its own SMTP connection open between messages. Sends are rate
+ * limited, failures retry with exponential backoff and jitter, and a poller
+ * recovers rows that were never queued in memory (restarts, other nodes).
+ *
+ * Each claim on a row carries a token. The poller renews the claims this
+ * node still holds, so only rows of a node that went away turn stale. The
+ * outcome of a send is recorded only under the claim it was sent with. The
+ * local queue is bounded; past capacity rows stay PENDING in the outbox.
+ */
+@Service
+@Slf4j
+public class EmailDispatcher {
+
+    private static final Comparator<Job> DISPATCH_ORDER = Comparator
+            .comparing(Job::priority)
+            .thenComparingLong(Job::sequence);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+
+    @Value("${spring.mail.username:noreply@indiantradeMart.com}")
+    private String fromEmail;
+
+    @Value("${email.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${email.dispatch.rate-per-second:10}")
+    private int ratePerSecond;
+
+    @Value("${email.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.dispatch.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${email.dispatch.otp-ttl-minutes:5}")
+    private long otpTtlMinutes;
+
+    @Value("${email.dispatch.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${email.dispatch.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(256, DISPATCH_ORDER);
+    // Claim tokens of rows queued or being sent on this node, by row id
+    private final ConcurrentHashMap<Long, String> claims = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    // Token bucket state, guarded by this
+    private double tokens;
+    private long lastRefillNanos;
+
+    public EmailDispatcher(EmailOutboxRepository emailOutboxRepository,
+                           ObjectProvider<JavaMailSender> mailSenderProvider) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSenderProvider = mailSenderProvider;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        tokens = ratePerSecond;
+        lastRefillNanos = System.nanoTime();
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "EmailWorker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workerLoop);
+        }
+        log.info("Email dispatcher started with {} workers at {} msg/s", workerCount, ratePerSecond);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.shutdownNow();
+        // Hand queued rows straight back rather than leave them until their claims go stale
+        List<Job> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        for (Job job : unsent) {
+            try {
+                emailOutboxRepository.releaseClaim(job.id(), job.claimToken());
+            } catch (RuntimeException e) {
+                log.debug("Could not release claim on email {}: {}", job.id(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Persist and queue a message. Returns as soon as the outbox row is written.
+     */
+    public EmailOutbox enqueue(String to, String subject, String body, EmailOutbox.Priority priority) {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        EmailOutbox email = EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .html(true)
+                .priority(priority)
+                // Claimed by this node up front so the poller does not pick it up as well
+                .status(EmailOutbox.Status.SENDING)
+                .claimedAt(now)
+                .claimToken(claimToken)
+                .nextAttemptAt(now)
+                .expiresAt(priority == EmailOutbox.Priority.OTP ? now.plusMinutes(otpTtlMinutes) : null)
+                .createdAt(now)
+                .build();
+        EmailOutbox saved = emailOutboxRepository.save(email);
+
+        Job job = new Job(saved.getId(), claimToken, priority, sequence.incrementAndGet(), to, subject, body,
+                saved.getExpiresAt());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(job);
+                }
+            });
+        } else {
+            dispatch(job);
+        }
+        return saved;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Picks up retries that became due and rows queued by a node that went away
+     */
+    @Scheduled(fixedDelayString = "${email.dispatch.poll-interval-ms:5000}")
+    public void pollOutbox() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!claims.isEmpty()) {
+            emailOutboxRepository.renewClaims(List.copyOf(claims.values()), now);
+        }
+        emailOutboxRepository.releaseStaleClaims(now.minusMinutes(claimTimeoutMinutes));
+
+        int capacity = Math.max(0, queueCapacity - claims.size());
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> dueIds = emailOutboxRepository.findDueIds(now, PageRequest.of(0, capacity));
+        for (Long id : dueIds) {
+            String claimToken = UUID.randomUUID().toString();
+            if (emailOutboxRepository.claim(id, claimToken, now) == 0) {
+                continue; // another node got there first
+            }
+            emailOutboxRepository.findById(id).ifPresent(email -> dispatch(new Job(
+                    email.getId(), claimToken, email.getPriority(), sequence.incrementAndGet(),
+                    email.getRecipient(), email.getSubject(), email.getBody(), email.getExpiresAt())));
+        }
+    }
+
+    @Scheduled(cron = "${email.dispatch.purge-cron:0 30 3 * * *}")
+    public void purgeFinished() {
+        int purged = emailOutboxRepository.purgeFinished(LocalDateTime.now().minusDays(7));
+        if (purged > 0) {
+            log.info("Purged {} finished emails from the outbox", purged);
+        }
+    }
+
+    private void workerLoop() {
+        Transport transport = null;
+        int idleSeconds = 0;
+        try {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                Job job = queue.poll(1, TimeUnit.SECONDS);
+                if (job == null) {
+                    // Idle for a while: let the connection go rather than hold it open indefinitely
+                    if (++idleSeconds >= 30) {
+                        transport = closeQuietly(transport);
+                    }
+                    continue;
+                }
+                idleSeconds = 0;
+                inFlight.incrementAndGet();
+                try {
+                    transport = deliver(job, transport);
+                } finally {
+                    claims.remove(job.id(), job.claimToken());
+                    inFlight.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(transport);
+        }
+    }
+
+    private void dispatch(Job job) {
+        if (claims.size() >= queueCapacity) {
+            // Full: the row goes back to PENDING and the poller brings it in once there is room
+            emailOutboxRepository.releaseClaim(job.id(), job.claimToken());
+            return;
+        }
+        claims.put(job.id(), job.claimToken());
+        queue.offer(job);
+    }
+
+    private Transport deliver(Job job, Transport transport) throws InterruptedException {
+        if (job.expiresAt() != null && LocalDateTime.now().isAfter(job.expiresAt())) {
+            emailOutboxRepository.markFinished(job.id(), job.claimToken(), EmailOutbox.Status.EXPIRED,
+                    "Expired before delivery");
+            return transport;
+        }
+        acquirePermit();
+        // A claim released as stale may already be with another node; sending it here would duplicate it
+        if (emailOutboxRepository.renewClaims(List.of(job.claimToken()), LocalDateTime.now()) == 0) {
+            log.warn("Email {} is no longer claimed by this node, skipping", job.id());
+            return transport;
+        }
+        try {
+            transport = send(job, transport);
+            if (emailOutboxRepository.markSent(job.id(), job.claimToken(), LocalDateTime.now()) == 0) {
+                log.warn("Email {} was delivered after its claim was lost", job.id());
+            }
+            log.info("📧 Email {} delivered to {}", job.id(), job.to());
+        } catch (Exception e) {
+            transport = closeQuietly(transport); // connection may be broken; reconnect next time
+            handleFailure(job, e);
+        }
+        return transport;
+    }
+
+    private Transport send(Job job, Transport transport) throws MessagingException {
+        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
+        if (mailSender == null) {
+            throw new MessagingException("JavaMailSender not configured");
+        }
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(job.to());
+        helper.setSubject(job.subject());
+        helper.setText(job.body(), true);
+
+        if (!(mailSender instanceof JavaMailSenderImpl senderImpl)) {
+            mailSender.send(message);
+            return transport;
+        }
+
+        // Reuse one authenticated SMTP connection per worker instead of a handshake per message
+        if (transport == null || !transport.isConnected()) {
+            transport = senderImpl.getSession().getTransport(
+                    senderImpl.getProtocol() != null ? senderImpl.getProtocol() : "smtp");
+            transport.connect(senderImpl.getHost(), senderImpl.getPort(),
+                    senderImpl.getUsername(), senderImpl.getPassword());
+        }
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+        return transport;
+    }
+
+    private void handleFailure(Job job, Exception e) {
+        String error = e.getMessage() != null && e.getMessage().length() > 900
+                ? e.getMessage().substring(0, 900) : e.getMessage();
+        int attempt = emailOutboxRepository.findById(job.id()).map(EmailOutbox::getAttempts).orElse(0) + 1;
+
+        if (attempt >= maxAttempts) {
+            emailOutboxRepository.markFinished(job.id(), job.claimToken(), EmailOutbox.Status.FAILED, error);
+            log.error("❌ Email {} to {} failed permanently after {} attempts: {}", job.id(), job.to(), attempt, error);
+            return;
+        }
+
+        LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(attempt));
+        if (job.expiresAt() != null && nextAttempt.isAfter(job.expiresAt())) {
+            emailOutboxRepository.markFinished(job.id(), job.claimToken(), EmailOutbox.Status.EXPIRED, error);
+            log.warn("OTP email {} to {} expired before it could be retried", job.id(), job.to());
+            return;
+        }
+        emailOutboxRepository.scheduleRetry(job.id(), job.claimToken(), error, nextAttempt);
+        log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}", job.id(), job.to(), attempt, nextAttempt, error);
+    }
+
+    /**
+     * Exponential backoff with full jitter
+     */
+    Duration backoff(int attempt) {
+        long ceiling = initialBackoffMs * (1L << Math.min(attempt - 1, 10));
+        return Duration.ofMillis(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                tokens = Math.min(ratePerSecond, tokens + (now - lastRefillNanos) * ratePerSecond / 1e9);
+                lastRefillNanos = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) ((1 - tokens) * 1e9 / ratePerSecond);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private Transport closeQuietly(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP transport: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    record Job(Long id, String claimToken, EmailOutbox.Priority priority, long sequence, String to,
+               String subject, String body, LocalDateTime expiresAt) {
+    }
+}
@@ -1,21 +1,21 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.modules.shared.model.EmailOutbox;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
-import jakarta.mail.internet.MimeMessage;
-
 @Service
 @Slf4j
 public class EmailService {
     
     @Autowired(required = false)
     private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
     
     @Value("${spring.mail.username:noreply@indiantradeMart.com}")
     private String fromEmail;
@@ -67,71 +67,20 @@ public class EmailService {
     }
     
     private void sendRealEmail(String email, String otp, String emailType) {
-        try {
-            System.out.println("\n🔧 PRODUCTION EMAIL DEBUG INFO:");
-            System.out.println("Profile: " + activeProfile);
-            System.out.println("From Email: " + fromEmail);
-            System.out.println("To Email: " + email);
-            System.out.println("Email Type: " + emailType);
-            System.out.println("MailSender null? " + (mailSender == null));
-            System.out.println("Simulation Enabled: " + simulationEnabled);
-            System.out.println("OTP: " + otp);
-            
-            if (mailSender == null) {
-                log.error("❌ JavaMailSender is NULL - Mail configuration failed!");
-                throw new RuntimeException("JavaMailSender not configured properly");
-            }
-            
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(email);
-            
-            if ("forgot-password".equals(emailType)) {
-                helper.setSubject("Indian Trade Mart - Password Recovery OTP");
-                helper.setText(buildForgotPasswordEmailContentHtml(otp), true);
-            } else {
-                helper.setSubject("Indian Trade Mart - OTP Verification");
-                helper.setText(buildOtpEmailContentHtml(otp), true);
-            }
-            
-            System.out.println("📧 Attempting to send email via SMTP...");
-            
-            // Test connection first in production
-            if ("production".equals(activeProfile)) {
-                System.out.println("🔧 Testing SMTP connection in production...");
-                // Note: JavaMailSender doesn't have testConnection() method
-                // Connection will be tested when actually sending the email
-            }
-            
-            mailSender.send(message);
-            
-            log.info("✅ Production Email OTP sent successfully to: {}", email);
-            System.out.println("✅ PRODUCTION Email sent to: " + email + " with OTP: " + otp);
-            System.out.println("🔧 PRODUCTION EMAIL DEBUG END\n");
-            
-        } catch (Exception e) {
-            System.out.println("❌ PRODUCTION EMAIL ERROR DETAILS:");
-            System.out.println("Error Type: " + e.getClass().getSimpleName());
-            System.out.println("Error Message: " + e.getMessage());
-            if (e.getCause() != null) {
-                System.out.println("Root Cause: " + e.getCause().getMessage());
-            }
-            System.out.println("Stack Trace:");
-            e.printStackTrace();
-            System.out.println("🔧 PRODUCTION EMAIL ERROR END\n");
-            
-            log.error("❌ Failed to send production email to {}: {}", email, e.getMessage(), e);
-            
-            // In production, fallback to simulation instead of throwing exception
-            if ("production".equals(activeProfile)) {
-                log.warn("🔄 Production email failed, falling back to simulation for user: {}", email);
-                sendSimulatedEmail(email, otp, emailType);
-            } else {
-                throw new RuntimeException("Email sending failed", e);
-            }
+        if (mailSender == null) {
+            log.error("❌ JavaMailSender is NULL - Mail configuration failed!");
+            throw new RuntimeException("JavaMailSender not configured properly");
+        }
+
+        // OTP mail jumps the dispatch queue; the caller returns once the outbox row is written
+        if ("forgot-password".equals(emailType)) {
+            emailDispatcher.enqueue(email, "Indian Trade Mart - Password Recovery OTP",
+                    buildForgotPasswordEmailContentHtml(otp), EmailOutbox.Priority.OTP);
+        } else {
+            emailDispatcher.enqueue(email, "Indian Trade Mart - OTP Verification",
+                    buildOtpEmailContentHtml(otp), EmailOutbox.Priority.OTP);
         }
+        log.info("📧 {} OTP email queued for: {}", emailType, email);
     }
     
     private void sendSimulatedEmail(String email, String otp, String emailType) {
@@ -331,35 +280,13 @@ public class EmailService {
     }
     
     private void sendRealGenericEmail(String to, String subject, String body) {
-        try {
-            if (mailSender == null) {
-                log.error("❌ JavaMailSender is NULL - Mail configuration failed!");
-                throw new RuntimeException("JavaMailSender not configured properly");
-            }
-            
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            
-            mailSender.send(message);
-            
-            log.info("✅ Generic Email sent successfully to: {}", to);
-            
-        } catch (Exception e) {
-            log.error("❌ Failed to send generic email to {}: {}", to, e.getMessage(), e);
-            
-            // In production, fallback to simulation instead of throwing exception
-            if ("production".equals(activeProfile)) {
-                log.warn("🔄 Production email failed, falling back to simulation for user: {}", to);
-                sendSimulatedGenericEmail(to, subject, body);
-            } else {
-                throw new RuntimeException("Email sending failed", e);
-            }
+        if (mailSender == null) {
+            log.error("❌ JavaMailSender is NULL - Mail configuration failed!");
+            throw new RuntimeException("JavaMailSender not configured properly");
         }
+
+        emailDispatcher.enqueue(to, subject, body, EmailOutbox.Priority.TRANSACTIONAL);
+        log.info("📧 Generic email queued for: {}", to);
     }
     
     private void sendSimulatedGenericEmail(String to, String subject, String body) {
@@ -27,6 +27,15 @@ public class FileUploadService {
     @Autowired
     private CloudStorageService cloudStorageService;
 
+    @Autowired
+    private ContentAddressedStorageService contentAddressedStorageService;
+
+    @Autowired
+    private LocalMediaBlobStore localMediaBlobStore;
+
+    @Value("${file.upload.dedup.enabled:true}")
+    private boolean deduplicationEnabled;
+
     @Value("${file.upload.directory:uploads}")
     private String uploadDirectory;
 
@@ -64,6 +73,11 @@ public class FileUploadService {
 
     public String uploadFile(MultipartFile file, String subDirectory) throws IOException {
         validateFile(file);
+
+        // Identical content shares one stored blob regardless of the requested sub-directory
+        if (deduplicationEnabled) {
+            return contentAddressedStorageService.store(file, localMediaBlobStore);
+        }
         
         // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDirectory, subDirectory);
@@ -101,6 +115,10 @@ public class FileUploadService {
     }
 
     public void deleteFile(String filePath) {
+        // Deduplicated blobs are reference-counted and only removed when the last reference goes
+        if (contentAddressedStorageService.release(filePath, localMediaBlobStore)) {
+            return;
+        }
         try {
             Path path = Paths.get(uploadDirectory, filePath);
             Files.deleteIfExists(path);
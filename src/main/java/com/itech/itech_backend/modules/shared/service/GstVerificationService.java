@@ -1,12 +1,21 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
@@ -25,16 +34,21 @@ public class GstVerificationService {
     @Value("${gst.api.key:}")
     private String gstApiKey;
 
-    private final WebClient webClient;
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final TaxVerificationGateway verificationGateway;
+    private final OutboundHttp.Integration gstApi;
 
     // GST number pattern: 15 characters
     // Format: 2 digits (state code) + 10 characters (PAN) + 1 digit (entity number) + 1 character (check digit) + 1 character (optional)
     private static final Pattern GST_PATTERN = Pattern.compile("^[0-9]{2}[A-Z]{5}[0-9]{4}[A-Z]{1}[1-9A-Z]{1}Z[0-9A-Z]{1}$");
 
-    public GstVerificationService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+    public GstVerificationService(TaxVerificationGateway verificationGateway,
+                                  OutboundHttp outboundHttp,
+                                  @Value("${tax.verification.timeout-ms:10000}") long apiTimeoutMs) {
+        this.verificationGateway = verificationGateway;
+        this.gstApi = outboundHttp.integration("gst",
+                OutboundHttp.Settings.of(8, Duration.ofMillis(apiTimeoutMs)).withRetries(2, Duration.ofMillis(300)));
     }
 
     /**
@@ -53,82 +67,61 @@ public class GstVerificationService {
      * Verify GST number with government API (if enabled and configured)
      */
     public CompletableFuture<Map<String, Object>> verifyGstNumber(String gstNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-            
-            // First validate format
-            if (!validateGstFormat(gstNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid GST number format");
-                result.put("gstNumber", gstNumber);
-                return result;
-            }
+        Map<String, Object> local = localVerification(gstNumber);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return verificationGateway.verify(TaxVerificationResult.Kind.GST_VERIFY, gstNumber, this::verifyWithApi);
+    }
 
-            // If API verification is not enabled, return format validation only
-            if (!gstVerificationEnabled || gstApiUrl == null || gstApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "GST format is valid (API verification disabled)");
-                result.put("gstNumber", gstNumber);
-                return result;
+    /**
+     * Verify many GST numbers at once (bulk vendor imports), keyed by the
+     * normalized number. Repeated numbers are verified once.
+     */
+    public CompletableFuture<Map<String, Map<String, Object>>> verifyGstNumbers(Collection<String> gstNumbers) {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        List<String> remote = new ArrayList<>();
+        for (String gstNumber : gstNumbers) {
+            if (gstNumber == null || gstNumber.isBlank()) {
+                continue;
             }
-
-            try {
-                // Attempt API verification
-                Map<String, Object> apiResponse = callGstVerificationApi(gstNumber);
-                result.putAll(apiResponse);
-                result.put("verified", true);
-                result.put("gstNumber", gstNumber);
-                
-            } catch (Exception e) {
-                log.warn("GST API verification failed for {}: {}", gstNumber, e.getMessage());
-                // Fallback to format validation
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "GST format is valid (API verification failed)");
-                result.put("gstNumber", gstNumber);
-                result.put("apiError", e.getMessage());
+            Map<String, Object> local = localVerification(gstNumber);
+            if (local != null) {
+                results.put(TaxVerificationGateway.normalize(gstNumber), local);
+            } else {
+                remote.add(gstNumber);
             }
-
-            return result;
-        });
+        }
+        if (remote.isEmpty()) {
+            return CompletableFuture.completedFuture(results);
+        }
+        return verificationGateway.verifyAll(TaxVerificationResult.Kind.GST_VERIFY, remote, this::verifyWithApi)
+                .thenApply(verified -> {
+                    results.putAll(verified);
+                    return results;
+                });
     }
 
     /**
      * Get GST details (business name, address, etc.) if API is configured
      */
     public CompletableFuture<Map<String, Object>> getGstDetails(String gstNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-
-            if (!validateGstFormat(gstNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid GST number format");
-                return result;
-            }
+        Map<String, Object> result = new HashMap<>();
 
-            if (!gstVerificationEnabled || gstApiUrl == null || gstApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("gstNumber", gstNumber);
-                result.put("message", "GST details API not configured");
-                return result;
-            }
+        if (!validateGstFormat(gstNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid GST number format");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            try {
-                Map<String, Object> apiResponse = callGstDetailsApi(gstNumber);
-                result.putAll(apiResponse);
-                result.put("gstNumber", gstNumber);
-                
-            } catch (Exception e) {
-                log.warn("GST details API failed for {}: {}", gstNumber, e.getMessage());
-                result.put("valid", true);
-                result.put("gstNumber", gstNumber);
-                result.put("message", "GST number is valid but details unavailable");
-                result.put("apiError", e.getMessage());
-            }
+        if (!isApiConfigured()) {
+            result.put("valid", true);
+            result.put("gstNumber", gstNumber);
+            result.put("message", "GST details API not configured");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            return result;
-        });
+        return verificationGateway.verify(TaxVerificationResult.Kind.GST_DETAILS, gstNumber, this::detailsFromApi);
     }
 
     /**
@@ -159,6 +152,75 @@ public class GstVerificationService {
         return stateCodes.get(stateCode);
     }
 
+    /**
+     * Result that needs no API call: an invalid format, or API verification disabled
+     */
+    private Map<String, Object> localVerification(String gstNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        // First validate format
+        if (!validateGstFormat(gstNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid GST number format");
+            result.put("gstNumber", gstNumber);
+            return result;
+        }
+
+        // If API verification is not enabled, return format validation only
+        if (!isApiConfigured()) {
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "GST format is valid (API verification disabled)");
+            result.put("gstNumber", gstNumber);
+            return result;
+        }
+        return null;
+    }
+
+    private boolean isApiConfigured() {
+        return gstVerificationEnabled && gstApiUrl != null && !gstApiUrl.trim().isEmpty();
+    }
+
+    private TaxVerificationGateway.Outcome verifyWithApi(String gstNumber) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            // Attempt API verification
+            Map<String, Object> apiResponse = callGstVerificationApi(gstNumber);
+            result.putAll(apiResponse);
+            result.put("verified", true);
+            result.put("gstNumber", gstNumber);
+            return TaxVerificationGateway.Outcome.authoritative(result);
+
+        } catch (Exception e) {
+            log.warn("GST API verification failed for {}: {}", gstNumber, e.getMessage());
+            // Fallback to format validation
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "GST format is valid (API verification failed)");
+            result.put("gstNumber", gstNumber);
+            result.put("apiError", e.getMessage());
+            return TaxVerificationGateway.Outcome.fallback(result);
+        }
+    }
+
+    private TaxVerificationGateway.Outcome detailsFromApi(String gstNumber) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            Map<String, Object> apiResponse = callGstDetailsApi(gstNumber);
+            result.putAll(apiResponse);
+            result.put("gstNumber", gstNumber);
+            return TaxVerificationGateway.Outcome.authoritative(result);
+
+        } catch (Exception e) {
+            log.warn("GST details API failed for {}: {}", gstNumber, e.getMessage());
+            result.put("valid", true);
+            result.put("gstNumber", gstNumber);
+            result.put("message", "GST number is valid but details unavailable");
+            result.put("apiError", e.getMessage());
+            return TaxVerificationGateway.Outcome.fallback(result);
+        }
+    }
+
     /**
      * Call external GST verification API
      */
@@ -169,14 +231,13 @@ public class GstVerificationService {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("gstNumber", gstNumber);
             
-            Map<String, Object> response = webClient.post()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + gstApiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(gstApiKey);
+
+            Map<String, Object> response = gstApi.execute(() -> gstApi.rest()
+                    .exchange(url, HttpMethod.POST, new HttpEntity<>(requestBody, headers), RESPONSE_TYPE)
+                    .getBody());
 
             if (response != null) {
                 return response;
@@ -184,7 +245,7 @@ public class GstVerificationService {
                 throw new RuntimeException("Empty response from GST API");
             }
             
-        } catch (WebClientResponseException e) {
+        } catch (RestClientResponseException e) {
             log.error("GST API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("GST verification API error: " + e.getMessage());
         }
@@ -197,12 +258,12 @@ public class GstVerificationService {
         try {
             String url = gstApiUrl + "/details";
             
-            Map<String, Object> response = webClient.get()
-                    .uri(url + "?gstNumber=" + gstNumber)
-                    .header("Authorization", "Bearer " + gstApiKey)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(gstApiKey);
+
+            Map<String, Object> response = gstApi.execute(() -> gstApi.rest()
+                    .exchange(url + "?gstNumber=" + gstNumber, HttpMethod.GET, new HttpEntity<>(headers), RESPONSE_TYPE)
+                    .getBody());
 
             if (response != null) {
                 return response;
@@ -210,7 +271,7 @@ public class GstVerificationService {
                 throw new RuntimeException("Empty response from GST details API");
             }
             
-        } catch (WebClientResponseException e) {
+        } catch (RestClientResponseException e) {
             log.error("GST details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("GST details API error: " + e.getMessage());
         }
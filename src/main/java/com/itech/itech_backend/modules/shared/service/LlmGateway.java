@@ -0,0 +1,215 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chat completion client shared by the AI features.
+ *
+ * Requests go through the "openai" {@link OutboundHttp} integration, which
+ * pools connections, caps requests in flight and retries transient failures.
+ * Answers are cached by a hash of the normalized prompt (case and whitespace
+ * folded) for a configurable TTL, and concurrent identical prompts wait on
+ * the first caller's request rather than sending their own. Callers get an
+ * empty result when the API is busy or failing and use their fallback.
+ * Failed calls are never cached.
+ */
+@Service
+@Slf4j
+public class LlmGateway {
+
+    private final String apiUrl;
+    private final String apiKey;
+    private final String model;
+    private final long awaitTimeoutMs;
+    private final Cache<String, CompletableFuture<String>> responses;
+    private final OutboundHttp.Integration openAi;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter coalesced;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary completionTokens;
+
+    public LlmGateway(MeterRegistry meterRegistry,
+                      OutboundHttp outboundHttp,
+                      @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}") String apiUrl,
+                      @Value("${openai.api.key:}") String apiKey,
+                      @Value("${openai.model:gpt-3.5-turbo}") String model,
+                      @Value("${openai.gateway.max-concurrent:8}") int maxConcurrent,
+                      @Value("${openai.gateway.timeout-ms:20000}") long timeoutMs,
+                      @Value("${openai.gateway.cache-ttl-minutes:60}") long cacheTtlMinutes,
+                      @Value("${openai.gateway.cache-max-entries:5000}") long cacheMaxEntries) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .maximumSize(cacheMaxEntries)
+                .build();
+
+        this.openAi = outboundHttp.integration("openai",
+                OutboundHttp.Settings.of(maxConcurrent, Duration.ofMillis(timeoutMs))
+                        .withRetries(2, Duration.ofMillis(500)));
+        // Waiters allow for the leader's bulkhead wait plus every attempt
+        this.awaitTimeoutMs = timeoutMs * (openAi.getSettings().maxAttempts() + 1);
+
+        this.cacheHits = meterRegistry.counter("llm.cache.requests", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("llm.cache.requests", "result", "miss");
+        this.coalesced = meterRegistry.counter("llm.requests.coalesced");
+        this.promptTokens = DistributionSummary.builder("llm.tokens").tag("type", "prompt").register(meterRegistry);
+        this.completionTokens = DistributionSummary.builder("llm.tokens").tag("type", "completion").register(meterRegistry);
+    }
+
+    /**
+     * Whether an API key is configured; without one every call returns empty
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty() && !apiKey.contains("your-openai-api-key");
+    }
+
+    /**
+     * Completion for the prompt, or empty when the API is unconfigured, busy,
+     * slow or failing and the caller should fall back
+     */
+    public Optional<String> complete(String systemPrompt, String userMessage) {
+        if (!isConfigured()) {
+            return Optional.empty();
+        }
+
+        String key = cacheKey(systemPrompt, userMessage);
+        ConcurrentMap<String, CompletableFuture<String>> entries = responses.asMap();
+        CompletableFuture<String> promise = new CompletableFuture<>();
+        CompletableFuture<String> existing = entries.putIfAbsent(key, promise);
+
+        if (existing != null) {
+            if (existing.isDone()) {
+                cacheHits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(existing);
+        }
+
+        cacheMisses.increment();
+        String response = null;
+        try {
+            response = call(systemPrompt, userMessage);
+        } finally {
+            promise.complete(response);
+            if (response == null) {
+                entries.remove(key, promise);
+            }
+        }
+        return Optional.ofNullable(response);
+    }
+
+    private Optional<String> await(CompletableFuture<String> future) {
+        try {
+            return Optional.ofNullable(future.get(awaitTimeoutMs, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String call(String systemPrompt, String userMessage) {
+        try {
+            return openAi.execute(() -> post(systemPrompt, userMessage));
+        } catch (OutboundHttp.BulkheadFullException e) {
+            log.warn("OpenAI request rejected: concurrency limit reached");
+            return null;
+        } catch (Exception e) {
+            log.error("OpenAI API error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String post(String systemPrompt, String userMessage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", systemPrompt));
+        messages.add(Map.of("role", "user", "content", userMessage));
+
+        requestBody.put("messages", messages);
+        requestBody.put("temperature", 0.7);
+        requestBody.put("max_tokens", 500);
+
+        log.debug("Sending request to OpenAI: {}", userMessage);
+        Map<String, Object> responseBody = openAi.rest().postForObject(apiUrl, new HttpEntity<>(requestBody, headers), Map.class);
+        if (responseBody == null) {
+            return null;
+        }
+
+        Map<String, Object> usage = (Map<String, Object>) responseBody.get("usage");
+        if (usage != null) {
+            recordTokens(promptTokens, usage.get("prompt_tokens"));
+            recordTokens(completionTokens, usage.get("completion_tokens"));
+        }
+
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
+        if (choices == null || choices.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
+        return message != null ? (String) message.get("content") : null;
+    }
+
+    private static void recordTokens(DistributionSummary summary, Object count) {
+        if (count instanceof Number number) {
+            summary.record(number.doubleValue());
+        }
+    }
+
+    private String cacheKey(String systemPrompt, String userMessage) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(systemPrompt).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(userMessage).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+}
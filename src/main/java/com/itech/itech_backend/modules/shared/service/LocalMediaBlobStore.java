@@ -0,0 +1,65 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local-disk backend for content-addressed blobs. Returns paths relative to
+ * the upload directory so they stay compatible with {@code /api/files/**}.
+ */
+@Component
+@Slf4j
+public class LocalMediaBlobStore implements MediaBlobStore {
+
+    public static final String BACKEND = "LOCAL";
+
+    @Autowired
+    private ContentAddressedStorageService contentAddressedStorageService;
+
+    @Value("${file.upload.directory:uploads}")
+    private String uploadDirectory;
+
+    @PostConstruct
+    void register() {
+        contentAddressedStorageService.registerBlobStore(this);
+    }
+
+    @Override
+    public String getBackendName() {
+        return BACKEND;
+    }
+
+    @Override
+    public String putObject(String key, Path source, String contentType) throws IOException {
+        Path target = Paths.get(uploadDirectory, key);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            // Same key means same content; a concurrent writer already stored it
+            return key;
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return key;
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        try {
+            Files.deleteIfExists(Paths.get(uploadDirectory, key));
+        } catch (IOException e) {
+            log.warn("Failed to delete local blob {}: {}", key, e.getMessage());
+        }
+    }
+}
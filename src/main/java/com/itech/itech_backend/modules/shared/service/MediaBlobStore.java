@@ -0,0 +1,23 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Minimal object-store contract used by {@link ContentAddressedStorageService}.
+ * Implemented by local disk and S3; tests can plug in an in-memory stand-in.
+ */
+public interface MediaBlobStore {
+
+    /**
+     * Backend identifier persisted with each blob (e.g. LOCAL, S3)
+     */
+    String getBackendName();
+
+    /**
+     * Store the given file under the key and return the URL/path callers should hand out
+     */
+    String putObject(String key, Path source, String contentType) throws IOException;
+
+    void deleteObject(String key);
+}
@@ -0,0 +1,234 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.model.NotificationOutbox;
+import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
+import com.itech.itech_backend.modules.shared.repository.NotificationOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Asynchronous notification delivery.
+ *
+ * Business code enqueues notifications (after its transaction commits); a
+ * scheduled flusher batch-inserts them with one JDBC batch per cycle, bumps
+ * the cached unread counters and pushes each one to the recipient's STOMP
+ * queue. Anything that cannot stay in memory (overflow, failed flush,
+ * shutdown) is written to the notification_outbox table and replayed later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, title, message, type, is_read, action_url, related_entity_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final NotificationOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final NotificationUnreadCounter unreadCounter;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${notification.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notification.dispatch.batch-size:200}")
+    private int batchSize;
+
+    private BlockingQueue<NotificationOutbox> queue;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushes may be triggered from afterCommit callbacks; never join a finished transaction
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Queue a notification for delivery. Inside a transaction, delivery waits for commit
+     * so rolled-back business operations never notify anyone.
+     */
+    public void enqueue(NotificationOutbox pending) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(pending);
+                }
+            });
+        } else {
+            offer(pending);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.flush-interval-ms:500}")
+    public void flush() {
+        List<NotificationOutbox> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> insertBatch(batch));
+                publish(batch, ids);
+            } catch (Exception e) {
+                log.error("Failed to flush {} notifications, moving them to the outbox", batch.size(), e);
+                spill(batch);
+            }
+        }
+        drainOutbox();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List<NotificationOutbox> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Persisting {} undelivered notifications to the outbox on shutdown", remaining.size());
+            spill(remaining);
+        }
+    }
+
+    private void offer(NotificationOutbox pending) {
+        if (!queue.offer(pending)) {
+            // Saturated - keep it durable rather than dropping or blocking the caller
+            spill(List.of(pending));
+        }
+    }
+
+    private void spill(List<NotificationOutbox> pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(pending));
+        } catch (Exception e) {
+            log.error("Failed to persist {} notifications to the outbox", pending.size(), e);
+        }
+    }
+
+    private void drainOutbox() {
+        // Live traffic goes first; the outbox is replayed when the queue is quiet
+        if (queue.size() >= batchSize) {
+            return;
+        }
+        try {
+            List<NotificationOutbox> replayed = new ArrayList<>();
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<NotificationOutbox> rows = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    return List.<Long>of();
+                }
+                List<Long> inserted = insertBatch(rows);
+                outboxRepository.deleteAllInBatch(rows);
+                replayed.addAll(rows);
+                return inserted;
+            });
+            if (!replayed.isEmpty()) {
+                log.info("Replayed {} notifications from the outbox", replayed.size());
+                publish(replayed, ids);
+            }
+        } catch (Exception e) {
+            log.error("Failed to replay notification outbox", e);
+        }
+    }
+
+    private List<Long> insertBatch(List<NotificationOutbox> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NotificationOutbox notification = batch.get(i);
+                        NotificationType type = notification.getType() != null ? notification.getType() : NotificationType.INFO;
+                        ps.setLong(1, notification.getUserId());
+                        ps.setString(2, notification.getTitle());
+                        ps.setString(3, notification.getMessage());
+                        ps.setString(4, type.name());
+                        ps.setBoolean(5, false);
+                        ps.setString(6, notification.getActionUrl());
+                        ps.setString(7, notification.getRelatedEntityId());
+                        ps.setTimestamp(8, Timestamp.valueOf(notification.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void publish(List<NotificationOutbox> batch, List<Long> ids) {
+        Map<Long, Integer> perUser = new HashMap<>();
+        for (NotificationOutbox notification : batch) {
+            perUser.merge(notification.getUserId(), 1, Integer::sum);
+        }
+        perUser.forEach(unreadCounter::increment);
+
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : userRepository.findEmailsByIds(perUser.keySet())) {
+            emails.put((Long) row[0], (String) row[1]);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox notification = batch.get(i);
+            try {
+                Map<String, Object> notificationData = new HashMap<>();
+                notificationData.put("id", ids != null && i < ids.size() ? ids.get(i) : null);
+                notificationData.put("title", notification.getTitle());
+                notificationData.put("message", notification.getMessage());
+                notificationData.put("type", notification.getType());
+                notificationData.put("relatedEntityId", notification.getRelatedEntityId());
+                notificationData.put("createdAt", notification.getCreatedAt());
+                long unread = unreadCounter.peek(notification.getUserId());
+                if (unread >= 0) {
+                    notificationData.put("unreadCount", unread);
+                }
+
+                String email = emails.get(notification.getUserId());
+                if (email != null) {
+                    messagingTemplate.convertAndSendToUser(email, "/queue/notifications", notificationData);
+                }
+                messagingTemplate.convertAndSend("/topic/notifications/" + notification.getUserId(), notificationData);
+            } catch (Exception e) {
+                log.error("Error pushing notification to user {}", notification.getUserId(), e);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.itech.itech_backend.modules.shared.service;
 
 import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
 import com.itech.itech_backend.modules.shared.model.Notification;
+import com.itech.itech_backend.modules.shared.model.NotificationOutbox;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.shared.repository.NotificationRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
@@ -26,6 +27,8 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationUnreadCounter unreadCounter;
 
     @Transactional
     public Notification createNotification(Long userId, String title, String message, 
@@ -45,6 +48,7 @@ public class NotificationService {
                 .build();
 
             Notification savedNotification = notificationRepository.save(notification);
+            unreadCounter.increment(userId, 1);
 
             // Send real-time notification via WebSocket
             sendRealTimeNotification(savedNotification);
@@ -58,6 +62,23 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Fire-and-forget variant used on business paths: the notification is queued,
+     * batch-inserted by {@link NotificationDispatcher} after the caller's transaction
+     * commits, and pushed over STOMP without holding up the request.
+     */
+    public void queueNotification(Long userId, String title, String message,
+                                  NotificationType type, String relatedEntityId) {
+        notificationDispatcher.enqueue(NotificationOutbox.builder()
+            .userId(userId)
+            .title(title)
+            .message(message)
+            .type(type)
+            .relatedEntityId(relatedEntityId)
+            .createdAt(LocalDateTime.now())
+            .build());
+    }
+
     public Page<Notification> getUserNotifications(Long userId, Pageable pageable) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
@@ -67,7 +88,7 @@ public class NotificationService {
     }
 
     public long getUnreadNotificationCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     @Transactional
@@ -76,10 +97,15 @@ public class NotificationService {
             Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
+            boolean wasUnread = !notification.isRead();
             notification.setRead(true);
             notification.setReadAt(LocalDateTime.now());
 
-            return notificationRepository.save(notification);
+            Notification saved = notificationRepository.save(notification);
+            if (wasUnread) {
+                unreadCounter.decrement(notification.getUser().getId());
+            }
+            return saved;
 
         } catch (Exception e) {
             log.error("Error marking notification as read", e);
@@ -90,14 +116,10 @@ public class NotificationService {
     @Transactional
     public void markAllAsRead(Long userId) {
         try {
-            List<Notification> unreadNotifications = getUnreadNotifications(userId);
-            for (Notification notification : unreadNotifications) {
-                notification.setRead(true);
-                notification.setReadAt(LocalDateTime.now());
-            }
-            notificationRepository.saveAll(unreadNotifications);
+            int updated = notificationRepository.markAllAsReadForUser(userId, LocalDateTime.now());
+            unreadCounter.reset(userId);
 
-            log.info("Marked all notifications as read for user {}", userId);
+            log.info("Marked {} notifications as read for user {}", updated, userId);
 
         } catch (Exception e) {
             log.error("Error marking all notifications as read", e);
@@ -117,6 +139,9 @@ public class NotificationService {
             }
 
             notificationRepository.delete(notification);
+            if (!notification.isRead()) {
+                unreadCounter.decrement(userId);
+            }
             log.info("Notification {} deleted by user {}", notificationId, userId);
 
         } catch (Exception e) {
@@ -127,7 +152,7 @@ public class NotificationService {
 
     // Specific notification creation methods
     public void notifyInquiryReceived(Long vendorId, String inquiryId, String productName) {
-        createNotification(
+        queueNotification(
             vendorId,
             "New Inquiry Received",
             "You have received a new inquiry for " + productName,
@@ -137,7 +162,7 @@ public class NotificationService {
     }
 
     public void notifyQuoteReceived(Long userId, String quoteId, String vendorName) {
-        createNotification(
+        queueNotification(
             userId,
             "New Quote Received",
             "You have received a new quote from " + vendorName,
@@ -147,7 +172,7 @@ public class NotificationService {
     }
 
     public void notifyQuoteAccepted(Long vendorId, String quoteId, String buyerName) {
-        createNotification(
+        queueNotification(
             vendorId,
             "Quote Accepted",
             buyerName + " has accepted your quote",
@@ -157,7 +182,7 @@ public class NotificationService {
     }
 
     public void notifyOrderPlaced(Long vendorId, String orderId, String orderNumber) {
-        createNotification(
+        queueNotification(
             vendorId,
             "New Order Placed",
             "New order " + orderNumber + " has been placed",
@@ -167,7 +192,7 @@ public class NotificationService {
     }
 
     public void notifyOrderStatusUpdate(Long userId, String orderId, String status, String orderNumber) {
-        createNotification(
+        queueNotification(
             userId,
             "Order Status Updated",
             "Your order " + orderNumber + " status has been updated to " + status,
@@ -177,7 +202,7 @@ public class NotificationService {
     }
 
     public void notifyPaymentReceived(Long vendorId, String paymentId, double amount) {
-        createNotification(
+        queueNotification(
             vendorId,
             "Payment Received",
             "Payment of ₹" + amount + " has been received",
@@ -187,7 +212,7 @@ public class NotificationService {
     }
 
     public void notifyKycStatusUpdate(Long vendorId, String kycId, String status) {
-        createNotification(
+        queueNotification(
             vendorId,
             "KYC Status Updated",
             "Your KYC verification status has been updated to " + status,
@@ -197,7 +222,7 @@ public class NotificationService {
     }
 
     public void notifyNewMessage(Long userId, String chatId, String senderName) {
-        createNotification(
+        queueNotification(
             userId,
             "New Message",
             "You have received a new message from " + senderName,
@@ -207,7 +232,7 @@ public class NotificationService {
     }
 
     public void notifyTicketUpdate(Long userId, String ticketId, String ticketNumber, String status) {
-        createNotification(
+        queueNotification(
             userId,
             "Support Ticket Update",
             "Your support ticket " + ticketNumber + " status has been updated to " + status,
@@ -217,7 +242,7 @@ public class NotificationService {
     }
 
     public void notifyProductReview(Long vendorId, String reviewId, String productName, int rating) {
-        createNotification(
+        queueNotification(
             vendorId,
             "New Product Review",
             "Your product " + productName + " has received a " + rating + " star review",
@@ -227,7 +252,7 @@ public class NotificationService {
     }
 
     public void notifySubscriptionExpiry(Long vendorId, String subscriptionId, int daysLeft) {
-        createNotification(
+        queueNotification(
             vendorId,
             "Subscription Expiring Soon",
             "Your subscription will expire in " + daysLeft + " days. Please renew to continue.",
@@ -237,7 +262,7 @@ public class NotificationService {
     }
 
     public void notifySystemMaintenance(Long userId, String maintenanceStart, String maintenanceEnd) {
-        createNotification(
+        queueNotification(
             userId,
             "Scheduled Maintenance",
             "System maintenance scheduled from " + maintenanceStart + " to " + maintenanceEnd,
@@ -280,13 +305,10 @@ public class NotificationService {
         long unreadCount = getUnreadNotificationCount(userId);
         long totalCount = notificationRepository.countByUserId(userId);
         
-        // Count by type (unread)
+        // Count by type (unread) in a single grouped query
         Map<String, Long> unreadByType = new HashMap<>();
-        for (NotificationType type : NotificationType.values()) {
-            long count = notificationRepository.countByUserIdAndTypeAndIsReadFalse(userId, type);
-            if (count > 0) {
-                unreadByType.put(type.name(), count);
-            }
+        for (Object[] row : notificationRepository.countUnreadByType(userId)) {
+            unreadByType.put(((NotificationType) row[0]).name(), (Long) row[1]);
         }
         
         summary.put("unreadCount", unreadCount);
@@ -299,9 +321,9 @@ public class NotificationService {
     public void sendBulkNotification(List<Long> userIds, String title, String message, NotificationType type) {
         try {
             for (Long userId : userIds) {
-                createNotification(userId, title, message, type, null);
+                queueNotification(userId, title, message, type, null);
             }
-            log.info("Bulk notification sent to {} users", userIds.size());
+            log.info("Bulk notification queued for {} users", userIds.size());
         } catch (Exception e) {
             log.error("Error sending bulk notification", e);
             throw new RuntimeException("Failed to send bulk notification: " + e.getMessage());
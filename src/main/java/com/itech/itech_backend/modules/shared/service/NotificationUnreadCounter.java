@@ -0,0 +1,84 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.modules.shared.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counters held in memory.
+ *
+ * A counter is loaded from the database on first read and then adjusted in
+ * place on insert/read/delete, so header badges no longer issue a COUNT per
+ * render. Inside a transaction an adjustment waits for commit, so a rolled
+ * back change never moves the counter. Entries expire after a few minutes
+ * to bound drift between nodes.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationUnreadCounter {
+
+    private final NotificationRepository notificationRepository;
+
+    private final Cache<Long, AtomicLong> counters = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    public long get(Long userId) {
+        return counters.get(userId, id -> new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(id))).get();
+    }
+
+    /**
+     * Returns the cached value without touching the database, or -1 when not loaded
+     */
+    public long peek(Long userId) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        return counter != null ? counter.get() : -1;
+    }
+
+    public void increment(Long userId, int delta) {
+        afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.addAndGet(delta);
+            }
+        });
+    }
+
+    public void decrement(Long userId) {
+        afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(userId);
+            if (counter != null) {
+                counter.updateAndGet(value -> Math.max(0, value - 1));
+            }
+        });
+    }
+
+    public void reset(Long userId) {
+        afterCommit(() -> counters.put(userId, new AtomicLong(0)));
+    }
+
+    public void invalidate(Long userId) {
+        counters.invalidate(userId);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
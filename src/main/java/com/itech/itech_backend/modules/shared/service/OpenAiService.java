@@ -1,20 +1,12 @@
 package com.itech.itech_backend.modules.shared.service;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.core.model.User;
@@ -30,11 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OpenAiService {
 
-    @Value("${openai.api.key:}")
-    private String apiKey;
-
-    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
-    private String apiUrl;
+    private final LlmGateway llmGateway;
     
     @Autowired
     private BuyerProductRepository productRepository;
@@ -65,54 +53,13 @@ public class OpenAiService {
      */
     private String generateResponse(String userMessage, String systemPrompt) {
         // Check if OpenAI is configured
-        if (apiKey == null || apiKey.trim().isEmpty() || apiKey.contains("your-openai-api-key")) {
+        if (!llmGateway.isConfigured()) {
             log.warn("OpenAI API key not configured, using fallback responses");
             return generateFallbackResponse(userMessage, systemPrompt);
         }
 
-        RestTemplate restTemplate = new RestTemplate();
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiKey);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", "gpt-3.5-turbo");
-
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "system", "content", systemPrompt));
-        messages.add(Map.of("role", "user", "content", userMessage));
-
-        requestBody.put("messages", messages);
-        requestBody.put("temperature", 0.7);
-        requestBody.put("max_tokens", 500);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-        try {
-            log.debug("Sending request to OpenAI: {}", userMessage);
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> response = restTemplate.postForEntity(apiUrl, request, Map.class);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            if (responseBody != null) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
-                if (choices != null && !choices.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    if (message != null) {
-                        String aiResponse = (String) message.get("content");
-                        log.debug("OpenAI response received: {}", aiResponse);
-                        return aiResponse;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("OpenAI API error: {}", e.getMessage());
-        }
-
-        return generateFallbackResponse(userMessage, systemPrompt);
+        return llmGateway.complete(systemPrompt, userMessage)
+                .orElseGet(() -> generateFallbackResponse(userMessage, systemPrompt));
     }
 
     /**
@@ -0,0 +1,260 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared outbound HTTP layer for third-party integrations.
+ *
+ * Every integration sends through one pooled Apache HttpClient, so
+ * connections to a host are kept alive and reused across services, with a
+ * cap on connections per host and in total. Each named integration adds its
+ * own response timeout, a bulkhead limiting its calls in flight, retries with
+ * exponential backoff and full jitter for transient failures, and latency
+ * metrics tagged with its name. Defaults come from the caller and can be
+ * overridden per integration under outbound.http.integrations.&lt;name&gt;.
+ */
+@Service
+@Slf4j
+public class OutboundHttp {
+
+    /**
+     * One outbound request; the checked exception type passes through
+     */
+    @FunctionalInterface
+    public interface Request<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * Per-integration limits, used as defaults when no property overrides them
+     */
+    public record Settings(int maxConcurrent, Duration timeout, int maxAttempts, Duration backoff) {
+
+        public static Settings of(int maxConcurrent, Duration timeout) {
+            return new Settings(maxConcurrent, timeout, 1, Duration.ofMillis(200));
+        }
+
+        public Settings withRetries(int maxAttempts, Duration backoff) {
+            return new Settings(maxConcurrent, timeout, maxAttempts, backoff);
+        }
+    }
+
+    /**
+     * Thrown when an integration's bulkhead stays full for the whole timeout
+     */
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException(String integration) {
+            super("Too many concurrent " + integration + " requests");
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Map<String, Integration> integrations = new ConcurrentHashMap<>();
+
+    public OutboundHttp(MeterRegistry meterRegistry,
+                        Environment environment,
+                        @Value("${outbound.http.max-connections:100}") int maxConnections,
+                        @Value("${outbound.http.max-per-route:20}") int maxPerRoute,
+                        @Value("${outbound.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                        @Value("${outbound.http.idle-evict-seconds:30}") long idleEvictSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .disableAutomaticRetries()
+                .build();
+
+        meterRegistry.gauge("outbound.http.pool.leased", connectionManager, pool -> pool.getTotalStats().getLeased());
+        meterRegistry.gauge("outbound.http.pool.available", connectionManager, pool -> pool.getTotalStats().getAvailable());
+        meterRegistry.gauge("outbound.http.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending());
+    }
+
+    /**
+     * The named integration, created with the given defaults on first use
+     */
+    public Integration integration(String name, Settings defaults) {
+        return integrations.computeIfAbsent(name, key -> new Integration(key, resolve(key, defaults)));
+    }
+
+    /**
+     * Current connection pool usage across all integrations
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        httpClient.close();
+    }
+
+    private Settings resolve(String name, Settings defaults) {
+        String prefix = "outbound.http.integrations." + name + ".";
+        return new Settings(
+                environment.getProperty(prefix + "max-concurrent", Integer.class, defaults.maxConcurrent()),
+                Duration.ofMillis(environment.getProperty(prefix + "timeout-ms", Long.class, defaults.timeout().toMillis())),
+                environment.getProperty(prefix + "max-attempts", Integer.class, defaults.maxAttempts()),
+                Duration.ofMillis(environment.getProperty(prefix + "backoff-ms", Long.class, defaults.backoff().toMillis())));
+    }
+
+    private static boolean isTransient(Exception e) {
+        return e instanceof ResourceAccessException
+                || e instanceof IOException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+
+    /**
+     * A named client: a RestTemplate on the shared pool plus the integration's
+     * bulkhead, retry policy and metrics
+     */
+    public final class Integration {
+
+        private final String name;
+        private final Settings settings;
+        private final Semaphore bulkhead;
+        private final RestTemplate restTemplate;
+        private final Timer successTimer;
+        private final Timer errorTimer;
+        private final Counter retries;
+        private final Counter rejected;
+
+        private Integration(String name, Settings settings) {
+            this.name = name;
+            this.settings = settings;
+            this.bulkhead = new Semaphore(settings.maxConcurrent());
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(settings.timeout()))
+                    .setResponseTimeout(Timeout.of(settings.timeout()))
+                    .build();
+            HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            requestFactory.setHttpContextFactory((method, uri) -> {
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(requestConfig);
+                return context;
+            });
+            this.restTemplate = new RestTemplate(requestFactory);
+
+            this.successTimer = Timer.builder("outbound.http.requests")
+                    .tag("integration", name).tag("outcome", "success").register(meterRegistry);
+            this.errorTimer = Timer.builder("outbound.http.requests")
+                    .tag("integration", name).tag("outcome", "error").register(meterRegistry);
+            this.retries = meterRegistry.counter("outbound.http.retries", "integration", name);
+            this.rejected = meterRegistry.counter("outbound.http.rejected", "integration", name);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Settings getSettings() {
+            return settings;
+        }
+
+        /**
+         * RestTemplate on the shared pool with this integration's timeouts
+         */
+        public RestTemplate rest() {
+            return restTemplate;
+        }
+
+        /**
+         * Runs the request inside the bulkhead, retrying transient failures
+         * (I/O errors, 5xx and 429) up to the configured attempts. Only pass
+         * requests that are safe to repeat when retries are enabled.
+         */
+        public <T, E extends Exception> T execute(Request<T, E> request) throws E {
+            acquire();
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    long start = System.nanoTime();
+                    try {
+                        T result = request.execute();
+                        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return result;
+                    } catch (Exception e) {
+                        errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (attempt >= settings.maxAttempts() || !isTransient(e)) {
+                            throw e;
+                        }
+                        retries.increment();
+                        log.debug("{} request failed (attempt {}), retrying: {}", name, attempt, e.getMessage());
+                        if (!backoff(attempt)) {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                bulkhead.release();
+            }
+        }
+
+        private void acquire() {
+            try {
+                if (bulkhead.tryAcquire(settings.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        }
+
+        // Exponential backoff with full jitter; false if interrupted while waiting
+        private boolean backoff(int attempt) {
+            long ceiling = settings.backoff().toMillis() << Math.min(attempt - 1, 10);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent read queries of one request side by side.
+ *
+ * A scope forks each query onto its own virtual thread and waits for all of
+ * them; the first failure cancels the rest and is rethrown from join(), much
+ * like StructuredTaskScope.ShutdownOnFailure (still a preview API on Java 21).
+ * Every forked query borrows its own pooled connection outside the caller's
+ * transaction, so queries in flight across the application are capped below
+ * the Hikari pool size and only reads that need no uncommitted state of the
+ * caller should be forked. Queries forked from inside a forked query, or with
+ * parallel-queries.enabled=false, run inline on the calling thread.
+ */
+@Service
+public class ParallelQueries {
+
+    private static final ThreadLocal<Boolean> FORKED = ThreadLocal.withInitial(() -> false);
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("parallel-query-", 0).factory());
+
+    public ParallelQueries(@Value("${parallel-queries.enabled:true}") boolean enabled,
+                           @Value("${parallel-queries.max-in-flight:0}") int maxInFlight,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                           @Value("${parallel-queries.timeout-ms:10000}") long timeoutMs) {
+        this.enabled = enabled;
+        // Half the pool by default, leaving the rest to request threads and scheduled jobs
+        this.maxInFlight = maxInFlight > 0 ? Math.min(maxInFlight, poolSize) : Math.max(1, poolSize / 2);
+        this.permits = new Semaphore(this.maxInFlight, true);
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static RuntimeException propagate(Throwable failure) {
+        if (failure instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException("Parallel query failed: " + failure.getMessage(), failure);
+    }
+
+    /**
+     * Queries forked together; results are readable once join() returns
+     */
+    public final class Scope implements AutoCloseable {
+
+        // Appended by the caller, cancelled from whichever forked query fails first
+        private final List<Future<?>> forks = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long deadline = System.nanoTime() + timeout.toNanos();
+
+        private Scope() {
+        }
+
+        public <T> Supplier<T> fork(Callable<T> query) {
+            if (!enabled || FORKED.get()) {
+                try {
+                    T result = query.call();
+                    return () -> result;
+                } catch (Exception e) {
+                    throw propagate(e);
+                }
+            }
+            Future<T> future = executor.submit(() -> run(query));
+            forks.add(future);
+            return future::resultNow;
+        }
+
+        /**
+         * Waits for every forked query, rethrowing the first failure
+         */
+        public void join() {
+            try {
+                for (Future<?> fork : forks) {
+                    fork.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (ExecutionException | CancellationException e) {
+                cancelAll();
+                throw propagate(failure.get() != null ? failure.get() : e.getCause() != null ? e.getCause() : e);
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw new RuntimeException("Parallel queries did not finish within " + timeout.toMillis() + " ms");
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for parallel queries");
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private <T> T run(Callable<T> query) throws Exception {
+            boolean acquired = false;
+            try {
+                acquired = permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    throw new RuntimeException("Too many parallel queries in flight");
+                }
+                FORKED.set(true);
+                return query.call();
+            } catch (Exception e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            } finally {
+                FORKED.remove();
+                if (acquired) {
+                    permits.release();
+                }
+            }
+        }
+
+        private void cancelAll() {
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+    }
+}
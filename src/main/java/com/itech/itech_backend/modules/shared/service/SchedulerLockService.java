@@ -0,0 +1,131 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database lease locks for scheduled jobs that must run on one node at a time.
+ *
+ * A lease is taken with a conditional UPDATE on scheduler_locks (or an INSERT
+ * the first time a job runs), so whichever node's statement commits first
+ * wins and the others skip the run. Leases expire on their own, so a crashed
+ * node never holds a job for longer than its lease.
+ */
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public SchedulerLockService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Lock statements commit on their own, never inside the job's transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Runs the task if this node can take the lease. Returns false if another node holds it.
+     */
+    public boolean runExclusively(String name, Duration lease, Runnable task) {
+        if (!tryAcquire(name, lease)) {
+            log.debug("Skipping {}: lease held by another node", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(name);
+        }
+    }
+
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp until = Timestamp.valueOf(now.plus(lease));
+        try {
+            Integer acquired = transactionTemplate.execute(status -> {
+                int updated = jdbcTemplate.update(
+                        "UPDATE scheduler_locks SET locked_until = ?, locked_at = ?, locked_by = ? " +
+                        "WHERE name = ? AND locked_until <= ?",
+                        until, nowTs, owner, name, nowTs);
+                if (updated > 0) {
+                    return updated;
+                }
+                Integer exists = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM scheduler_locks WHERE name = ?", Integer.class, name);
+                if (exists != null && exists > 0) {
+                    return 0;
+                }
+                return jdbcTemplate.update(
+                        "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                        name, until, nowTs, owner);
+            });
+            return acquired != null && acquired > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the row first
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to acquire scheduler lock {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Pushes out a lease this node still holds. Returns false if it has
+     * expired or been taken over, in which case the job should stop.
+     */
+    public boolean renew(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Integer renewed = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "UPDATE scheduler_locks SET locked_until = ? " +
+                    "WHERE name = ? AND locked_by = ? AND locked_until > ?",
+                    Timestamp.valueOf(now.plus(lease)), name, owner, Timestamp.valueOf(now)));
+            return renewed != null && renewed > 0;
+        } catch (Exception e) {
+            log.warn("Failed to renew scheduler lock {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ends the lease early, but only if this node still holds it
+     */
+    public void release(String name) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                    Timestamp.valueOf(LocalDateTime.now()), name, owner));
+        } catch (Exception e) {
+            log.warn("Failed to release scheduler lock {}: {}", name, e.getMessage());
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
@@ -3,13 +3,13 @@ package com.itech.itech_backend.modules.shared.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import java.time.Duration;
 import java.util.Base64;
 
 @Service
@@ -37,7 +37,12 @@ public class SmsService {
     @Value("${sms.simulation.enabled:true}")
     private boolean smsSimulationEnabled;
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final OutboundHttp.Integration smsApi;
+
+    public SmsService(OutboundHttp outboundHttp) {
+        // Sends are not idempotent, so no retries
+        this.smsApi = outboundHttp.integration("sms", OutboundHttp.Settings.of(10, Duration.ofSeconds(15)));
+    }
     
     public void sendOtp(String phone, String otp) {
         try {
@@ -101,7 +106,7 @@ public class SmsService {
             
             HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
             
-            restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+            smsApi.execute(() -> smsApi.rest().exchange(url, HttpMethod.POST, request, String.class));
             log.info("✅ SMS OTP sent successfully via Twilio to: {}", phone);
             
         } catch (Exception e) {
@@ -124,7 +129,7 @@ public class SmsService {
             );
             
             HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
-            restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+            smsApi.execute(() -> smsApi.rest().exchange(url, HttpMethod.POST, request, String.class));
             
             log.info("✅ SMS OTP sent successfully via MSG91 to: {}", phone);
             System.out.println("✅ Real SMS sent via MSG91 to: " + phone + " with OTP: " + otp);
@@ -149,7 +154,7 @@ public class SmsService {
             body.add("sender", "TXTSMS");
             
             HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
-            restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+            smsApi.execute(() -> smsApi.rest().exchange(url, HttpMethod.POST, request, String.class));
             
             log.info("✅ SMS OTP sent successfully via Textlocal to: {}", phone);
             System.out.println("✅ Real SMS sent via Textlocal to: " + phone);
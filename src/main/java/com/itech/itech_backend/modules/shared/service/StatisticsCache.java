@@ -0,0 +1,61 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache for dashboard statistics.
+ *
+ * Each subject's counters come from one aggregate query; the result is kept
+ * for a few seconds and dropped when its service writes, so a dashboard load
+ * costs at most one round trip. The TTL bounds staleness from writes made on
+ * other nodes.
+ */
+@Service
+public class StatisticsCache {
+
+    public enum Subject {
+        COMPANY, VENDOR, EMPLOYEE
+    }
+
+    private final Cache<Subject, Object> cache;
+
+    public StatisticsCache(@Value("${dashboard.statistics.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Cached statistics for the subject, computed by the loader on a miss.
+     * Concurrent misses share a single load. Each subject must always be
+     * loaded as the same (immutable) type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Subject subject, Supplier<T> loader) {
+        return (T) cache.get(subject, key -> loader.get());
+    }
+
+    /**
+     * Drops the subject's statistics, after the current transaction commits if there is one
+     */
+    public void invalidate(Subject subject) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(subject);
+                }
+            });
+        } else {
+            cache.invalidate(subject);
+        }
+    }
+}
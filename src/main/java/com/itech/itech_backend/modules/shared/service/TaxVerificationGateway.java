@@ -0,0 +1,240 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult.Kind;
+import com.itech.itech_backend.modules.shared.repository.TaxVerificationResultRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs GST/PAN verification API calls off the common pool.
+ *
+ * Calls execute on a small bounded executor; when its queue is full the
+ * submitting thread runs the call itself, which throttles bulk imports
+ * instead of piling up requests. Concurrent lookups of the same number share
+ * one in-flight call, and authoritative answers are kept in
+ * tax_verification_results until their TTL so repeat checks skip the API.
+ */
+@Service
+@Slf4j
+public class TaxVerificationGateway {
+
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+
+    /**
+     * Result of one API lookup. Only authoritative answers are cacheable;
+     * fallbacks produced when the API fails must be retried next time.
+     */
+    public record Outcome(Map<String, Object> result, boolean cacheable) {
+
+        public static Outcome authoritative(Map<String, Object> result) {
+            return new Outcome(result, true);
+        }
+
+        public static Outcome fallback(Map<String, Object> result) {
+            return new Outcome(result, false);
+        }
+    }
+
+    private record Key(Kind kind, String number) {
+    }
+
+    private final TaxVerificationResultRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Duration ttl;
+    private final Map<Key, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public TaxVerificationGateway(TaxVerificationResultRepository repository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${tax.verification.threads:4}") int threads,
+                                  @Value("${tax.verification.queue-capacity:100}") int queueCapacity,
+                                  @Value("${tax.verification.cache-ttl-hours:168}") long ttlHours) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "tax-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Canonical form of a GST or PAN number, used as the cache and coalescing key
+     */
+    public static String normalize(String number) {
+        return number == null ? null : number.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Verification result for one number: from the cache when fresh, otherwise
+     * from the verifier, sharing any identical call already in flight.
+     */
+    public CompletableFuture<Map<String, Object>> verify(Kind kind, String number,
+                                                         Function<String, Outcome> verifier) {
+        return submit(new Key(kind, normalize(number)), verifier, true).thenApply(HashMap::new);
+    }
+
+    /**
+     * Results for many numbers keyed by normalized number, for bulk imports.
+     * Duplicates are verified once and cached results are read in one query.
+     */
+    public CompletableFuture<Map<String, Map<String, Object>>> verifyAll(Kind kind, Collection<String> numbers,
+                                                                       Function<String, Outcome> verifier) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String number : numbers) {
+            if (number != null && !number.isBlank()) {
+                distinct.add(normalize(number));
+            }
+        }
+        if (distinct.isEmpty()) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+
+        Map<String, Map<String, Object>> cached = new HashMap<>();
+        for (TaxVerificationResult row : repository.findFresh(kind, distinct, LocalDateTime.now())) {
+            Map<String, Object> result = read(row);
+            if (result != null) {
+                cached.put(row.getNumber(), result);
+            }
+        }
+
+        Map<String, CompletableFuture<Map<String, Object>>> futures = new LinkedHashMap<>();
+        for (String number : distinct) {
+            Map<String, Object> hit = cached.get(number);
+            futures.put(number, hit != null
+                    ? CompletableFuture.completedFuture(hit)
+                    : submit(new Key(kind, number), verifier, false));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+                    futures.forEach((number, future) -> results.put(number, new HashMap<>(future.join())));
+                    return results;
+                });
+    }
+
+    @Scheduled(cron = "${tax.verification.purge-cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired tax verification results", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Map<String, Object>> submit(Key key, Function<String, Outcome> verifier,
+                                                          boolean checkCache) {
+        CompletableFuture<Map<String, Object>> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                Map<String, Object> result = null;
+                Throwable failure = null;
+                try {
+                    result = load(key, verifier, checkCache);
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                // Unregister before completing, so a caller woken by this result starts a fresh lookup
+                inFlight.remove(key, future);
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Map<String, Object> load(Key key, Function<String, Outcome> verifier, boolean checkCache) {
+        LocalDateTime now = LocalDateTime.now();
+        if (checkCache) {
+            Map<String, Object> cached = repository.findByKindAndNumber(key.kind(), key.number())
+                    .filter(row -> row.getExpiresAt().isAfter(now))
+                    .map(this::read)
+                    .orElse(null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Outcome outcome = verifier.apply(key.number());
+        if (outcome.cacheable()) {
+            store(key, outcome.result(), now);
+        }
+        return outcome.result();
+    }
+
+    private void store(Key key, Map<String, Object> result, LocalDateTime now) {
+        try {
+            TaxVerificationResult row = repository.findByKindAndNumber(key.kind(), key.number())
+                    .orElseGet(() -> TaxVerificationResult.builder().kind(key.kind()).number(key.number()).build());
+            row.setResultJson(objectMapper.writeValueAsString(result));
+            row.setVerifiedAt(now);
+            row.setExpiresAt(now.plus(ttl));
+            repository.save(row);
+        } catch (DataIntegrityViolationException e) {
+            // Another node cached the same number first; its answer is as good as ours
+            log.debug("Tax verification result for {} {} already cached", key.kind(), key.number());
+        } catch (Exception e) {
+            log.warn("Failed to cache tax verification result for {} {}: {}", key.kind(), key.number(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> read(TaxVerificationResult row) {
+        try {
+            return objectMapper.readValue(row.getResultJson(), RESULT_TYPE);
+        } catch (Exception e) {
+            log.warn("Discarding unreadable tax verification result {}: {}", row.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
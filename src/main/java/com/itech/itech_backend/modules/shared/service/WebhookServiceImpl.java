@@ -4,6 +4,7 @@ import com.itech.itech_backend.modules.payment.model.*;
 import com.itech.itech_backend.modules.vendor.model.*;
 import com.itech.itech_backend.modules.payment.repository.RefundRepository;
 import com.itech.itech_backend.modules.payment.repository.PaymentRepository;
+import com.itech.itech_backend.modules.payment.service.RevenueLedger;
 import com.itech.itech_backend.modules.shared.service.WebhookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class WebhookServiceImpl implements WebhookService {
     private final RefundRepository refundRepository;
     private final PaymentRepository paymentRepository;
     private final TransactionServiceImpl transactionService;
+    private final RevenueLedger revenueLedger;
 
     @Override
     public void processRazorpayWebhook(JSONObject payload) {
@@ -77,6 +79,9 @@ public class WebhookServiceImpl implements WebhookService {
         refund.setStatus(refundStatus);
         refund.setProcessedAt(LocalDateTime.now());
         refundRepository.save(refund);
+        if (refundStatus == Refund.RefundStatus.COMPLETED) {
+            revenueLedger.recordRefund(refund);
+        }
         
         // Update transaction status
         Transaction.TransactionStatus transactionStatus = getTransactionStatusFromRefundStatus(refundStatus);
@@ -109,6 +114,7 @@ public class WebhookServiceImpl implements WebhookService {
         
         // Update transaction status if completed
         if (refundStatus == Refund.RefundStatus.COMPLETED) {
+            revenueLedger.recordRefund(savedRefund);
             transactionService.updateRefundTransactionStatus(savedRefund, Transaction.TransactionStatus.COMPLETED);
         }
     }
@@ -1,16 +1,20 @@
 package com.itech.itech_backend.modules.support.controller;
 
+import com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto;
 import com.itech.itech_backend.modules.shared.dto.ChatMessageDto;
+import com.itech.itech_backend.modules.shared.dto.ConversationSummaryDto;
 import com.itech.itech_backend.modules.support.model.Chat;
 import com.itech.itech_backend.modules.support.model.ChatAttachment;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.support.service.ChatService;
+import com.itech.itech_backend.modules.support.service.ConversationService;
 import com.itech.itech_backend.modules.shared.service.FileUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -20,6 +24,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +140,43 @@ public class ChatController {
         return ResponseEntity.ok(chatHistory);
     }
 
+    // Inbox: one row per conversation, keyset paginated by last activity
+    @GetMapping("/conversations/{userId}")
+    @PreAuthorize("hasRole('USER') or hasRole('VENDOR')")
+    public ResponseEntity<Map<String, Object>> getConversations(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ConversationSummaryDto> conversations = chatService.getConversations(userId, before, beforeId, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("conversations", conversations);
+        // The service caps the page size, so a full page is judged against the cap
+        if (conversations.size() >= ConversationService.pageSize(limit)) {
+            ConversationSummaryDto last = conversations.get(conversations.size() - 1);
+            response.put("nextBefore", last.getLastActivityAt());
+            response.put("nextBeforeId", last.getConversationId());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Thread view: messages older than beforeId, newest first
+    @GetMapping("/conversation/{userId}/{partnerId}/messages")
+    @PreAuthorize("hasRole('USER') or hasRole('VENDOR')")
+    public ResponseEntity<Map<String, Object>> getConversationMessages(
+            @PathVariable Long userId,
+            @PathVariable Long partnerId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "30") int limit) {
+        List<ChatHistoryItemDto> messages = chatService.getMessagesBefore(userId, partnerId, beforeId, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("messages", messages);
+        if (messages.size() >= ConversationService.pageSize(limit)) {
+            response.put("nextBeforeId", messages.get(messages.size() - 1).getId());
+        }
+        return ResponseEntity.ok(response);
+    }
+
     // Get recent chats for user
     @GetMapping("/recent/{userId}")
     @PreAuthorize("hasRole('USER') or hasRole('VENDOR')")
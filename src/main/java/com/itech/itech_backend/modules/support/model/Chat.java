@@ -9,7 +9,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chats")
+@Table(name = "chats", indexes = {
+    @Index(name = "idx_chats_conversation", columnList = "conversation_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +35,10 @@ public class Chat {
     @JoinColumn(name = "inquiry_id")
     private Inquiry inquiry;
 
+    // Denormalised pair key so thread history is a single indexed range scan
+    @Column(name = "conversation_id")
+    private Long conversationId;
+
     @Column(columnDefinition = "TEXT")
     private String message;
 
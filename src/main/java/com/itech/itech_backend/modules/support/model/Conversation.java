@@ -0,0 +1,72 @@
+package com.itech.itech_backend.modules.support.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per pair of chat participants, kept current on every send and read
+ * so inbox views never have to scan the chats table.
+ * Participants are stored ordered (userLowId < userHighId) so the pair is unique.
+ */
+@Entity
+@Table(name = "conversations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_conversation_pair", columnNames = {"user_low_id", "user_high_id"}),
+       indexes = {
+           @Index(name = "idx_conversation_low_activity", columnList = "user_low_id, last_activity_at"),
+           @Index(name = "idx_conversation_high_activity", columnList = "user_high_id, last_activity_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_low_id", nullable = false)
+    private Long userLowId;
+
+    @Column(name = "user_high_id", nullable = false)
+    private Long userHighId;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    @Column(name = "unread_low", nullable = false)
+    @Builder.Default
+    private int unreadLow = 0;
+
+    @Column(name = "unread_high", nullable = false)
+    @Builder.Default
+    private int unreadHigh = 0;
+
+    @Column(name = "message_count", nullable = false)
+    @Builder.Default
+    private long messageCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getPartnerId(Long userId) {
+        return userId.equals(userLowId) ? userHighId : userLowId;
+    }
+
+    public int getUnreadFor(Long userId) {
+        return userId.equals(userLowId) ? unreadLow : unreadHigh;
+    }
+}
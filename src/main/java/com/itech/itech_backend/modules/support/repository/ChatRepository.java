@@ -1,14 +1,18 @@
 package com.itech.itech_backend.modules.support.repository;
 
+import com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto;
 import com.itech.itech_backend.modules.support.model.Chat;
 import com.itech.itech_backend.modules.core.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -56,5 +60,37 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     Page<Chat> findByReceiverIdOrderByCreatedAtDesc(Long receiverId, Pageable pageable);
     
     Page<Chat> findBySenderIdOrderByCreatedAtDesc(Long senderId, Pageable pageable);
-}
 
+    // Conversation-based access: keyset pages over (conversation_id, id)
+    @Query("SELECT new com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto(" +
+           "c.id, c.sender.id, c.receiver.id, c.message, c.messageType, c.attachmentUrl, c.isRead, c.createdAt) " +
+           "FROM Chat c WHERE c.conversationId = :conversationId AND c.id < :beforeId AND c.isDeleted = false " +
+           "ORDER BY c.id DESC")
+    List<ChatHistoryItemDto> findHistoryBefore(@Param("conversationId") Long conversationId,
+                                               @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Chat c SET c.isRead = true, c.readAt = :now " +
+           "WHERE c.conversationId = :conversationId AND c.receiver.id = :userId AND c.isRead = false")
+    int markConversationRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId,
+                             @Param("now") LocalDateTime now);
+
+    // Attaches messages written before the conversation row existed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Chat c SET c.conversationId = :conversationId WHERE c.conversationId IS NULL AND " +
+           "((c.sender.id = :userId1 AND c.receiver.id = :userId2) OR (c.sender.id = :userId2 AND c.receiver.id = :userId1))")
+    int assignConversation(@Param("conversationId") Long conversationId,
+                           @Param("userId1") Long userId1, @Param("userId2") Long userId2);
+
+    @Query("SELECT COUNT(c), " +
+           "SUM(CASE WHEN c.receiver.id = :lowId AND c.isRead = false THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN c.receiver.id = :highId AND c.isRead = false THEN 1 ELSE 0 END), " +
+           "MAX(c.id) FROM Chat c WHERE c.conversationId = :conversationId")
+    List<Object[]> aggregateConversation(@Param("conversationId") Long conversationId,
+                                         @Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    @Query("SELECT DISTINCT c.sender.id, c.receiver.id FROM Chat c WHERE c.conversationId IS NULL")
+    List<Object[]> findUnassignedPairs(Pageable pageable);
+}
@@ -0,0 +1,87 @@
+package com.itech.itech_backend.modules.support.repository;
+
+import com.itech.itech_backend.modules.support.model.Conversation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    Optional<Conversation> findByUserLowIdAndUserHighId(Long userLowId, Long userHighId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Conversation c WHERE c.id = :id")
+    Optional<Conversation> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT c FROM Conversation c WHERE (c.userLowId = :userId OR c.userHighId = :userId) " +
+           "AND c.lastActivityAt IS NOT NULL ORDER BY c.lastActivityAt DESC, c.id DESC")
+    List<Conversation> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset page: conversations strictly older than the (lastActivityAt, id) cursor
+    @Query("SELECT c FROM Conversation c WHERE (c.userLowId = :userId OR c.userHighId = :userId) " +
+           "AND (c.lastActivityAt < :before OR (c.lastActivityAt = :before AND c.id < :beforeId)) " +
+           "ORDER BY c.lastActivityAt DESC, c.id DESC")
+    List<Conversation> findInboxBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT CASE WHEN c.userLowId = :userId THEN c.userHighId ELSE c.userLowId END FROM Conversation c " +
+           "WHERE c.userLowId = :userId OR c.userHighId = :userId ORDER BY c.lastActivityAt DESC")
+    List<Long> findPartnerIds(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.userLowId = :userId THEN c.unreadLow ELSE c.unreadHigh END), 0) " +
+           "FROM Conversation c WHERE c.userLowId = :userId OR c.userHighId = :userId")
+    long sumUnread(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(c.messageCount), 0) FROM Conversation c WHERE c.userLowId = :userId OR c.userHighId = :userId")
+    long sumMessages(@Param("userId") Long userId);
+
+    // Counters move with conditional arithmetic in the database so concurrent sends never lose an increment
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastSenderId = :senderId, " +
+           "c.lastMessagePreview = :preview, c.lastActivityAt = :at, c.messageCount = c.messageCount + 1, " +
+           "c.unreadLow = c.unreadLow + CASE WHEN c.userLowId = :receiverId THEN 1 ELSE 0 END, " +
+           "c.unreadHigh = c.unreadHigh + CASE WHEN c.userHighId = :receiverId THEN 1 ELSE 0 END " +
+           "WHERE c.id = :id")
+    int recordMessage(@Param("id") Long id, @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("receiverId") Long receiverId, @Param("preview") String preview,
+                      @Param("at") LocalDateTime at);
+
+    // Absolute counters from a rebuild; callers hold the row lock so no increment lands in between
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.messageCount = :messageCount, c.unreadLow = :unreadLow, " +
+           "c.unreadHigh = :unreadHigh, c.lastMessageId = :messageId, c.lastSenderId = :senderId, " +
+           "c.lastMessagePreview = :preview, c.lastActivityAt = :at WHERE c.id = :id")
+    int resetCounters(@Param("id") Long id, @Param("messageCount") long messageCount,
+                      @Param("unreadLow") int unreadLow, @Param("unreadHigh") int unreadHigh,
+                      @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("preview") String preview, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.unreadLow = CASE WHEN c.userLowId = :userId THEN 0 ELSE c.unreadLow END, " +
+           "c.unreadHigh = CASE WHEN c.userHighId = :userId THEN 0 ELSE c.unreadHigh END " +
+           "WHERE c.id = :id")
+    int clearUnread(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.messageCount = c.messageCount - 1, " +
+           "c.unreadLow = CASE WHEN c.userLowId = :receiverId AND :unread = true AND c.unreadLow > 0 THEN c.unreadLow - 1 ELSE c.unreadLow END, " +
+           "c.unreadHigh = CASE WHEN c.userHighId = :receiverId AND :unread = true AND c.unreadHigh > 0 THEN c.unreadHigh - 1 ELSE c.unreadHigh END " +
+           "WHERE c.id = :id AND c.messageCount > 0")
+    int recordDeletion(@Param("id") Long id, @Param("receiverId") Long receiverId, @Param("unread") boolean unread);
+}
@@ -1,8 +1,11 @@
 package com.itech.itech_backend.modules.support.service;
 
+import com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto;
 import com.itech.itech_backend.modules.shared.dto.ChatMessageDto;
+import com.itech.itech_backend.modules.shared.dto.ConversationSummaryDto;
 import com.itech.itech_backend.enums.MessageType;
 import com.itech.itech_backend.modules.support.model.Chat;
+import com.itech.itech_backend.modules.support.model.Conversation;
 import com.itech.itech_backend.modules.buyer.model.Inquiry;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
@@ -22,9 +25,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -38,7 +43,9 @@ public class ChatService {
     private final ChatAttachmentRepository chatAttachmentRepository;
     private final FileUploadService fileUploadService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationService conversationService;
 
+    @Transactional
     public Chat sendMessage(Long senderId, Long receiverId, String message, Long inquiryId) {
         Optional<User> sender = userRepository.findById(senderId);
         Optional<User> receiver = userRepository.findById(receiverId);
@@ -47,9 +54,11 @@ public class ChatService {
             throw new IllegalArgumentException("Sender or Receiver not found");
         }
 
+        Conversation conversation = conversationService.getOrCreate(senderId, receiverId);
         Chat chat = Chat.builder()
                 .sender(sender.get())
                 .receiver(receiver.get())
+                .conversationId(conversation.getId())
                 .message(message)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -60,6 +69,7 @@ public class ChatService {
         }
 
         Chat savedChat = chatRepository.save(chat);
+        conversationService.recordMessage(savedChat);
 
         // Send real-time message via WebSocket
         messagingTemplate.convertAndSendToUser(
@@ -79,23 +89,35 @@ public class ChatService {
         return chatRepository.findByInquiryId(inquiryId);
     }
 
+    @Transactional
     public void markMessagesAsRead(Long userId, Long partnerId) {
-        List<Chat> unreadMessages = chatRepository.findUnreadMessages(userId);
-        for (Chat chat : unreadMessages) {
-            if (chat.getSender().getId().equals(partnerId)) {
-                chat.setRead(true);
-                chat.setReadAt(LocalDateTime.now());
-                chatRepository.save(chat);
-            }
-        }
+        conversationService.markRead(userId, partnerId);
     }
 
     public long getUnreadMessageCount(Long userId) {
-        return chatRepository.countUnreadMessages(userId);
+        return conversationService.getUnreadCount(userId);
     }
 
     public List<User> getChatPartners(Long userId) {
-        return chatRepository.findChatPartners(userId);
+        List<Long> partnerIds = conversationService.getPartnerIds(userId);
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(partnerIds).forEach(user -> users.put(user.getId(), user));
+        // Keep most-recent-activity order from the conversations table
+        return partnerIds.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Inbox page for a user, newest activity first (keyset cursor: before + beforeId)
+     */
+    public List<ConversationSummaryDto> getConversations(Long userId, LocalDateTime before, Long beforeId, int limit) {
+        return conversationService.getInbox(userId, before, beforeId, limit);
+    }
+
+    /**
+     * Thread page between two users, newest first: messages older than beforeId
+     */
+    public List<ChatHistoryItemDto> getMessagesBefore(Long userId, Long partnerId, Long beforeId, int limit) {
+        return conversationService.getMessages(userId, partnerId, beforeId, limit);
     }
 
     @Transactional
@@ -106,9 +128,11 @@ public class ChatService {
             User receiver = userRepository.findById(messageDto.getReceiverId())
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
+            Conversation conversation = conversationService.getOrCreate(sender.getId(), receiver.getId());
             Chat chat = Chat.builder()
                 .sender(sender)
                 .receiver(receiver)
+                .conversationId(conversation.getId())
                 .message(messageDto.getMessage())
                 .messageType(messageDto.getMessageType() != null ? 
                     MessageType.valueOf(messageDto.getMessageType().toUpperCase()) : 
@@ -124,6 +148,7 @@ public class ChatService {
             }
 
             Chat savedChat = chatRepository.save(chat);
+            conversationService.recordMessage(savedChat);
 
             // Send real-time notification
             sendRealTimeMessage(savedChat);
@@ -141,20 +166,24 @@ public class ChatService {
         return chatRepository.findChatHistoryBetweenUsers(userId1, userId2, pageable);
     }
 
+    /**
+     * Latest message of each of the user's most recent conversations
+     */
     public List<Chat> getRecentChats(Long userId, int limit) {
-        return chatRepository.findRecentChatsByUser(userId, limit);
+        List<Long> lastMessageIds = conversationService.getInbox(userId, null, null, limit).stream()
+            .map(ConversationSummaryDto::getLastMessageId)
+            .filter(Objects::nonNull)
+            .toList();
+        return chatRepository.findAllById(lastMessageIds).stream()
+            .sorted(Comparator.comparing(Chat::getCreatedAt).reversed())
+            .toList();
     }
 
     @Transactional
     public void markConversationAsRead(Long userId, Long partnerId) {
         try {
-            List<Chat> unreadMessages = chatRepository.findUnreadMessagesBetweenUsers(userId, partnerId);
-            for (Chat chat : unreadMessages) {
-                chat.setRead(true);
-                chat.setReadAt(LocalDateTime.now());
-            }
-            chatRepository.saveAll(unreadMessages);
-            log.info("Marked {} messages as read between users {} and {}", unreadMessages.size(), userId, partnerId);
+            int updated = conversationService.markRead(userId, partnerId);
+            log.info("Marked {} messages as read between users {} and {}", updated, userId, partnerId);
         } catch (Exception e) {
             log.error("Error marking messages as read", e);
             throw new RuntimeException("Failed to mark messages as read: " + e.getMessage());
@@ -164,7 +193,7 @@ public class ChatService {
     public Map<String, Object> getChatSummary(Long userId) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("unreadCount", getUnreadMessageCount(userId));
-        summary.put("totalChats", chatRepository.countChatsByUser(userId));
+        summary.put("totalChats", conversationService.getMessageCount(userId));
         summary.put("recentPartners", getChatPartners(userId));
         return summary;
     }
@@ -180,6 +209,7 @@ public class ChatService {
             }
             
             chatRepository.delete(chat);
+            conversationService.recordDeletion(chat);
             log.info("Message {} deleted by user {}", messageId, userId);
             return true;
         } catch (Exception e) {
@@ -220,6 +250,7 @@ public class ChatService {
             .messageTypeEnum(chat.getMessageType())
             .messageType(chat.getMessageType() != null ? chat.getMessageType().name() : null)
             .inquiryId(chat.getInquiry() != null ? chat.getInquiry().getId() : null)
+            .conversationId(chat.getConversationId())
             .isRead(chat.isRead())
             .createdAt(chat.getCreatedAt())
             .readAt(chat.getReadAt())
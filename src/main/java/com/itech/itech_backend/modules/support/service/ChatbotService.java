@@ -8,14 +8,13 @@ import com.itech.itech_backend.modules.shared.repository.*;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.buyer.model.Category;
-import com.itech.itech_backend.modules.vendor.model.VendorRanking;
 import com.itech.itech_backend.modules.support.model.ChatbotMessage;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.support.repository.ChatbotMessageRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
-import com.itech.itech_backend.modules.vendor.repository.VendorRankingRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
 import com.itech.itech_backend.modules.shared.service.OpenAiService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +32,7 @@ public class ChatbotService {
     private final UserRepository userRepository;
     private final BuyerProductRepository productRepository;
     private final BuyerCategoryRepository categoryRepository;
-    private final VendorRankingRepository vendorRankingRepository;
+    private final VendorRankingEngine vendorRankingEngine;
     private final OpenAiService openAiService;
 
     public ChatbotResponseDto processMessage(ChatbotRequestDto request) {
@@ -236,9 +235,7 @@ public class ChatbotService {
                 .collect(Collectors.toList());
         
         // Get performance score
-        Double performanceScore = vendorRankingRepository.findByVendorId(vendor.getId())
-                .map(VendorRanking::getPerformanceScore)
-                .orElse(0.0);
+        Double performanceScore = vendorRankingEngine.getScore(vendor.getId());
         
         // Generate recommendation reason
         String reason = generateRecommendationReason(vendor, vendorProducts.size(), categories.size());
@@ -295,12 +292,9 @@ public class ChatbotService {
         }
         
         // Second priority: Performance score
-        Double score1 = vendorRankingRepository.findByVendorId(v1.getId())
-                .map(VendorRanking::getPerformanceScore)
-                .orElse(0.0);
-        Double score2 = vendorRankingRepository.findByVendorId(v2.getId())
-                .map(VendorRanking::getPerformanceScore)
-                .orElse(0.0);
+        // Served from memory: this comparator runs O(n log n) times per sort
+        double score1 = vendorRankingEngine.getScore(v1.getId());
+        double score2 = vendorRankingEngine.getScore(v2.getId());
         
         return Double.compare(score2, score1); // Higher score first
     }
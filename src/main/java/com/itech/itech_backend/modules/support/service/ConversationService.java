@@ -0,0 +1,224 @@
+package com.itech.itech_backend.modules.support.service;
+
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto;
+import com.itech.itech_backend.modules.shared.dto.ConversationSummaryDto;
+import com.itech.itech_backend.modules.support.model.Chat;
+import com.itech.itech_backend.modules.support.model.Conversation;
+import com.itech.itech_backend.modules.support.repository.ChatRepository;
+import com.itech.itech_backend.modules.support.repository.ConversationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the conversations table (last message, activity time and
+ * per-participant unread counters) and serves inbox and thread pages from it.
+ */
+@Service
+@Slf4j
+public class ConversationService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final ConversationRepository conversationRepository;
+    private final ChatRepository chatRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate requiresNew;
+
+    public ConversationService(ConversationRepository conversationRepository,
+                               ChatRepository chatRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.conversationRepository = conversationRepository;
+        this.chatRepository = chatRepository;
+        this.userRepository = userRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Conversation getOrCreate(Long userId1, Long userId2) {
+        Long low = Math.min(userId1, userId2);
+        Long high = Math.max(userId1, userId2);
+        return conversationRepository.findByUserLowIdAndUserHighId(low, high)
+                .orElseGet(() -> create(low, high));
+    }
+
+    /**
+     * Creates the row in its own transaction so a concurrent insert for the same
+     * pair only costs a re-read, and adopts any messages sent before it existed.
+     */
+    private Conversation create(Long low, Long high) {
+        try {
+            return requiresNew.execute(status -> {
+                Conversation conversation = conversationRepository.save(Conversation.builder()
+                        .userLowId(low)
+                        .userHighId(high)
+                        .build());
+                if (chatRepository.assignConversation(conversation.getId(), low, high) > 0) {
+                    rebuildCounters(conversation.getId());
+                }
+                return conversation;
+            });
+        } catch (DataIntegrityViolationException e) {
+            return conversationRepository.findByUserLowIdAndUserHighId(low, high)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Recomputes counters with the conversation row locked: sends that already
+     * counted have committed and later ones wait, then add to the rebuilt totals.
+     */
+    private void rebuildCounters(Long conversationId) {
+        Conversation conversation = conversationRepository.findByIdForUpdate(conversationId).orElse(null);
+        if (conversation == null) {
+            return;
+        }
+        List<Object[]> rows = chatRepository.aggregateConversation(
+                conversationId, conversation.getUserLowId(), conversation.getUserHighId());
+        if (rows.isEmpty() || rows.get(0)[3] == null) {
+            return;
+        }
+        Object[] row = rows.get(0);
+        Chat last = chatRepository.findById(((Number) row[3]).longValue()).orElse(null);
+        if (last == null) {
+            return;
+        }
+        conversationRepository.resetCounters(conversationId, ((Number) row[0]).longValue(),
+                row[1] != null ? ((Number) row[1]).intValue() : 0,
+                row[2] != null ? ((Number) row[2]).intValue() : 0,
+                last.getId(), last.getSenderId(), preview(last.getMessage()), last.getCreatedAt());
+    }
+
+    /**
+     * Called after a message has been saved with its conversationId set
+     */
+    public void recordMessage(Chat chat) {
+        conversationRepository.recordMessage(chat.getConversationId(), chat.getId(), chat.getSenderId(),
+                chat.getReceiverId(), preview(chat.getMessage()), chat.getCreatedAt());
+    }
+
+    public void recordDeletion(Chat chat) {
+        if (chat.getConversationId() != null) {
+            conversationRepository.recordDeletion(chat.getConversationId(), chat.getReceiverId(), !chat.isRead());
+        }
+    }
+
+    public int markRead(Long userId, Long partnerId) {
+        Conversation conversation = getOrCreate(userId, partnerId);
+        int updated = chatRepository.markConversationRead(conversation.getId(), userId, LocalDateTime.now());
+        conversationRepository.clearUnread(conversation.getId(), userId);
+        return updated;
+    }
+
+    /**
+     * Inbox page, newest activity first. Pass the last row's lastActivityAt and
+     * conversationId as the cursor for the next page.
+     */
+    public List<ConversationSummaryDto> getInbox(Long userId, LocalDateTime before, Long beforeId, int limit) {
+        PageRequest page = PageRequest.of(0, pageSize(limit));
+        List<Conversation> conversations = before != null && beforeId != null
+                ? conversationRepository.findInboxBefore(userId, before, beforeId, page)
+                : conversationRepository.findInbox(userId, page);
+        if (conversations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : userRepository.findNamesByIds(
+                conversations.stream().map(c -> c.getPartnerId(userId)).toList())) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+
+        return conversations.stream()
+                .map(c -> ConversationSummaryDto.builder()
+                        .conversationId(c.getId())
+                        .partnerId(c.getPartnerId(userId))
+                        .partnerName(names.get(c.getPartnerId(userId)))
+                        .lastMessageId(c.getLastMessageId())
+                        .lastSenderId(c.getLastSenderId())
+                        .lastMessagePreview(c.getLastMessagePreview())
+                        .lastActivityAt(c.getLastActivityAt())
+                        .unreadCount(c.getUnreadFor(userId))
+                        .messageCount(c.getMessageCount())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Thread page, newest first: messages with id below beforeId (or the latest when null)
+     */
+    public List<ChatHistoryItemDto> getMessages(Long userId, Long partnerId, Long beforeId, int limit) {
+        Long low = Math.min(userId, partnerId);
+        Long high = Math.max(userId, partnerId);
+        return conversationRepository.findByUserLowIdAndUserHighId(low, high)
+                .map(c -> chatRepository.findHistoryBefore(c.getId(),
+                        beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, pageSize(limit))))
+                .orElse(Collections.emptyList());
+    }
+
+    public List<Long> getPartnerIds(Long userId) {
+        return conversationRepository.findPartnerIds(userId);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return conversationRepository.sumUnread(userId);
+    }
+
+    public long getMessageCount(Long userId) {
+        return conversationRepository.sumMessages(userId);
+    }
+
+    /**
+     * Adopts chats written before conversations existed, a batch of pairs at a time
+     */
+    @Scheduled(fixedDelayString = "${chat.conversation.backfill-interval-ms:300000}", initialDelay = 60000)
+    public void backfillLegacyChats() {
+        List<Object[]> pairs = chatRepository.findUnassignedPairs(PageRequest.of(0, 200));
+        for (Object[] pair : pairs) {
+            try {
+                Long a = (Long) pair[0];
+                Long b = (Long) pair[1];
+                Conversation conversation = getOrCreate(a, b);
+                // Row existed already but these messages slipped in without an id
+                requiresNew.executeWithoutResult(status -> {
+                    if (chatRepository.assignConversation(conversation.getId(), a, b) > 0) {
+                        rebuildCounters(conversation.getId());
+                    }
+                });
+            } catch (Exception e) {
+                log.warn("Conversation backfill failed for pair {}-{}: {}", pair[0], pair[1], e.getMessage());
+            }
+        }
+        if (!pairs.isEmpty()) {
+            log.info("Backfilled conversations for {} chat pairs", pairs.size());
+        }
+    }
+
+    /**
+     * The page size actually served for a requested limit
+     */
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static String preview(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > PREVIEW_LENGTH ? message.substring(0, PREVIEW_LENGTH - 1) + "…" : message;
+    }
+}
@@ -0,0 +1,188 @@
+package com.itech.itech_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.config.SubdomainProperties;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable host routing table compiled from {@link SubdomainProperties}.
+ *
+ * Hosts of configured subdomains, on the base domain and the dev domain, are
+ * answered from an exact-match map. Any other host is matched against a trie
+ * of wildcard suffixes (*.base-domain and *.dev-host) keyed by domain label
+ * from the right; its first remaining label is the subdomain. Each route
+ * carries the subdomain's validity, configuration and CORS origins, built
+ * once. Routes found through the trie are cached per host.
+ */
+public final class SubdomainRoutingTable {
+
+    private static final Pattern SUBDOMAIN_PATTERN = Pattern.compile("^[a-z0-9]([a-z0-9-]{0,61}[a-z0-9])?$");
+    private static final String DEV_ORIGIN = "http://localhost:3000";
+
+    /**
+     * Where a host routes to. A null subdomain means the host has none.
+     */
+    public record Route(String subdomain, boolean valid, SubdomainProperties.SubdomainConfig config,
+                        String[] corsOrigins, String corsOriginsHeader) {
+
+        public boolean hasSubdomain() {
+            return subdomain != null;
+        }
+    }
+
+    // One domain label of a wildcard suffix; a wildcard node matches any labels to its left
+    private static final class SuffixNode {
+        private final Map<String, SuffixNode> children = new HashMap<>();
+        private boolean wildcard;
+    }
+
+    private final String baseDomain;
+    private final Set<String> reserved;
+    private final Map<String, SubdomainProperties.SubdomainConfig> configs;
+    private final Map<String, Route> exactHosts = new HashMap<>();
+    private final Map<String, Route> configuredRoutes = new HashMap<>();
+    private final SuffixNode suffixes = new SuffixNode();
+    private final Route noSubdomain;
+    private final Cache<String, Route> hostRoutes;
+
+    private SubdomainRoutingTable(SubdomainProperties properties) {
+        this.baseDomain = properties.getBaseDomain().toLowerCase(Locale.ROOT);
+        this.reserved = new HashSet<>();
+        for (String name : properties.getReservedSubdomains()) {
+            reserved.add(name.toLowerCase(Locale.ROOT));
+        }
+        this.configs = new HashMap<>();
+        properties.getSubdomains().forEach((name, config) -> configs.put(name.toLowerCase(Locale.ROOT), config));
+
+        String[] defaultOrigins = {DEV_ORIGIN, "https://" + baseDomain};
+        this.noSubdomain = new Route(null, false, null, defaultOrigins, String.join(", ", defaultOrigins));
+        this.hostRoutes = Caffeine.newBuilder().maximumSize(properties.getMaxCachedHosts()).build();
+
+        String devHost = hostName(properties.getDevDomain());
+        addWildcard(baseDomain);
+        addWildcard(devHost);
+        for (String name : configs.keySet()) {
+            Route route = route(name);
+            configuredRoutes.put(name, route);
+            exactHosts.put(name + "." + baseDomain, route);
+            exactHosts.put(name + "." + devHost, route);
+        }
+        exactHosts.put(baseDomain, noSubdomain);
+        exactHosts.put("www." + baseDomain, noSubdomain);
+    }
+
+    public static SubdomainRoutingTable compile(SubdomainProperties properties) {
+        return new SubdomainRoutingTable(properties);
+    }
+
+    /**
+     * Route for a Host header value, with or without a port
+     */
+    public Route resolve(String host) {
+        if (host == null || host.isBlank()) {
+            return noSubdomain;
+        }
+        String name = hostName(host);
+        Route exact = exactHosts.get(name);
+        if (exact != null) {
+            return exact;
+        }
+        return hostRoutes.get(name, this::match);
+    }
+
+    /**
+     * Route for a subdomain name, whichever host it arrived on
+     */
+    public Route forSubdomain(String subdomain) {
+        if (subdomain == null || subdomain.isBlank()) {
+            return noSubdomain;
+        }
+        String name = subdomain.toLowerCase(Locale.ROOT);
+        Route configured = configuredRoutes.get(name);
+        return configured != null ? configured : route(name);
+    }
+
+    public SubdomainProperties.SubdomainConfig config(String subdomain) {
+        return subdomain == null ? null : configs.get(subdomain.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isReserved(String subdomain) {
+        return reserved.contains(subdomain);
+    }
+
+    public static boolean isWellFormed(String subdomain) {
+        return SUBDOMAIN_PATTERN.matcher(subdomain).matches();
+    }
+
+    public long cachedHosts() {
+        hostRoutes.cleanUp();
+        return hostRoutes.estimatedSize();
+    }
+
+    // Walks the host's labels right to left, keeping the deepest wildcard suffix it passes
+    private Route match(String host) {
+        SuffixNode node = suffixes;
+        int end = host.length();
+        int matchedPrefixEnd = -1;
+        while (end > 0) {
+            int start = host.lastIndexOf('.', end - 1) + 1;
+            node = node.children.get(host.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.wildcard && start > 0) {
+                matchedPrefixEnd = start - 1;
+            }
+            end = start - 1;
+        }
+        if (matchedPrefixEnd <= 0) {
+            return noSubdomain;
+        }
+        int firstDot = host.indexOf('.');
+        String subdomain = host.substring(0, Math.min(firstDot, matchedPrefixEnd));
+        if (subdomain.isEmpty() || subdomain.equals("www")) {
+            return noSubdomain;
+        }
+        Route configured = configuredRoutes.get(subdomain);
+        return configured != null ? configured : route(subdomain);
+    }
+
+    private Route route(String subdomain) {
+        boolean valid = isWellFormed(subdomain) && !reserved.contains(subdomain);
+        String[] origins = {
+            "http://" + subdomain + ".localhost:3000",
+            "https://" + subdomain + ".localhost:3000",
+            "http://" + subdomain + "." + baseDomain,
+            "https://" + subdomain + "." + baseDomain,
+            DEV_ORIGIN,
+            "https://" + baseDomain
+        };
+        return new Route(subdomain, valid, configs.get(subdomain), origins, String.join(", ", origins));
+    }
+
+    private void addWildcard(String suffix) {
+        SuffixNode node = suffixes;
+        String[] labels = suffix.split("\\.");
+        for (int i = labels.length - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(labels[i], label -> new SuffixNode());
+        }
+        node.wildcard = true;
+    }
+
+    // Lower-cased host without its port; IPv6 literals keep their brackets
+    private static String hostName(String host) {
+        String name = host.trim().toLowerCase(Locale.ROOT);
+        int colon = name.lastIndexOf(':');
+        if (colon > name.lastIndexOf(']')) {
+            name = name.substring(0, colon);
+        }
+        return name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+    }
+}
@@ -1,88 +1,41 @@
 package com.itech.itech_backend.service;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.itech.itech_backend.config.SubdomainProperties;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SubdomainService {
 
     private final SubdomainProperties subdomainProperties;
-    
-    // Pattern for valid subdomain names
-    private static final Pattern SUBDOMAIN_PATTERN = Pattern.compile("^[a-z0-9]([a-z0-9-]{0,61}[a-z0-9])?$");
-    
-    /**
-     * Extract subdomain from HTTP request
-     */
-    public Optional<String> extractSubdomain(HttpServletRequest request) {
-        String host = getHostFromRequest(request);
-        
-        if (!StringUtils.hasText(host)) {
-            return Optional.empty();
-        }
-        
-        // Handle localhost for development
-        if (host.startsWith("localhost") || host.startsWith("127.0.0.1")) {
-            return extractDevSubdomain(host);
-        }
-        
-        return extractProdSubdomain(host);
+    private volatile SubdomainRoutingTable routingTable;
+
+    public SubdomainService(SubdomainProperties subdomainProperties) {
+        this.subdomainProperties = subdomainProperties;
+        this.routingTable = SubdomainRoutingTable.compile(subdomainProperties);
     }
-    
+
     /**
-     * Extract subdomain from development environment
+     * Recompiles the routing table from the current subdomain properties,
+     * dropping every cached host
      */
-    private Optional<String> extractDevSubdomain(String host) {
-        // For development, we can use different approaches:
-        // 1. vendor.localhost:3000
-        // 2. localhost:3000/vendor (handled by frontend routing)
-        // 3. vendor-localhost:3000
-        
-        if (host.contains(".localhost")) {
-            String[] parts = host.split("\\.");
-            if (parts.length >= 2 && !parts[0].equals("www")) {
-                String subdomain = parts[0].toLowerCase();
-                log.debug("🔍 Dev subdomain extracted: {}", subdomain);
-                return Optional.of(subdomain);
-            }
-        }
-        
-        return Optional.empty();
+    public void reload() {
+        routingTable = SubdomainRoutingTable.compile(subdomainProperties);
+        log.info("🌐 Subdomain routing table reloaded: {} configured subdomains",
+            subdomainProperties.getSubdomains().size());
     }
     
     /**
-     * Extract subdomain from production environment
+     * Extract subdomain from HTTP request
      */
-    private Optional<String> extractProdSubdomain(String host) {
-        String baseDomain = subdomainProperties.getBaseDomain();
-        
-        if (host.endsWith("." + baseDomain)) {
-            String potentialSubdomain = host.substring(0, host.length() - baseDomain.length() - 1);
-            
-            // Handle multi-level subdomains (take the first part)
-            if (potentialSubdomain.contains(".")) {
-                potentialSubdomain = potentialSubdomain.substring(0, potentialSubdomain.indexOf("."));
-            }
-            
-            potentialSubdomain = potentialSubdomain.toLowerCase();
-            
-            // Skip www and empty subdomains
-            if (!potentialSubdomain.equals("www") && !potentialSubdomain.isEmpty()) {
-                log.debug("🔍 Prod subdomain extracted: {}", potentialSubdomain);
-                return Optional.of(potentialSubdomain);
-            }
-        }
-        
-        return Optional.empty();
+    public Optional<String> extractSubdomain(HttpServletRequest request) {
+        return Optional.ofNullable(routingTable.resolve(getHostFromRequest(request)).subdomain());
     }
     
     /**
@@ -93,7 +46,8 @@ public class SubdomainService {
         String forwardedHost = request.getHeader("X-Forwarded-Host");
         if (StringUtils.hasText(forwardedHost)) {
             // Take the first host if multiple
-            return forwardedHost.split(",")[0].trim();
+            int comma = forwardedHost.indexOf(',');
+            return (comma < 0 ? forwardedHost : forwardedHost.substring(0, comma)).trim();
         }
         
         // Check for original host
@@ -117,13 +71,13 @@ public class SubdomainService {
         subdomain = subdomain.toLowerCase();
         
         // Check if subdomain matches pattern
-        if (!SUBDOMAIN_PATTERN.matcher(subdomain).matches()) {
+        if (!SubdomainRoutingTable.isWellFormed(subdomain)) {
             log.warn("⚠️ Invalid subdomain pattern: {}", subdomain);
             return false;
         }
         
         // Check if subdomain is reserved
-        if (subdomainProperties.getReservedSubdomains().contains(subdomain)) {
+        if (routingTable.isReserved(subdomain)) {
             log.warn("⚠️ Reserved subdomain attempted: {}", subdomain);
             return false;
         }
@@ -139,7 +93,7 @@ public class SubdomainService {
             return Optional.empty();
         }
         
-        return Optional.ofNullable(subdomainProperties.getSubdomains().get(subdomain.toLowerCase()));
+        return Optional.ofNullable(routingTable.config(subdomain));
     }
     
     /**
@@ -153,35 +107,23 @@ public class SubdomainService {
      * Generate CORS origins for subdomain
      */
     public String[] generateCorsOrigins(String subdomain) {
-        if (!StringUtils.hasText(subdomain)) {
-            return new String[]{"http://localhost:3000", "https://" + subdomainProperties.getBaseDomain()};
-        }
-        
-        String baseDomain = subdomainProperties.getBaseDomain();
-        String devDomain = subdomainProperties.getDevDomain();
-        
-        return new String[]{
-            "http://" + subdomain + ".localhost:3000",
-            "https://" + subdomain + ".localhost:3000", 
-            "http://" + subdomain + "." + baseDomain,
-            "https://" + subdomain + "." + baseDomain,
-            "http://localhost:3000",
-            "https://" + baseDomain
-        };
+        return routingTable.forSubdomain(subdomain).corsOrigins().clone();
     }
     
     /**
      * Get subdomain context information
      */
     public SubdomainContext getSubdomainContext(HttpServletRequest request) {
-        Optional<String> subdomain = extractSubdomain(request);
+        String host = getHostFromRequest(request);
+        SubdomainRoutingTable.Route route = routingTable.resolve(host);
         
         SubdomainContext context = new SubdomainContext();
-        context.setSubdomain(subdomain.orElse(null));
-        context.setHasSubdomain(subdomain.isPresent());
-        context.setValid(subdomain.map(this::isValidSubdomain).orElse(false));
-        context.setHost(getHostFromRequest(request));
-        context.setConfig(subdomain.flatMap(this::getSubdomainConfig).orElse(null));
+        context.setSubdomain(route.subdomain());
+        context.setHasSubdomain(route.hasSubdomain());
+        context.setValid(route.valid());
+        context.setHost(host);
+        context.setConfig(route.config());
+        context.setCorsOriginsHeader(route.corsOriginsHeader());
         
         log.debug("🌐 Subdomain context: {}", context);
         
@@ -197,6 +139,8 @@ public class SubdomainService {
         private boolean valid;
         private String host;
         private SubdomainProperties.SubdomainConfig config;
+        @JsonIgnore
+        private String corsOriginsHeader;
         
         // Getters and setters
         public String getSubdomain() { return subdomain; }
@@ -214,6 +158,10 @@ public class SubdomainService {
         public SubdomainProperties.SubdomainConfig getConfig() { return config; }
         public void setConfig(SubdomainProperties.SubdomainConfig config) { this.config = config; }
         
+        // Precomputed by the routing table, joined for the response header
+        public String getCorsOriginsHeader() { return corsOriginsHeader; }
+        public void setCorsOriginsHeader(String corsOriginsHeader) { this.corsOriginsHeader = corsOriginsHeader; }
+        
         @Override
         public String toString() {
             return "SubdomainContext{" +
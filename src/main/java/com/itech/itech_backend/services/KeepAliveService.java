@@ -1,5 +1,6 @@
 package com.itech.itech_backend.services;
 
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,9 +9,9 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -32,10 +33,10 @@ public class KeepAliveService {
     @Value("${app.render.url:https://indiantradebackend.onrender.com}")
     private String renderUrl;
     
-    private final RestTemplate restTemplate;
+    private final OutboundHttp.Integration keepAlivePing;
     
-    public KeepAliveService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public KeepAliveService(OutboundHttp outboundHttp) {
+        this.keepAlivePing = outboundHttp.integration("keep-alive", OutboundHttp.Settings.of(2, Duration.ofSeconds(15)));
     }
     
     @PostConstruct
@@ -65,7 +66,7 @@ public class KeepAliveService {
             
             // Ping the health endpoint
             String healthUrl = renderUrl + "/health";
-            ResponseEntity<String> response = restTemplate.getForEntity(healthUrl, String.class);
+            ResponseEntity<String> response = keepAlivePing.execute(() -> keepAlivePing.rest().getForEntity(healthUrl, String.class));
             
             if (response.getStatusCode().is2xxSuccessful()) {
                 logger.info("Keep-Alive ping successful - Status: {}", response.getStatusCode());
@@ -77,7 +78,7 @@ public class KeepAliveService {
             logger.error("Keep-Alive ping failed: {}", e.getMessage());
             // Try backup ping to root endpoint
             try {
-                ResponseEntity<String> backupResponse = restTemplate.getForEntity(renderUrl, String.class);
+                ResponseEntity<String> backupResponse = keepAlivePing.execute(() -> keepAlivePing.rest().getForEntity(renderUrl, String.class));
                 logger.info("Backup ping successful - Status: {}", backupResponse.getStatusCode());
             } catch (Exception backupException) {
                 logger.error("Backup ping also failed: {}", backupException.getMessage());
@@ -97,7 +98,7 @@ public class KeepAliveService {
         
         try {
             String selfUrl = "http://localhost:" + serverPort + "/health";
-            ResponseEntity<String> response = restTemplate.getForEntity(selfUrl, String.class);
+            ResponseEntity<String> response = keepAlivePing.execute(() -> keepAlivePing.rest().getForEntity(selfUrl, String.class));
             logger.debug("Self-ping successful - Status: {}", response.getStatusCode());
         } catch (Exception e) {
             // Silent fail for self-ping as it's just a backup
@@ -0,0 +1,111 @@
+package com.itech.itech_backend.benchmark;
+
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.service.ProductPriceTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-line pricing cost.
+ *
+ * Compares the compiled table's binary search against resolving the price
+ * straight from the product's break map, which is what every caller did
+ * before the table existed. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.itech.itech_backend.benchmark.ProductPricingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPricingBenchmark {
+
+    private static final int QUANTITIES = 1024;
+
+    private ProductPriceTable table;
+    private Product product;
+    private int[] quantities;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Integer, BigDecimal> breaks = new HashMap<>();
+        BigDecimal price = new BigDecimal("500.00");
+        for (int quantity = 10; quantity <= 5120; quantity *= 2) {
+            price = price.subtract(new BigDecimal("20.00"));
+            breaks.put(quantity, price);
+        }
+
+        product = new Product();
+        product.setId(1L);
+        product.setUnitPrice(new BigDecimal("500.00"));
+        product.setQuantityBreaks(breaks);
+        product.setGstRate(new BigDecimal("18.00"));
+        product.setBulkDiscountThreshold(1000);
+        product.setBulkDiscountPercentage(new BigDecimal("5"));
+        table = ProductPriceTable.compile(product);
+
+        Random random = new Random(42);
+        quantities = new int[QUANTITIES];
+        for (int i = 0; i < QUANTITIES; i++) {
+            quantities[i] = 1 + random.nextInt(10_000);
+        }
+    }
+
+    private int nextQuantity() {
+        return quantities[next++ & (QUANTITIES - 1)];
+    }
+
+    @Benchmark
+    public long tableUnitPrice() {
+        return table.unitPaise(nextQuantity());
+    }
+
+    @Benchmark
+    public ProductPriceTable.LinePrice tableLinePrice() {
+        return table.price(nextQuantity());
+    }
+
+    @Benchmark
+    public BigDecimal breakMapLinePrice() {
+        int quantity = nextQuantity();
+        BigDecimal unit = product.getUnitPrice();
+        Map.Entry<Integer, BigDecimal> tier = new TreeMap<>(product.getQuantityBreaks()).floorEntry(quantity);
+        if (tier != null) {
+            unit = tier.getValue();
+        }
+        if (quantity >= product.getBulkDiscountThreshold()) {
+            unit = unit.multiply(BigDecimal.valueOf(100).subtract(product.getBulkDiscountPercentage()))
+                    .divide(BigDecimal.valueOf(100));
+        }
+        BigDecimal net = unit.multiply(BigDecimal.valueOf(quantity));
+        return net.add(net.multiply(product.getGstRate()).divide(BigDecimal.valueOf(100)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
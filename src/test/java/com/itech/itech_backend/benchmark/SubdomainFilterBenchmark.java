@@ -0,0 +1,157 @@
+package com.itech.itech_backend.benchmark;
+
+import com.itech.itech_backend.config.SubdomainProperties;
+import com.itech.itech_backend.middleware.SubdomainMiddleware;
+import com.itech.itech_backend.service.SubdomainService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of subdomain routing in the servlet filter.
+ *
+ * Runs requests for configured portals, vendor storefronts and bare hosts
+ * through SubdomainMiddleware, and compares resolving the host with parsing
+ * it, scanning the properties and joining fresh CORS origins per request,
+ * which is what the filter did before the routing table existed. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.itech.itech_backend.benchmark.SubdomainFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubdomainFilterBenchmark {
+
+    private static final String[] HOSTS = {
+        "vendor.example.com",
+        "admin.example.com:443",
+        "acme-traders.example.com",
+        "shop.acme-traders.example.com",
+        "www.example.com",
+        "example.com",
+        "vendor.localhost:3000",
+        "api.partner.org"
+    };
+
+    private SubdomainProperties properties;
+    private SubdomainService subdomainService;
+    private SubdomainMiddleware middleware;
+    private MockHttpServletRequest[] requests;
+    private final FilterChain chain = (request, response) -> { };
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        properties = new SubdomainProperties();
+        properties.setBaseDomain("example.com");
+        properties.setReservedSubdomains(List.of("admin", "api", "mail", "static"));
+        SubdomainProperties.SubdomainConfig vendor = new SubdomainProperties.SubdomainConfig();
+        vendor.setName("vendor");
+        SubdomainProperties.SubdomainConfig support = new SubdomainProperties.SubdomainConfig();
+        support.setName("support");
+        properties.setSubdomains(Map.of("vendor", vendor, "support", support));
+
+        subdomainService = new SubdomainService(properties);
+        middleware = new SubdomainMiddleware(subdomainService);
+        requests = new MockHttpServletRequest[HOSTS.length];
+        for (int i = 0; i < HOSTS.length; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/api/products");
+            requests[i].addHeader("Host", HOSTS[i]);
+        }
+    }
+
+    private MockHttpServletRequest nextRequest() {
+        return requests[next++ & 7];
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        // Invalid subdomains get an error body, so each request needs its own response
+        MockHttpServletRequest request = nextRequest();
+        middleware.doFilter(request, new MockHttpServletResponse(), chain);
+        return request.getAttribute("subdomainContext");
+    }
+
+    @Benchmark
+    public SubdomainService.SubdomainContext routingTableContext() {
+        return subdomainService.getSubdomainContext(nextRequest());
+    }
+
+    @Benchmark
+    public void parsedContextAndOrigins(Blackhole blackhole) {
+        String host = nextRequest().getHeader("Host");
+        String subdomain = parseSubdomain(host);
+        if (subdomain == null) {
+            return;
+        }
+        boolean valid = subdomain.matches("^[a-z0-9]([a-z0-9-]{0,61}[a-z0-9])?$")
+                && !properties.getReservedSubdomains().contains(subdomain);
+        blackhole.consume(properties.getSubdomains().get(subdomain));
+        if (!valid) {
+            return;
+        }
+        String baseDomain = properties.getBaseDomain();
+        String[] origins = {
+            "http://" + subdomain + ".localhost:3000",
+            "https://" + subdomain + ".localhost:3000",
+            "http://" + subdomain + "." + baseDomain,
+            "https://" + subdomain + "." + baseDomain,
+            "http://localhost:3000",
+            "https://" + baseDomain
+        };
+        blackhole.consume(String.join(", ", origins));
+    }
+
+    // Host parsing as SubdomainService did it before the routing table
+    private String parseSubdomain(String host) {
+        if (host.startsWith("localhost") || host.startsWith("127.0.0.1")) {
+            if (host.contains(".localhost")) {
+                String[] parts = host.split("\\.");
+                if (parts.length >= 2 && !parts[0].equals("www")) {
+                    return parts[0].toLowerCase();
+                }
+            }
+            return null;
+        }
+        String baseDomain = properties.getBaseDomain();
+        if (host.endsWith("." + baseDomain)) {
+            String potential = host.substring(0, host.length() - baseDomain.length() - 1);
+            if (potential.contains(".")) {
+                potential = potential.substring(0, potential.indexOf("."));
+            }
+            potential = potential.toLowerCase();
+            if (!potential.equals("www") && !potential.isEmpty()) {
+                return potential;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SubdomainFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,272 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.dto.ChatHistoryItemDto;
+import com.itech.itech_backend.modules.shared.dto.ConversationSummaryDto;
+import com.itech.itech_backend.modules.shared.service.FileUploadService;
+import com.itech.itech_backend.modules.support.model.Chat;
+import com.itech.itech_backend.modules.support.model.Conversation;
+import com.itech.itech_backend.modules.support.repository.ChatRepository;
+import com.itech.itech_backend.modules.support.repository.ConversationRepository;
+import com.itech.itech_backend.modules.support.service.ChatService;
+import com.itech.itech_backend.modules.support.service.ConversationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chat conversation tests
+ * Walks inbox and thread pages with keyset cursors the way the chat controller
+ * hands them out, and checks the counters rebuilt for legacy chats on H2
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ChatService.class, ConversationService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:chat_conversation;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Chat Conversation Integration Tests")
+public class ChatConversationIntegrationTest {
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @MockitoBean
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private int users;
+
+    @BeforeEach
+    void setUp() {
+        owner = user();
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatRepository.deleteAll();
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should serve an empty inbox and thread without a next cursor")
+    void testEmptyPages() {
+        User stranger = user();
+
+        assertTrue(chatService.getConversations(owner.getId(), null, null, 20).isEmpty());
+        assertTrue(chatService.getMessagesBefore(owner.getId(), stranger.getId(), null, 30).isEmpty());
+        assertEquals(List.of(List.of()), inboxPages(owner.getId(), 20));
+    }
+
+    @Test
+    @DisplayName("Should end with an empty page when the inbox is an exact multiple of the page size")
+    void testInboxExactPageSize() {
+        List<Long> partners = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User partner = user();
+            partners.add(partner.getId());
+            chatService.sendMessage(partner.getId(), owner.getId(), "hello " + i, null);
+        }
+
+        List<List<Long>> pages = inboxPages(owner.getId(), 2);
+
+        assertEquals(3, pages.size());
+        assertEquals(2, pages.get(0).size());
+        assertEquals(2, pages.get(1).size());
+        assertTrue(pages.get(2).isEmpty());
+        assertEquals(partners.reversed(), pages.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    @DisplayName("Should stop after a short last page and visit every conversation once")
+    void testInboxLastPage() {
+        for (int i = 0; i < 5; i++) {
+            chatService.sendMessage(owner.getId(), user().getId(), "quote " + i, null);
+        }
+
+        List<List<Long>> pages = inboxPages(owner.getId(), 2);
+
+        assertEquals(List.of(2, 2, 1), pages.stream().map(List::size).toList());
+        Set<Long> seen = new HashSet<>();
+        pages.forEach(seen::addAll);
+        assertEquals(5, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should page a thread backwards by message id")
+    void testThreadPages() {
+        User partner = user();
+        List<Long> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(chatService.sendMessage(owner.getId(), partner.getId(), "message " + i, null).getId());
+        }
+
+        List<List<Long>> exact = threadPages(owner.getId(), partner.getId(), 5);
+        assertEquals(2, exact.size());
+        assertEquals(sent.reversed(), exact.get(0));
+        assertTrue(exact.get(1).isEmpty());
+
+        List<List<Long>> paged = threadPages(partner.getId(), owner.getId(), 2);
+        assertEquals(List.of(2, 2, 1), paged.stream().map(List::size).toList());
+        assertEquals(sent.reversed(), paged.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    @DisplayName("Should rebuild counters for legacy chats and keep counting new messages")
+    void testBackfillRebuildsCounters() {
+        User partner = user();
+        legacyChat(owner, partner, "one", true);
+        legacyChat(owner, partner, "two", false);
+        legacyChat(owner, partner, "three", false);
+        legacyChat(partner, owner, "four", false);
+        Long lastLegacy = legacyChat(partner, owner, "five", false).getId();
+
+        conversationService.backfillLegacyChats();
+
+        Conversation conversation = conversation(owner, partner);
+        assertEquals(5, conversation.getMessageCount());
+        assertEquals(2, conversation.getUnreadFor(partner.getId()));
+        assertEquals(2, conversation.getUnreadFor(owner.getId()));
+        assertEquals(lastLegacy, conversation.getLastMessageId());
+        assertEquals("five", conversation.getLastMessagePreview());
+
+        chatService.sendMessage(owner.getId(), partner.getId(), "six", null);
+        conversation = conversation(owner, partner);
+        assertEquals(6, conversation.getMessageCount());
+        assertEquals(3, conversation.getUnreadFor(partner.getId()));
+        assertEquals(3, chatService.getUnreadMessageCount(partner.getId()));
+
+        chatService.markMessagesAsRead(partner.getId(), owner.getId());
+        assertEquals(0, conversation(owner, partner).getUnreadFor(partner.getId()));
+    }
+
+    @Test
+    @DisplayName("Should adopt legacy chats when the first new message creates the conversation")
+    void testFirstMessageAdoptsLegacyChats() {
+        User partner = user();
+        legacyChat(partner, owner, "legacy one", false);
+        legacyChat(partner, owner, "legacy two", false);
+
+        chatService.sendMessage(partner.getId(), owner.getId(), "new", null);
+
+        Conversation conversation = conversation(owner, partner);
+        assertEquals(3, conversation.getMessageCount());
+        assertEquals(3, conversation.getUnreadFor(owner.getId()));
+        assertEquals("new", conversation.getLastMessagePreview());
+        assertEquals(3, chatService.getMessagesBefore(owner.getId(), partner.getId(), null, 30).size());
+    }
+
+    @Test
+    @DisplayName("Should keep chat partners as users in the chat summary")
+    void testSummaryKeepsPartnerShape() {
+        User first = user();
+        User second = user();
+        chatService.sendMessage(first.getId(), owner.getId(), "hi", null);
+        chatService.sendMessage(owner.getId(), second.getId(), "hello", null);
+
+        Map<String, Object> summary = chatService.getChatSummary(owner.getId());
+
+        List<?> partners = (List<?>) summary.get("recentPartners");
+        assertEquals(List.of(second.getId(), first.getId()),
+                partners.stream().map(partner -> ((User) partner).getId()).toList());
+        assertEquals(1L, summary.get("unreadCount"));
+        assertEquals(2L, summary.get("totalChats"));
+    }
+
+    // Follows next cursors until a page comes back without one, as the chat controller hands them out
+    private List<List<Long>> inboxPages(Long userId, int limit) {
+        List<List<Long>> pages = new ArrayList<>();
+        LocalDateTime before = null;
+        Long beforeId = null;
+        while (true) {
+            List<ConversationSummaryDto> page = chatService.getConversations(userId, before, beforeId, limit);
+            pages.add(page.stream().map(ConversationSummaryDto::getPartnerId).toList());
+            if (page.size() < ConversationService.pageSize(limit)) {
+                return pages;
+            }
+            ConversationSummaryDto last = page.get(page.size() - 1);
+            before = last.getLastActivityAt();
+            beforeId = last.getConversationId();
+        }
+    }
+
+    private List<List<Long>> threadPages(Long userId, Long partnerId, int limit) {
+        List<List<Long>> pages = new ArrayList<>();
+        Long beforeId = null;
+        while (true) {
+            List<ChatHistoryItemDto> page = chatService.getMessagesBefore(userId, partnerId, beforeId, limit);
+            pages.add(page.stream().map(ChatHistoryItemDto::getId).toList());
+            if (page.size() < ConversationService.pageSize(limit)) {
+                return pages;
+            }
+            beforeId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private Conversation conversation(User a, User b) {
+        return conversationRepository.findByUserLowIdAndUserHighId(
+                Math.min(a.getId(), b.getId()), Math.max(a.getId(), b.getId())).orElseThrow();
+    }
+
+    // A message written before conversations existed: no conversation id, counters untouched
+    private Chat legacyChat(User sender, User receiver, String message, boolean read) {
+        return chatRepository.save(Chat.builder()
+                .sender(sender)
+                .receiver(receiver)
+                .message(message)
+                .isRead(read)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private User user() {
+        users++;
+        return userRepository.save(User.builder()
+                .name("user " + users)
+                .email("user" + users + "@chat.test")
+                .password("secret")
+                .build());
+    }
+}
@@ -0,0 +1,173 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for dashboard fan-out
+ * Simulates a dashboard of independent count queries against a small Hikari
+ * pool on H2, each query held open for a fixed time, and compares one query
+ * after another with queries forked through {@link ParallelQueries}. Requests
+ * run on virtual threads as with spring.threads.virtual.enabled=true, so the
+ * pool and the fan-out cap are the only limits on concurrency.
+ *
+ * Run with: mvn test -Dtest=DashboardFanOutLoadTest -Dload=true [-Dload.requests=200]
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@DisplayName("Dashboard Fan-Out Load Test")
+@Slf4j
+public class DashboardFanOutLoadTest {
+
+    private static final int POOL_SIZE = 8;
+    private static final int QUERIES_PER_DASHBOARD = 12;
+    private static final int QUERY_MILLIS = 15;
+    private static final int REQUESTS = Integer.getInteger("load.requests", 100);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    /**
+     * Stands in for a count query that keeps its connection busy for a while
+     */
+    public static int pause(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:fan-out-load;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(30_000);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS PAUSE FOR '" + getClass().getName() + ".pause'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should cut dashboard latency without exceeding the connection pool")
+    void testSequentialVersusFanOut() throws Exception {
+        ParallelQueries sequential = new ParallelQueries(false, 0, POOL_SIZE, 30_000);
+        ParallelQueries fanOut = new ParallelQueries(true, POOL_SIZE - 2, POOL_SIZE, 30_000);
+        try {
+            Result before = measure("sequential", sequential);
+            Result after = measure("fan-out", fanOut);
+
+            log.info("{}  single {} ms  load p50 {} ms  p95 {} ms  total {} ms  errors {}  peak queries {}",
+                    before.name, before.singleMillis, before.p50Millis, before.p95Millis, before.totalMillis, before.errors, before.peakQueries);
+            log.info("{}  single {} ms  load p50 {} ms  p95 {} ms  total {} ms  errors {}  peak queries {}",
+                    after.name, after.singleMillis, after.p50Millis, after.p95Millis, after.totalMillis, after.errors, after.peakQueries);
+
+            assertEquals(0, before.errors);
+            assertEquals(0, after.errors);
+            assertTrue(before.peakQueries <= POOL_SIZE);
+            assertTrue(after.peakQueries <= fanOut.getMaxInFlight());
+            // An idle system serves one dashboard in about ceil(12 / 6) query times instead of 12
+            assertTrue(after.singleMillis * 2 < before.singleMillis,
+                    "fan-out " + after.singleMillis + " ms vs sequential " + before.singleMillis + " ms");
+        } finally {
+            sequential.shutdown();
+            fanOut.shutdown();
+        }
+    }
+
+    private Result measure(String name, ParallelQueries parallelQueries) throws Exception {
+        dashboard(parallelQueries);
+        long singleMillis = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long started = System.nanoTime();
+            dashboard(parallelQueries);
+            singleMillis = Math.min(singleMillis, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+
+        peakInFlight.set(0);
+        long[] latencies = new long[REQUESTS];
+        int errors = 0;
+        long started = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(requests.submit(() -> {
+                    long requestStarted = System.nanoTime();
+                    dashboard(parallelQueries);
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStarted);
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    latencies[i] = futures.get(i).get();
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Arrays.sort(latencies);
+        return new Result(name, singleMillis, latencies[REQUESTS / 2], latencies[(int) (REQUESTS * 0.95)],
+                totalMillis, errors, peakInFlight.get());
+    }
+
+    private long dashboard(ParallelQueries parallelQueries) {
+        List<Supplier<Integer>> counts = new ArrayList<>();
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            for (int i = 0; i < QUERIES_PER_DASHBOARD; i++) {
+                counts.add(scope.fork(this::count));
+            }
+            scope.join();
+        }
+        return counts.stream().mapToLong(Supplier::get).sum();
+    }
+
+    // Counted while the connection is held, so the peak is the number of connections in use
+    private Integer count() {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT PAUSE(?)")) {
+                statement.setInt(1, QUERY_MILLIS);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private record Result(String name, long singleMillis, long p50Millis, long p95Millis,
+                          long totalMillis, int errors, int peakQueries) {
+    }
+}
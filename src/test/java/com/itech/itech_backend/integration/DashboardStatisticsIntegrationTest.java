@@ -0,0 +1,320 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.enums.VendorBusinessType;
+import com.itech.itech_backend.enums.VerificationStatus;
+import com.itech.itech_backend.modules.company.model.Company;
+import com.itech.itech_backend.modules.company.repository.CompanyRepository;
+import com.itech.itech_backend.modules.company.service.CompanyServiceImpl;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.employee.entity.EmployeeProfile;
+import com.itech.itech_backend.modules.employee.entity.EmployeeProfile.EmployeeStatus;
+import com.itech.itech_backend.modules.employee.entity.EmployeeProfile.EmployeeType;
+import com.itech.itech_backend.modules.employee.repository.EmployeeProfileRepository;
+import com.itech.itech_backend.modules.employee.service.EmployeeProfileService;
+import com.itech.itech_backend.modules.shared.service.ActivityTracker;
+import com.itech.itech_backend.modules.shared.service.StatisticsCache;
+import com.itech.itech_backend.modules.vendor.model.Vendor;
+import com.itech.itech_backend.modules.vendor.repository.VendorRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dashboard statistics tests
+ * Checks each aggregate statistics query against the per-counter queries it
+ * replaced, and that cached statistics are only dropped once a write commits
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CompanyServiceImpl.class, VendorServiceImpl.class, EmployeeProfileService.class,
+        StatisticsCache.class, ActivityTracker.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:dashboard_statistics;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Dashboard Statistics Integration Tests")
+public class DashboardStatisticsIntegrationTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CompanyServiceImpl companyService;
+
+    @Autowired
+    private VendorServiceImpl vendorService;
+
+    @Autowired
+    private EmployeeProfileService employeeService;
+
+    @Autowired
+    private StatisticsCache statisticsCache;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long companyId;
+    private Long vendorId;
+
+    @BeforeEach
+    void setUp() {
+        companyId = company("Acme Industries", Company.VerificationStatus.VERIFIED, Company.CompanyStatus.ACTIVE,
+                Company.CompanyType.PRIVATE_LIMITED, Company.BusinessCategory.MANUFACTURER, true, false).getId();
+        company("Bharat Traders", Company.VerificationStatus.PENDING, Company.CompanyStatus.ACTIVE,
+                Company.CompanyType.PARTNERSHIP, Company.BusinessCategory.TRADER, false, true);
+        company("Coastal Exports", Company.VerificationStatus.PENDING, Company.CompanyStatus.SUSPENDED,
+                Company.CompanyType.PRIVATE_LIMITED, Company.BusinessCategory.EXPORTER, false, false);
+        company("Delta Services", Company.VerificationStatus.REJECTED, Company.CompanyStatus.INACTIVE,
+                null, null, false, true);
+        company("Eastern Retail", null, null, Company.CompanyType.LLP, Company.BusinessCategory.RETAILER, true, true);
+
+        vendorId = vendor("Acme Supplies", VerificationStatus.VERIFIED, true, true, true, false).getId();
+        vendor("Bright Metals", VerificationStatus.PENDING, true, false, false, true);
+        vendor("Crown Plastics", VerificationStatus.PENDING, false, false, true, false);
+        vendor("Delta Textiles", VerificationStatus.REJECTED, false, true, false, true);
+
+        employee("EMP-001", "Sales", EmployeeStatus.ACTIVE, EmployeeType.FULL_TIME, true, true);
+        employee("EMP-002", "Sales", EmployeeStatus.CONFIRMED, EmployeeType.FULL_TIME, false, true);
+        employee("EMP-003", "Support", EmployeeStatus.ON_PROBATION, EmployeeType.INTERN, false, false);
+        employee("EMP-004", "Support", EmployeeStatus.NOTICE_PERIOD, EmployeeType.CONTRACT, false, false);
+        employee("EMP-005", "Finance", EmployeeStatus.RESIGNED, EmployeeType.FULL_TIME, true, false);
+        employee("EMP-006", "Finance", EmployeeStatus.ACTIVE, EmployeeType.PART_TIME, true, false);
+
+        // The cache outlives each test's rows, so every test starts from a cold cache
+        for (StatisticsCache.Subject subject : StatisticsCache.Subject.values()) {
+            statisticsCache.invalidate(subject);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeProfileRepository.deleteAll();
+        vendorRepository.deleteAll();
+        companyRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should match the per-counter company queries")
+    void testCompanyStatisticsMatchCounters() {
+        Map<String, Long> stats = companyService.getCompanyStatistics();
+
+        assertEquals(companyRepository.count(), stats.get("totalCompanies"));
+        assertEquals(companyRepository.countVerifiedCompanies(), stats.get("verifiedCompanies"));
+        assertEquals(companyRepository.countPremiumCompanies(), stats.get("premiumCompanies"));
+        assertEquals(companyRepository.countByVerificationStatus(Company.VerificationStatus.PENDING),
+                stats.get("pendingVerification"));
+        assertEquals(companyRepository.countByStatus(Company.CompanyStatus.ACTIVE), stats.get("activeCompanies"));
+
+        Map<Company.VerificationStatus, Long> byVerificationStatus = companyService.getCompanyCountByVerificationStatus();
+        for (Company.VerificationStatus status : Company.VerificationStatus.values()) {
+            assertEquals(companyRepository.countByVerificationStatus(status), byVerificationStatus.get(status));
+        }
+        Map<Company.CompanyStatus, Long> byStatus = companyService.getCompanyCountByStatus();
+        for (Company.CompanyStatus status : Company.CompanyStatus.values()) {
+            assertEquals(companyRepository.countByStatus(status), byStatus.get(status));
+        }
+        Map<Company.CompanyType, Long> byType = companyService.getCompanyCountByType();
+        for (Company.CompanyType type : Company.CompanyType.values()) {
+            assertEquals(companyRepository.findByCompanyType(type).size(), byType.get(type));
+        }
+        Map<Company.BusinessCategory, Long> byCategory = companyService.getCompanyCountByCategory();
+        for (Company.BusinessCategory category : Company.BusinessCategory.values()) {
+            assertEquals(companyRepository.findByBusinessCategory(category).size(), byCategory.get(category));
+        }
+        assertEquals(5L, stats.get("totalCompanies"));
+        assertEquals(2L, stats.get("pendingVerification"));
+    }
+
+    @Test
+    @DisplayName("Should match the per-counter vendor queries")
+    void testVendorStatisticsMatchCounters() {
+        Map<String, Long> stats = vendorService.getVendorStatistics();
+
+        assertEquals(vendorRepository.count(), stats.get("totalVendors"));
+        assertEquals(vendorRepository.countActiveVendors(), stats.get("activeVendors"));
+        assertEquals(vendorRepository.countVerifiedVendors(), stats.get("verifiedVendors"));
+        assertEquals(vendorRepository.countKycApprovedVendors(), stats.get("kycApprovedVendors"));
+        assertEquals(vendorRepository.countFeaturedVendors(), stats.get("featuredVendors"));
+        assertEquals(vendorRepository.countByVerificationStatus(VerificationStatus.PENDING),
+                stats.get("pendingApproval"));
+        assertEquals(vendorRepository.countActiveVendors(), vendorService.getActiveVendorsCount());
+        assertEquals(4L, stats.get("totalVendors"));
+        assertEquals(2L, stats.get("pendingApproval"));
+    }
+
+    @Test
+    @DisplayName("Should match the per-counter employee queries")
+    void testEmployeeStatisticsMatchCounters() {
+        Map<String, Object> stats = employeeService.getEmployeeStatistics();
+
+        assertEquals(employeeProfileRepository.count(), stats.get("totalEmployees"));
+        assertEquals(employeeProfileRepository.countActiveEmployees(), stats.get("activeEmployees"));
+        assertEquals(employeeProfileRepository.countIncompleteProfiles(), stats.get("incompleteProfiles"));
+        assertEquals(employeeProfileRepository.countUnverifiedDocuments(), stats.get("unverifiedDocuments"));
+        assertEquals(breakdown(employeeProfileRepository.getEmployeeCountByDepartment()),
+                stats.get("employeesByDepartment"));
+        assertEquals(breakdown(employeeProfileRepository.getEmployeeCountByStatus()), stats.get("employeesByStatus"));
+        assertEquals(breakdown(employeeProfileRepository.getEmployeeCountByType()), stats.get("employeesByType"));
+        assertEquals(6L, stats.get("totalEmployees"));
+        assertEquals(4L, stats.get("activeEmployees"));
+    }
+
+    @Test
+    @DisplayName("Should keep cached statistics until the write commits and drop them after")
+    void testWritesDropStatisticsAfterCommit() {
+        Map<String, Long> companies = companyService.getCompanyStatistics();
+        Map<String, Long> vendors = vendorService.getVendorStatistics();
+        Map<String, Object> employees = employeeService.getEmployeeStatistics();
+
+        inTransaction(false, () -> {
+            companyService.upgradeToPremium(companyId, Company.SubscriptionType.PREMIUM);
+            vendorService.setFeaturedVendor(vendorId, true);
+            employeeService.createEmployeeProfile(profile("EMP-007", "Sales", EmployeeStatus.ACTIVE,
+                    EmployeeType.FULL_TIME, true, true));
+
+            assertEquals(companies, companyService.getCompanyStatistics());
+            assertEquals(vendors, vendorService.getVendorStatistics());
+            assertEquals(employees, employeeService.getEmployeeStatistics());
+        });
+
+        assertEquals(companies.get("premiumCompanies") + 1, companyService.getCompanyStatistics().get("premiumCompanies"));
+        assertEquals(vendors.get("featuredVendors") + 1, vendorService.getVendorStatistics().get("featuredVendors"));
+        assertEquals((Long) employees.get("totalEmployees") + 1, employeeService.getEmployeeStatistics().get("totalEmployees"));
+        assertEquals(companyRepository.countPremiumCompanies(), companyService.getPremiumCompaniesCount());
+        assertEquals(vendorRepository.countFeaturedVendors(), vendorService.getFeaturedVendorsCount());
+        assertEquals(employeeProfileRepository.countActiveEmployees(),
+                employeeService.getEmployeeStatistics().get("activeEmployees"));
+    }
+
+    @Test
+    @DisplayName("Should keep cached statistics when the write rolls back")
+    void testRolledBackWritesKeepStatistics() {
+        Map<String, Long> companies = companyService.getCompanyStatistics();
+        Map<String, Long> vendors = vendorService.getVendorStatistics();
+        Map<String, Object> employees = employeeService.getEmployeeStatistics();
+
+        inTransaction(true, () -> {
+            companyService.upgradeToPremium(companyId, Company.SubscriptionType.PREMIUM);
+            vendorService.setFeaturedVendor(vendorId, true);
+            employeeService.createEmployeeProfile(profile("EMP-007", "Sales", EmployeeStatus.ACTIVE,
+                    EmployeeType.FULL_TIME, true, true));
+        });
+
+        assertEquals(companies, companyService.getCompanyStatistics());
+        assertEquals(vendors, vendorService.getVendorStatistics());
+        assertEquals(employees, employeeService.getEmployeeStatistics());
+        assertEquals(companyRepository.countPremiumCompanies(), companyService.getPremiumCompaniesCount());
+    }
+
+    private void inTransaction(boolean rollback, Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            work.run();
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    // Turns (key, count) rows from the old breakdown queries into the map shape the service reports
+    private static Map<String, Long> breakdown(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(row[0].toString(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private Company company(String name, Company.VerificationStatus verificationStatus, Company.CompanyStatus status,
+                            Company.CompanyType type, Company.BusinessCategory category,
+                            boolean verified, boolean premium) {
+        Company company = new Company();
+        company.setCompanyName(name);
+        company.setVerificationStatus(verificationStatus);
+        company.setStatus(status);
+        company.setCompanyType(type);
+        company.setBusinessCategory(category);
+        company.setIsVerified(verified);
+        company.setIsPremium(premium);
+        return companyRepository.save(company);
+    }
+
+    private Vendor vendor(String name, VerificationStatus verificationStatus, boolean active, boolean verified,
+                          boolean kycApproved, boolean featured) {
+        User user = userRepository.save(User.builder()
+                .name(name)
+                .email(name.toLowerCase().replace(' ', '.') + "@vendor.test")
+                .password("secret")
+                .build());
+        Vendor vendor = new Vendor();
+        vendor.setUser(user);
+        vendor.setBusinessName(name);
+        vendor.setBusinessType(VendorBusinessType.MANUFACTURER);
+        vendor.setVerificationStatus(verificationStatus);
+        vendor.setIsActive(active);
+        vendor.setIsVerified(verified);
+        vendor.setKycApproved(kycApproved);
+        vendor.setFeaturedVendor(featured);
+        return vendorRepository.save(vendor);
+    }
+
+    private void employee(String code, String department, EmployeeStatus status, EmployeeType type,
+                          boolean profileComplete, boolean documentsVerified) {
+        employeeProfileRepository.save(profile(code, department, status, type, profileComplete, documentsVerified));
+    }
+
+    private static EmployeeProfile profile(String code, String department, EmployeeStatus status, EmployeeType type,
+                                           boolean profileComplete, boolean documentsVerified) {
+        return EmployeeProfile.builder()
+                .employeeCode(code)
+                .firstName("Employee")
+                .lastName(code)
+                .workEmail(code.toLowerCase() + "@employee.test")
+                .department(department)
+                .designation("Executive")
+                .joiningDate(LocalDate.now().minusYears(1))
+                .status(status)
+                .employeeType(type)
+                .isProfileComplete(profileComplete)
+                .isDocumentsVerified(documentsVerified)
+                .build();
+    }
+}
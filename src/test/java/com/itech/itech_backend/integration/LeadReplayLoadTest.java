@@ -0,0 +1,182 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.LeadMatchingEngine;
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import com.itech.itech_backend.modules.vendor.repository.VendorPackageTransactionRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for buyer lead matching
+ * Replays a minute's worth of leads (10k by default) through
+ * {@link LeadMatchingEngine#assign} against an index of a few thousand
+ * vendors, each lead committing its batch of assignments to H2 through a
+ * small Hikari pool, and checks the replay keeps up with the arrival rate.
+ *
+ * Run with: mvn test -Dtest=LeadReplayLoadTest -Dload=true [-Dload.leads=10000]
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@DisplayName("Lead Replay Load Test")
+@Slf4j
+public class LeadReplayLoadTest {
+
+    private static final int POOL_SIZE = 8;
+    private static final int VENDORS = 3_000;
+    private static final int CATEGORIES = 40;
+    private static final int MICRO_CATEGORIES = 400;
+    private static final int CITIES = 25;
+    private static final int SHORTLIST = 5;
+    private static final int LEADS = Integer.getInteger("load.leads", 10_000);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private LeadMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:lead-replay;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE leads (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_name VARCHAR(255), " +
+                "customer_email VARCHAR(255), customer_phone VARCHAR(255), customer_company VARCHAR(255), " +
+                "vendor_id BIGINT, status VARCHAR(20), priority VARCHAR(20), estimated_value DOUBLE, " +
+                "inquiry_message VARCHAR(500), product_interest VARCHAR(255), notes VARCHAR(1000), " +
+                "inquiry_date TIMESTAMP, last_updated TIMESTAMP)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // Every vendor sells in a handful of micro-categories, each under its parent category
+        Random random = new Random(7);
+        List<Object[]> coverage = new ArrayList<>();
+        List<Object[]> cities = new ArrayList<>();
+        List<Object[]> tiers = new ArrayList<>();
+        Subscription.PlanType[] plans = Subscription.PlanType.values();
+        for (long vendorId = 1; vendorId <= VENDORS; vendorId++) {
+            for (int i = 0; i < 6; i++) {
+                int micro = random.nextInt(MICRO_CATEGORIES);
+                coverage.add(new Object[]{vendorId, "category-" + micro % CATEGORIES, "micro-" + micro,
+                        "category-" + micro % CATEGORIES});
+            }
+            cities.add(new Object[]{vendorId, "city-" + random.nextInt(CITIES)});
+            if (vendorId % 3 == 0) {
+                tiers.add(new Object[]{vendorId, plans[(int) (vendorId % plans.length)], null});
+            }
+        }
+
+        BuyerProductRepository productRepository = mock(BuyerProductRepository.class);
+        VendorsRepository vendorsRepository = mock(VendorsRepository.class);
+        VendorPackageTransactionRepository packageRepository = mock(VendorPackageTransactionRepository.class);
+        LeadRepository leadRepository = mock(LeadRepository.class);
+        when(productRepository.findVendorCategoryCoverage()).thenReturn(coverage);
+        when(vendorsRepository.findVendorCities()).thenReturn(cities);
+        when(packageRepository.findActivePackageTiers(any())).thenReturn(tiers);
+        when(leadRepository.countLeadsPerVendorSince(any())).thenReturn(List.of());
+
+        engine = new LeadMatchingEngine(productRepository, vendorsRepository, packageRepository, leadRepository,
+                jdbcTemplate, mock(VendorRankingEngine.class));
+        ReflectionTestUtils.setField(engine, "shortlistSize", SHORTLIST);
+        // Quotas are not what this measures; keep every vendor eligible for the whole replay
+        ReflectionTestUtils.setField(engine, "defaultMonthlyQuota", Integer.MAX_VALUE);
+        engine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should match and write a minute's worth of leads in under a minute")
+    void testReplay() throws Exception {
+        List<BuyerLead> leads = leads(LEADS);
+        // Warm the matcher and the insert path before timing
+        for (BuyerLead lead : leads(500)) {
+            engine.match(lead);
+        }
+
+        long[] latencies = new long[LEADS];
+        int errors = 0;
+        long started = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> futures = new ArrayList<>(LEADS);
+            for (BuyerLead lead : leads) {
+                futures.add(requests.submit(() -> {
+                    long leadStarted = System.nanoTime();
+                    transactionTemplate.executeWithoutResult(status -> engine.assign(lead));
+                    return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - leadStarted);
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    latencies[i] = futures.get(i).get();
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Arrays.sort(latencies);
+        long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leads", Long.class);
+        log.info("leads {}  total {} ms  ({} leads/min)  p50 {} us  p95 {} us  p99 {} us  rows {}  errors {}",
+                LEADS, totalMillis, LEADS * 60_000L / Math.max(1, totalMillis),
+                latencies[LEADS / 2], latencies[(int) (LEADS * 0.95)], latencies[(int) (LEADS * 0.99)], rows, errors);
+
+        assertEquals(0, errors);
+        assertTrue(rows >= LEADS, "every lead should reach at least one vendor");
+        assertTrue(rows <= (long) LEADS * SHORTLIST);
+        assertTrue(totalMillis < 60_000, LEADS + " leads took " + totalMillis + " ms");
+    }
+
+    private static List<BuyerLead> leads(int count) {
+        Random random = new Random(11);
+        List<BuyerLead> leads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int micro = random.nextInt(MICRO_CATEGORIES);
+            leads.add(BuyerLead.builder()
+                    .id((long) i)
+                    .name("Buyer " + i)
+                    .email("buyer" + i + "@example.com")
+                    .phone("98" + String.format("%08d", i))
+                    .message("Looking for a bulk quote")
+                    .interestedCategories("micro-" + micro + ", category-" + random.nextInt(CATEGORIES))
+                    .searchQuery("micro-" + micro)
+                    .city("city-" + random.nextInt(CITIES))
+                    .urgency(BuyerLead.LeadUrgency.MEDIUM)
+                    .build());
+        }
+        return leads;
+    }
+}
@@ -0,0 +1,194 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.model.Notification;
+import com.itech.itech_backend.modules.shared.model.NotificationOutbox;
+import com.itech.itech_backend.modules.shared.model.enums.NotificationType;
+import com.itech.itech_backend.modules.shared.repository.NotificationOutboxRepository;
+import com.itech.itech_backend.modules.shared.repository.NotificationRepository;
+import com.itech.itech_backend.modules.shared.service.NotificationDispatcher;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.shared.service.NotificationUnreadCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Notification dispatch tests
+ * Drives the batched dispatcher and the cached unread counter against H2 with
+ * real commits and rollbacks, so only committed work may reach either
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NotificationService.class, NotificationDispatcher.class, NotificationUnreadCounter.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:notification_dispatch;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "notification.dispatch.queue-capacity=2"
+})
+@DisplayName("Notification Dispatch Integration Tests")
+public class NotificationDispatchIntegrationTest {
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationUnreadCounter unreadCounter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("buyer")
+                .email("buyer@notification.test")
+                .password("secret")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should queue notifications only when the enqueuing transaction commits")
+    void testEnqueueWaitsForCommit() {
+        inTransaction(false, status -> {
+            dispatcher.enqueue(pending("committed"));
+            assertEquals(0, dispatcher.getQueueDepth());
+        });
+        assertEquals(1, dispatcher.getQueueDepth());
+
+        inTransaction(true, status -> dispatcher.enqueue(pending("rolled back")));
+        assertEquals(1, dispatcher.getQueueDepth());
+
+        dispatcher.flush();
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(1, notificationRepository.countByUserIdAndIsReadFalse(user.getId()));
+    }
+
+    @Test
+    @DisplayName("Should insert a batch, bump the loaded counter and push each notification")
+    void testFlushInsertsBatch() {
+        assertEquals(0, unreadCounter.get(user.getId()));
+
+        dispatcher.enqueue(pending("first"));
+        dispatcher.enqueue(pending("second"));
+        dispatcher.flush();
+
+        assertEquals(2, notificationRepository.countByUserIdAndIsReadFalse(user.getId()));
+        assertEquals(2, unreadCounter.peek(user.getId()));
+        verify(messagingTemplate, times(2))
+                .convertAndSendToUser(eq("buyer@notification.test"), eq("/queue/notifications"), any(Object.class));
+        verify(messagingTemplate, times(2))
+                .convertAndSend(eq("/topic/notifications/" + user.getId()), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should spill overflow to the outbox and replay it on the next flush")
+    void testOverflowReplaysFromOutbox() {
+        for (int i = 0; i < 3; i++) {
+            dispatcher.enqueue(pending("burst " + i));
+        }
+        assertEquals(2, dispatcher.getQueueDepth());
+        assertEquals(1, outboxRepository.count());
+
+        dispatcher.flush();
+
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(0, outboxRepository.count());
+        assertEquals(3, notificationRepository.countByUserIdAndIsReadFalse(user.getId()));
+    }
+
+    @Test
+    @DisplayName("Should leave the unread counter alone when the transaction rolls back")
+    void testCounterIgnoresRollback() {
+        assertEquals(0, unreadCounter.get(user.getId()));
+
+        inTransaction(true, status -> notificationService.createNotification(
+                user.getId(), "rolled back", "body", NotificationType.INFO, null));
+        assertEquals(0, unreadCounter.peek(user.getId()));
+
+        Notification notification = notificationService.createNotification(
+                user.getId(), "committed", "body", NotificationType.INFO, null);
+        assertEquals(1, unreadCounter.peek(user.getId()));
+
+        inTransaction(true, status -> notificationService.markAsRead(notification.getId()));
+        assertEquals(1, unreadCounter.peek(user.getId()));
+
+        inTransaction(true, status -> notificationService.markAllAsRead(user.getId()));
+        assertEquals(1, unreadCounter.peek(user.getId()));
+
+        notificationService.markAsRead(notification.getId());
+        assertEquals(0, unreadCounter.peek(user.getId()));
+        assertEquals(0, notificationRepository.countByUserIdAndIsReadFalse(user.getId()));
+    }
+
+    private NotificationOutbox pending(String title) {
+        return NotificationOutbox.builder()
+                .userId(user.getId())
+                .title(title)
+                .message("body")
+                .type(NotificationType.INFO)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void inTransaction(boolean rollback, Consumer<TransactionStatus> work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            work.accept(status);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+}
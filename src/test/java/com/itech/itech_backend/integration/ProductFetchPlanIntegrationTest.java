@@ -0,0 +1,204 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.product.dto.ProductDto;
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.service.InventoryLedgerService;
+import com.itech.itech_backend.modules.product.service.ProductMetricsStore;
+import com.itech.itech_backend.modules.product.service.ProductPricingEngine;
+import com.itech.itech_backend.modules.product.service.ProductRecommender;
+import com.itech.itech_backend.modules.product.service.ProductServiceImpl;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import com.itech.itech_backend.support.sql.SqlBudget;
+import com.itech.itech_backend.support.sql.SqlInstrumented;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product fetch plan tests
+ * Counts the SQL statements each catalog read issues on H2, so an N+1 on the
+ * card, vendor dashboard or detail plan fails the build
+ */
+@DataJpaTest
+@Import({ProductServiceImpl.class, ProductPricingEngine.class, InventoryLedgerService.class,
+         SchedulerLockService.class, ProductRecommender.class, ProductMetricsStore.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@SqlInstrumented
+@DisplayName("Product Fetch Plan Integration Tests")
+public class ProductFetchPlanIntegrationTest {
+
+    private static final int VENDORS = 4;
+    private static final int PRODUCTS_PER_VENDOR = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    private Statistics statistics;
+    private List<VendorProfile> vendors;
+    private Product detailProduct;
+
+    @BeforeEach
+    void setUp() {
+        vendors = new ArrayList<>();
+        for (int v = 0; v < VENDORS; v++) {
+            vendors.add(entityManager.persist(VendorProfile.builder().vendorName("Vendor " + v).build()));
+        }
+
+        for (VendorProfile vendor : vendors) {
+            for (int p = 0; p < PRODUCTS_PER_VENDOR; p++) {
+                Product product = entityManager.persist(product(vendor, vendor.getVendorName() + " Item " + p));
+                for (int i = 0; i < 2; i++) {
+                    Product variant = product(vendor, product.getProductName() + " Variant " + i);
+                    variant.setStatus(Product.ProductStatus.DRAFT);
+                    variant.setParentProduct(product);
+                    entityManager.persist(variant);
+                }
+            }
+        }
+
+        detailProduct = product(vendors.get(0), "Detail Product");
+        detailProduct.setTags(new ArrayList<>(List.of("surgical", "disposable")));
+        detailProduct.setAttributes(new HashMap<>(Map.of("material", "steel", "size", "10ml")));
+        detailProduct.setImageUrls(new ArrayList<>(List.of("/img/1.png", "/img/2.png", "/img/3.png")));
+        detailProduct.setDocumentUrls(new ArrayList<>(List.of("/docs/spec.pdf")));
+        detailProduct.setShippingRegions(new ArrayList<>(List.of("North", "South")));
+        detailProduct.setCertifications(new ArrayList<>(List.of("ISO 13485")));
+        detailProduct.setQuantityBreaks(new HashMap<>(Map.of(100, new BigDecimal("90.00"))));
+        detailProduct.setExternalIds(new HashMap<>(Map.of("erp", "ERP-1")));
+        List<Product> related = entityManager.getEntityManager()
+                .createQuery("SELECT p FROM Product p WHERE p.parentProduct IS NULL", Product.class)
+                .setMaxResults(3)
+                .getResultList();
+        detailProduct.setCrossSells(new ArrayList<>(related.subList(0, 2)));
+        detailProduct.setUpsells(new ArrayList<>(related.subList(2, 3)));
+        detailProduct.setRelatedProducts(new ArrayList<>(related));
+        entityManager.persist(detailProduct);
+        for (int i = 0; i < 3; i++) {
+            Product variant = product(vendors.get(0), "Detail Variant " + i);
+            variant.setParentProduct(detailProduct);
+            entityManager.persist(variant);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Catalog cards should load a page in one select plus the count")
+    @SqlBudget(max = 2)
+    void testCardPlanStatementCount() {
+        Page<ProductDto> page = productService.getPublishedProducts(PageRequest.of(0, 20));
+
+        assertEquals(20, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(dto -> dto.getVendorName().startsWith("Vendor ")));
+        assertEquals(2, statistics.getPrepareStatementCount(), "page select + count, no per-vendor lookups");
+    }
+
+    @Test
+    @DisplayName("Catalog card statement count should not grow with page size")
+    void testCardPlanIndependentOfPageSize() {
+        productService.searchProducts("item", PageRequest.of(0, 2));
+        long small = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        productService.searchProducts("item", PageRequest.of(0, 20));
+
+        assertEquals(small, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Vendor dashboard should batch-load variants for the whole page")
+    @SqlBudget(max = 3)
+    void testDashboardPlanStatementCount() {
+        Page<ProductDto> page = productService.getProductsByVendor(vendors.get(1).getId(), PageRequest.of(0, 10));
+
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(PRODUCTS_PER_VENDOR * 3L, page.getTotalElements());
+        long withVariants = page.getContent().stream().filter(dto -> dto.getVariants().size() == 2).count();
+        assertTrue(withVariants > 0);
+        assertEquals(3, statistics.getPrepareStatementCount(), "page select + count + one variant batch");
+    }
+
+    @Test
+    @DisplayName("Product page should cost one statement per collection")
+    @SqlBudget(max = 12)
+    void testDetailPlanStatementCount() {
+        Optional<ProductDto> result = productService.getProductById(detailProduct.getId());
+
+        ProductDto dto = result.orElseThrow();
+        assertEquals("Vendor 0", dto.getVendorName());
+        assertEquals(3, dto.getImageUrls().size());
+        assertEquals(2, dto.getTags().size());
+        assertEquals("steel", dto.getAttributes().get("material"));
+        assertEquals(3, dto.getVariants().size());
+        assertEquals(2, dto.getCrossSells().size());
+        assertEquals(3, dto.getRelatedProducts().size());
+        // product with vendor, company, parent and images; then tags, attributes, documents,
+        // regions, certifications, quantity breaks, external ids, variants and three link tables
+        assertEquals(12, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Slug lookups should cost the same as id lookups")
+    void testDetailLookupsShareCost() {
+        productService.getProductById(detailProduct.getId());
+        long byId = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        statistics.clear();
+
+        ProductDto bySlug = productService.getProductByUrlSlug(detailProduct.getUrlSlug()).orElseThrow();
+
+        assertEquals(detailProduct.getSku(), bySlug.getSku());
+        assertEquals(byId, statistics.getPrepareStatementCount());
+    }
+
+    private static Product product(VendorProfile vendor, String name) {
+        return Product.builder()
+                .vendor(vendor)
+                .sku(name.toUpperCase().replaceAll("[^A-Z0-9]", "-"))
+                .productName(name)
+                .category("Medical Supplies")
+                .brand("Acme")
+                .unitPrice(new BigDecimal("100.00"))
+                .mrp(new BigDecimal("120.00"))
+                .stockQuantity(50)
+                .reservedQuantity(0)
+                .stockStatus(Product.StockStatus.IN_STOCK)
+                .status(Product.ProductStatus.PUBLISHED)
+                .visibility(Product.ProductVisibility.PUBLIC)
+                .build();
+    }
+}
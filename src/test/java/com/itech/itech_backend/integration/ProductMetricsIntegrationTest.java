@@ -0,0 +1,265 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.product.dto.ProductDto;
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.service.InventoryLedgerService;
+import com.itech.itech_backend.modules.product.service.ProductMetricsStore;
+import com.itech.itech_backend.modules.product.service.ProductPricingEngine;
+import com.itech.itech_backend.modules.product.service.ProductRecommender;
+import com.itech.itech_backend.modules.product.service.ProductServiceImpl;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product metrics tests
+ * Feeds views and order lines into the bucket store on H2, then checks the
+ * reports and that compaction keeps every total while coarsening old buckets
+ */
+@DataJpaTest
+@Import({ProductServiceImpl.class, ProductPricingEngine.class, InventoryLedgerService.class,
+         SchedulerLockService.class, ProductRecommender.class, ProductMetricsStore.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Product Metrics Integration Tests")
+public class ProductMetricsIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductMetricsStore metricsStore;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    private Long gloves;
+    private Long gown;
+    private Long mask;
+    private Long stale;
+    private Long browsed;
+    private long nextLineId = 1;
+
+    @BeforeEach
+    void setUp() {
+        VendorProfile vendor = entityManager.persist(VendorProfile.builder().vendorName("Metrics Vendor").build());
+        gloves = entityManager.persist(product(vendor, "GLOVES", "Gloves")).getId();
+        gown = entityManager.persist(product(vendor, "GOWN", "Gloves")).getId();
+        mask = entityManager.persist(product(vendor, "MASK", "Masks")).getId();
+        stale = entityManager.persist(product(vendor, "STALE", "Masks")).getId();
+        browsed = entityManager.persist(product(vendor, "BROWSED", "Masks")).getId();
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE products SET created_at = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(200)));
+    }
+
+    // Order lines are written straight to order_items; their orders and vendors are not under test.
+    // H2 commits on this SET, so it runs outside the rolled-back test transaction.
+    @BeforeTransaction
+    void relaxForeignKeys() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    }
+
+    @AfterTransaction
+    void restoreForeignKeys() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    @DisplayName("Should rank and report products from the buckets")
+    void testReportsFromBuckets() {
+        views(gloves, 5);
+        views(gown, 2);
+        views(mask, 1);
+        views(browsed, 3);
+        metricsStore.flushViews();
+
+        orderLine(gloves, 2, "100.00", null, 0);
+        orderLine(gown, 10, "50.00", "DELIVERED", 0);
+        orderLine(mask, 1, "500.00", "CANCELLED", 0);
+        orderLine(mask, 1, "300.00", "DELIVERED", 10);
+        orderLine(stale, 4, "80.00", "DELIVERED", 60);
+        assertEquals(5, metricsStore.ingestOrderLines());
+        assertEquals(0, metricsStore.ingestOrderLines());
+
+        PageRequest page = PageRequest.of(0, 10);
+        assertEquals(List.of(gloves, browsed, gown, mask), ids(productService.getMostViewedProducts(page).getContent()));
+        assertEquals(List.of(gown, gloves, mask), ids(productService.getMostSoldProducts(page).getContent()));
+        assertEquals(List.of(mask, gloves, gown), ids(productService.getHighestRevenueProducts(page).getContent()));
+        assertEquals(3, productService.getHighestRevenueProducts(PageRequest.of(0, 2)).getTotalElements());
+
+        assertEquals(List.of(browsed), ids(productService.getHighViewLowOrderProducts(1L, 1L)));
+        assertEquals(Set.of(stale, browsed), Set.copyOf(ids(productService.getSlowMovingProducts(30))));
+        assertEquals(Set.of(browsed), Set.copyOf(ids(productService.getSlowMovingProducts(90))));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> categories =
+                (List<Map<String, Object>>) productService.getCategoryPerformance().get("categories");
+        assertEquals("Masks", categories.get(0).get("category"));
+        assertEquals(0, new BigDecimal("300.00").compareTo((BigDecimal) categories.get(0).get("revenue")));
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) categories.get(1).get("revenue")));
+
+        Map<String, Object> analytics = productService.getProductAnalytics(gloves);
+        assertEquals(5L, analytics.get("views"));
+        assertEquals(1L, analytics.get("orders"));
+        assertEquals(2L, analytics.get("units"));
+    }
+
+    @Test
+    @DisplayName("Should fold old days into weeks and old weeks into months without losing totals")
+    void testCompactionKeepsTotals() {
+        // Past day 96 every line is in a week wholly beyond the 90 day retention, past day 395 in such a month
+        int[] daysAgo = {0, 3, 40, 100, 102, 120, 121, 200, 400, 430};
+        for (int days : daysAgo) {
+            orderLine(gloves, 1, "10.00", null, days);
+        }
+        metricsStore.ingestOrderLines();
+        assertEquals(daysAgo.length, countBuckets("DAY"));
+
+        assertTrue(metricsStore.compact(LocalDate.now()) > 0);
+        assertEquals(0, metricsStore.compact(LocalDate.now()));
+
+        assertEquals(3, countBuckets("DAY"));
+        assertTrue(countBuckets("WEEK") >= 3);
+        assertTrue(countBuckets("MONTH") >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_metric_buckets WHERE granularity = 'DAY' AND bucket_start < ?",
+                Long.class, Date.valueOf(LocalDate.now().minusDays(90))));
+        assertEquals((long) daysAgo.length, jdbcTemplate.queryForObject(
+                "SELECT SUM(units) FROM product_metric_buckets", Long.class));
+        assertEquals(0, new BigDecimal("100.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(revenue) FROM product_metric_buckets", BigDecimal.class)));
+        assertEquals(0, metricsStore.ingestOrderLines());
+
+        // A late line for a compacted day lands as a day bucket and folds into the existing week next run
+        orderLine(gloves, 1, "10.00", null, 120);
+        metricsStore.ingestOrderLines();
+        long weeks = countBuckets("WEEK");
+        metricsStore.compact(LocalDate.now());
+        assertEquals(weeks, countBuckets("WEEK"));
+        assertEquals(daysAgo.length + 1L, jdbcTemplate.queryForObject(
+                "SELECT SUM(units) FROM product_metric_buckets", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should count a line that commits after a later one")
+    void testLateLinesAreIngested() {
+        nextLineId = 10;
+        orderLine(gloves, 1, "10.00", null, 0);
+        assertEquals(1, metricsStore.ingestOrderLines());
+
+        // Lower id, created long before, visible only now
+        nextLineId = 3;
+        orderLine(gloves, 2, "20.00", null, 0);
+        assertEquals(1, metricsStore.ingestOrderLines());
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT SUM(units) FROM product_metric_buckets WHERE product_id = ?", Long.class, gloves));
+    }
+
+    @Test
+    @DisplayName("Should take a line out of its day once it is cancelled or returned after being counted")
+    void testCancelledAndReturnedLinesAreTakenOut() {
+        long cancelled = orderLine(gloves, 2, "100.00", "PENDING", 3);
+        long returned = orderLine(gloves, 1, "40.00", "PENDING", 3);
+        orderLine(gloves, 4, "60.00", "PENDING", 3);
+        assertEquals(3, metricsStore.ingestOrderLines());
+        assertGloves(3, 7, "200.00");
+
+        fulfillment(cancelled, "CANCELLED");
+        assertEquals(1, metricsStore.ingestOrderLines());
+        assertGloves(2, 5, "100.00");
+        assertEquals(0, metricsStore.ingestOrderLines());
+
+        fulfillment(returned, "RETURNED");
+        metricsStore.ingestOrderLines();
+        assertGloves(1, 4, "60.00");
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_metric_buckets WHERE product_id = ?", Long.class, gloves));
+
+        // Reinstated, it counts again
+        fulfillment(cancelled, "CONFIRMED");
+        metricsStore.ingestOrderLines();
+        assertGloves(2, 6, "160.00");
+        assertEquals(List.of(gloves), ids(productService.getMostSoldProducts(PageRequest.of(0, 10)).getContent()));
+    }
+
+    private void views(Long productId, int count) {
+        for (int i = 0; i < count; i++) {
+            productService.incrementViewCount(productId);
+        }
+    }
+
+    private long orderLine(Long productId, int quantity, String total, String status, int daysAgo) {
+        long id = nextLineId++;
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, vendor_id, product_name, quantity, " +
+                        "unit_price, total_price, fulfillment_status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, id, productId, 1L, "Line " + id, quantity, new BigDecimal(total), new BigDecimal(total), status,
+                Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo).minusMinutes(5)));
+        return id;
+    }
+
+    private void fulfillment(long lineId, String status) {
+        jdbcTemplate.update("UPDATE order_items SET fulfillment_status = ?, updated_at = ? WHERE id = ?",
+                status, Timestamp.valueOf(LocalDateTime.now()), lineId);
+    }
+
+    private void assertGloves(long orders, long units, String revenue) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT SUM(orders) AS orders, SUM(units) AS units, SUM(revenue) AS revenue " +
+                "FROM product_metric_buckets WHERE product_id = ?", gloves);
+        assertEquals(orders, ((Number) totals.get("ORDERS")).longValue());
+        assertEquals(units, ((Number) totals.get("UNITS")).longValue());
+        assertEquals(0, new BigDecimal(revenue).compareTo((BigDecimal) totals.get("REVENUE")));
+    }
+
+    private long countBuckets(String granularity) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_metric_buckets WHERE granularity = ?", Long.class, granularity);
+    }
+
+    private static List<Long> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getId).collect(Collectors.toList());
+    }
+
+    private static Product product(VendorProfile vendor, String sku, String category) {
+        return Product.builder()
+                .vendor(vendor)
+                .sku(sku)
+                .productName("Metrics " + sku)
+                .category(category)
+                .unitPrice(new BigDecimal("10.00"))
+                .stockQuantity(100)
+                .reservedQuantity(0)
+                .stockStatus(Product.StockStatus.IN_STOCK)
+                .status(Product.ProductStatus.PUBLISHED)
+                .visibility(Product.ProductVisibility.PUBLIC)
+                .build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQBid;
+import com.itech.itech_backend.modules.rfq.repository.RFQBidRepository;
+import com.itech.itech_backend.modules.rfq.repository.RFQRepository;
+import com.itech.itech_backend.modules.rfq.service.RFQBidBook;
+import com.itech.itech_backend.modules.rfq.service.RFQBidWriter;
+import com.itech.itech_backend.modules.rfq.service.RFQService;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import com.itech.itech_backend.modules.vendor.repository.VendorProfileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RFQ award tests
+ * Awards, revises and writes late bids against RFQ rows on H2, with a second
+ * bid book, writer and service standing in for another node whose cached
+ * view of the RFQ is stale; every call commits on its own
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RFQService.class, RFQBidBook.class, RFQBidWriter.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:rfq_award;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("RFQ Award Integration Tests")
+public class RFQAwardIntegrationTest {
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private RFQService rfqService;
+
+    @Autowired
+    private RFQRepository rfqRepository;
+
+    @Autowired
+    private RFQBidRepository bidRepository;
+
+    @Autowired
+    private VendorProfileRepository vendorProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User buyer;
+    private RFQ rfq;
+    private RFQBid first;
+    private RFQBid second;
+
+    @BeforeEach
+    void setUp() {
+        buyer = user("buyer");
+        rfq = rfqRepository.save(RFQ.builder()
+                .buyer(buyer)
+                .title("Steel pipes")
+                .quantity(100)
+                .category("Industrial")
+                .status(RFQ.RFQStatus.OPEN)
+                .validUntil(LocalDateTime.now().plusDays(7))
+                .bidCount(0)
+                .viewCount(0)
+                .build());
+        first = bid(vendor("first"), "12.50");
+        second = bid(vendor("second"), "11.75");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bidRepository.deleteAll();
+        rfqRepository.deleteAll();
+        vendorProfileRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not award a closed RFQ")
+    void testClosedRfqCannotBeAwarded() {
+        rfq.setStatus(RFQ.RFQStatus.CLOSED);
+        rfqRepository.save(rfq);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> rfqService.awardBid(buyer.getId(), first.getId()));
+        assertEquals("RFQ is not open for awarding", e.getMessage());
+        assertEquals(RFQBid.BidStatus.PENDING, bidRepository.findById(first.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should drop a bid another node accepted against its stale view of an awarded RFQ")
+    void testLateBidFromStaleNodeIsRejected() {
+        RFQBidWriter otherWriter = new RFQBidWriter(bidRepository, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(otherWriter, "batchSize", 10);
+        RFQBidBook otherBook = new RFQBidBook(rfqRepository, bidRepository, otherWriter, messagingTemplate, 100, 30);
+        RFQService otherNode = new RFQService(rfqRepository, bidRepository, vendorProfileRepository, userRepository,
+                notificationService, otherBook, otherWriter, transactionManager);
+        // The other node caches the RFQ as open
+        assertEquals(2, otherNode.getBidSummary(rfq.getId()).bidCount());
+
+        rfqService.awardBid(buyer.getId(), second.getId());
+
+        VendorProfile late = vendor("late");
+        otherNode.submitBid(late.getUser().getId(), rfq.getId(),
+                RFQBid.builder().priceQuote(new BigDecimal("10.00")).deliveryTimeDays(5).build());
+        otherWriter.flush();
+
+        List<RFQBid> bids = bidRepository.findByRfq_IdOrderByCreatedAtDesc(rfq.getId());
+        assertEquals(2, bids.size());
+        assertTrue(bids.stream().noneMatch(bid -> bid.getStatus() == RFQBid.BidStatus.PENDING));
+        // Fixture bids were saved directly, so only a landed late bid would have counted
+        assertEquals(0, rfqRepository.findById(rfq.getId()).orElseThrow().getBidCount());
+        // The failed write evicted the stale book
+        assertEquals(RFQ.RFQStatus.FULFILLED, otherBook.getInfo(rfq.getId()).orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("Should not revive a bid rejected by an award")
+    void testRejectedBidCannotBeRevised() {
+        rfqService.awardBid(buyer.getId(), second.getId());
+
+        RFQBid revision = RFQBid.builder().priceQuote(new BigDecimal("9.00")).deliveryTimeDays(3).build();
+        Long vendorUserId = first.getVendor().getUser().getId();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> rfqService.reviseBid(vendorUserId, first.getId(), revision));
+        assertEquals("Cannot revise bid in current status", e.getMessage());
+
+        RFQBid stored = bidRepository.findById(first.getId()).orElseThrow();
+        assertEquals(RFQBid.BidStatus.REJECTED, stored.getStatus());
+        assertEquals(0, new BigDecimal("12.50").compareTo(stored.getPriceQuote()));
+    }
+
+    @Test
+    @DisplayName("Should revise a pending bid on an open RFQ")
+    void testPendingBidIsRevised() {
+        RFQBid revision = RFQBid.builder().priceQuote(new BigDecimal("9.00")).deliveryTimeDays(3).build();
+
+        RFQBidBook.BidView view = rfqService.reviseBid(first.getVendor().getUser().getId(), first.getId(), revision);
+
+        assertEquals(0, new BigDecimal("9.00").compareTo(view.unitPrice()));
+        RFQBid stored = bidRepository.findById(first.getId()).orElseThrow();
+        assertEquals(2, stored.getNegotiationRound());
+        assertEquals(100, stored.getQuantity());
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@rfq.test")
+                .password("secret")
+                .build());
+    }
+
+    private VendorProfile vendor(String name) {
+        return vendorProfileRepository.save(VendorProfile.builder()
+                .vendorName(name)
+                .user(user("vendor-" + name))
+                .build());
+    }
+
+    private RFQBid bid(VendorProfile vendor, String price) {
+        RFQBid bid = RFQBid.builder()
+                .rfq(rfq)
+                .vendor(vendor)
+                .priceQuote(new BigDecimal(price))
+                .quantity(100)
+                .deliveryTimeDays(10)
+                .status(RFQBid.BidStatus.PENDING)
+                .negotiationRound(1)
+                .createdAt(LocalDateTime.now())
+                .build();
+        bid.calculateTotals();
+        return bidRepository.save(bid);
+    }
+}
@@ -0,0 +1,233 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.payment.service.RevenueBackfillJob;
+import com.itech.itech_backend.modules.payment.service.RevenueLedger;
+import com.itech.itech_backend.modules.payment.service.RevenueLedger.Period;
+import com.itech.itech_backend.modules.payment.service.RevenueLedger.Totals;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revenue ledger tests
+ * Backfills orders, refunds and invoices written straight to their tables on
+ * H2, rolls the facts up and reads monthly, quarterly and GST views back
+ */
+@DataJpaTest
+@Import({RevenueLedger.class, RevenueBackfillJob.class, SchedulerLockService.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "revenue-ledger.backfill-chunk-size=2",
+    "revenue-ledger.rollup-batch-size=3"
+})
+@DisplayName("Revenue Ledger Integration Tests")
+public class RevenueLedgerIntegrationTest {
+
+    private static final LocalDateTime ALL_HISTORY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RevenueLedger ledger;
+
+    @Autowired
+    private RevenueBackfillJob backfillJob;
+
+    private long nextLineId = 1;
+
+    // Source rows reference users, products and payments that are not under test.
+    // H2 commits on this SET, so it runs outside the rolled-back test transaction.
+    @BeforeTransaction
+    void relaxForeignKeys() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    }
+
+    @AfterTransaction
+    void restoreForeignKeys() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @BeforeEach
+    void setUp() {
+        order(1, "2025-01-15", line(7, "200.00"), line(7, "50.00"), line(8, "100.00"));
+        order(2, "2025-02-10", line(7, "300.00"));
+        order(3, "2025-04-02", line(7, "40.00"));
+        refund(1, 7, "50.00", "COMPLETED", "2025-02-20");
+        refund(2, 7, "75.00", "REQUESTED", "2025-02-21");
+        invoice(1, 7, "1000.00", "90.00", "90.00", "0.00", "9.00", "9.00", "0.00", "PAID", "2025-01-20", null);
+        invoice(2, 8, "500.00", "0.00", "0.00", "90.00", "0.00", "0.00", "18.00", "GENERATED", "2025-02-05", null);
+        invoice(3, 8, "100.00", "0.00", "0.00", "5.00", "0.00", "0.00", "5.00", "CANCELLED", "2025-02-06", "2025-03-01");
+    }
+
+    @Test
+    @DisplayName("Should backfill each source once and roll the facts up by day")
+    void testBackfillIsIdempotent() {
+        // Two vendor shares of order 1, orders 2 and 3, one completed refund, three invoices and one void
+        assertEquals(9, backfillJob.backfill(ALL_HISTORY));
+        assertEquals(0, backfillJob.backfill(ALL_HISTORY));
+
+        assertEquals(9, ledger.rollUpFacts());
+        assertEquals(0, ledger.rollUpFacts());
+
+        // A new order is picked up by a short look-back and lands on top of the existing rollups
+        order(4, "2025-01-15", line(7, "10.00"));
+        assertEquals(1, backfillJob.backfill(LocalDateTime.of(2025, 1, 1, 0, 0)));
+        assertEquals(1, ledger.rollUpFacts());
+        Totals january = ledger.totals(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1));
+        assertMoney("360.00", january.sales());
+        assertEquals(3, january.orders());
+    }
+
+    @Test
+    @DisplayName("Should count orders once paid and reverse cash on delivery orders when returned")
+    void testSalesFollowPayment() {
+        // Unpaid, failed and cancelled-before-payment orders are not sales
+        order(5, "2025-01-16", "UPI", "PENDING", "PENDING", null, line(7, "500.00"));
+        order(6, "2025-01-16", "UPI", "FAILED", "PENDING", null, line(7, "600.00"));
+        order(7, "2025-01-16", "UPI", "PENDING", "CANCELLED", null, line(7, "700.00"));
+        // Cash on delivery counts on the day it is delivered, until it is returned
+        order(8, "2025-01-16", "COD", "PENDING", "DELIVERED", "2025-01-25", line(8, "80.00"));
+        order(9, "2025-01-16", "COD", "PENDING", "RETURNED", "2025-01-26", line(8, "90.00"));
+        order(10, "2025-01-16", "COD", "PENDING", "CANCELLED", null, line(8, "95.00"));
+
+        backfillJob.backfill(ALL_HISTORY);
+        ledger.rollUpFacts();
+
+        Totals january = ledger.totals(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1));
+        assertMoney("430.00", january.sales());
+        assertEquals(3, january.orders());
+        assertMoney("80.00", ledger.series(8L, LocalDate.of(2025, 1, 25), LocalDate.of(2025, 1, 26), Period.DAY)
+                .get(LocalDate.of(2025, 1, 25)).sales());
+    }
+
+    @Test
+    @DisplayName("Should roll up a fact that commits after a later one")
+    void testLateFactsAreRolledUp() {
+        fact(20, "SALE", 20, "10.00", "2025-06-01", LocalDateTime.now());
+        assertEquals(1, ledger.rollUpFacts());
+
+        // Lower id, written long before, visible only now
+        fact(15, "SALE", 15, "5.00", "2025-06-01", LocalDateTime.now().minusHours(1));
+        assertEquals(1, ledger.rollUpFacts());
+        assertMoney("15.00", ledger.totals(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2)).sales());
+    }
+
+    @Test
+    @DisplayName("Should serve vendor months, quarters and GST slabs from the rollups")
+    void testReports() {
+        backfillJob.backfill(ALL_HISTORY);
+        ledger.rollUpFacts();
+
+        Map<LocalDate, Totals> months = ledger.series(7L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 5, 1), Period.MONTH);
+        assertEquals(List.of(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 1),
+                LocalDate.of(2025, 4, 1)), List.copyOf(months.keySet()));
+        assertMoney("250.00", months.get(LocalDate.of(2025, 1, 1)).sales());
+        assertEquals(1, months.get(LocalDate.of(2025, 1, 1)).orders());
+        assertMoney("250.00", months.get(LocalDate.of(2025, 2, 1)).netSales());
+        assertMoney("50.00", months.get(LocalDate.of(2025, 2, 1)).refunds());
+        assertEquals(Totals.ZERO, months.get(LocalDate.of(2025, 3, 1)));
+        assertMoney("40.00", months.get(LocalDate.of(2025, 4, 1)).sales());
+
+        Map<LocalDate, Totals> quarters = ledger.series(null, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 1), Period.QUARTER);
+        assertEquals(2, quarters.size());
+        assertMoney("650.00", quarters.get(LocalDate.of(2025, 1, 1)).sales());
+        assertEquals(3, quarters.get(LocalDate.of(2025, 1, 1)).orders());
+        assertMoney("40.00", quarters.get(LocalDate.of(2025, 4, 1)).sales());
+        assertEquals("2025-Q2", Period.QUARTER.label(LocalDate.of(2025, 4, 1)));
+
+        // The cancelled 5% invoice and its void cancel out
+        Totals firstQuarter = ledger.totals(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1));
+        assertMoney("1770.00", firstQuarter.invoiced());
+        assertMoney("270.00", firstQuarter.tax());
+        assertEquals(2, firstQuarter.invoiceCount());
+
+        List<RevenueLedger.SlabTotals> slabs = ledger.gstSlabs(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1));
+        RevenueLedger.SlabTotals eighteen = slabs.stream()
+                .filter(slab -> slab.gstRate().compareTo(new BigDecimal("18")) == 0).findFirst().orElseThrow();
+        assertMoney("1500.00", eighteen.totals().invoicedTaxable());
+        assertMoney("90.00", eighteen.totals().cgst());
+        assertMoney("90.00", eighteen.totals().igst());
+        RevenueLedger.SlabTotals five = slabs.stream()
+                .filter(slab -> slab.gstRate().compareTo(new BigDecimal("5")) == 0).findFirst().orElseThrow();
+        assertEquals(0, five.totals().invoiceCount());
+        assertMoney("0.00", five.totals().invoiced());
+
+        Map<Long, BigDecimal> top = ledger.topVendors(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 5, 1), 5);
+        assertEquals(List.of(7L, 8L), List.copyOf(top.keySet()));
+        assertMoney("540.00", top.get(7L));
+    }
+
+    private void order(long id, String day, Object[]... lines) {
+        order(id, day, "UPI", "PAID", "CONFIRMED", null, lines);
+    }
+
+    private void order(long id, String day, String method, String paymentStatus, String status, String delivered,
+                       Object[]... lines) {
+        jdbcTemplate.update("INSERT INTO buyer_orders (id, order_number, user_id, total_amount, shipping_amount, " +
+                        "tax_amount, grand_total, payment_method, payment_status, status, created_at, delivered_at) " +
+                        "VALUES (?, ?, ?, 0, 0, 0, 0, ?, ?, ?, ?, ?)",
+                id, "ORD-" + id, 1L, method, paymentStatus, status, at(day), delivered != null ? at(delivered) : null);
+        for (Object[] line : lines) {
+            long lineId = nextLineId++;
+            jdbcTemplate.update("INSERT INTO buyer_order_items (id, order_id, product_id, vendor_id, quantity, price, " +
+                            "total_price) VALUES (?, ?, ?, ?, 1, ?, ?)",
+                    lineId, id, lineId, line[0], line[1], line[1]);
+        }
+    }
+
+    private void fact(long id, String type, long sourceId, String amount, String day, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO revenue_facts (id, fact_type, source_id, vendor_id, gst_rate, occurred_on, amount, " +
+                        "taxable_amount, cgst, sgst, igst, units, created_at) VALUES (?, ?, ?, 7, 0, ?, ?, 0, 0, 0, 0, 1, ?)",
+                id, type, sourceId, Date.valueOf(day), new BigDecimal(amount), Timestamp.valueOf(createdAt));
+    }
+
+    private static Object[] line(long vendorId, String total) {
+        return new Object[]{vendorId, new BigDecimal(total)};
+    }
+
+    private void refund(long id, long vendorId, String amount, String status, String day) {
+        jdbcTemplate.update("INSERT INTO refunds (id, refund_id, payment_id, vendor_id, refund_amount, original_amount, " +
+                        "status, type, requested_at, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'PARTIAL', ?, ?)",
+                id, "RFD-" + id, id, vendorId, new BigDecimal(amount), new BigDecimal(amount), status, at(day),
+                "COMPLETED".equals(status) ? at(day) : null);
+    }
+
+    private void invoice(long id, long vendorId, String subtotal, String cgst, String sgst, String igst,
+                         String cgstRate, String sgstRate, String igstRate, String status, String day, String updated) {
+        BigDecimal total = new BigDecimal(subtotal).add(new BigDecimal(cgst)).add(new BigDecimal(sgst)).add(new BigDecimal(igst));
+        jdbcTemplate.update("INSERT INTO invoices (id, invoice_number, vendor_id, subtotal, cgst_amount, sgst_amount, " +
+                        "igst_amount, total_amount, cgst_rate, sgst_rate, igst_rate, status, type, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ORDER', ?, ?)",
+                id, "INV-" + id, vendorId, new BigDecimal(subtotal), new BigDecimal(cgst), new BigDecimal(sgst),
+                new BigDecimal(igst), total, new BigDecimal(cgstRate), new BigDecimal(sgstRate), new BigDecimal(igstRate),
+                status, at(day), updated != null ? at(updated) : null);
+    }
+
+    private static Timestamp at(String day) {
+        return Timestamp.valueOf(LocalDate.parse(day).atTime(10, 0));
+    }
+
+    private static void assertMoney(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
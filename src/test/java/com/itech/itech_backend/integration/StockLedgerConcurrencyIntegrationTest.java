@@ -0,0 +1,275 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.model.StockMovement;
+import com.itech.itech_backend.modules.product.model.StockReservation;
+import com.itech.itech_backend.modules.product.repository.ProductRepository;
+import com.itech.itech_backend.modules.product.repository.StockMovementRepository;
+import com.itech.itech_backend.modules.product.repository.StockReservationRepository;
+import com.itech.itech_backend.modules.product.service.InventoryLedgerService;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import com.itech.itech_backend.modules.vendor.model.VendorProfile;
+import com.itech.itech_backend.modules.vendor.repository.VendorProfileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inventory ledger concurrency tests
+ * Races reservations, releases and the expiry sweep against one product row on
+ * H2; every call commits on its own so the conditional updates really contend
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InventoryLedgerService.class, SchedulerLockService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stock_ledger;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.hikari.maximum-pool-size=12",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Stock Ledger Concurrency Integration Tests")
+public class StockLedgerConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private InventoryLedgerService ledger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private VendorProfileRepository vendorProfileRepository;
+
+    private ExecutorService pool;
+    private VendorProfile vendor;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(THREADS);
+        vendor = vendorProfileRepository.save(VendorProfile.builder().vendorName("Ledger Vendor").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        movementRepository.deleteAll();
+        reservationRepository.deleteAll();
+        productRepository.deleteAll();
+        vendorProfileRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never reserve more than is in stock")
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        Long productId = product("LEDGER-1", 100, 10).getId();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        race(THREADS * 25, i -> {
+            try {
+                ledger.reserve(productId, 1);
+                reserved.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertEquals("Insufficient stock for product ID: " + productId, e.getMessage());
+                refused.incrementAndGet();
+            }
+        });
+
+        assertEquals(100, reserved.get());
+        assertEquals(THREADS * 25 - 100, refused.get());
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(100, product.getStockQuantity());
+        assertEquals(100, product.getReservedQuantity());
+        assertEquals(0, product.getAvailableQuantity());
+        assertEquals(-10, product.getLowStockHeadroom());
+        assertEquals(Product.StockStatus.OUT_OF_STOCK, product.getStockStatus());
+
+        // Each reservation saw its own balance: the running totals are a gapless 0..99
+        List<StockMovement> movements = movementRepository.findByProductIdOrderByIdDesc(productId, PageRequest.of(0, 500));
+        assertEquals(100, movements.size());
+        Set<Integer> balances = movements.stream().map(StockMovement::getAvailableAfter).collect(Collectors.toSet());
+        assertEquals(100, balances.size());
+        assertEquals(0, balances.stream().mapToInt(Integer::intValue).min().orElseThrow());
+        assertEquals(99, balances.stream().mapToInt(Integer::intValue).max().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should return every released unit exactly once")
+    void testConcurrentReserveAndRelease() throws Exception {
+        Long productId = product("LEDGER-2", 40, null).getId();
+        AtomicInteger cycles = new AtomicInteger();
+
+        race(THREADS * 20, i -> {
+            try {
+                StockReservation reservation = ledger.reserve(productId, 3);
+                ledger.release(reservation.getId());
+                cycles.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Insufficient stock"), e.getMessage());
+            }
+        });
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(0, product.getReservedQuantity());
+        assertEquals(40, product.getAvailableQuantity());
+        assertEquals(Product.StockStatus.IN_STOCK, product.getStockStatus());
+        assertEquals(cycles.get(), movementRepository.countByProductIdAndMovementType(productId, StockMovement.MovementType.RESERVE));
+        assertEquals(cycles.get(), movementRepository.countByProductIdAndMovementType(productId, StockMovement.MovementType.RELEASE));
+    }
+
+    @Test
+    @DisplayName("Should expire due reservations in batches without racing releases")
+    void testSweepRacingReleases() throws Exception {
+        Long productId = product("LEDGER-3", 70, null).getId();
+        List<Long> reservationIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            reservationIds.add(ledger.reserve(productId, 2, Duration.ofMinutes(-1)).getId());
+        }
+        ledger.reserve(productId, 5, Duration.ofHours(1));
+        InventoryLedgerService target = AopTestUtils.getTargetObject(ledger);
+        ReflectionTestUtils.setField(target, "sweepBatchSize", 4);
+
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        Set<Long> stale = ConcurrentHashMap.newKeySet();
+        race(THREADS, i -> {
+            if (i % 2 == 0) {
+                expired.addAndGet(ledger.expireDue(LocalDateTime.now()));
+                return;
+            }
+            for (int r = i; r < reservationIds.size(); r += THREADS) {
+                try {
+                    ledger.release(reservationIds.get(r));
+                    released.incrementAndGet();
+                } catch (RuntimeException e) {
+                    stale.add(reservationIds.get(r));
+                }
+            }
+        });
+        expired.addAndGet(ledger.expireDue(LocalDateTime.now()));
+
+        assertEquals(30, expired.get() + released.get());
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(5, product.getReservedQuantity());
+        assertEquals(65, product.getAvailableQuantity());
+        assertEquals(expired.get(), movementRepository.countByProductIdAndMovementType(productId, StockMovement.MovementType.EXPIRE));
+        for (Long id : stale) {
+            assertEquals(StockReservation.Status.EXPIRED, reservationRepository.findById(id).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Should release by quantity from the oldest reservations first")
+    void testReleaseByQuantity() {
+        Long productId = product("LEDGER-4", 20, 5).getId();
+        StockReservation first = ledger.reserve(productId, 4);
+        StockReservation second = ledger.reserve(productId, 6);
+
+        ledger.release(productId, 7);
+
+        assertEquals(StockReservation.Status.RELEASED, reservationRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(3, reservationRepository.findById(second.getId()).orElseThrow().getQuantity());
+        assertEquals(3, productRepository.findById(productId).orElseThrow().getReservedQuantity());
+        assertThrows(RuntimeException.class, () -> ledger.release(productId, 4));
+        assertEquals(3, productRepository.findById(productId).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    @DisplayName("Should list low stock products from the headroom index")
+    void testLowStockFromHeadroom() {
+        Long low = product("LEDGER-5", 30, 10).getId();
+        Long healthy = product("LEDGER-6", 30, 10).getId();
+
+        ledger.reserve(low, 22);
+        ledger.setStock(healthy, 80);
+        ledger.consume(ledger.reserve(healthy, 5).getId());
+
+        List<Long> lowStock = productRepository.findLowStockProducts().stream().map(Product::getId).toList();
+        assertEquals(List.of(low), lowStock);
+        assertEquals(Product.StockStatus.LOW_STOCK, productRepository.findById(low).orElseThrow().getStockStatus());
+
+        Product restocked = productRepository.findById(healthy).orElseThrow();
+        assertEquals(75, restocked.getStockQuantity());
+        assertEquals(65, restocked.getLowStockHeadroom());
+        assertThrows(RuntimeException.class, () -> ledger.setStock(low, 21));
+    }
+
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+
+    private void race(int tasks, Task task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            futures.add(pool.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private Product product(String sku, int stock, Integer lowStockThreshold) {
+        return productRepository.save(Product.builder()
+                .vendor(vendor)
+                .sku(sku)
+                .productName("Ledger " + sku)
+                .category("Medical Supplies")
+                .unitPrice(new BigDecimal("10.00"))
+                .stockQuantity(stock)
+                .reservedQuantity(0)
+                .lowStockThreshold(lowStockThreshold)
+                .stockStatus(Product.StockStatus.IN_STOCK)
+                .status(Product.ProductStatus.PUBLISHED)
+                .visibility(Product.ProductVisibility.PUBLIC)
+                .build());
+    }
+}
@@ -0,0 +1,238 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRepository;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRevenueTotalRepository;
+import com.itech.itech_backend.modules.payment.service.SubscriptionLifecycleEngine;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.shared.service.SchedulerLockService;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Subscription lifecycle tests
+ * Runs the lifecycle engine against subscription, revenue total and
+ * scheduler lease rows on H2; every call commits on its own, and other
+ * nodes are played by separate transactions on the same tables
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SubscriptionLifecycleEngine.class, SchedulerLockService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:subscription_lifecycle;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "subscription.lifecycle.page-size=1"
+})
+@DisplayName("Subscription Lifecycle Integration Tests")
+public class SubscriptionLifecycleIntegrationTest {
+
+    private static final String LOCK_NAME = "subscription-lifecycle";
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private SubscriptionLifecycleEngine engine;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionRevenueTotalRepository revenueTotalRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Vendors vendor;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("vendor")
+                .email("vendor@subscription.test")
+                .password("secret")
+                .build());
+        vendor = vendorsRepository.save(Vendors.builder()
+                .user(user)
+                .name("vendor")
+                .email("vendor@subscription.test")
+                .password("secret")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        revenueTotalRepository.deleteAll();
+        vendorsRepository.deleteAll();
+        userRepository.deleteAll();
+        write("DELETE FROM scheduler_locks");
+    }
+
+    @Test
+    @DisplayName("Should keep a subscription added while the totals are being reconciled")
+    void testReconcileKeepsConcurrentIncrement() throws Exception {
+        subscription(Subscription.PlanType.GOLD, 100.0, LocalDateTime.now().plusDays(30));
+        engine.reconcile();
+        assertEquals(100.0, revenueTotalRepository.getTotalRevenue(), 0.001);
+
+        // Another node subscribes and has incremented the total, but not committed yet
+        CountDownLatch incremented = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> subscribe = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    subscription(Subscription.PlanType.GOLD, 250.0, LocalDateTime.now().plusDays(30));
+                    revenueTotalRepository.addSubscription(Subscription.PlanType.GOLD, 250.0, LocalDateTime.now());
+                    incremented.countDown();
+                    await(commit);
+                }));
+        assertTrue(incremented.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(engine::reconcile);
+        Thread.sleep(500);
+        assertFalse(reconcile.isDone(), "reconcile should wait for the in-flight increment");
+        commit.countDown();
+        subscribe.get(10, TimeUnit.SECONDS);
+        reconcile.get(10, TimeUnit.SECONDS);
+
+        assertEquals(350.0, revenueTotalRepository.getTotalRevenue(), 0.001);
+        assertEquals(2L, revenueTotalRepository.findById(Subscription.PlanType.GOLD).orElseThrow().getSubscriptionCount());
+    }
+
+    @Test
+    @DisplayName("Should renew the lease between pages and stop once another node takes it")
+    void testLeaseRenewedAndLossStopsRun() {
+        for (int i = 1; i <= 3; i++) {
+            subscription(Subscription.PlanType.BASIC, 10.0, LocalDateTime.now().minusDays(i));
+        }
+        engine.reconcile();
+        List<Timestamp> leases = new ArrayList<>();
+        doAnswer(invocation -> {
+            if (leases.isEmpty()) {
+                // Nearly expired by the time the first page commits
+                write("UPDATE scheduler_locks SET locked_until = ? WHERE name = ?",
+                        Timestamp.valueOf(LocalDateTime.now().plusSeconds(1)), LOCK_NAME);
+            }
+            leases.add(lockedUntil());
+            if (leases.size() == 2) {
+                // Another node takes over after the second page
+                write("UPDATE scheduler_locks SET locked_by = 'other-node', locked_until = ? WHERE name = ?",
+                        Timestamp.valueOf(LocalDateTime.now().plusMinutes(10)), LOCK_NAME);
+            }
+            return null;
+        }).when(notificationService).queueNotification(anyLong(), eq("Subscription Expired"), anyString(), any(), anyString());
+
+        engine.run();
+
+        assertEquals(2, leases.size());
+        assertTrue(leases.get(1).toLocalDateTime().isAfter(LocalDateTime.now().plusMinutes(5)),
+                "the lease should have been renewed before the second page");
+        assertEquals(1, subscriptionRepository.findAll().stream()
+                .filter(s -> s.getStatus() == Subscription.SubscriptionStatus.ACTIVE).count());
+        assertEquals("other-node", jdbcTemplate.queryForObject(
+                "SELECT locked_by FROM scheduler_locks WHERE name = ?", String.class, LOCK_NAME));
+    }
+
+    @Test
+    @DisplayName("Should remind again after a renewal moves the end date")
+    void testRenewalRearmsReminder() {
+        Subscription subscription = subscription(Subscription.PlanType.SILVER, 50.0, LocalDateTime.now().plusDays(3));
+        engine.run();
+        engine.run();
+        verify(notificationService, times(1)).queueNotification(anyLong(), eq("Subscription Renewal Reminder"),
+                anyString(), any(), anyString());
+
+        Subscription reminded = subscriptionRepository.findById(subscription.getId()).orElseThrow();
+        assertNotNull(reminded.getRenewalReminderSentAt());
+        reminded.setEndDate(reminded.getEndDate().plusDays(2));
+        subscriptionRepository.save(reminded);
+        assertNull(subscriptionRepository.findById(subscription.getId()).orElseThrow().getRenewalReminderSentAt());
+
+        engine.run();
+        verify(notificationService, times(2)).queueNotification(anyLong(), eq("Subscription Renewal Reminder"),
+                anyString(), any(), anyString());
+    }
+
+    private Subscription subscription(Subscription.PlanType planType, double price, LocalDateTime endDate) {
+        return subscriptionRepository.save(Subscription.builder()
+                .planName(planType.name())
+                .planType(planType)
+                .price(price)
+                .vendor(vendor)
+                .startDate(endDate.minusDays(30))
+                .endDate(endDate)
+                .status(Subscription.SubscriptionStatus.ACTIVE)
+                .build());
+    }
+
+    private Timestamp lockedUntil() {
+        return jdbcTemplate.queryForObject(
+                "SELECT locked_until FROM scheduler_locks WHERE name = ?", Timestamp.class, LOCK_NAME);
+    }
+
+    // The pool runs with auto-commit off, so fixture writes need a committed transaction of their own
+    private void write(String sql, Object... args) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(status -> jdbcTemplate.update(sql, args));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.service.VendorDashboardService;
+import com.itech.itech_backend.support.sql.SqlBudget;
+import com.itech.itech_backend.support.sql.SqlInstrumented;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vendor dashboard snapshot tests
+ * Counts the SQL a vendor dashboard costs on H2, cold and cached. Parallel
+ * queries are off so every statement runs on the test thread and is counted.
+ */
+@DataJpaTest
+@Import({VendorDashboardService.class, ParallelQueries.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "parallel-queries.enabled=false"
+})
+@SqlInstrumented
+@DisplayName("Vendor Dashboard Snapshot Integration Tests")
+public class VendorDashboardSnapshotIntegrationTest {
+
+    // The service caches email lookups across tests, so each test gets its own vendor
+    private static final AtomicInteger VENDORS = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VendorDashboardService dashboardService;
+
+    private String vendorEmail;
+    private Long vendorId;
+
+    @BeforeEach
+    void setUp() {
+        vendorEmail = "vendor" + VENDORS.incrementAndGet() + "@dashboard.test";
+        User user = entityManager.persist(User.builder()
+                .name("vendor")
+                .email(vendorEmail)
+                .password("secret")
+                .build());
+        vendorId = entityManager.persist(Vendors.builder()
+                .user(user)
+                .name("vendor")
+                .email(vendorEmail)
+                .password("secret")
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should build a dashboard from the vendor lookup, one aggregate and the unread count")
+    @SqlBudget(max = 3)
+    void testSnapshotStatementCount() {
+        VendorDashboardService.Snapshot snapshot = dashboardService.getSnapshot(vendorEmail);
+
+        assertEquals(0, snapshot.totalProducts());
+        assertEquals(0, snapshot.totalOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(snapshot.monthlyRevenue()));
+        assertEquals(0, snapshot.unreadMessages());
+    }
+
+    @Test
+    @DisplayName("Should serve repeat reads from the cached snapshot")
+    @SqlBudget(max = 3)
+    void testRepeatReadsAreCached() {
+        VendorDashboardService.Snapshot first = dashboardService.getSnapshot(vendorEmail);
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, dashboardService.getSnapshot(vendorEmail));
+        }
+        assertSame(first, dashboardService.getSnapshot(vendorId));
+    }
+}
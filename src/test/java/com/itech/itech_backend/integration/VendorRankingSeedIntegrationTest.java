@@ -0,0 +1,172 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.repository.OrderRepository;
+import com.itech.itech_backend.modules.buyer.repository.QuoteRepository;
+import com.itech.itech_backend.modules.buyer.repository.ReviewRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorRankingRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vendor ranking seeding tests
+ * Loads engines over vendor_ranking rows that are missing, unseeded or
+ * seeded on H2, with the source aggregates stubbed; each engine stands in
+ * for one node and every write commits on its own
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:vendor_ranking_seed;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Vendor Ranking Seed Integration Tests")
+public class VendorRankingSeedIntegrationTest {
+
+    @Autowired
+    private VendorRankingRepository rankingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object[]> orderAggregates = new ArrayList<>();
+
+    // Ranking rows reference vendors that are not under test
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        write("DELETE FROM vendor_ranking");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    @DisplayName("Should derive totals for unseeded and missing rows and keep seeded ones")
+    void testSeedsOnlyUnseededVendors() {
+        // Vendor 1 predates the counter columns, vendor 2 is already seeded, vendor 3 has no row
+        write("INSERT INTO vendor_ranking (vendor_id, total_leads_generated, performance_score) VALUES (1, 0, 0)");
+        write("INSERT INTO vendor_ranking (vendor_id, total_leads_generated, performance_score, order_count, " +
+                "revenue, review_count, rating_sum, response_count, response_minutes, counters_seeded_at) " +
+                "VALUES (2, 0, 0, 10, 1000, 0, 0, 0, 0, ?)", Timestamp.valueOf(LocalDateTime.now()));
+        orders(1L, 4, 400.0);
+        orders(2L, 99, 9900.0);
+        orders(3L, 2, 50.0);
+
+        VendorRankingEngine engine = engine();
+        engine.warmUp();
+        engine.snapshot();
+
+        assertOrders(1L, 4, 400.0);
+        assertOrders(2L, 10, 1000.0);
+        assertOrders(3L, 2, 50.0);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM vendor_ranking WHERE counters_seeded_at IS NULL", Integer.class));
+        assertEquals(3, rankingRepository.findCounterSnapshots().size());
+
+        // A restart re-derives nothing
+        orders(1L, 40, 4000.0);
+        VendorRankingEngine restarted = engine();
+        restarted.warmUp();
+        restarted.snapshot();
+        assertOrders(1L, 4, 400.0);
+        assertEquals(engine.getScore(1L), restarted.getScore(1L));
+    }
+
+    @Test
+    @DisplayName("Should seed a vendor once when two nodes bootstrap it together")
+    void testConcurrentBootstrapDoesNotDoubleCount() {
+        orders(5L, 3, 300.0);
+        VendorRankingEngine first = engine();
+        VendorRankingEngine second = engine();
+        first.warmUp();
+        second.warmUp();
+
+        first.snapshot();
+        second.recordOrder(5L, 100.0);
+        // The second node loses the seed and keeps only its own order, flushed as a delta
+        second.snapshot();
+        second.snapshot();
+        assertOrders(5L, 4, 400.0);
+
+        first.snapshot();
+        assertEquals(first.getScore(5L), second.getScore(5L));
+        assertTrue(first.getScore(5L) > 0);
+    }
+
+    @Test
+    @DisplayName("Should seed an empty row created after load with the node's totals")
+    void testEmptyRowCreatedAfterLoad() {
+        VendorRankingEngine engine = engine();
+        engine.warmUp();
+
+        // As getOrCreateRanking leaves it
+        write("INSERT INTO vendor_ranking (vendor_id, total_leads_generated, performance_score, order_count, " +
+                "revenue, review_count, rating_sum, response_count, response_minutes) VALUES (7, 0, 0, 0, 0, 0, 0, 0, 0)");
+        engine.recordOrder(7L, 50.0);
+        engine.recordOrder(7L, 25.0);
+        engine.snapshot();
+        engine.snapshot();
+
+        assertOrders(7L, 2, 75.0);
+    }
+
+    private VendorRankingEngine engine() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.aggregateOrdersPerVendor()).thenAnswer(invocation -> List.copyOf(orderAggregates));
+        return new VendorRankingEngine(rankingRepository, mock(BuyerProductRepository.class), mock(VendorsRepository.class),
+                orderRepository, mock(ReviewRepository.class), mock(QuoteRepository.class), mock(LeadRepository.class),
+                jdbcTemplate, transactionManager);
+    }
+
+    // The pool runs with auto-commit off, so fixture rows need a committed transaction of their own
+    private void write(String sql, Object... args) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(sql, args));
+    }
+
+    private void orders(Long vendorId, long count, double revenue) {
+        orderAggregates.removeIf(row -> row[0].equals(vendorId));
+        orderAggregates.add(new Object[]{vendorId, count, revenue});
+    }
+
+    private void assertOrders(Long vendorId, long count, double revenue) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT order_count, revenue FROM vendor_ranking WHERE vendor_id = ?", vendorId);
+        assertEquals(count, ((Number) row.get("ORDER_COUNT")).longValue());
+        assertEquals(revenue, ((Number) row.get("REVENUE")).doubleValue(), 0.001);
+    }
+}
@@ -0,0 +1,123 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.enums.VendorBusinessType;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.shared.service.ActivityTracker;
+import com.itech.itech_backend.modules.shared.service.StatisticsCache;
+import com.itech.itech_backend.modules.vendor.dto.VendorDto;
+import com.itech.itech_backend.modules.vendor.model.Vendor;
+import com.itech.itech_backend.modules.vendor.service.VendorServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vendor service tests
+ * Reads vendors back through the service on H2 while activity signals are
+ * still buffered, then after they are flushed
+ */
+@DataJpaTest
+@Import({VendorServiceImpl.class, ActivityTracker.class, StatisticsCache.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Vendor Service Integration Tests")
+public class VendorServiceIntegrationTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VendorServiceImpl vendorService;
+
+    @Autowired
+    private ActivityTracker activityTracker;
+
+    private Long vendorId;
+    private LocalDateTime lastLogin;
+
+    @BeforeEach
+    void setUp() {
+        lastLogin = LocalDateTime.now().minusDays(3).withNano(0);
+        vendorId = entityManager.persist(vendor("Acme Supplies", 10L, lastLogin)).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should overlay buffered activity on vendor DTOs")
+    void testDtoOverlaysPendingActivity() {
+        activityTracker.addProfileViews(ActivityTracker.Subject.VENDOR, vendorId, 2);
+        activityTracker.addInquiries(ActivityTracker.Subject.VENDOR, vendorId, 1);
+        activityTracker.recordLogin(ActivityTracker.Subject.VENDOR, vendorId);
+
+        VendorDto dto = vendorService.getVendorById(vendorId);
+        assertEquals(12L, dto.getProfileViews());
+        assertEquals(0L, dto.getProductViews());
+        assertEquals(1L, dto.getInquiryCount());
+        assertTrue(dto.getLastLogin().isAfter(lastLogin));
+        assertNotNull(dto.getLastActivity());
+
+        VendorDto listed = vendorService.getAllVendors(PageRequest.of(0, 10)).getContent().get(0);
+        assertEquals(12L, listed.getProfileViews());
+        assertEquals(1L, listed.getInquiryCount());
+    }
+
+    @Test
+    @DisplayName("Should report the same totals once the buffer is flushed")
+    void testFlushedActivityIsNotCountedTwice() {
+        activityTracker.addProfileViews(ActivityTracker.Subject.VENDOR, vendorId, 2);
+        activityTracker.addProductViews(ActivityTracker.Subject.VENDOR, vendorId, 5);
+        assertEquals(12L, vendorService.getVendorById(vendorId).getProfileViews());
+
+        activityTracker.flush();
+        entityManager.clear();
+
+        VendorDto dto = vendorService.getVendorById(vendorId);
+        assertEquals(12L, dto.getProfileViews());
+        assertEquals(5L, dto.getProductViews());
+        assertEquals(lastLogin, dto.getLastLogin());
+        assertSame(ActivityTracker.Delta.EMPTY, activityTracker.peek(ActivityTracker.Subject.VENDOR, vendorId));
+    }
+
+    @Test
+    @DisplayName("Should return the stored values when nothing is buffered")
+    void testDtoWithoutPendingActivity() {
+        VendorDto dto = vendorService.getVendorById(vendorId);
+
+        assertEquals(10L, dto.getProfileViews());
+        assertEquals(0L, dto.getInquiryCount());
+        assertEquals(lastLogin, dto.getLastLogin());
+    }
+
+    private Vendor vendor(String name, Long profileViews, LocalDateTime lastLogin) {
+        User user = entityManager.persist(User.builder()
+                .name(name)
+                .email(name.toLowerCase().replace(' ', '.') + "@vendor.test")
+                .password("secret")
+                .build());
+        Vendor vendor = new Vendor();
+        vendor.setUser(user);
+        vendor.setBusinessName(name);
+        vendor.setBusinessType(VendorBusinessType.MANUFACTURER);
+        vendor.setProfileViews(profileViews);
+        vendor.setLastLogin(lastLogin);
+        return vendor;
+    }
+}
@@ -0,0 +1,145 @@
+package com.itech.itech_backend.integration;
+
+import com.itech.itech_backend.util.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soak test for the STOMP endpoint
+ * Opens many concurrent SockJS sessions against the local broker and checks
+ * that topic broadcasts and user-destination sends reach every session.
+ *
+ * Run with: mvn test -Dtest=WebSocketSoakTest -Dsoak=true [-Dsoak.sessions=5000]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "soak", matches = "true")
+@DisplayName("WebSocket Soak Test")
+@Slf4j
+public class WebSocketSoakTest {
+
+    private static final int SESSIONS = Integer.getInteger("soak.sessions", 2000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(session -> {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should deliver broadcasts and user messages to thousands of concurrent sessions")
+    void testConcurrentSessions() throws Exception {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(4);
+        heartbeatScheduler.initialize();
+
+        try {
+            StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+            WebSocketStompClient stompClient = new WebSocketStompClient(
+                    new SockJsClient(List.of(new WebSocketTransport(webSocketClient))));
+            stompClient.setMessageConverter(new StringMessageConverter());
+            stompClient.setTaskScheduler(heartbeatScheduler);
+
+            CountDownLatch broadcasts = new CountDownLatch(SESSIONS);
+            CountDownLatch userMessages = new CountDownLatch(SESSIONS);
+            String url = "http://localhost:" + port + "/ws";
+
+            long connectStart = System.nanoTime();
+            List<CompletableFuture<StompSession>> pending = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+                headers.add("Authorization", "Bearer " + jwtUtil.generateToken(userEmail(i), "USER"));
+                pending.add(stompClient.connectAsync(url, headers, new StompSessionHandlerAdapter() {
+                }));
+            }
+            for (CompletableFuture<StompSession> future : pending) {
+                StompSession session = future.get(60, TimeUnit.SECONDS);
+                sessions.add(session);
+                session.subscribe("/topic/soak", countingHandler(broadcasts));
+                session.subscribe("/user/queue/notifications", countingHandler(userMessages));
+            }
+            long connectMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+            assertEquals(SESSIONS, sessions.size());
+
+            // Give SUBSCRIBE frames time to reach the broker before publishing
+            Thread.sleep(2000);
+
+            long deliveryStart = System.nanoTime();
+            messagingTemplate.convertAndSend("/topic/soak", "broadcast");
+            for (int i = 0; i < SESSIONS; i++) {
+                messagingTemplate.convertAndSendToUser(userEmail(i), "/queue/notifications", "hello " + i);
+            }
+
+            assertTrue(broadcasts.await(60, TimeUnit.SECONDS),
+                    "Broadcast missing on " + broadcasts.getCount() + " sessions");
+            assertTrue(userMessages.await(60, TimeUnit.SECONDS),
+                    "User message missing on " + userMessages.getCount() + " sessions");
+            long deliveryMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deliveryStart);
+
+            log.info("Soak: {} sessions connected in {} ms, {} messages delivered in {} ms",
+                    SESSIONS, connectMs, SESSIONS * 2, deliveryMs);
+        } finally {
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    private static String userEmail(int index) {
+        return "soak" + index + "@test.com";
+    }
+
+    private static StompFrameHandler countingHandler(CountDownLatch latch) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                latch.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.itech.itech_backend.support.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL statement budget for a test of an {@link SqlInstrumented} class.
+ *
+ * Each request the test sends through {@link SqlCaptureFilter} must stay
+ * within the budget; a test that sends no request is checked as a whole.
+ * Statements run in {@code @BeforeEach} setup are not counted.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface SqlBudget {
+
+    /**
+     * Most statements one request may execute
+     */
+    int max();
+
+    /**
+     * Executions of the same statement shape within one request that
+     * count as an N+1
+     */
+    int repeatThreshold() default 3;
+
+    /**
+     * Whether an N+1 fails the test rather than only appearing in the report
+     */
+    boolean failOnRepeats() default true;
+}
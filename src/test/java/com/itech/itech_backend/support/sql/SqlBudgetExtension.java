@@ -0,0 +1,64 @@
+package com.itech.itech_backend.support.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Captures the SQL of each test body, checks it against {@link SqlBudget}
+ * and hands it to {@link SqlReport}, which prints once the run ends.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(SqlReport.class,
+                key -> (ExtensionContext.Store.CloseableResource) SqlReport::publish,
+                ExtensionContext.Store.CloseableResource.class);
+
+        String name = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        context.getStore(NAMESPACE).put(SqlCapture.class, SqlRecorder.start(name));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlCapture capture = context.getStore(NAMESPACE).remove(SqlCapture.class, SqlCapture.class);
+        if (capture == null) {
+            return;
+        }
+        SqlRecorder.stop(capture);
+
+        Optional<SqlBudget> budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), SqlBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlBudget.class));
+        int repeatThreshold = budget.map(SqlBudget::repeatThreshold).orElse(3);
+
+        // Requests are budgeted one by one; a test without requests is budgeted as a whole
+        List<SqlCapture> units = capture.getChildren().isEmpty() ? List.of(capture) : capture.getChildren();
+        List<String> violations = new ArrayList<>();
+        for (SqlCapture unit : units) {
+            SqlReport.add(unit, budget.map(SqlBudget::max).orElse(null), repeatThreshold);
+            if (budget.isEmpty()) {
+                continue;
+            }
+            boolean overBudget = unit.getStatementCount() > budget.get().max();
+            boolean repeats = budget.get().failOnRepeats() && !unit.repeatedShapes(repeatThreshold).isEmpty();
+            if (overBudget || repeats) {
+                violations.add(unit.describe(repeatThreshold));
+            }
+        }
+
+        if (!violations.isEmpty() && context.getExecutionException().isEmpty()) {
+            fail("SQL budget of " + budget.get().max() + " statements exceeded or N+1 detected:\n"
+                    + String.join("\n", violations));
+        }
+    }
+}
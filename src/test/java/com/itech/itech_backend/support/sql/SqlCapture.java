@@ -0,0 +1,105 @@
+package com.itech.itech_backend.support.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Statements executed while one request or test body ran.
+ * Captures opened while this one was open are kept as children.
+ */
+public final class SqlCapture {
+
+    /**
+     * One execution: the SQL, its literal-free shape and the code that caused it
+     */
+    public record Execution(String sql, String shape, String callSite) {
+    }
+
+    /**
+     * A statement shape executed at least the repeat threshold times
+     */
+    public record RepeatedShape(String shape, int count, Set<String> callSites) {
+    }
+
+    private final String name;
+    private final List<Execution> executions = Collections.synchronizedList(new ArrayList<>());
+    private final List<SqlCapture> children = Collections.synchronizedList(new ArrayList<>());
+
+    SqlCapture(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStatementCount() {
+        return executions.size();
+    }
+
+    public List<Execution> getExecutions() {
+        synchronized (executions) {
+            return List.copyOf(executions);
+        }
+    }
+
+    public List<SqlCapture> getChildren() {
+        synchronized (children) {
+            return List.copyOf(children);
+        }
+    }
+
+    /**
+     * Shapes executed at least {@code threshold} times, most frequent first
+     */
+    public List<RepeatedShape> repeatedShapes(int threshold) {
+        Map<String, List<Execution>> byShape = getExecutions().stream()
+                .collect(Collectors.groupingBy(Execution::shape, LinkedHashMap::new, Collectors.toList()));
+        return byShape.entrySet().stream()
+                .filter(entry -> entry.getValue().size() >= threshold)
+                .map(entry -> new RepeatedShape(entry.getKey(), entry.getValue().size(),
+                        entry.getValue().stream().map(Execution::callSite)
+                                .collect(Collectors.toCollection(LinkedHashSet::new))))
+                .sorted(Comparator.comparingInt(RepeatedShape::count).reversed())
+                .toList();
+    }
+
+    /**
+     * Statement counts per call site, highest first
+     */
+    public Map<String, Long> countsByCallSite() {
+        return getExecutions().stream()
+                .collect(Collectors.groupingBy(Execution::callSite, Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Multi-line breakdown for assertion messages and the report
+     */
+    public String describe(int repeatThreshold) {
+        StringBuilder text = new StringBuilder(name).append(": ").append(getStatementCount()).append(" statements");
+        countsByCallSite().forEach((site, count) -> text.append("\n    ").append(count).append(" x ").append(site));
+        for (RepeatedShape repeated : repeatedShapes(repeatThreshold)) {
+            text.append("\n    N+1: ").append(repeated.count()).append(" x ").append(repeated.shape())
+                    .append("\n         from ").append(String.join(", ", repeated.callSites()));
+        }
+        return text.toString();
+    }
+
+    void add(Execution execution) {
+        executions.add(execution);
+    }
+
+    void addChild(SqlCapture child) {
+        children.add(child);
+    }
+}
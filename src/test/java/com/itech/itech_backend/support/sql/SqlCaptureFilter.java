@@ -0,0 +1,28 @@
+package com.itech.itech_backend.support.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens one capture per MockMvc request, named after the endpoint, so
+ * {@link SqlBudget} applies to each request rather than the whole test.
+ * Add it with {@code MockMvcBuilders.webAppContextSetup(context).addFilters(new SqlCaptureFilter())}.
+ */
+public class SqlCaptureFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlCapture capture = SqlRecorder.start(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRecorder.stop(capture);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.itech.itech_backend.support.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every DataSource bean so its statements reach {@link SqlRecorder}
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlInstrumentationConfig {
+
+    @Bean
+    static BeanPostProcessor sqlInstrumentationPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.itech.itech_backend.support.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Counts the SQL each test in a Spring test class executes.
+ *
+ * Wraps the context's DataSource, enforces {@link SqlBudget} declarations
+ * and adds every test (or request, with {@link SqlCaptureFilter} on MockMvc)
+ * to the end-of-run SQL report.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@ExtendWith(SqlBudgetExtension.class)
+@Import(SqlInstrumentationConfig.class)
+public @interface SqlInstrumented {
+}
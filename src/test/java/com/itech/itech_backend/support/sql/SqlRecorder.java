@@ -0,0 +1,123 @@
+package com.itech.itech_backend.support.sql;
+
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Routes executed statements to the captures open on the current thread.
+ *
+ * Each statement is attributed to the innermost application frame on the
+ * stack, annotated with the repository method it went through or with
+ * "lazy load" when Hibernate initialized a proxy or collection, and reduced
+ * to a shape (literals and IN lists folded) so repeated queries group together.
+ */
+public final class SqlRecorder {
+
+    private static final String APPLICATION_PACKAGE = "com.itech.itech_backend.";
+    private static final String OWN_PACKAGE = SqlRecorder.class.getPackageName() + ".";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<Deque<SqlCapture>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlRecorder() {
+    }
+
+    /**
+     * Opens a capture on this thread, nested in any capture already open
+     */
+    public static SqlCapture start(String name) {
+        SqlCapture capture = new SqlCapture(name);
+        Deque<SqlCapture> open = OPEN.get();
+        if (!open.isEmpty()) {
+            open.peek().addChild(capture);
+        }
+        open.push(capture);
+        return capture;
+    }
+
+    public static void stop(SqlCapture capture) {
+        Deque<SqlCapture> open = OPEN.get();
+        open.remove(capture);
+        if (open.isEmpty()) {
+            OPEN.remove();
+        }
+    }
+
+    static void record(String sql) {
+        Deque<SqlCapture> open = OPEN.get();
+        if (open.isEmpty()) {
+            OPEN.remove();
+            return;
+        }
+        SqlCapture.Execution execution = new SqlCapture.Execution(sql, shapeOf(sql), callSite());
+        for (SqlCapture capture : open) {
+            capture.add(execution);
+        }
+    }
+
+    /**
+     * SQL with literals replaced by placeholders and IN lists collapsed, so
+     * the same query with different arguments has the same shape
+     */
+    public static String shapeOf(String sql) {
+        String shape = sql.trim().toLowerCase(Locale.ROOT);
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(frames -> {
+            StackWalker.StackFrame callee = null;
+            for (Iterator<StackWalker.StackFrame> it = frames.iterator(); it.hasNext(); ) {
+                StackWalker.StackFrame frame = it.next();
+                if (isApplicationFrame(frame.getClassName())) {
+                    return describe(frame) + via(callee);
+                }
+                callee = frame;
+            }
+            return "<outside application code>";
+        });
+    }
+
+    // Spring CGLIB subclasses and Hibernate proxies live in application packages but are not call sites
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith(APPLICATION_PACKAGE)
+                && !className.startsWith(OWN_PACKAGE)
+                && !className.contains("$$")
+                && !className.contains("$HibernateProxy");
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+    }
+
+    private static String via(StackWalker.StackFrame callee) {
+        if (callee == null) {
+            return "";
+        }
+        Class<?> type = callee.getDeclaringClass();
+        if (Proxy.isProxyClass(type)) {
+            return Arrays.stream(type.getInterfaces())
+                    .filter(contract -> contract != Repository.class && Repository.class.isAssignableFrom(contract))
+                    .findFirst()
+                    .map(repository -> " -> " + repository.getSimpleName() + "." + callee.getMethodName())
+                    .orElse("");
+        }
+        boolean lazyLoad = type.getName().startsWith("org.hibernate.") || type.getName().contains("$HibernateProxy");
+        return lazyLoad ? " (lazy load)" : "";
+    }
+}
@@ -0,0 +1,80 @@
+package com.itech.itech_backend.support.sql;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * End-of-run summary of every captured request and test body.
+ *
+ * Prints the worst endpoints by statement count, flagging budget overruns
+ * and N+1 shapes, and writes the full breakdown with call sites to
+ * target/sql-report.txt.
+ */
+public final class SqlReport {
+
+    private static final int CONSOLE_ROWS = 10;
+    private static final Path REPORT_FILE = Path.of("target", "sql-report.txt");
+
+    private record Entry(SqlCapture capture, Integer budget, int repeatThreshold) {
+
+        int statements() {
+            return capture.getStatementCount();
+        }
+
+        boolean overBudget() {
+            return budget != null && statements() > budget;
+        }
+
+        int repeatedShapes() {
+            return capture.repeatedShapes(repeatThreshold).size();
+        }
+
+        String summary() {
+            return String.format("%5d  %-8s %-7s %s", statements(),
+                    budget != null ? "max " + budget : "-",
+                    repeatedShapes() > 0 ? "N+1 x" + repeatedShapes() : "",
+                    capture.getName()) + (overBudget() ? "  OVER BUDGET" : "");
+        }
+    }
+
+    private static final Queue<Entry> ENTRIES = new ConcurrentLinkedQueue<>();
+
+    private SqlReport() {
+    }
+
+    static void add(SqlCapture capture, Integer budget, int repeatThreshold) {
+        ENTRIES.add(new Entry(capture, budget, repeatThreshold));
+    }
+
+    static void publish() throws IOException {
+        if (ENTRIES.isEmpty()) {
+            return;
+        }
+        List<Entry> worst = ENTRIES.stream()
+                .sorted(Comparator.comparing(Entry::overBudget)
+                        .thenComparingInt(Entry::repeatedShapes)
+                        .thenComparingInt(Entry::statements)
+                        .reversed())
+                .toList();
+
+        StringBuilder console = new StringBuilder("\n==== SQL report: worst endpoints ====\n");
+        worst.stream().limit(CONSOLE_ROWS).forEach(entry -> console.append(entry.summary()).append('\n'));
+        console.append("Full report: ").append(REPORT_FILE.toAbsolutePath()).append('\n');
+        System.out.print(console);
+
+        StringBuilder file = new StringBuilder();
+        for (Entry entry : worst) {
+            file.append(entry.summary()).append('\n')
+                    .append("    ").append(entry.capture().describe(entry.repeatThreshold())).append("\n\n");
+        }
+        Files.createDirectories(REPORT_FILE.getParent());
+        Files.writeString(REPORT_FILE, file, StandardCharsets.UTF_8);
+        ENTRIES.clear();
+    }
+}
@@ -0,0 +1,110 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.service.ActivityTracker;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Activity write-behind tests
+ * Coalesces signals in memory and flushes them to a hand-made H2 vendors table,
+ * including a flush that fails and is retried
+ */
+@DisplayName("Activity Tracker Unit Tests")
+public class ActivityTrackerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:activity-tracker;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE vendors (id BIGINT PRIMARY KEY, profile_views BIGINT, product_views BIGINT, "
+                + "inquiry_count BIGINT, last_login TIMESTAMP, last_activity TIMESTAMP)");
+        jdbcTemplate.execute("INSERT INTO vendors (id, profile_views) VALUES (1, 10), (2, NULL)");
+        tracker = new ActivityTracker(jdbcTemplate, new DataSourceTransactionManager(h2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vendors");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vendors_moved");
+    }
+
+    @Test
+    @DisplayName("Should coalesce signals per row and expose them through peek")
+    void testCoalescing() {
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 1L, 1);
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 1L, 2);
+        tracker.addProductViews(ActivityTracker.Subject.VENDOR, 1L, 5);
+        tracker.addInquiries(ActivityTracker.Subject.VENDOR, 1L, 1);
+        tracker.recordLogin(ActivityTracker.Subject.VENDOR, 1L);
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 2L, 4);
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, null, 4);
+
+        assertEquals(2, tracker.getPendingCount());
+        ActivityTracker.Delta delta = tracker.peek(ActivityTracker.Subject.VENDOR, 1L);
+        assertEquals(3, delta.profileViews());
+        assertEquals(5, delta.productViews());
+        assertEquals(1, delta.events());
+        assertNotNull(delta.lastLogin());
+        assertSame(ActivityTracker.Delta.EMPTY, tracker.peek(ActivityTracker.Subject.BUYER, 1L));
+
+        tracker.flush();
+
+        assertEquals(0, tracker.getPendingCount());
+        assertSame(ActivityTracker.Delta.EMPTY, tracker.peek(ActivityTracker.Subject.VENDOR, 1L));
+        Map<String, Object> vendor = jdbcTemplate.queryForMap("SELECT * FROM vendors WHERE id = 1");
+        assertEquals(13L, vendor.get("PROFILE_VIEWS"));
+        assertEquals(5L, vendor.get("PRODUCT_VIEWS"));
+        assertEquals(1L, vendor.get("INQUIRY_COUNT"));
+        assertNotNull(vendor.get("LAST_LOGIN"));
+        assertEquals(4L, jdbcTemplate.queryForObject("SELECT profile_views FROM vendors WHERE id = 2", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should keep deltas from a failed flush and write them on the next one")
+    void testFailedFlushIsRetried() {
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 1L, 2);
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 2L, 3);
+        jdbcTemplate.execute("ALTER TABLE vendors RENAME TO vendors_moved");
+
+        tracker.flush();
+
+        assertEquals(2, tracker.getPendingCount());
+        assertEquals(2, tracker.peek(ActivityTracker.Subject.VENDOR, 1L).profileViews());
+
+        // Signals that arrive while the batch is out merge with the returned deltas
+        tracker.addProfileViews(ActivityTracker.Subject.VENDOR, 1L, 1);
+        jdbcTemplate.execute("ALTER TABLE vendors_moved RENAME TO vendors");
+        tracker.flush();
+
+        assertEquals(0, tracker.getPendingCount());
+        assertEquals(13L, jdbcTemplate.queryForObject("SELECT profile_views FROM vendors WHERE id = 1", Long.class));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT profile_views FROM vendors WHERE id = 2", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should only move timestamps forward")
+    void testTimestampsOnlyMoveForward() {
+        LocalDateTime future = LocalDateTime.now().plusDays(1).withNano(0);
+        jdbcTemplate.update("UPDATE vendors SET last_activity = ? WHERE id = 1", future);
+
+        tracker.recordActivity(ActivityTracker.Subject.VENDOR, 1L);
+        tracker.flush();
+
+        assertEquals(future, jdbcTemplate.queryForObject(
+                "SELECT last_activity FROM vendors WHERE id = 1", LocalDateTime.class));
+    }
+}
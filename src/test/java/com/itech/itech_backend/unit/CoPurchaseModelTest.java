@@ -0,0 +1,149 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.product.service.CoPurchaseModel;
+import com.itech.itech_backend.modules.product.service.ProductRecommender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Co-purchase recommendation tests
+ * Builds models from hand-made baskets, a synthetic million-line order history
+ * and an in-memory H2 order table
+ */
+@DisplayName("Co-Purchase Model Unit Tests")
+public class CoPurchaseModelTest {
+
+    @Test
+    @DisplayName("Should rank neighbours by co-purchase strength, then fill from the category")
+    void testNeighbourRanking() {
+        CoPurchaseModel model = CoPurchaseModel.builder(10, 3)
+                .catalog(1, "gloves").catalog(2, "gloves").catalog(3, "masks").catalog(4, "masks").catalog(5, "gloves")
+                .add(100, 1, 1f).add(100, 2, 1f)
+                .add(101, 1, 1f).add(101, 2, 1f)
+                .add(102, 1, 1f).add(102, 3, 1f)
+                .add(103, 4, 1f)
+                .build();
+
+        assertArrayEquals(new long[]{2, 3, 5}, model.related(1, 5));
+        assertArrayEquals(new long[]{2}, model.related(1, 1));
+        assertArrayEquals(new long[]{3}, model.crossSells(1, 5));
+        assertArrayEquals(new long[]{1, 2, 5}, model.category("gloves", 0));
+        assertArrayEquals(new long[]{2, 5}, model.category("gloves", 1));
+        assertNull(model.category("syringes", 0));
+        assertArrayEquals(new long[0], model.related(999, 5));
+    }
+
+    @Test
+    @DisplayName("Should count a product once per basket and keep sources apart")
+    void testBasketBoundaries() {
+        CoPurchaseModel model = CoPurchaseModel.builder(10, 5)
+                .catalog(1, null).catalog(2, null).catalog(3, null)
+                .add(7, 1, 1f).add(7, 1, 1f).add(7, 2, 1f)
+                .endSource()
+                .add(7, 3, 0.5f)
+                .build();
+
+        // Basket 7 of the second source must not pair with basket 7 of the first
+        assertArrayEquals(new long[]{2}, model.related(1, 5));
+        assertArrayEquals(new long[0], model.related(3, 5));
+    }
+
+    @Test
+    @DisplayName("Should only recommend catalog products")
+    void testUnlistedProductsNotRecommended() {
+        CoPurchaseModel model = CoPurchaseModel.builder(10, 5)
+                .catalog(1, "a").catalog(2, "a")
+                .add(1, 1, 1f).add(1, 2, 1f).add(1, 9, 1f)
+                .build();
+
+        assertArrayEquals(new long[]{2}, model.related(1, 5));
+        // An unlisted product can still be looked up by what it was bought with
+        long[] withUnlisted = model.related(9, 5);
+        Arrays.sort(withUnlisted);
+        assertArrayEquals(new long[]{1, 2}, withUnlisted);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from a million order lines well inside a minute")
+    void testMillionLineRebuild() {
+        int products = 50_000;
+        int topK = 20;
+        CoPurchaseModel.Builder builder = CoPurchaseModel.builder(50, topK);
+        for (long id = 1; id <= products; id++) {
+            builder.catalog(id, "category-" + (id % 200));
+        }
+
+        Random random = new Random(7);
+        long started = System.nanoTime();
+        int lines = 0;
+        for (long order = 1; lines < 1_000_000; order++) {
+            int size = 1 + random.nextInt(8);
+            long category = random.nextInt(200);
+            for (int i = 0; i < size; i++, lines++) {
+                builder.add(order, 1 + category + 200L * random.nextInt(products / 200), 1f);
+            }
+        }
+        CoPurchaseModel model = builder.build();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(products, model.productCount());
+        assertTrue(model.pairCount() <= (long) products * topK);
+        assertEquals(10, model.related(5, 10).length);
+        assertTrue(elapsedMs < 60_000, "Rebuild took " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Should build the catalog model from order lines and pick up new orders")
+    void testRecommenderOverOrderTables() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:recommender;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, category VARCHAR(50), "
+                    + "status VARCHAR(20), visibility VARCHAR(20), updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id BIGINT, product_id BIGINT, "
+                    + "fulfillment_status VARCHAR(20), updated_at TIMESTAMP)");
+            statement.execute("INSERT INTO products (id, category, status, visibility) VALUES "
+                    + "(1, 'gloves', 'PUBLISHED', 'PUBLIC'), (2, 'masks', 'PUBLISHED', 'PUBLIC'), "
+                    + "(3, 'masks', 'PUBLISHED', 'PUBLIC'), (4, 'masks', 'DRAFT', 'PUBLIC')");
+            statement.execute("INSERT INTO order_items (id, order_id, product_id, fulfillment_status) VALUES "
+                    + "(1, 10, 1, 'DELIVERED'), (2, 10, 2, 'DELIVERED'), (3, 11, 1, 'CANCELLED'), "
+                    + "(4, 11, 3, 'CANCELLED'), (5, 12, 1, NULL), (6, 12, 4, NULL)");
+
+            ProductRecommender recommender = new ProductRecommender(h2, 5, 50, 100);
+            recommender.refresh();
+
+            // Cancelled order 11 and the draft product 4 contribute nothing
+            assertArrayEquals(new long[]{2}, recommender.crossSells(1L, 5));
+            assertArrayEquals(new long[]{1, 3}, recommender.related(2L, 5));
+            assertArrayEquals(new long[]{2, 3}, recommender.category("masks", null));
+
+            statement.execute("INSERT INTO order_items (id, order_id, product_id, fulfillment_status) VALUES "
+                    + "(7, 13, 3, 'DELIVERED'), (8, 13, 1, 'DELIVERED')");
+            recommender.refresh();
+            assertEquals(2, recommender.crossSells(1L, 5).length);
+
+            // A return adds no line and raises no id, but still triggers a rebuild
+            statement.execute("UPDATE order_items SET fulfillment_status = 'RETURNED', "
+                    + "updated_at = CURRENT_TIMESTAMP WHERE order_id = 13");
+            recommender.refresh();
+            assertArrayEquals(new long[]{2}, recommender.crossSells(1L, 5));
+
+            // So does moving a published product to another category
+            statement.execute("UPDATE products SET category = 'gloves', updated_at = CURRENT_TIMESTAMP WHERE id = 3");
+            recommender.refresh();
+            assertArrayEquals(new long[]{2}, recommender.category("masks", null));
+
+            statement.execute("DROP TABLE order_items");
+            statement.execute("DROP TABLE products");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.model.MediaBlob;
+import com.itech.itech_backend.modules.shared.repository.MediaBlobRepository;
+import com.itech.itech_backend.modules.shared.service.ContentAddressedStorageService;
+import com.itech.itech_backend.modules.shared.service.MediaBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Content-addressed storage tests
+ * Runs against an in-memory S3 stand-in and a map-backed repository, no external services
+ */
+@DisplayName("Content Addressed Storage Unit Tests")
+public class ContentAddressedStorageServiceTest {
+
+    private final Map<Long, MediaBlob> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private InMemoryS3 s3;
+    private ContentAddressedStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        MediaBlobRepository repository = mock(MediaBlobRepository.class);
+
+        when(repository.findBySha256AndBackend(anyString(), anyString())).thenAnswer(inv -> rows.values().stream()
+                .filter(b -> b.getSha256().equals(inv.getArgument(0)) && b.getBackend().equals(inv.getArgument(1)))
+                .findFirst());
+        when(repository.findByUrlAndBackend(anyString(), anyString())).thenAnswer(inv -> rows.values().stream()
+                .filter(b -> b.getUrl().equals(inv.getArgument(0)) && b.getBackend().equals(inv.getArgument(1)))
+                .findFirst());
+        when(repository.findByStorageKeyAndBackend(anyString(), anyString())).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(MediaBlob.class))).thenAnswer(inv -> {
+            MediaBlob blob = inv.getArgument(0);
+            blob.setId(ids.incrementAndGet());
+            rows.put(blob.getId(), blob);
+            return blob;
+        });
+        when(repository.incrementReferenceCount(anyLong(), any())).thenAnswer(inv -> {
+            MediaBlob blob = rows.get(inv.<Long>getArgument(0));
+            if (blob == null || blob.getReferenceCount() <= 0) return 0;
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            return 1;
+        });
+        when(repository.decrementReferenceCount(anyLong())).thenAnswer(inv -> {
+            MediaBlob blob = rows.get(inv.<Long>getArgument(0));
+            if (blob == null || blob.getReferenceCount() <= 0) return 0;
+            blob.setReferenceCount(blob.getReferenceCount() - 1);
+            return 1;
+        });
+        when(repository.reviveReference(anyLong(), any())).thenAnswer(inv -> {
+            MediaBlob blob = rows.get(inv.<Long>getArgument(0));
+            if (blob == null) return 0;
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            return 1;
+        });
+        when(repository.findByIdForUpdate(anyLong())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<Long>getArgument(0))));
+        when(repository.findUnreferenced(any())).thenAnswer(inv -> rows.values().stream()
+                .filter(b -> b.getReferenceCount() <= 0)
+                .toList());
+        doAnswer(inv -> rows.remove(inv.<MediaBlob>getArgument(0).getId())).when(repository).delete(any(MediaBlob.class));
+
+        s3 = new InMemoryS3();
+        service = new ContentAddressedStorageService(repository, mock(PlatformTransactionManager.class));
+        service.registerBlobStore(s3);
+    }
+
+    @Test
+    @DisplayName("Should store identical content once and return the same URL")
+    void testDuplicateUploadsShareBlob() throws IOException {
+        String first = service.store(image("catalogue.png", "same-bytes"), s3);
+        String second = service.store(image("copy-of-catalogue.png", "same-bytes"), s3);
+
+        assertEquals(first, second, "Duplicate content should resolve to the existing URL");
+        assertEquals(1, s3.objects.size(), "Only one object should be written");
+        assertEquals(2, rows.values().iterator().next().getReferenceCount());
+    }
+
+    @Test
+    @DisplayName("Should keep distinct content in distinct blobs")
+    void testDistinctUploads() throws IOException {
+        String first = service.store(image("a.png", "bytes-a"), s3);
+        String second = service.store(image("b.png", "bytes-b"), s3);
+
+        assertNotEquals(first, second);
+        assertEquals(2, s3.objects.size());
+    }
+
+    @Test
+    @DisplayName("Should garbage-collect the object when the last reference is released")
+    void testReleaseCollectsUnreferencedBlob() throws IOException {
+        String url = service.store(image("kyc.png", "kyc-document"), s3);
+        service.store(image("kyc-again.png", "kyc-document"), s3);
+
+        assertTrue(service.release(url, s3));
+        assertEquals(1, s3.objects.size(), "Object must survive while still referenced");
+
+        assertTrue(service.release(url, s3));
+        assertTrue(s3.objects.isEmpty(), "Object should be removed after the last release");
+        assertTrue(rows.isEmpty());
+        assertFalse(service.release(url, s3), "Unknown URLs are not managed");
+    }
+
+    @Test
+    @DisplayName("Should write the object again before reusing a blob left at zero references")
+    void testReuseOfUnreferencedBlob() throws IOException {
+        String url = service.store(image("banner.png", "banner-bytes"), s3);
+        MediaBlob blob = rows.values().iterator().next();
+        // A collection that removed the object but failed before deleting the row
+        blob.setReferenceCount(0);
+        s3.objects.clear();
+
+        assertEquals(url, service.store(image("banner-again.png", "banner-bytes"), s3));
+        assertEquals(1, blob.getReferenceCount());
+        assertArrayEquals("banner-bytes".getBytes(), s3.objects.get(blob.getStorageKey()));
+
+        service.collectGarbage();
+        assertTrue(rows.containsKey(blob.getId()), "A revived blob must not be collected");
+    }
+
+    @Test
+    @DisplayName("Should keep the row when the object cannot be deleted, for the next sweep")
+    void testFailedDeleteLeavesRowForSweep() throws IOException {
+        String url = service.store(image("doc.png", "doc-bytes"), s3);
+        s3.failDeletes = true;
+
+        assertTrue(service.release(url, s3));
+        assertEquals(1, rows.size());
+        assertEquals(0, rows.values().iterator().next().getReferenceCount());
+
+        s3.failDeletes = false;
+        service.collectGarbage();
+        assertTrue(rows.isEmpty());
+        assertTrue(s3.objects.isEmpty());
+    }
+
+    private MockMultipartFile image(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes());
+    }
+
+    /**
+     * Local S3 stand-in: keeps objects in memory and hands out bucket-style URLs
+     */
+    private static class InMemoryS3 implements MediaBlobStore {
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private volatile boolean failDeletes;
+
+        @Override
+        public String getBackendName() {
+            return "S3";
+        }
+
+        @Override
+        public String putObject(String key, Path source, String contentType) throws IOException {
+            objects.put(key, Files.readAllBytes(source));
+            return "https://test-bucket.s3.local/" + key;
+        }
+
+        @Override
+        public void deleteObject(String key) {
+            if (failDeletes) {
+                throw new IllegalStateException("S3 unavailable");
+            }
+            objects.remove(key);
+        }
+    }
+}
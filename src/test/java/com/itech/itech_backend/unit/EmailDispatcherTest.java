@@ -0,0 +1,218 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.model.EmailOutbox;
+import com.itech.itech_backend.modules.shared.repository.EmailOutboxRepository;
+import com.itech.itech_backend.modules.shared.service.EmailDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Email dispatcher tests
+ * Delivers through a minimal in-process SMTP server instead of a real mail relay
+ */
+@DisplayName("Email Dispatcher Unit Tests")
+public class EmailDispatcherTest {
+
+    private LocalSmtpServer smtpServer;
+    private EmailOutboxRepository repository;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        AtomicLong ids = new AtomicLong();
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.save(any(EmailOutbox.class))).thenAnswer(inv -> {
+            EmailOutbox email = inv.getArgument(0);
+            email.setId(ids.incrementAndGet());
+            return email;
+        });
+        when(repository.findById(anyLong())).thenAnswer(inv -> Optional.of(EmailOutbox.builder().attempts(0).build()));
+        when(repository.renewClaims(anyCollection(), any())).thenAnswer(inv -> inv.<Collection<?>>getArgument(0).size());
+        when(repository.markSent(anyLong(), anyString(), any())).thenReturn(1);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("mailSender", mailSender));
+        dispatcher = new EmailDispatcher(repository, beanFactory.getBeanProvider(JavaMailSender.class));
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@test.com");
+        ReflectionTestUtils.setField(dispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(dispatcher, "ratePerSecond", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "otpTtlMinutes", 5L);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMinutes", 10L);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatcher.stop();
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge immediately and deliver asynchronously over one SMTP connection")
+    void testAsyncDeliveryReusesTransport() {
+        EmailOutbox otp = dispatcher.enqueue("buyer@test.com", "OTP", "<b>123456</b>", EmailOutbox.Priority.OTP);
+        dispatcher.enqueue("vendor@test.com", "Ticket update", "Status changed", EmailOutbox.Priority.TRANSACTIONAL);
+        dispatcher.enqueue("admin@test.com", "Digest", "Weekly digest", EmailOutbox.Priority.BULK);
+
+        assertNotNull(otp.getId(), "Outbox row should be written before returning");
+        assertNotNull(otp.getExpiresAt(), "OTP mail should carry an expiry");
+
+        verify(repository, timeout(10000).times(3)).markSent(anyLong(), anyString(), any());
+        assertEquals(3, smtpServer.messages.size());
+        assertEquals(1, smtpServer.connections.get(), "Worker should reuse its SMTP connection");
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry when the SMTP server is unreachable")
+    void testRetryOnFailure() throws IOException {
+        smtpServer.close();
+
+        dispatcher.enqueue("buyer@test.com", "Ticket update", "Body", EmailOutbox.Priority.TRANSACTIONAL);
+
+        verify(repository, timeout(10000)).scheduleRetry(anyLong(), anyString(), any(), any());
+        verify(repository, never()).markSent(anyLong(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should not send a message whose claim went to another node")
+    void testLostClaimIsNotSent() {
+        when(repository.renewClaims(anyCollection(), any())).thenReturn(0);
+
+        dispatcher.enqueue("buyer@test.com", "Ticket update", "Body", EmailOutbox.Priority.TRANSACTIONAL);
+
+        verify(repository, timeout(10000)).renewClaims(anyCollection(), any());
+        verify(repository, after(500).never()).markSent(anyLong(), anyString(), any());
+        assertTrue(smtpServer.messages.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should hand rows back to the outbox when the local queue is full")
+    void testBoundedQueue() {
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 0);
+
+        EmailOutbox email = dispatcher.enqueue("admin@test.com", "Digest", "Weekly digest", EmailOutbox.Priority.BULK);
+
+        verify(repository).releaseClaim(eq(email.getId()), eq(email.getClaimToken()));
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should renew the claims it holds before releasing stale ones")
+    void testPollRenewsHeldClaims() {
+        dispatcher.stop();
+        dispatcher.enqueue("buyer@test.com", "Ticket update", "Body", EmailOutbox.Priority.TRANSACTIONAL);
+        ReflectionTestUtils.setField(dispatcher, "running", true);
+
+        dispatcher.pollOutbox();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).renewClaims(argThat(tokens -> tokens.size() == 1), any());
+        order.verify(repository).releaseStaleClaims(any());
+    }
+
+    /**
+     * Just enough SMTP to satisfy Jakarta Mail: greeting, EHLO, MAIL, RCPT, DATA, NOOP/RSET, QUIT
+     */
+    private static class LocalSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        LocalSmtpServer() throws IOException {
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        Thread handler = new Thread(() -> handle(socket));
+                        handler.setDaemon(true);
+                        handler.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.ISO_8859_1)) {
+                reply(out, "220 localhost ESMTP test");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO")) {
+                        reply(out, "250-localhost\r\n250 OK");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK queued");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // HELO, MAIL FROM, RCPT TO, RSET, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.core.service.InMemoryOtpStore;
+import com.itech.itech_backend.modules.core.service.OtpStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * In-memory OTP store tests
+ * Code expiry, attempt counting and the sliding send windows, with short
+ * real-time TTLs and windows
+ */
+@DisplayName("In-Memory OTP Store Unit Tests")
+public class InMemoryOtpStoreTest {
+
+    private static final String CONTACT = "buyer@example.com";
+
+    private InMemoryOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryOtpStore();
+    }
+
+    @Test
+    @DisplayName("Should verify a code once and then report it missing")
+    void testCodeIsConsumedOnce() {
+        store.put(CONTACT, "123456", Duration.ofMinutes(5));
+
+        assertEquals(OtpStore.VerificationResult.VERIFIED, store.verify(CONTACT, "123456", 5));
+        assertEquals(OtpStore.VerificationResult.MISSING, store.verify(CONTACT, "123456", 5));
+    }
+
+    @Test
+    @DisplayName("Should forget a code once its TTL has passed")
+    void testCodeExpires() throws InterruptedException {
+        store.put(CONTACT, "123456", Duration.ofMillis(100));
+        store.put("other@example.com", "654321", Duration.ofMinutes(5));
+
+        Thread.sleep(300);
+
+        assertEquals(OtpStore.VerificationResult.MISSING, store.verify(CONTACT, "123456", 5));
+        assertEquals(OtpStore.VerificationResult.VERIFIED, store.verify("other@example.com", "654321", 5));
+    }
+
+    @Test
+    @DisplayName("Should give a reissued code a fresh TTL and attempt count")
+    void testReissueReplacesCode() {
+        store.put(CONTACT, "111111", Duration.ofMinutes(5));
+        assertEquals(OtpStore.VerificationResult.MISMATCH, store.verify(CONTACT, "000000", 2));
+
+        store.put(CONTACT, "222222", Duration.ofMinutes(5));
+
+        assertEquals(OtpStore.VerificationResult.MISMATCH, store.verify(CONTACT, "111111", 2));
+        assertEquals(OtpStore.VerificationResult.VERIFIED, store.verify(CONTACT, "222222", 2));
+    }
+
+    @Test
+    @DisplayName("Should discard a code after too many mismatches")
+    void testLocksAfterMaxAttempts() {
+        store.put(CONTACT, "123456", Duration.ofMinutes(5));
+
+        assertEquals(OtpStore.VerificationResult.MISMATCH, store.verify(CONTACT, "000000", 3));
+        assertEquals(OtpStore.VerificationResult.MISMATCH, store.verify(CONTACT, "000001", 3));
+        assertEquals(OtpStore.VerificationResult.LOCKED, store.verify(CONTACT, "000002", 3));
+        assertEquals(OtpStore.VerificationResult.MISSING, store.verify(CONTACT, "123456", 3));
+    }
+
+    @Test
+    @DisplayName("Should admit events again as they slide out of the window")
+    void testSlidingWindow() throws InterruptedException {
+        Duration window = Duration.ofMillis(300);
+
+        assertTrue(store.tryAcquire("contact:" + CONTACT, 2, window));
+        assertTrue(store.tryAcquire("contact:" + CONTACT, 2, window));
+        assertFalse(store.tryAcquire("contact:" + CONTACT, 2, window));
+        assertTrue(store.tryAcquire("contact:other@example.com", 2, window));
+
+        Thread.sleep(400);
+
+        assertTrue(store.tryAcquire("contact:" + CONTACT, 2, window));
+    }
+
+    @Test
+    @DisplayName("Should take no slot from any limit when one of them is full")
+    void testAllOrNothingAcquire() {
+        Duration window = Duration.ofMinutes(15);
+        OtpStore.Limit email = new OtpStore.Limit("contact:" + CONTACT, 2, window);
+        OtpStore.Limit phone = new OtpStore.Limit("contact:9800000000", 1, window);
+        assertEquals(-1, store.tryAcquire(List.of(phone)));
+
+        assertEquals(1, store.tryAcquire(List.of(email, phone)));
+        assertEquals(1, store.tryAcquire(List.of(email, phone)));
+
+        // The email window is still untouched by the refused attempts
+        assertEquals(-1, store.tryAcquire(List.of(email)));
+        assertEquals(-1, store.tryAcquire(List.of(email)));
+        assertEquals(0, store.tryAcquire(List.of(email)));
+    }
+}
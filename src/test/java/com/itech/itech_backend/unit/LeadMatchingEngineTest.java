@@ -0,0 +1,144 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.LeadMatchingEngine;
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import com.itech.itech_backend.modules.vendor.repository.VendorPackageTransactionRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorRankingEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Lead matching quota tests
+ * One vendor with a small monthly allowance, assigned to from many threads
+ * and from transactions that roll back
+ */
+@DisplayName("Lead Matching Engine Unit Tests")
+public class LeadMatchingEngineTest {
+
+    private static final int QUOTA = 3;
+
+    private JdbcTemplate jdbcTemplate;
+    private LeadMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        BuyerProductRepository productRepository = mock(BuyerProductRepository.class);
+        VendorsRepository vendorsRepository = mock(VendorsRepository.class);
+        VendorPackageTransactionRepository packageRepository = mock(VendorPackageTransactionRepository.class);
+        LeadRepository leadRepository = mock(LeadRepository.class);
+        when(productRepository.findVendorCategoryCoverage())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "gloves", "nitrile", "gloves"}));
+        when(vendorsRepository.findVendorCities()).thenReturn(List.of());
+        when(packageRepository.findActivePackageTiers(any())).thenReturn(List.of());
+        when(leadRepository.countLeadsPerVendorSince(any())).thenReturn(List.of());
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        engine = new LeadMatchingEngine(productRepository, vendorsRepository, packageRepository, leadRepository,
+                jdbcTemplate, mock(VendorRankingEngine.class));
+        ReflectionTestUtils.setField(engine, "shortlistSize", 5);
+        ReflectionTestUtils.setField(engine, "defaultMonthlyQuota", QUOTA);
+        engine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should never assign a vendor past its quota under concurrent leads")
+    void testConcurrentAssignmentsRespectQuota() throws Exception {
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 50; i++) {
+                futures.add(pool.submit(() -> engine.assign(lead())));
+            }
+        }
+        int assigned = 0;
+        for (Future<List<Long>> future : futures) {
+            assigned += future.get().size();
+        }
+
+        assertEquals(QUOTA, assigned);
+        verify(jdbcTemplate, times(QUOTA)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should hand quota back when the assigning transaction rolls back")
+    void testRollbackReleasesQuota() {
+        for (int i = 0; i < QUOTA; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            assertEquals(List.of(1L), engine.assign(lead()));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(List.of(1L), engine.assign(lead()));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(QUOTA - 1, assignAll());
+    }
+
+    @Test
+    @DisplayName("Should hand quota back when the insert fails outside a transaction")
+    void testFailedInsertReleasesQuota() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("down"));
+        assertThrows(IllegalStateException.class, () -> engine.assign(lead()));
+
+        reset(jdbcTemplate);
+        assertEquals(QUOTA, assignAll());
+    }
+
+    private int assignAll() {
+        int assigned = 0;
+        while (!engine.assign(lead()).isEmpty()) {
+            assigned++;
+        }
+        return assigned;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static BuyerLead lead() {
+        return BuyerLead.builder()
+                .id(1L)
+                .name("Buyer")
+                .email("buyer@example.com")
+                .interestedCategories("nitrile")
+                .searchQuery("nitrile")
+                .urgency(BuyerLead.LeadUrgency.MEDIUM)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.service.LlmGateway;
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LLM gateway tests
+ * Runs against an in-process stub of the chat completions API
+ */
+@DisplayName("LLM Gateway Unit Tests")
+public class LlmGatewayTest {
+
+    private static final String SYSTEM_PROMPT = "You are iTech Assistant.";
+
+    private StubCompletionsApi api;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttp outboundHttp;
+    private LlmGateway gateway;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new StubCompletionsApi();
+        meterRegistry = new SimpleMeterRegistry();
+        outboundHttp = new OutboundHttp(meterRegistry, new MockEnvironment(), 10, 10, 2000, 30);
+        gateway = new LlmGateway(meterRegistry, outboundHttp, "http://localhost:" + api.getPort() + "/v1/chat/completions",
+                "test-key", "gpt-3.5-turbo", 2, 5000, 60, 100);
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        callers.shutdownNow();
+        outboundHttp.shutdown();
+        api.close();
+    }
+
+    @Test
+    @DisplayName("Should send one request for concurrent identical prompts")
+    void testConcurrentPromptsCoalesce() throws Exception {
+        api.hold();
+        List<Future<Optional<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String message = i % 2 == 0 ? "Suggest syringes" : "  suggest   SYRINGES ";
+            results.add(callers.submit(() -> gateway.complete(SYSTEM_PROMPT, message)));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("llm.requests.coalesced").count() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        api.release();
+
+        for (Future<Optional<String>> result : results) {
+            assertEquals("stub answer 1", result.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        assertEquals(1, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated prompts from the cache")
+    void testRepeatedPromptCached() {
+        assertTrue(gateway.complete(SYSTEM_PROMPT, "Hello").isPresent());
+        assertEquals("stub answer 1", gateway.complete(SYSTEM_PROMPT, "hello ").orElseThrow());
+
+        assertEquals(1, api.getRequestCount());
+        assertEquals(1.0, meterRegistry.counter("llm.cache.requests", "result", "hit").count());
+    }
+
+    @Test
+    @DisplayName("Should retry server errors once and not cache failed calls")
+    void testFailureNotCached() {
+        api.failing.set(true);
+        assertTrue(gateway.complete(SYSTEM_PROMPT, "Hello").isEmpty());
+        assertEquals(2, api.getRequestCount());
+
+        api.failing.set(false);
+        assertTrue(gateway.complete(SYSTEM_PROMPT, "Hello").isPresent());
+        assertEquals(3, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should keep requests in flight within the concurrency limit and record tokens")
+    void testConcurrencyLimitAndMetrics() throws Exception {
+        api.delayMs = 100;
+        List<Future<Optional<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String message = "Describe product " + i;
+            results.add(callers.submit(() -> gateway.complete(SYSTEM_PROMPT, message)));
+        }
+
+        for (Future<Optional<String>> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        assertEquals(6, api.getRequestCount());
+        assertTrue(api.maxActive.get() <= 2, "at most two requests should reach the API at once");
+        assertEquals(6, meterRegistry.get("llm.tokens").tag("type", "prompt").summary().count());
+        assertEquals(6 * 12.0, meterRegistry.get("llm.tokens").tag("type", "prompt").summary().totalAmount());
+        assertEquals(6, meterRegistry.get("outbound.http.requests")
+                .tag("integration", "openai").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should return empty without an API key")
+    void testUnconfigured() {
+        LlmGateway unconfigured = new LlmGateway(meterRegistry, outboundHttp, "http://localhost:" + api.getPort(), "",
+                "gpt-3.5-turbo", 2, 5000, 60, 100);
+
+        assertTrue(unconfigured.complete(SYSTEM_PROMPT, "Hello").isEmpty());
+        assertEquals(0, api.getRequestCount());
+    }
+
+    /**
+     * Minimal chat completions endpoint: numbers its answers, tracks how many
+     * requests are in flight, and can hold, delay or fail responses
+     */
+    private static class StubCompletionsApi {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile long delayMs;
+
+        StubCompletionsApi() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v1/chat/completions", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        int getPort() {
+            return server.getAddress().getPort();
+        }
+
+        int getRequestCount() {
+            return requests.get();
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void close() {
+            release();
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            int number = requests.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                gate.await(5, TimeUnit.SECONDS);
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+
+            int status = failing.get() ? 500 : 200;
+            String json = failing.get() ? "{\"error\":{\"message\":\"overloaded\"}}"
+                    : "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"stub answer " + number + "\"}}],"
+                    + "\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":5,\"total_tokens\":17}}";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.core.service.InMemoryOtpStore;
+import com.itech.itech_backend.modules.core.service.OtpService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * OTP service tests
+ * Issues codes to one or two contacts against the in-memory store and checks
+ * that a refused send leaves every other limit untouched
+ */
+@DisplayName("OTP Service Unit Tests")
+public class OtpServiceTest {
+
+    private static final String EMAIL = "buyer@example.com";
+    private static final String PHONE = "9800000000";
+
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() {
+        otpService = new OtpService(new InMemoryOtpStore(), mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(otpService, "ttlMinutes", 5L);
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 5);
+        ReflectionTestUtils.setField(otpService, "contactLimit", 2);
+        ReflectionTestUtils.setField(otpService, "contactWindowMinutes", 15L);
+        ReflectionTestUtils.setField(otpService, "ipLimit", 3);
+        ReflectionTestUtils.setField(otpService, "ipWindowMinutes", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should store one code for both contacts of a registration")
+    void testIssueToTwoContacts() {
+        String code = otpService.issue(EMAIL, PHONE).orElseThrow();
+
+        assertTrue(otpService.verify(code, PHONE));
+        assertTrue(otpService.verify(code, EMAIL));
+        assertFalse(otpService.verify(code, EMAIL, PHONE));
+    }
+
+    @Test
+    @DisplayName("Should not spend the first contact's quota when the second is over its limit")
+    void testRefusedSendKeepsOtherContactQuota() {
+        assertTrue(otpService.issue(PHONE).isPresent());
+        assertTrue(otpService.issue(PHONE).isPresent());
+
+        assertEquals(Optional.empty(), otpService.issue(EMAIL, PHONE));
+        assertEquals(Optional.empty(), otpService.issue(EMAIL, PHONE));
+
+        // Both refused registrations left the email window empty
+        assertTrue(otpService.issue(EMAIL).isPresent());
+        assertTrue(otpService.issue(EMAIL).isPresent());
+        assertEquals(Optional.empty(), otpService.issue(EMAIL));
+    }
+
+    @Test
+    @DisplayName("Should not spend the client IP's quota on a send refused for its contact")
+    void testRefusedSendKeepsIpQuota() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertTrue(otpService.issue(PHONE).isPresent());
+        assertTrue(otpService.issue(PHONE).isPresent());
+        assertEquals(Optional.empty(), otpService.issue(PHONE));
+        assertEquals(Optional.empty(), otpService.issue(EMAIL, PHONE));
+
+        // Two of three IP slots used; the refused sends took none
+        assertTrue(otpService.issue(EMAIL).isPresent());
+        assertEquals(Optional.empty(), otpService.issue("other@example.com"));
+    }
+}
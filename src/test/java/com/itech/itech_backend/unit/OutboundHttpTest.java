@@ -0,0 +1,246 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbound HTTP layer tests
+ * Exercises the shared pool, bulkheads and retries against an in-process stub server
+ */
+@DisplayName("Outbound HTTP Unit Tests")
+public class OutboundHttpTest {
+
+    private StubServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private MockEnvironment environment;
+    private OutboundHttp outboundHttp;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new StubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        environment = new MockEnvironment();
+        outboundHttp = new OutboundHttp(meterRegistry, environment, 20, 3, 2000, 30);
+        callers = Executors.newFixedThreadPool(10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        callers.shutdownNow();
+        outboundHttp.shutdown();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse one pooled connection for sequential requests")
+    void testConnectionReuse() {
+        OutboundHttp.Integration integration = outboundHttp.integration("stub",
+                OutboundHttp.Settings.of(5, Duration.ofSeconds(2)));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("ok", integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+        }
+
+        assertEquals(20, stub.requests.get());
+        assertEquals(1, stub.clientPorts.size(), "all requests should share one keep-alive connection");
+        assertEquals(1, outboundHttp.getPoolStats().getAvailable());
+        assertEquals(0, outboundHttp.getPoolStats().getLeased());
+    }
+
+    @Test
+    @DisplayName("Should share connections across integrations calling the same host")
+    void testPoolSharedAcrossIntegrations() {
+        OutboundHttp.Integration first = outboundHttp.integration("first", OutboundHttp.Settings.of(5, Duration.ofSeconds(2)));
+        OutboundHttp.Integration second = outboundHttp.integration("second", OutboundHttp.Settings.of(5, Duration.ofSeconds(2)));
+
+        first.execute(() -> first.rest().getForObject(stub.url(), String.class));
+        second.execute(() -> second.rest().getForObject(stub.url(), String.class));
+
+        assertEquals(1, stub.clientPorts.size());
+    }
+
+    @Test
+    @DisplayName("Should cap connections per host")
+    void testPerHostLimit() throws Exception {
+        stub.delayMs = 100;
+        OutboundHttp.Integration integration = outboundHttp.integration("stub",
+                OutboundHttp.Settings.of(10, Duration.ofSeconds(5)));
+
+        runConcurrently(10, () -> integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+
+        assertEquals(10, stub.requests.get());
+        assertTrue(stub.maxActive.get() <= 3, "max-per-route is 3 but saw " + stub.maxActive.get());
+        assertTrue(stub.clientPorts.size() <= 3);
+    }
+
+    @Test
+    @DisplayName("Should bound calls in flight with the integration bulkhead")
+    void testBulkheadBoundsConcurrency() throws Exception {
+        stub.delayMs = 100;
+        OutboundHttp.Integration integration = outboundHttp.integration("narrow",
+                OutboundHttp.Settings.of(2, Duration.ofSeconds(5)));
+
+        runConcurrently(8, () -> integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+
+        assertEquals(8, stub.requests.get());
+        assertTrue(stub.maxActive.get() <= 2, "bulkhead is 2 but saw " + stub.maxActive.get());
+    }
+
+    @Test
+    @DisplayName("Should reject calls when the bulkhead stays full")
+    void testBulkheadRejects() throws Exception {
+        OutboundHttp.Integration integration = outboundHttp.integration("single",
+                OutboundHttp.Settings.of(1, Duration.ofMillis(200)));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> integration.execute(() -> {
+            holding.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        assertThrows(OutboundHttp.BulkheadFullException.class,
+                () -> integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, stub.requests.get());
+        assertEquals(1.0, meterRegistry.counter("outbound.http.rejected", "integration", "single").count());
+    }
+
+    @Test
+    @DisplayName("Should retry transient failures with backoff")
+    void testRetriesTransientFailures() {
+        stub.statuses.add(503);
+        stub.statuses.add(502);
+        OutboundHttp.Integration integration = outboundHttp.integration("flaky",
+                OutboundHttp.Settings.of(5, Duration.ofSeconds(2)).withRetries(3, Duration.ofMillis(10)));
+
+        assertEquals("ok", integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+
+        assertEquals(3, stub.requests.get());
+        assertEquals(2.0, meterRegistry.counter("outbound.http.retries", "integration", "flaky").count());
+        assertEquals(1, meterRegistry.get("outbound.http.requests")
+                .tag("integration", "flaky").tag("outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("outbound.http.requests")
+                .tag("integration", "flaky").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors")
+    void testClientErrorsNotRetried() {
+        stub.statuses.add(400);
+        OutboundHttp.Integration integration = outboundHttp.integration("strict",
+                OutboundHttp.Settings.of(5, Duration.ofSeconds(2)).withRetries(3, Duration.ofMillis(10)));
+
+        assertThrows(HttpClientErrorException.BadRequest.class,
+                () -> integration.execute(() -> integration.rest().getForObject(stub.url(), String.class)));
+        assertEquals(1, stub.requests.get());
+    }
+
+    @Test
+    @DisplayName("Should let properties override integration defaults")
+    void testPropertyOverrides() {
+        environment.setProperty("outbound.http.integrations.tuned.max-concurrent", "7");
+        environment.setProperty("outbound.http.integrations.tuned.max-attempts", "4");
+
+        OutboundHttp.Integration integration = outboundHttp.integration("tuned",
+                OutboundHttp.Settings.of(2, Duration.ofSeconds(2)));
+
+        assertEquals(7, integration.getSettings().maxConcurrent());
+        assertEquals(4, integration.getSettings().maxAttempts());
+        assertEquals(Duration.ofSeconds(2), integration.getSettings().timeout());
+    }
+
+    private void runConcurrently(int count, Runnable task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(callers.submit(task));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Plain-text endpoint that records client ports (one per connection),
+     * tracks requests in flight, and can delay or return queued error statuses
+     */
+    private static class StubServer {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+        private volatile long delayMs;
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/ping", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort() + "/ping";
+        }
+
+        void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+
+            Integer queued = statuses.poll();
+            int status = queued != null ? queued : 200;
+            byte[] body = (status == 200 ? "ok" : "error").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parallel query scope tests
+ * Covers parallelism, fail-fast cancellation, the in-flight cap, nested forks
+ * and the inline fallback
+ */
+@DisplayName("Parallel Queries Unit Tests")
+public class ParallelQueriesTest {
+
+    private ParallelQueries parallelQueries;
+
+    @AfterEach
+    void tearDown() {
+        parallelQueries.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run forked queries at the same time and return their results after join")
+    void testForksRunInParallel() {
+        parallelQueries = new ParallelQueries(true, 0, 10, 5000);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Supplier<String> first;
+        Supplier<String> second;
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            // Each query waits for the other to start, so running them one after another would time out
+            first = scope.fork(() -> awaitOther(bothStarted, "first"));
+            second = scope.fork(() -> awaitOther(bothStarted, "second"));
+            scope.join();
+        }
+
+        assertEquals("first", first.get());
+        assertEquals("second", second.get());
+    }
+
+    @Test
+    @DisplayName("Should cancel the remaining queries and rethrow the first failure")
+    void testFirstFailureCancelsSiblings() throws InterruptedException {
+        parallelQueries = new ParallelQueries(true, 0, 10, 5000);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch slowFinished = new CountDownLatch(1);
+        AtomicBoolean slowInterrupted = new AtomicBoolean();
+
+        long started = System.nanoTime();
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            scope.fork(() -> {
+                slowStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    slowInterrupted.set(true);
+                } finally {
+                    slowFinished.countDown();
+                }
+                return 0L;
+            });
+            scope.fork(() -> {
+                slowStarted.await();
+                throw new IllegalStateException("count failed");
+            });
+            IllegalStateException error = assertThrows(IllegalStateException.class, scope::join);
+            assertEquals("count failed", error.getMessage());
+        }
+
+        assertTrue(slowFinished.await(2, TimeUnit.SECONDS));
+        assertTrue(slowInterrupted.get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 5000);
+    }
+
+    @Test
+    @DisplayName("Should keep queries in flight under the cap derived from the pool size")
+    void testInFlightCap() {
+        parallelQueries = new ParallelQueries(true, 0, 4, 5000);
+        assertEquals(2, parallelQueries.getMaxInFlight());
+        assertEquals(4, new ParallelQueries(true, 20, 4, 5000).getMaxInFlight());
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Supplier<Integer>> results = new ArrayList<>();
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            for (int i = 0; i < 8; i++) {
+                int query = i;
+                results.add(scope.fork(() -> {
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    inFlight.decrementAndGet();
+                    return query;
+                }));
+            }
+            scope.join();
+        }
+
+        assertEquals(2, peak.get());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should run nested forks inline instead of waiting for a permit")
+    void testNestedForksRunInline() {
+        parallelQueries = new ParallelQueries(true, 1, 10, 2000);
+
+        Supplier<Long> outer;
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            outer = scope.fork(() -> {
+                Thread forkThread = Thread.currentThread();
+                try (ParallelQueries.Scope inner = parallelQueries.open()) {
+                    Supplier<Thread> nested = inner.fork(Thread::currentThread);
+                    inner.join();
+                    assertSame(forkThread, nested.get());
+                }
+                return 1L;
+            });
+            scope.join();
+        }
+
+        assertEquals(1L, outer.get());
+    }
+
+    @Test
+    @DisplayName("Should run queries on the calling thread when disabled")
+    void testDisabledRunsInline() {
+        parallelQueries = new ParallelQueries(false, 0, 10, 5000);
+        Thread caller = Thread.currentThread();
+
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<Thread> thread = scope.fork(Thread::currentThread);
+            scope.join();
+            assertSame(caller, thread.get());
+            assertThrows(IllegalStateException.class, () -> scope.fork(() -> {
+                throw new IllegalStateException("inline failure");
+            }));
+        }
+    }
+
+    @Test
+    @DisplayName("Should give up on queries that outlive the scope timeout")
+    void testTimeout() {
+        parallelQueries = new ParallelQueries(true, 0, 10, 100);
+
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            scope.fork(() -> {
+                Thread.sleep(5_000);
+                return 0L;
+            });
+            RuntimeException error = assertThrows(RuntimeException.class, scope::join);
+            assertTrue(error.getMessage().contains("100 ms"));
+        }
+    }
+
+    private static String awaitOther(CountDownLatch bothStarted, String result) throws InterruptedException {
+        bothStarted.countDown();
+        if (!bothStarted.await(2, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("queries did not overlap");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,254 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.product.dto.PriceQuoteDto;
+import com.itech.itech_backend.modules.product.model.Product;
+import com.itech.itech_backend.modules.product.model.ProductPriceChange;
+import com.itech.itech_backend.modules.product.repository.ProductMetricBucketRepository;
+import com.itech.itech_backend.modules.product.repository.ProductPriceChangeRepository;
+import com.itech.itech_backend.modules.product.repository.ProductRepository;
+import com.itech.itech_backend.modules.product.service.InventoryLedgerService;
+import com.itech.itech_backend.modules.product.service.ProductMetricsStore;
+import com.itech.itech_backend.modules.product.service.ProductPriceTable;
+import com.itech.itech_backend.modules.product.service.ProductPricingEngine;
+import com.itech.itech_backend.modules.product.service.ProductRecommender;
+import com.itech.itech_backend.modules.product.service.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Product pricing tests
+ * Covers price table compilation, the table cache and the pricing operations of the product service
+ */
+@DisplayName("Product Pricing Engine Unit Tests")
+public class ProductPricingEngineTest {
+
+    private Map<Long, Product> products;
+    private List<ProductPriceChange> history;
+    private ProductRepository productRepository;
+    private ProductPriceChangeRepository priceChangeRepository;
+    private ProductPricingEngine engine;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        products = new ConcurrentHashMap<>();
+        history = new ArrayList<>();
+
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findById(anyLong())).thenAnswer(inv ->
+                Optional.ofNullable(products.get(inv.<Long>getArgument(0))));
+        when(productRepository.findByIdIn(anyList())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(products::get).filter(p -> p != null).toList();
+        });
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        priceChangeRepository = mock(ProductPriceChangeRepository.class);
+        when(priceChangeRepository.save(any(ProductPriceChange.class))).thenAnswer(inv -> {
+            ProductPriceChange change = inv.getArgument(0);
+            change.setId((long) history.size() + 1);
+            change.setChangedAt(LocalDateTime.now());
+            history.add(0, change);
+            return change;
+        });
+        when(priceChangeRepository.findByProductIdOrderByChangedAtDescIdDesc(anyLong())).thenAnswer(inv ->
+                history.stream().filter(c -> c.getProductId().equals(inv.getArgument(0))).toList());
+
+        engine = new ProductPricingEngine(productRepository, 1000, 30);
+        productService = new ProductServiceImpl(productRepository, engine, priceChangeRepository,
+                mock(InventoryLedgerService.class), mock(ProductRecommender.class),
+                mock(ProductMetricsStore.class), mock(ProductMetricBucketRepository.class));
+    }
+
+    @Test
+    @DisplayName("Should pick the tier at or below the quantity")
+    void testQuantityBreakBoundaries() {
+        ProductPriceTable table = ProductPriceTable.compile(tieredProduct(1L));
+
+        assertEquals(new BigDecimal("100.00"), table.unitPrice(1));
+        assertEquals(new BigDecimal("100.00"), table.unitPrice(9));
+        assertEquals(new BigDecimal("90.00"), table.unitPrice(10));
+        assertEquals(new BigDecimal("90.00"), table.unitPrice(49));
+        assertEquals(new BigDecimal("80.00"), table.unitPrice(50));
+        assertEquals(new BigDecimal("70.00"), table.unitPrice(100));
+        assertEquals(new BigDecimal("70.00"), table.unitPrice(100_000));
+    }
+
+    @Test
+    @DisplayName("Should apply the bulk discount from its threshold onward")
+    void testBulkDiscount() {
+        Product product = tieredProduct(1L);
+        product.setBulkDiscountThreshold(25);
+        product.setBulkDiscountPercentage(new BigDecimal("10"));
+        ProductPriceTable table = ProductPriceTable.compile(product);
+
+        assertEquals(new BigDecimal("90.00"), table.unitPrice(24));
+        assertEquals(new BigDecimal("81.00"), table.unitPrice(25));
+        assertEquals(new BigDecimal("72.00"), table.unitPrice(50));
+        assertEquals(new BigDecimal("63.00"), table.unitPrice(100));
+    }
+
+    @Test
+    @DisplayName("Should add GST to tax-exclusive prices")
+    void testTaxExclusiveLine() {
+        Product product = tieredProduct(1L);
+        product.setGstRate(new BigDecimal("18.00"));
+
+        ProductPriceTable.LinePrice line = ProductPriceTable.compile(product).price(10);
+
+        assertEquals(new BigDecimal("90.00"), line.unitPrice());
+        assertEquals(new BigDecimal("900.00"), line.netAmount());
+        assertEquals(new BigDecimal("162.00"), line.gstAmount());
+        assertEquals(new BigDecimal("1062.00"), line.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should split GST out of tax-inclusive prices")
+    void testTaxInclusiveLine() {
+        Product product = product(1L, "118.00");
+        product.setGstRate(new BigDecimal("18.00"));
+        product.setPriceIncludesTax(true);
+
+        ProductPriceTable.LinePrice line = ProductPriceTable.compile(product).price(3);
+
+        assertEquals(new BigDecimal("300.00"), line.netAmount());
+        assertEquals(new BigDecimal("54.00"), line.gstAmount());
+        assertEquals(new BigDecimal("354.00"), line.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should flag lines outside the order quantity limits")
+    void testOrderLimits() {
+        Product product = tieredProduct(1L);
+        product.setMinimumOrderQuantity(5);
+        product.setMaximumOrderQuantity(200);
+        ProductPriceTable table = ProductPriceTable.compile(product);
+
+        assertFalse(table.price(4).withinOrderLimits());
+        assertTrue(table.price(5).withinOrderLimits());
+        assertTrue(table.price(200).withinOrderLimits());
+        assertFalse(table.price(201).withinOrderLimits());
+        assertThrows(IllegalArgumentException.class, () -> table.price(0));
+    }
+
+    @Test
+    @DisplayName("Should compile each product once until evicted")
+    void testTableCache() {
+        products.put(1L, tieredProduct(1L));
+
+        assertSame(engine.table(1L), engine.table(1L));
+        verify(productRepository, times(1)).findById(1L);
+
+        engine.evict(1L);
+        engine.table(1L);
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should price a whole quote with one query for uncached products")
+    void testBulkQuote() {
+        products.put(1L, tieredProduct(1L));
+        products.put(2L, product(2L, "250.00"));
+        products.put(3L, product(3L, "12.50"));
+        engine.table(3L);
+
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        lines.put(1L, 60);
+        lines.put(2L, 2);
+        lines.put(3L, 8);
+        PriceQuoteDto quote = productService.quotePrices(lines);
+
+        verify(productRepository, times(1)).findByIdIn(argThat(ids -> ids.size() == 2 && !ids.contains(3L)));
+        assertEquals(3, quote.getLines().size());
+        assertEquals(1L, quote.getLines().get(0).getProductId());
+        assertEquals(new BigDecimal("80.00"), quote.getLines().get(0).getUnitPrice());
+        assertEquals(new BigDecimal("5400.00"), quote.getNetTotal());
+        assertEquals(quote.getNetTotal().add(quote.getGstTotal()), quote.getGrandTotal());
+        assertTrue(quote.getAllLinesWithinOrderLimits());
+
+        productService.quotePrices(lines);
+        verify(productRepository, times(1)).findByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject a quote naming an unknown product")
+    void testQuoteUnknownProduct() {
+        products.put(1L, tieredProduct(1L));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> productService.quotePrices(Map.of(1L, 1, 99L, 1)));
+        assertEquals("Product not found with ID: 99", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should append price changes to the history and reprice")
+    void testPriceUpdatesAppendHistory() {
+        products.put(1L, tieredProduct(1L));
+        assertEquals(new BigDecimal("100.00"), productService.calculateEffectivePrice(1L, 1));
+
+        productService.updatePrice(1L, new BigDecimal("95.00"));
+        productService.updateBulkPricing(1L, Map.of(20, new BigDecimal("85.00"), 5, new BigDecimal("92.50")));
+
+        assertEquals(new BigDecimal("95.00"), productService.calculateEffectivePrice(1L, 1));
+        assertEquals(new BigDecimal("92.50"), productService.calculateEffectivePrice(1L, 19));
+        assertEquals(new BigDecimal("85.00"), productService.calculateEffectivePrice(1L, 50));
+        assertTrue(products.get(1L).getQuantityBreakPricing());
+
+        List<Map<String, Object>> entries = productService.getPriceHistory(1L);
+        assertEquals(2, entries.size());
+        assertEquals("QUANTITY_BREAKS", entries.get(0).get("changeType"));
+        assertEquals(Map.of(5, new BigDecimal("92.50"), 20, new BigDecimal("85.00")), entries.get(0).get("quantityBreaks"));
+        assertEquals("UNIT_PRICE", entries.get(1).get("changeType"));
+        assertEquals(new BigDecimal("95.00"), entries.get(1).get("unitPrice"));
+        assertEquals("5:92.50;20:85.00", history.get(0).getQuantityBreaks());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid quantity breaks without writing")
+    void testInvalidBreaksRejected() {
+        products.put(1L, tieredProduct(1L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.updateBulkPricing(1L, Map.of(0, new BigDecimal("10.00"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.updatePrice(1L, BigDecimal.ZERO));
+        verify(productRepository, never()).save(any());
+        assertTrue(history.isEmpty());
+    }
+
+    private Product tieredProduct(Long id) {
+        Product product = product(id, "100.00");
+        Map<Integer, BigDecimal> breaks = new HashMap<>();
+        breaks.put(10, new BigDecimal("90.00"));
+        breaks.put(50, new BigDecimal("80.00"));
+        breaks.put(100, new BigDecimal("70.00"));
+        product.setQuantityBreaks(breaks);
+        product.setQuantityBreakPricing(true);
+        return product;
+    }
+
+    private Product product(Long id, String unitPrice) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductName("Product " + id);
+        product.setUnitPrice(new BigDecimal(unitPrice));
+        product.setQuantityBreaks(new HashMap<>());
+        return product;
+    }
+}
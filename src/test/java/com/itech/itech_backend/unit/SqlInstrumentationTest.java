@@ -0,0 +1,141 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.support.sql.InstrumentedDataSource;
+import com.itech.itech_backend.support.sql.SqlCapture;
+import com.itech.itech_backend.support.sql.SqlRecorder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL instrumentation tests
+ * Runs the counting DataSource over an in-memory H2 database
+ */
+@DisplayName("SQL Instrumentation Unit Tests")
+public class SqlInstrumentationTest {
+
+    private InstrumentedDataSource dataSource;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql_instrumentation;DB_CLOSE_DELAY=-1");
+        dataSource = new InstrumentedDataSource(h2);
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE vendors (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("INSERT INTO vendors VALUES (1, 'Acme'), (2, 'Globex'), (3, 'Initech'), (4, 'Umbrella')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE vendors");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should count statements only while a capture is open")
+    void testCountsInsideCapture() throws SQLException {
+        loadAll();
+
+        SqlCapture capture = SqlRecorder.start("GET /vendors");
+        loadAll();
+        loadAll();
+        SqlRecorder.stop(capture);
+        loadAll();
+
+        assertEquals(2, capture.getStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should flag a query repeated once per row as N+1")
+    void testDetectsRepeatedShape() throws SQLException {
+        SqlCapture capture = SqlRecorder.start("GET /vendors/names");
+        loadAll();
+        loadOneByOne(List.of(1L, 2L, 3L, 4L));
+        SqlRecorder.stop(capture);
+
+        List<SqlCapture.RepeatedShape> repeated = capture.repeatedShapes(3);
+        assertEquals(1, repeated.size());
+        assertEquals(4, repeated.get(0).count());
+        assertEquals("select name from vendors where id = ?", repeated.get(0).shape());
+        assertTrue(repeated.get(0).callSites().iterator().next().startsWith("SqlInstrumentationTest.loadOneByOne:"));
+        assertTrue(capture.describe(3).contains("N+1: 4 x select name from vendors where id = ?"));
+    }
+
+    @Test
+    @DisplayName("Should attribute statements to the calling method")
+    void testAttributesCallSites() throws SQLException {
+        SqlCapture capture = SqlRecorder.start("GET /vendors");
+        loadAll();
+        loadOneByOne(List.of(1L, 2L));
+        SqlRecorder.stop(capture);
+
+        List<String> sites = List.copyOf(capture.countsByCallSite().keySet());
+        assertEquals(2, sites.size());
+        assertTrue(sites.get(0).startsWith("SqlInstrumentationTest.loadOneByOne:"));
+        assertTrue(sites.get(1).startsWith("SqlInstrumentationTest.loadAll:"));
+    }
+
+    @Test
+    @DisplayName("Should record nested request captures in the enclosing capture too")
+    void testNestedCaptures() throws SQLException {
+        SqlCapture test = SqlRecorder.start("VendorTest.listVendors");
+        SqlCapture first = SqlRecorder.start("GET /vendors");
+        loadAll();
+        SqlRecorder.stop(first);
+        SqlCapture second = SqlRecorder.start("GET /vendors/1");
+        loadOneByOne(List.of(1L));
+        SqlRecorder.stop(second);
+        SqlRecorder.stop(test);
+
+        assertEquals(List.of(first, second), test.getChildren());
+        assertEquals(2, test.getStatementCount());
+        assertEquals(1, first.getStatementCount());
+        assertEquals(1, second.getStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should give the same shape to queries differing only in literals or IN list length")
+    void testShapeNormalization() {
+        assertEquals(SqlRecorder.shapeOf("SELECT * FROM vendors WHERE id = 7 AND name = 'Acme'"),
+                SqlRecorder.shapeOf("select *  from vendors\n where id = ? and name = ?"));
+        assertEquals(SqlRecorder.shapeOf("select * from products p1_0 where p1_0.vendor_id in (?, ?, ?)"),
+                SqlRecorder.shapeOf("select * from products p1_0 where p1_0.vendor_id in (?)"));
+        assertNotEquals(SqlRecorder.shapeOf("select * from vendors where id = ?"),
+                SqlRecorder.shapeOf("select * from products where id = ?"));
+    }
+
+    private void loadAll() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id, name FROM vendors");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                rows.getString("name");
+            }
+        }
+    }
+
+    private void loadOneByOne(List<Long> ids) throws SQLException {
+        for (Long id : ids) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT name FROM vendors WHERE id = ?")) {
+                statement.setLong(1, id);
+                statement.executeQuery().close();
+            }
+        }
+    }
+}
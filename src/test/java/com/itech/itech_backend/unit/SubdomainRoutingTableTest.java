@@ -0,0 +1,130 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.SubdomainProperties;
+import com.itech.itech_backend.service.SubdomainRoutingTable;
+import com.itech.itech_backend.service.SubdomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Subdomain routing table tests
+ * Resolves configured, storefront, dev and foreign hosts through the
+ * compiled table and the service built on it
+ */
+@DisplayName("Subdomain Routing Table Unit Tests")
+public class SubdomainRoutingTableTest {
+
+    private SubdomainProperties properties;
+    private SubdomainService subdomainService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SubdomainProperties();
+        properties.setBaseDomain("example.com");
+        properties.setReservedSubdomains(List.of("admin", "api"));
+        SubdomainProperties.SubdomainConfig vendor = new SubdomainProperties.SubdomainConfig();
+        vendor.setName("vendor");
+        vendor.setCustomHeaders(Map.of("X-Portal", "vendor"));
+        properties.setSubdomains(Map.of("vendor", vendor));
+        subdomainService = new SubdomainService(properties);
+    }
+
+    @Test
+    @DisplayName("Should route configured subdomains by exact host, ignoring case and port")
+    void testConfiguredSubdomain() {
+        SubdomainService.SubdomainContext context = subdomainService.getSubdomainContext(request("Vendor.Example.com:8443"));
+
+        assertEquals("vendor", context.getSubdomain());
+        assertTrue(context.isHasSubdomain());
+        assertTrue(context.isValid());
+        assertEquals("vendor", context.getConfig().getCustomHeaders().get("X-Portal"));
+        assertEquals("Vendor.Example.com:8443", context.getHost());
+        assertEquals("http://vendor.localhost:3000, https://vendor.localhost:3000, http://vendor.example.com, "
+                + "https://vendor.example.com, http://localhost:3000, https://example.com", context.getCorsOriginsHeader());
+    }
+
+    @Test
+    @DisplayName("Should route any storefront under the base domain through the wildcard suffix")
+    void testWildcardSubdomains() {
+        SubdomainRoutingTable table = SubdomainRoutingTable.compile(properties);
+
+        SubdomainRoutingTable.Route storefront = table.resolve("acme.example.com");
+        assertEquals("acme", storefront.subdomain());
+        assertTrue(storefront.valid());
+        assertNull(storefront.config());
+        assertSame(storefront, table.resolve("ACME.example.com:443"));
+        assertEquals(1, table.cachedHosts());
+
+        // Multi-level hosts take their first label
+        assertEquals("shop", table.resolve("shop.acme.example.com").subdomain());
+        assertEquals("vendor", table.resolve("vendor.localhost:3000").subdomain());
+
+        assertFalse(table.resolve("admin.example.com").valid());
+        assertFalse(table.resolve("-bad.example.com").valid());
+
+        assertFalse(table.resolve("example.com").hasSubdomain());
+        assertFalse(table.resolve("www.example.com").hasSubdomain());
+        assertFalse(table.resolve("www.localhost:3000").hasSubdomain());
+        assertFalse(table.resolve("localhost:8080").hasSubdomain());
+        assertFalse(table.resolve("acme.example.org").hasSubdomain());
+        assertFalse(table.resolve("notexample.com").hasSubdomain());
+        assertFalse(table.resolve(null).hasSubdomain());
+    }
+
+    @Test
+    @DisplayName("Should prefer the first forwarded host behind a proxy")
+    void testForwardedHost() {
+        MockHttpServletRequest request = request("internal-lb:8080");
+        request.addHeader("X-Forwarded-Host", "acme.example.com, internal-lb");
+
+        assertEquals("acme", subdomainService.extractSubdomain(request).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should hand out copies of the precomputed CORS origins")
+    void testCorsOrigins() {
+        String[] origins = subdomainService.generateCorsOrigins("vendor");
+        assertArrayEquals(new String[]{
+            "http://vendor.localhost:3000",
+            "https://vendor.localhost:3000",
+            "http://vendor.example.com",
+            "https://vendor.example.com",
+            "http://localhost:3000",
+            "https://example.com"
+        }, origins);
+
+        origins[0] = "changed";
+        assertEquals("http://vendor.localhost:3000", subdomainService.generateCorsOrigins("vendor")[0]);
+        assertArrayEquals(new String[]{"http://localhost:3000", "https://example.com"},
+                subdomainService.generateCorsOrigins(null));
+    }
+
+    @Test
+    @DisplayName("Should pick up changed configuration on reload")
+    void testReload() {
+        assertNull(subdomainService.getSubdomainContext(request("support.example.com")).getConfig());
+
+        SubdomainProperties.SubdomainConfig support = new SubdomainProperties.SubdomainConfig();
+        support.setName("support");
+        properties.setSubdomains(Map.of("support", support));
+        properties.setReservedSubdomains(List.of("acme"));
+        subdomainService.reload();
+
+        assertSame(support, subdomainService.getSubdomainContext(request("support.example.com")).getConfig());
+        assertFalse(subdomainService.getSubdomainContext(request("acme.example.com")).isValid());
+        assertTrue(subdomainService.getSubdomainConfig("vendor").isEmpty());
+    }
+
+    private static MockHttpServletRequest request(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Host", host);
+        return request;
+    }
+}
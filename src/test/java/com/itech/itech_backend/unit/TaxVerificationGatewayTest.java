@@ -0,0 +1,246 @@
+package com.itech.itech_backend.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import com.itech.itech_backend.modules.shared.repository.TaxVerificationResultRepository;
+import com.itech.itech_backend.modules.shared.service.GstVerificationService;
+import com.itech.itech_backend.modules.shared.service.OutboundHttp;
+import com.itech.itech_backend.modules.shared.service.TaxVerificationGateway;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tax verification gateway tests
+ * Verifies GST numbers against an in-process HTTP mock of the verification API
+ */
+@DisplayName("Tax Verification Gateway Unit Tests")
+public class TaxVerificationGatewayTest {
+
+    private static final String GST_A = "27AAPFU0939F1ZV";
+    private static final String GST_B = "29ABCDE1234F1Z5";
+    private static final String GST_C = "07AAACB1234C1ZX";
+
+    private MockVerificationApi api;
+    private Map<String, TaxVerificationResult> store;
+    private OutboundHttp outboundHttp;
+    private TaxVerificationGateway gateway;
+    private GstVerificationService gstService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new MockVerificationApi();
+        store = new ConcurrentHashMap<>();
+
+        TaxVerificationResultRepository repository = mock(TaxVerificationResultRepository.class);
+        when(repository.findByKindAndNumber(any(), anyString())).thenAnswer(inv ->
+                Optional.ofNullable(store.get(key(inv.getArgument(0), inv.getArgument(1)))));
+        when(repository.findFresh(any(), anyCollection(), any())).thenAnswer(inv -> {
+            TaxVerificationResult.Kind kind = inv.getArgument(0);
+            Collection<String> numbers = inv.getArgument(1);
+            LocalDateTime now = inv.getArgument(2);
+            List<TaxVerificationResult> rows = new ArrayList<>();
+            for (String number : numbers) {
+                TaxVerificationResult row = store.get(key(kind, number));
+                if (row != null && row.getExpiresAt().isAfter(now)) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+        when(repository.save(any(TaxVerificationResult.class))).thenAnswer(inv -> {
+            TaxVerificationResult row = inv.getArgument(0);
+            store.put(key(row.getKind(), row.getNumber()), row);
+            return row;
+        });
+
+        gateway = new TaxVerificationGateway(repository, new ObjectMapper(), 4, 10, 24);
+        outboundHttp = new OutboundHttp(new SimpleMeterRegistry(), new MockEnvironment(), 20, 20, 2000, 30);
+        gstService = new GstVerificationService(gateway, outboundHttp, 5000L);
+        ReflectionTestUtils.setField(gstService, "gstVerificationEnabled", true);
+        ReflectionTestUtils.setField(gstService, "gstApiUrl", "http://localhost:" + api.getPort() + "/gst");
+        ReflectionTestUtils.setField(gstService, "gstApiKey", "test-key");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        gateway.shutdown();
+        outboundHttp.shutdown();
+        api.close();
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent lookups of the same number into one API call")
+    void testConcurrentLookupsCoalesce() {
+        api.hold();
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(gstService.verifyGstNumber(i % 2 == 0 ? GST_A : " " + GST_A.toLowerCase() + " "));
+        }
+        api.release();
+
+        for (CompletableFuture<Map<String, Object>> future : futures) {
+            Map<String, Object> result = future.orTimeout(5, TimeUnit.SECONDS).join();
+            assertEquals(true, result.get("verified"));
+            assertEquals("Test Traders", result.get("legalName"));
+        }
+        assertEquals(1, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should serve repeat lookups from the persistent cache")
+    void testCachedResultSkipsApi() {
+        gstService.verifyGstNumber(GST_A).join();
+        Map<String, Object> second = gstService.verifyGstNumber(GST_A).join();
+
+        assertEquals(1, api.getRequestCount());
+        assertEquals(true, second.get("verified"));
+        assertTrue(store.containsKey(key(TaxVerificationResult.Kind.GST_VERIFY, GST_A)));
+    }
+
+    @Test
+    @DisplayName("Should retry once and not cache fallback results when the API fails")
+    void testFallbackNotCached() {
+        api.failing.set(true);
+        Map<String, Object> first = gstService.verifyGstNumber(GST_A).join();
+        assertEquals(false, first.get("verified"));
+        assertNotNull(first.get("apiError"));
+        assertEquals(2, api.getRequestCount());
+
+        api.failing.set(false);
+        Map<String, Object> second = gstService.verifyGstNumber(GST_A).join();
+        assertEquals(true, second.get("verified"));
+        assertEquals(3, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should verify a bulk import once per distinct uncached number")
+    void testBatchVerification() {
+        gstService.verifyGstNumber(GST_A).join();
+        assertEquals(1, api.getRequestCount());
+
+        Map<String, Map<String, Object>> results = gstService.verifyGstNumbers(
+                List.of(GST_A, GST_B, GST_B.toLowerCase(), GST_C, "INVALID", GST_C)).join();
+
+        assertEquals(4, results.size());
+        assertEquals(false, results.get("INVALID").get("valid"));
+        assertEquals(true, results.get(GST_A).get("verified"));
+        assertEquals(true, results.get(GST_B).get("verified"));
+        assertEquals(true, results.get(GST_C).get("verified"));
+        assertEquals(3, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid formats without calling the API")
+    void testInvalidFormatIsLocal() {
+        Map<String, Object> result = gstService.verifyGstNumber("12345").join();
+
+        assertEquals(false, result.get("valid"));
+        assertEquals(0, api.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should normalize numbers the same way under any default locale")
+    void testNormalizeIgnoresDefaultLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals("29ABCDI1234F1Z5", TaxVerificationGateway.normalize(" 29abcdi1234f1z5 "));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    private static String key(TaxVerificationResult.Kind kind, String number) {
+        return kind + ":" + number;
+    }
+
+    /**
+     * Minimal GST verification API: answers POST /gst/verify, counts requests,
+     * and can hold responses or fail on demand
+     */
+    private static class MockVerificationApi {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        MockVerificationApi() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/gst/verify", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        int getPort() {
+            return server.getAddress().getPort();
+        }
+
+        int getRequestCount() {
+            return requests.get();
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void close() {
+            release();
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            int status = failing.get() ? 500 : 200;
+            byte[] body = (failing.get() ? "{\"error\":\"unavailable\"}"
+                    : "{\"valid\":true,\"legalName\":\"Test Traders\",\"status\":\"Active\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        }
+    }
+}
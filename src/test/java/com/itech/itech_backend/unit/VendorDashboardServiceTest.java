@@ -0,0 +1,157 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.service.ParallelQueries;
+import com.itech.itech_backend.modules.support.repository.ChatRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorDashboardService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Vendor dashboard snapshot tests
+ * Checks caching and invalidation against mocked repositories, and runs the
+ * dashboard CTE on hand-made H2 tables
+ */
+@DisplayName("Vendor Dashboard Service Unit Tests")
+public class VendorDashboardServiceTest {
+
+    private VendorsRepository vendorsRepository;
+    private ChatRepository chatRepository;
+    private VendorDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        vendorsRepository = mock(VendorsRepository.class);
+        chatRepository = mock(ChatRepository.class);
+        dashboardService = new VendorDashboardService(vendorsRepository, chatRepository,
+                new ParallelQueries(true, 0, 10, 5000), 30);
+    }
+
+    @Test
+    @DisplayName("Should serve repeat loads from the snapshot until invalidated")
+    void testSnapshotCachedUntilInvalidated() {
+        when(vendorsRepository.findIdByEmail("vendor@example.com")).thenReturn(Optional.of(7L));
+        List<Object[]> row = Collections.singletonList(
+                new Object[]{3L, 2L, 40L, 5L, 4L, 2L, 1L, new BigDecimal("1500.00"), 900.0, 1L, 6L, 4.5});
+        when(vendorsRepository.aggregateDashboard(eq(7L), any(), any())).thenReturn(row);
+        when(chatRepository.countUnreadMessagesByVendorId(7L)).thenReturn(2L);
+
+        VendorDashboardService.Snapshot snapshot = dashboardService.getSnapshot("vendor@example.com");
+        assertEquals(3, snapshot.totalProducts());
+        assertEquals(40, snapshot.totalViews());
+        assertEquals(0, new BigDecimal("1500.00").compareTo(snapshot.monthlyRevenue()));
+        assertEquals(0, new BigDecimal("900.0").compareTo(snapshot.previousMonthRevenue()));
+        assertEquals(4.5, snapshot.averageRating());
+        assertEquals(2, snapshot.unreadMessages());
+
+        assertSame(snapshot, dashboardService.getSnapshot("vendor@example.com"));
+        assertSame(snapshot, dashboardService.getSnapshot(7L));
+        verify(vendorsRepository, times(1)).findIdByEmail("vendor@example.com");
+        verify(vendorsRepository, times(1)).aggregateDashboard(eq(7L), any(), any());
+
+        dashboardService.invalidate(7L);
+        assertNotSame(snapshot, dashboardService.getSnapshot(7L));
+        verify(vendorsRepository, times(2)).aggregateDashboard(eq(7L), any(), any());
+        verify(chatRepository, times(2)).countUnreadMessagesByVendorId(7L);
+    }
+
+    @Test
+    @DisplayName("Should fail for unknown vendors and surface query errors instead of mock numbers")
+    void testFailuresPropagate() {
+        when(vendorsRepository.findIdByEmail("nobody@example.com")).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> dashboardService.getSnapshot("nobody@example.com"));
+
+        when(vendorsRepository.aggregateDashboard(eq(8L), any(), any())).thenThrow(new IllegalStateException("down"));
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> dashboardService.getSnapshot(8L));
+        assertEquals("down", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should compute every dashboard counter in one statement")
+    void testDashboardQuery() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:vendor-dashboard;DB_CLOSE_DELAY=-1");
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE buyer_products (id BIGINT PRIMARY KEY, vendor_id BIGINT, "
+                    + "is_active BOOLEAN, view_count INT)");
+            statement.execute("CREATE TABLE buyer_orders (id BIGINT PRIMARY KEY, status VARCHAR(20), created_at TIMESTAMP)");
+            statement.execute("CREATE TABLE buyer_order_items (id BIGINT PRIMARY KEY, order_id BIGINT, vendor_id BIGINT, "
+                    + "price DOUBLE, quantity INT)");
+            statement.execute("CREATE TABLE quotes (id BIGINT PRIMARY KEY, vendor_id BIGINT, is_accepted BOOLEAN)");
+            statement.execute("CREATE TABLE buyer_inquiries (id BIGINT PRIMARY KEY, product_id BIGINT)");
+            statement.execute("CREATE TABLE reviews (id BIGINT PRIMARY KEY, vendor_id BIGINT, rating INT, is_approved BOOLEAN)");
+
+            statement.execute("INSERT INTO buyer_products VALUES (1, 1, TRUE, 10), (2, 1, FALSE, 5), (3, 2, TRUE, 99)");
+            NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(h2);
+            insertOrder(jdbc, 10, "DELIVERED", monthStart.plusHours(1));
+            insertOrder(jdbc, 11, "PENDING", monthStart.minusDays(3));
+            insertOrder(jdbc, 12, "DELIVERED", monthStart.minusMonths(3));
+            // Order 10 has two lines from vendor 1 and one from vendor 2
+            statement.execute("INSERT INTO buyer_order_items VALUES (1, 10, 1, 100.0, 2), (2, 10, 1, 50.0, 1), "
+                    + "(3, 10, 2, 999.0, 1), (4, 11, 1, 30.0, 1), (5, 12, 1, 10.0, 1)");
+            statement.execute("INSERT INTO quotes VALUES (1, 1, FALSE), (2, 1, TRUE), (3, 2, FALSE)");
+            statement.execute("INSERT INTO buyer_inquiries VALUES (1, 1), (2, 2), (3, 3)");
+            statement.execute("INSERT INTO reviews VALUES (1, 1, 5, TRUE), (2, 1, 4, TRUE), (3, 1, 1, FALSE)");
+
+            String sql = VendorsRepository.class
+                    .getMethod("aggregateDashboard", Long.class, LocalDateTime.class, LocalDateTime.class)
+                    .getAnnotation(Query.class).value();
+            List<Object[]> rows = jdbc.query(sql, new MapSqlParameterSource()
+                    .addValue("vendorId", 1L)
+                    .addValue("monthStart", Timestamp.valueOf(monthStart))
+                    .addValue("previousMonthStart", Timestamp.valueOf(monthStart.minusMonths(1))),
+                    (rs, i) -> {
+                        Object[] row = new Object[12];
+                        for (int column = 0; column < row.length; column++) {
+                            row[column] = rs.getObject(column + 1);
+                        }
+                        return row;
+                    });
+
+            when(vendorsRepository.aggregateDashboard(eq(1L), any(), any())).thenReturn(rows);
+            VendorDashboardService.Snapshot snapshot = dashboardService.getSnapshot(1L);
+            assertEquals(2, snapshot.totalProducts());
+            assertEquals(1, snapshot.activeProducts());
+            assertEquals(15, snapshot.totalViews());
+            assertEquals(3, snapshot.totalOrders());
+            assertEquals(2, snapshot.completedOrders());
+            assertEquals(1, snapshot.monthlyOrders());
+            assertEquals(1, snapshot.previousMonthOrders());
+            assertEquals(0, new BigDecimal("250").compareTo(snapshot.monthlyRevenue()));
+            assertEquals(0, new BigDecimal("30").compareTo(snapshot.previousMonthRevenue()));
+            assertEquals(1, snapshot.pendingQuotes());
+            assertEquals(2, snapshot.totalInquiries());
+            assertEquals(4.5, snapshot.averageRating(), 0.0001);
+
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private static void insertOrder(NamedParameterJdbcTemplate jdbc, long id, String status, LocalDateTime createdAt) {
+        jdbc.update("INSERT INTO buyer_orders VALUES (:id, :status, :createdAt)", new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("status", status)
+                .addValue("createdAt", Timestamp.valueOf(createdAt)));
+    }
+}